@@ -0,0 +1,26 @@
+#!/bin/bash
+
+# Training run of the application class-data-sharing archive, see the aot-cds Maven profile.
+# usage: train.sh IMAGE OUTPUT_DIR
+#
+# Starts the application of IMAGE with the class path and AOT setting of its entrypoint, against the services of
+# src/main/docker/services.yml, and stops it once the application context is refreshed. The classes loaded until
+# then are dumped to OUTPUT_DIR/app.jsa. Liquibase runs against the local database as on a normal start.
+
+set -euo pipefail
+
+image="$1"
+output="$2"
+
+mkdir -p "${output}"
+rm -f "${output}/app.jsa"
+docker compose -f "$(dirname "$0")/../services.yml" up -d --wait
+
+docker run --rm --network host --user "$(id -u):$(id -g)" -v "${output}:/app/cds" --entrypoint bash "${image}" -c \
+    'exec java -XX:ArchiveClassesAtExit=/app/cds/app.jsa -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -noverify -Djava.security.egd=file:/dev/./urandom -cp "$(cat /app/jib-classpath-file)" "com.banking.dev.BankApp"'
+
+if [[ ! -s "${output}/app.jsa" ]]; then
+    echo >&2 "error: the training run did not produce ${output}/app.jsa"
+    exit 1
+fi
@@ -36,4 +36,15 @@ file_env 'SPRING_LIQUIBASE_USER'
 file_env 'SPRING_LIQUIBASE_PASSWORD'
 file_env 'JHIPSTER_REGISTRY_PASSWORD'
 
-exec java ${JAVA_OPTS} -noverify -XX:+AlwaysPreTouch -Djava.security.egd=file:/dev/./urandom -cp /app/resources/:/app/classes/:/app/libs/* "com.banking.dev.BankApp"  "$@"
+# Images built with the aot-cds Maven profile
+CLASSPATH_ARG="/app/resources/:/app/classes/:/app/libs/*"
+if [[ -f /app/classes/com/banking/dev/BankApp__ApplicationContextInitializer.class ]]; then
+    JAVA_OPTS="-Dspring.aot.enabled=true ${JAVA_OPTS}"
+fi
+if [[ -f /app/cds/app.jsa ]]; then
+    # the archive is only used with the exact class path of its training run
+    CLASSPATH_ARG="$(cat /app/jib-classpath-file)"
+    JAVA_OPTS="-XX:SharedArchiveFile=/app/cds/app.jsa ${JAVA_OPTS}"
+fi
+
+exec java ${JAVA_OPTS} -noverify -XX:+AlwaysPreTouch -Djava.security.egd=file:/dev/./urandom -cp "${CLASSPATH_ARG}" "com.banking.dev.BankApp"  "$@"
@@ -1,5 +1,8 @@
 package com.banking.dev.config;
 
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +16,108 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Outbox outbox = new Outbox();
+
+    private final Datagen datagen = new Datagen();
+
+    private final TransactionPartitions transactionPartitions = new TransactionPartitions();
+
+    private final Archive archive = new Archive();
+
+    private final ReadReplica readReplica = new ReadReplica();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final ReactiveReads reactiveReads = new ReactiveReads();
+
+    private final WarmUp warmUp = new WarmUp();
+
+    private final Cache cache = new Cache();
+
+    private final Batch batch = new Batch();
+
+    private final JobLock jobLock = new JobLock();
+
+    private final Audit audit = new Audit();
+
+    private final Velocity velocity = new Velocity();
+
+    private final Ledger ledger = new Ledger();
+
+    private final GroupCommit groupCommit = new GroupCommit();
+
+    private final IdempotencyKeys idempotencyKeys = new IdempotencyKeys();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Datagen getDatagen() {
+        return datagen;
+    }
+
+    public TransactionPartitions getTransactionPartitions() {
+        return transactionPartitions;
+    }
+
+    public Archive getArchive() {
+        return archive;
+    }
+
+    public ReadReplica getReadReplica() {
+        return readReplica;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public ReactiveReads getReactiveReads() {
+        return reactiveReads;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public JobLock getJobLock() {
+        return jobLock;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public Velocity getVelocity() {
+        return velocity;
+    }
+
+    public Ledger getLedger() {
+        return ledger;
+    }
+
+    public GroupCommit getGroupCommit() {
+        return groupCommit;
+    }
+
+    public IdempotencyKeys getIdempotencyKeys() {
+        return idempotencyKeys;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +132,1186 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Outbox {
+
+        private boolean enabled = true;
+
+        private long pollIntervalMs = 500;
+
+        private int batchSize = 200;
+
+        private int maxBatchesPerRun = 20;
+
+        private boolean deleteAfterPublish = true;
+
+        private long publishedRetentionSeconds = 86400;
+
+        private final Sinks sinks = new Sinks();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getPollIntervalMs() {
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxBatchesPerRun() {
+            return maxBatchesPerRun;
+        }
+
+        public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+            this.maxBatchesPerRun = maxBatchesPerRun;
+        }
+
+        public boolean isDeleteAfterPublish() {
+            return deleteAfterPublish;
+        }
+
+        public void setDeleteAfterPublish(boolean deleteAfterPublish) {
+            this.deleteAfterPublish = deleteAfterPublish;
+        }
+
+        public long getPublishedRetentionSeconds() {
+            return publishedRetentionSeconds;
+        }
+
+        public void setPublishedRetentionSeconds(long publishedRetentionSeconds) {
+            this.publishedRetentionSeconds = publishedRetentionSeconds;
+        }
+
+        public Sinks getSinks() {
+            return sinks;
+        }
+
+        public static class Sinks {
+
+            private final Listener listener = new Listener();
+
+            private final File file = new File();
+
+            private final Redis redis = new Redis();
+
+            public Listener getListener() {
+                return listener;
+            }
+
+            public File getFile() {
+                return file;
+            }
+
+            public Redis getRedis() {
+                return redis;
+            }
+        }
+
+        public static class Listener {
+
+            private boolean enabled = true;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+
+        public static class File {
+
+            private boolean enabled = false;
+
+            private String path = "target/outbox/events.jsonl";
+
+            private boolean fsync = false;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+
+            public boolean isFsync() {
+                return fsync;
+            }
+
+            public void setFsync(boolean fsync) {
+                this.fsync = fsync;
+            }
+        }
+
+        public static class Redis {
+
+            private boolean enabled = false;
+
+            private String streamName = "bankApp:outbox";
+
+            private int maxLength = 100000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getStreamName() {
+                return streamName;
+            }
+
+            public void setStreamName(String streamName) {
+                this.streamName = streamName;
+            }
+
+            public int getMaxLength() {
+                return maxLength;
+            }
+
+            public void setMaxLength(int maxLength) {
+                this.maxLength = maxLength;
+            }
+        }
+    }
+
+    public static class Datagen {
+
+        private long seed = 42;
+
+        private int banks = 20;
+
+        private int accounts = 100_000;
+
+        private long transactions = 1_000_000;
+
+        private double hotAccountRatio = 0.01;
+
+        private double hotAccountTrafficShare = 0.5;
+
+        private double zipfExponent = 1.1;
+
+        private int historyMonths = 12;
+
+        private boolean exitOnCompletion = true;
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public void setSeed(long seed) {
+            this.seed = seed;
+        }
+
+        public int getBanks() {
+            return banks;
+        }
+
+        public void setBanks(int banks) {
+            this.banks = banks;
+        }
+
+        public int getAccounts() {
+            return accounts;
+        }
+
+        public void setAccounts(int accounts) {
+            this.accounts = accounts;
+        }
+
+        public long getTransactions() {
+            return transactions;
+        }
+
+        public void setTransactions(long transactions) {
+            this.transactions = transactions;
+        }
+
+        public double getHotAccountRatio() {
+            return hotAccountRatio;
+        }
+
+        public void setHotAccountRatio(double hotAccountRatio) {
+            this.hotAccountRatio = hotAccountRatio;
+        }
+
+        public double getHotAccountTrafficShare() {
+            return hotAccountTrafficShare;
+        }
+
+        public void setHotAccountTrafficShare(double hotAccountTrafficShare) {
+            this.hotAccountTrafficShare = hotAccountTrafficShare;
+        }
+
+        public double getZipfExponent() {
+            return zipfExponent;
+        }
+
+        public void setZipfExponent(double zipfExponent) {
+            this.zipfExponent = zipfExponent;
+        }
+
+        public int getHistoryMonths() {
+            return historyMonths;
+        }
+
+        public void setHistoryMonths(int historyMonths) {
+            this.historyMonths = historyMonths;
+        }
+
+        public boolean isExitOnCompletion() {
+            return exitOnCompletion;
+        }
+
+        public void setExitOnCompletion(boolean exitOnCompletion) {
+            this.exitOnCompletion = exitOnCompletion;
+        }
+    }
+
+    public static class TransactionPartitions {
+
+        private boolean enabled = true;
+
+        private String cron = "0 0 3 * * ?";
+
+        private int monthsAhead = 3;
+
+        private int retentionMonths = 24;
+
+        private boolean dropDetached = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getMonthsAhead() {
+            return monthsAhead;
+        }
+
+        public void setMonthsAhead(int monthsAhead) {
+            this.monthsAhead = monthsAhead;
+        }
+
+        public int getRetentionMonths() {
+            return retentionMonths;
+        }
+
+        public void setRetentionMonths(int retentionMonths) {
+            this.retentionMonths = retentionMonths;
+        }
+
+        public boolean isDropDetached() {
+            return dropDetached;
+        }
+
+        public void setDropDetached(boolean dropDetached) {
+            this.dropDetached = dropDetached;
+        }
+    }
+
+    public static class Archive {
+
+        private boolean enabled = false;
+
+        private String directory = "target/archive";
+
+        private String cron = "0 30 3 * * ?";
+
+        private int cutoffMonths = 12;
+
+        private int blockRows = 4096;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getCutoffMonths() {
+            return cutoffMonths;
+        }
+
+        public void setCutoffMonths(int cutoffMonths) {
+            this.cutoffMonths = cutoffMonths;
+        }
+
+        public int getBlockRows() {
+            return blockRows;
+        }
+
+        public void setBlockRows(int blockRows) {
+            this.blockRows = blockRows;
+        }
+    }
+
+    public static class ReadReplica {
+
+        private boolean enabled = false;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+
+    public static class RateLimit {
+
+        private boolean enabled = true;
+
+        private final Map<String, EndpointClass> endpointClasses = new HashMap<>(Map.of("money-movement", new EndpointClass()));
+
+        /** The most tokens an instance takes from the shared bucket at once, to admit the next requests locally. */
+        private long leaseTokens = 5;
+
+        /** How long the tokens taken and not used yet stay usable by the instance. */
+        private long leaseMillis = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getLeaseTokens() {
+            return leaseTokens;
+        }
+
+        public void setLeaseTokens(long leaseTokens) {
+            this.leaseTokens = leaseTokens;
+        }
+
+        public long getLeaseMillis() {
+            return leaseMillis;
+        }
+
+        public void setLeaseMillis(long leaseMillis) {
+            this.leaseMillis = leaseMillis;
+        }
+
+        public Map<String, EndpointClass> getEndpointClasses() {
+            return endpointClasses;
+        }
+
+        /**
+         * A token bucket: up to {@code capacity} requests in a burst, refilled at {@code refillPerSecond}.
+         */
+        public static class Limit {
+
+            private long capacity = 20;
+
+            private double refillPerSecond = 10;
+
+            public long getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(long capacity) {
+                this.capacity = capacity;
+            }
+
+            public double getRefillPerSecond() {
+                return refillPerSecond;
+            }
+
+            public void setRefillPerSecond(double refillPerSecond) {
+                this.refillPerSecond = refillPerSecond;
+            }
+        }
+
+        /**
+         * The default limit of an endpoint class, and the limits of specific authorities.
+         */
+        public static class EndpointClass extends Limit {
+
+            private final Map<String, Limit> authorities = new HashMap<>();
+
+            public Map<String, Limit> getAuthorities() {
+                return authorities;
+            }
+        }
+    }
+
+    public static class ReactiveReads {
+
+        private boolean enabled = false;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int initialSize = 2;
+
+        private int maxSize = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getInitialSize() {
+            return initialSize;
+        }
+
+        public void setInitialSize(int initialSize) {
+            this.initialSize = initialSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class WarmUp {
+
+        private boolean enabled = true;
+
+        private int hotAccounts = 100;
+
+        private int hotAccountWindowHours = 24;
+
+        private int iterations = 20_000;
+
+        private long timeoutSeconds = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getHotAccounts() {
+            return hotAccounts;
+        }
+
+        public void setHotAccounts(int hotAccounts) {
+            this.hotAccounts = hotAccounts;
+        }
+
+        public int getHotAccountWindowHours() {
+            return hotAccountWindowHours;
+        }
+
+        public void setHotAccountWindowHours(int hotAccountWindowHours) {
+            this.hotAccountWindowHours = hotAccountWindowHours;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+
+        public long getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public void setTimeoutSeconds(long timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+    }
+
+    public static class Cache {
+
+        private final Map<String, Policy> policies = new HashMap<>();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public Map<String, Policy> getPolicies() {
+            return policies;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        /**
+         * The Redis pub/sub topic evicting the local cache tiers of the other instances.
+         */
+        public static class Invalidation {
+
+            private String topic = "bankApp:cache-invalidation";
+
+            private long batchWindowMs = 5;
+
+            private long heartbeatMs = 1000;
+
+            private long maxStalenessMs = 5000;
+
+            public String getTopic() {
+                return topic;
+            }
+
+            public void setTopic(String topic) {
+                this.topic = topic;
+            }
+
+            public long getBatchWindowMs() {
+                return batchWindowMs;
+            }
+
+            public void setBatchWindowMs(long batchWindowMs) {
+                this.batchWindowMs = batchWindowMs;
+            }
+
+            public long getHeartbeatMs() {
+                return heartbeatMs;
+            }
+
+            public void setHeartbeatMs(long heartbeatMs) {
+                this.heartbeatMs = heartbeatMs;
+            }
+
+            public long getMaxStalenessMs() {
+                return maxStalenessMs;
+            }
+
+            public void setMaxStalenessMs(long maxStalenessMs) {
+                this.maxStalenessMs = maxStalenessMs;
+            }
+        }
+
+        /**
+         * How one cache is stored: in Redis only, or also in a near cache on each instance.
+         */
+        public static class Policy {
+
+            private boolean local = false;
+
+            /** 0 uses {@code jhipster.cache.redis.expiration}. */
+            private long ttlSeconds = 0;
+
+            /** 0 is unbounded. */
+            private int maxEntries = 0;
+
+            /** Fraction of the TTL after which a hit reloads the entry, 0 disables refresh-ahead. Local caches only. */
+            private double refreshAheadRatio = 0;
+
+            /** Whether misses also load under a Redisson lock on the key, once across instances. Local caches only. */
+            private boolean clusterSingleFlight = false;
+
+            public boolean isLocal() {
+                return local;
+            }
+
+            public void setLocal(boolean local) {
+                this.local = local;
+            }
+
+            public long getTtlSeconds() {
+                return ttlSeconds;
+            }
+
+            public void setTtlSeconds(long ttlSeconds) {
+                this.ttlSeconds = ttlSeconds;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public double getRefreshAheadRatio() {
+                return refreshAheadRatio;
+            }
+
+            public void setRefreshAheadRatio(double refreshAheadRatio) {
+                this.refreshAheadRatio = refreshAheadRatio;
+            }
+
+            public boolean isClusterSingleFlight() {
+                return clusterSingleFlight;
+            }
+
+            public void setClusterSingleFlight(boolean clusterSingleFlight) {
+                this.clusterSingleFlight = clusterSingleFlight;
+            }
+        }
+    }
+
+    public static class Batch {
+
+        private int chunkSize = 500;
+
+        private long pauseBetweenChunksMs = 0;
+
+        /** 0 runs a job to completion; otherwise the next run resumes from the checkpoint. */
+        private int maxChunksPerRun = 0;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getPauseBetweenChunksMs() {
+            return pauseBetweenChunksMs;
+        }
+
+        public void setPauseBetweenChunksMs(long pauseBetweenChunksMs) {
+            this.pauseBetweenChunksMs = pauseBetweenChunksMs;
+        }
+
+        public int getMaxChunksPerRun() {
+            return maxChunksPerRun;
+        }
+
+        public void setMaxChunksPerRun(int maxChunksPerRun) {
+            this.maxChunksPerRun = maxChunksPerRun;
+        }
+    }
+
+    public static class JobLock {
+
+        private boolean enabled = true;
+
+        /** Renewed every third of it while the job runs. */
+        private long leaseSeconds = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(long leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+    }
+
+    public static class Audit {
+
+        /**
+         * What a change waits for before its caller gets the response.
+         */
+        public enum Durability {
+            /** Nothing: a record that finds the buffer full is dropped. */
+            FIRE_AND_FORGET,
+            /** Room in the buffer, for up to {@code wait-timeout-ms}, before the record is dropped. */
+            BLOCK_WHEN_FULL,
+            /** The insert of its records, in the change's transaction, before it commits. */
+            FLUSH_ON_COMMIT,
+        }
+
+        private boolean enabled = true;
+
+        /** Records buffered in memory, rounded up to a power of two. */
+        private int capacity = 65536;
+
+        private int batchSize = 500;
+
+        private long flushIntervalMs = 200;
+
+        private Durability durability = Durability.BLOCK_WHEN_FULL;
+
+        private long waitTimeoutMs = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public Durability getDurability() {
+            return durability;
+        }
+
+        public void setDurability(Durability durability) {
+            this.durability = durability;
+        }
+
+        public long getWaitTimeoutMs() {
+            return waitTimeoutMs;
+        }
+
+        public void setWaitTimeoutMs(long waitTimeoutMs) {
+            this.waitTimeoutMs = waitTimeoutMs;
+        }
+    }
+
+    public static class Velocity {
+
+        private boolean enabled = true;
+
+        private long windowHours = 24;
+
+        /** The window is rolled in this many steps. */
+        private int buckets = 24;
+
+        private final Rule withdrawal = new Rule();
+
+        private final Rule transfer = new Rule();
+
+        /** Publishes the movements of each instance to the others over a Redis topic. */
+        private boolean shared = false;
+
+        private String topic = "bankApp:velocity";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getWindowHours() {
+            return windowHours;
+        }
+
+        public void setWindowHours(long windowHours) {
+            this.windowHours = windowHours;
+        }
+
+        public int getBuckets() {
+            return buckets;
+        }
+
+        public void setBuckets(int buckets) {
+            this.buckets = buckets;
+        }
+
+        public Rule getWithdrawal() {
+            return withdrawal;
+        }
+
+        public Rule getTransfer() {
+            return transfer;
+        }
+
+        public boolean isShared() {
+            return shared;
+        }
+
+        public void setShared(boolean shared) {
+            this.shared = shared;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public void setTopic(String topic) {
+            this.topic = topic;
+        }
+
+        /**
+         * The limits of one kind of movement per account over the window; none by default.
+         */
+        public static class Rule {
+
+            /** 0 for no limit. */
+            private int maxCount = 0;
+
+            /** {@code null} for no limit. */
+            private BigDecimal maxAmount;
+
+            public int getMaxCount() {
+                return maxCount;
+            }
+
+            public void setMaxCount(int maxCount) {
+                this.maxCount = maxCount;
+            }
+
+            public BigDecimal getMaxAmount() {
+                return maxAmount;
+            }
+
+            public void setMaxAmount(BigDecimal maxAmount) {
+                this.maxAmount = maxAmount;
+            }
+
+            public boolean isLimited() {
+                return maxCount > 0 || maxAmount != null;
+            }
+        }
+    }
+    public static class Ledger {
+
+        private boolean enabled = false;
+
+        /** Holds one sub-directory per partition, with its journal segments and snapshot. */
+        private String directory = "ledger";
+
+        /** Writer threads; must not change while the directory holds journals. */
+        private int partitions = 4;
+
+        /** Operations applied and journaled per fsync. */
+        private int maxBatch = 256;
+
+        /** Operations waiting per partition before new ones are rejected. */
+        private int queueCapacity = 10000;
+
+        private boolean fsync = true;
+
+        private long snapshotEveryRecords = 100_000;
+
+        /** Transaction ids reserved from the sequence at a time. */
+        private int idBlockSize = 1000;
+
+        private int persistBatchSize = 1000;
+
+        private long persistRetryMs = 1000;
+
+        /** Longest wait of a caller for its operation, withdrawn if not started by then. */
+        private long timeoutMs = 5000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(int partitions) {
+            this.partitions = partitions;
+        }
+
+        public int getMaxBatch() {
+            return maxBatch;
+        }
+
+        public void setMaxBatch(int maxBatch) {
+            this.maxBatch = maxBatch;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public boolean isFsync() {
+            return fsync;
+        }
+
+        public void setFsync(boolean fsync) {
+            this.fsync = fsync;
+        }
+
+        public long getSnapshotEveryRecords() {
+            return snapshotEveryRecords;
+        }
+
+        public void setSnapshotEveryRecords(long snapshotEveryRecords) {
+            this.snapshotEveryRecords = snapshotEveryRecords;
+        }
+
+        public int getIdBlockSize() {
+            return idBlockSize;
+        }
+
+        public void setIdBlockSize(int idBlockSize) {
+            this.idBlockSize = idBlockSize;
+        }
+
+        public int getPersistBatchSize() {
+            return persistBatchSize;
+        }
+
+        public void setPersistBatchSize(int persistBatchSize) {
+            this.persistBatchSize = persistBatchSize;
+        }
+
+        public long getPersistRetryMs() {
+            return persistRetryMs;
+        }
+
+        public void setPersistRetryMs(long persistRetryMs) {
+            this.persistRetryMs = persistRetryMs;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+
+    public static class GroupCommit {
+
+        private boolean enabled = false;
+
+        /** How long the first movement of a batch waits for others. */
+        private long windowMs = 2;
+
+        /** Movements per transaction; a full batch is written without waiting for the window. */
+        private int maxBatch = 64;
+
+        /** Threads writing batches, each in its own transaction. */
+        private int writers = 2;
+
+        private int queueCapacity = 10000;
+
+        /** Transaction ids reserved from the sequence at a time. */
+        private int idBlockSize = 1000;
+
+        /** Longest wait of a caller for its movement, withdrawn if not in a batch by then. */
+        private long timeoutMs = 5000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getWindowMs() {
+            return windowMs;
+        }
+
+        public void setWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        public int getMaxBatch() {
+            return maxBatch;
+        }
+
+        public void setMaxBatch(int maxBatch) {
+            this.maxBatch = maxBatch;
+        }
+
+        public int getWriters() {
+            return writers;
+        }
+
+        public void setWriters(int writers) {
+            this.writers = writers;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getIdBlockSize() {
+            return idBlockSize;
+        }
+
+        public void setIdBlockSize(int idBlockSize) {
+            this.idBlockSize = idBlockSize;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+
+    public static class IdempotencyKeys {
+
+        /** How long a client may repeat a money movement with the same key and get the first one back. */
+        private long retentionSeconds = 86400;
+
+        public long getRetentionSeconds() {
+            return retentionSeconds;
+        }
+
+        public void setRetentionSeconds(long retentionSeconds) {
+            this.retentionSeconds = retentionSeconds;
+        }
+    }
+
     // jhipster-needle-application-properties-property-class
 }
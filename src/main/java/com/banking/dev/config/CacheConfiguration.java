@@ -1,19 +1,22 @@
 package com.banking.dev.config;
 
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import java.net.URI;
-import java.util.concurrent.TimeUnit;
-import javax.cache.configuration.MutableConfiguration;
-import javax.cache.expiry.CreatedExpiryPolicy;
-import javax.cache.expiry.Duration;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
 import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
 import org.redisson.config.SingleServerConfig;
-import org.redisson.jcache.configuration.RedissonConfiguration;
+import org.redisson.spring.cache.RedissonCacheMeterBinderProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
@@ -28,10 +31,8 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
-    @Bean
-    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(JHipsterProperties jHipsterProperties) {
-        MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
-
+    @Bean(destroyMethod = "shutdown")
+    public RedissonClient redissonClient(JHipsterProperties jHipsterProperties) {
         URI redisUri = URI.create(jHipsterProperties.getCache().getRedis().getServer()[0]);
 
         Config config = new Config();
@@ -58,34 +59,51 @@ public class CacheConfiguration {
                 singleServerConfig.setPassword(redisUri.getUserInfo().substring(redisUri.getUserInfo().indexOf(':') + 1));
             }
         }
-        jcacheConfig.setStatisticsEnabled(true);
-        jcacheConfig.setExpiryPolicyFactory(
-            CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, jHipsterProperties.getCache().getRedis().getExpiration()))
+        return Redisson.create(config);
+    }
+
+    /**
+     * Caches with their {@code application.cache.policies} entry; the other caches listed here get the default policy.
+     */
+    @Bean
+    public CacheManager cacheManager(
+        RedissonClient redissonClient,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        Map<String, ApplicationProperties.Cache.Policy> policies = new LinkedHashMap<>();
+        addCache(policies, com.banking.dev.repository.UserRepository.USERS_BY_LOGIN_CACHE);
+        addCache(policies, com.banking.dev.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+        addCache(policies, com.banking.dev.repository.UserRepository.USER_COUNTS_CACHE);
+        addCache(policies, com.banking.dev.domain.Authority.class.getName());
+        addCache(policies, com.banking.dev.repository.AuthorityRepository.AUTHORITIES_CACHE);
+        // jhipster-needle-redis-add-entry
+        policies.putAll(applicationProperties.getCache().getPolicies());
+        return new TieredCacheManager(
+            redissonClient,
+            policies,
+            Duration.ofSeconds(jHipsterProperties.getCache().getRedis().getExpiration()),
+            new CacheInvalidationBus(redissonClient, applicationProperties.getCache().getInvalidation())
         );
-        return RedissonConfiguration.fromInstance(Redisson.create(config), jcacheConfig);
     }
 
     @Bean
-    public JCacheManagerCustomizer cacheManagerCustomizer(javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration) {
-        return cm -> {
-            createCache(cm, com.banking.dev.repository.UserRepository.USERS_BY_LOGIN_CACHE, jcacheConfiguration);
-            createCache(cm, com.banking.dev.repository.UserRepository.USERS_BY_EMAIL_CACHE, jcacheConfiguration);
-            createCache(cm, com.banking.dev.domain.Authority.class.getName(), jcacheConfiguration);
-            // jhipster-needle-redis-add-entry
+    public RedissonCacheMeterBinderProvider redissonCacheMeterBinderProvider() {
+        return new RedissonCacheMeterBinderProvider();
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<?> nearCacheMeterBinderProvider() {
+        return new CacheMeterBinderProvider<NearCache>() {
+            @Override
+            public MeterBinder getMeterBinder(NearCache cache, Iterable<Tag> tags) {
+                return new NearCache.Metrics(cache, tags);
+            }
         };
     }
 
-    private void createCache(
-        javax.cache.CacheManager cm,
-        String cacheName,
-        javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration
-    ) {
-        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
-        if (cache != null) {
-            cache.clear();
-        } else {
-            cm.createCache(cacheName, jcacheConfiguration);
-        }
+    private void addCache(Map<String, ApplicationProperties.Cache.Policy> policies, String cacheName) {
+        policies.put(cacheName, new ApplicationProperties.Cache.Policy());
     }
 
     @Autowired(required = false)
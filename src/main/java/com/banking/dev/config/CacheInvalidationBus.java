@@ -0,0 +1,245 @@
+package com.banking.dev.config;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.StatusListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Carries the evictions of the local cache tiers between instances over a Redis pub/sub topic.
+ * <p>
+ * Evictions are coalesced per cache and key and published in one batch every {@code batch-window-ms}; clearing a
+ * cache supersedes its pending keys. Each instance numbers its batches, and publishes an empty one every
+ * {@code heartbeat-ms} when it had nothing to send. A receiver that sees a gap in an instance's numbering, or that
+ * re-subscribes after a reconnection, may have missed evictions and clears all its local tiers.
+ * <p>
+ * Each instance also receives its own batches: while none came back for {@code max-staleness-ms}, its subscription
+ * is presumed broken, {@link #isHealthy()} is false, the local tiers are cleared and bypassed. Evictions made on
+ * another instance are thus applied here within the batch window plus the delivery time, and local reads are never
+ * staler than {@code max-staleness-ms} when messages are lost.
+ * <p>
+ * Publishing and scheduling run on a dedicated thread, so that the batch window does not depend on the shared
+ * {@code @Scheduled} pool.
+ */
+class CacheInvalidationBus {
+
+    /**
+     * A local cache tier, evicted by the batches of the other instances.
+     */
+    interface LocalTier {
+        void evictLocal(Object key);
+
+        void clearLocal();
+    }
+
+    /**
+     * One batch of evictions from one instance.
+     */
+    static final class Batch implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        final String node;
+        final long sequence;
+        final Map<String, Set<Object>> keys;
+        final Set<String> clearedCaches;
+
+        Batch(String node, long sequence, Map<String, Set<Object>> keys, Set<String> clearedCaches) {
+            this.node = node;
+            this.sequence = sequence;
+            this.keys = keys;
+            this.clearedCaches = clearedCaches;
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final RTopic topic;
+
+    private final ApplicationProperties.Cache.Invalidation config;
+
+    private final LongSupplier nanoTime;
+
+    private final String node = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, List<LocalTier>> tiers = new ConcurrentHashMap<>();
+
+    private final Object pendingLock = new Object();
+
+    private Map<String, Set<Object>> pendingKeys = new HashMap<>();
+
+    private Set<String> pendingClears = new HashSet<>();
+
+    private long sequence;
+
+    private long lastPublishNanos;
+
+    private final ConcurrentMap<String, Long> lastSequences = new ConcurrentHashMap<>();
+
+    private volatile long lastEchoNanos;
+
+    private volatile boolean healthy = true;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private ScheduledExecutorService executor;
+
+    CacheInvalidationBus(RedissonClient redissonClient, ApplicationProperties.Cache.Invalidation config) {
+        this(redissonClient.getTopic(config.getTopic()), config, System::nanoTime);
+    }
+
+    CacheInvalidationBus(RTopic topic, ApplicationProperties.Cache.Invalidation config, LongSupplier nanoTime) {
+        this.topic = topic;
+        this.config = config;
+        this.nanoTime = nanoTime;
+        this.lastEchoNanos = nanoTime.getAsLong();
+        this.lastPublishNanos = lastEchoNanos;
+    }
+
+    void register(String cacheName, LocalTier tier) {
+        tiers.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(tier);
+    }
+
+    void start() {
+        topic.addListener(Batch.class, (channel, batch) -> receive(batch));
+        topic.addListener(
+            new StatusListener() {
+                @Override
+                public void onSubscribe(String channel) {
+                    if (subscribed.getAndSet(true)) {
+                        clearAll("re-subscribed to " + channel);
+                    }
+                }
+
+                @Override
+                public void onUnsubscribe(String channel) {
+                    log.debug("Unsubscribed from {}", channel);
+                }
+            }
+        );
+        lastEchoNanos = nanoTime.getAsLong();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::tick, config.getBatchWindowMs(), config.getBatchWindowMs(), TimeUnit.MILLISECONDS);
+    }
+
+    void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        topic.removeAllListeners();
+    }
+
+    /**
+     * @return whether the local tiers are kept in sync, and may be read.
+     */
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    void invalidate(String cacheName, Object key) {
+        synchronized (pendingLock) {
+            if (!pendingClears.contains(cacheName)) {
+                pendingKeys.computeIfAbsent(cacheName, name -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    void invalidateAll(String cacheName) {
+        synchronized (pendingLock) {
+            pendingKeys.remove(cacheName);
+            pendingClears.add(cacheName);
+        }
+    }
+
+    /**
+     * Publishes the pending evictions, or a heartbeat when due, and checks that the own batches still come back.
+     */
+    void tick() {
+        try {
+            publishPending();
+            checkEcho();
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidation tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void publishPending() {
+        Batch batch;
+        synchronized (pendingLock) {
+            long now = nanoTime.getAsLong();
+            boolean heartbeatDue = now - lastPublishNanos >= Duration.ofMillis(config.getHeartbeatMs()).toNanos();
+            if (pendingKeys.isEmpty() && pendingClears.isEmpty() && !heartbeatDue) {
+                return;
+            }
+            batch = new Batch(node, ++sequence, pendingKeys, pendingClears);
+            pendingKeys = new HashMap<>();
+            pendingClears = new HashSet<>();
+            lastPublishNanos = now;
+        }
+        topic
+            .publishAsync(batch)
+            .whenComplete((receivers, e) -> {
+                if (e != null) {
+                    log.warn("Could not publish cache invalidation batch {}: {}", batch.sequence, e.getMessage());
+                }
+            });
+    }
+
+    private void checkEcho() {
+        boolean echoing = nanoTime.getAsLong() - lastEchoNanos <= Duration.ofMillis(config.getMaxStalenessMs()).toNanos();
+        if (!echoing && healthy) {
+            healthy = false;
+            clearAll("no invalidation batch came back for " + config.getMaxStalenessMs() + " ms");
+        } else if (echoing && !healthy) {
+            log.info("Cache invalidation batches come back again, local cache tiers re-enabled");
+            healthy = true;
+        }
+    }
+
+    void receive(Batch batch) {
+        Long previous = lastSequences.put(batch.node, batch.sequence);
+        if (previous != null && batch.sequence != previous + 1) {
+            clearAll("missed cache invalidation batches " + (previous + 1) + " to " + (batch.sequence - 1) + " of " + batch.node);
+        }
+        if (node.equals(batch.node)) {
+            lastEchoNanos = nanoTime.getAsLong();
+            return;
+        }
+        batch.clearedCaches.forEach(cacheName -> tiers(cacheName).forEach(LocalTier::clearLocal));
+        batch.keys.forEach((cacheName, keys) -> {
+            for (LocalTier tier : tiers(cacheName)) {
+                keys.forEach(tier::evictLocal);
+            }
+        });
+    }
+
+    private List<LocalTier> tiers(String cacheName) {
+        return tiers.getOrDefault(cacheName, List.of());
+    }
+
+    private void clearAll(String reason) {
+        log.warn("Clearing the local cache tiers: {}", reason);
+        tiers.values().forEach(cacheTiers -> cacheTiers.forEach(LocalTier::clearLocal));
+    }
+}
@@ -1,15 +1,62 @@
 package com.banking.dev.config;
 
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Bank;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.service.dto.AccountBalanceDTO;
+import com.banking.dev.service.dto.BankDetailsDTO;
+import com.banking.dev.web.rest.vm.DepositRequest;
+import com.banking.dev.web.rest.vm.TransferRequest;
+import com.banking.dev.web.rest.vm.WithdrawalRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module.Feature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.lang.reflect.Type;
+import java.util.List;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 @Configuration
 public class JacksonConfiguration {
 
+    /**
+     * Request bodies of the busiest endpoints, read with a precompiled {@link ObjectReader}.
+     */
+    static final List<Type> HOT_READ_TYPES = List.of(
+        DepositRequest.class,
+        WithdrawalRequest.class,
+        TransferRequest.class,
+        Transaction.class,
+        Account.class,
+        Bank.class
+    );
+
+    /**
+     * Response bodies of the busiest endpoints, written with a precompiled {@link ObjectWriter}. No single entities,
+     * see {@link PrecompiledObjectCodecs}.
+     */
+    static final List<Type> HOT_WRITE_TYPES = List.of(
+        new TypeReference<List<Transaction>>() {}.getType(),
+        new TypeReference<List<Account>>() {}.getType(),
+        new TypeReference<List<Bank>>() {}.getType(),
+        AccountBalanceDTO.class,
+        BankDetailsDTO.class
+    );
+
     /**
      * Support for Java date and time API.
      *
@@ -32,4 +79,78 @@ public class JacksonConfiguration {
     public Hibernate6Module hibernate6Module() {
         return new Hibernate6Module().configure(Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS, true);
     }
+
+    /**
+     * Replaces reflective getter, setter and constructor calls with generated lambdas.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * JSON, as configured by Spring Boot, with precompiled readers and writers for the hot types.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        PrecompiledObjectCodecs codecs = precompiledObjectCodecs(objectMapper);
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectReader customizeReader(ObjectReader reader, JavaType javaType) {
+                return codecs.reader(reader, javaType);
+            }
+
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+                return codecs.writer(writer, javaType, contentType);
+            }
+        };
+    }
+
+    /**
+     * Binary Smile ({@code application/x-jackson-smile}) representations, negotiated like JSON through the
+     * {@code Accept} and {@code Content-Type} headers.
+     * <p>
+     * The builder is the one Spring Boot uses for the JSON mapper, so the same modules and settings apply.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder) {
+        ObjectMapper objectMapper = jacksonObjectMapperBuilder.factory(new SmileFactory()).build();
+        PrecompiledObjectCodecs codecs = precompiledObjectCodecs(objectMapper);
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectReader customizeReader(ObjectReader reader, JavaType javaType) {
+                return codecs.reader(reader, javaType);
+            }
+
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+                return codecs.writer(writer, javaType, contentType);
+            }
+        };
+    }
+
+    /**
+     * Binary CBOR ({@code application/cbor}) representations, see {@link #smileHttpMessageConverter}.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder) {
+        ObjectMapper objectMapper = jacksonObjectMapperBuilder.factory(new CBORFactory()).build();
+        PrecompiledObjectCodecs codecs = precompiledObjectCodecs(objectMapper);
+        return new MappingJackson2CborHttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectReader customizeReader(ObjectReader reader, JavaType javaType) {
+                return codecs.reader(reader, javaType);
+            }
+
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+                return codecs.writer(writer, javaType, contentType);
+            }
+        };
+    }
+
+    static PrecompiledObjectCodecs precompiledObjectCodecs(ObjectMapper objectMapper) {
+        return new PrecompiledObjectCodecs(objectMapper, HOT_READ_TYPES, HOT_WRITE_TYPES);
+    }
 }
@@ -0,0 +1,379 @@
+package com.banking.dev.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.cache.LRUCacheMap;
+import org.redisson.spring.cache.RedissonCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * A two-tier cache, see {@link TieredCacheManager}: an in-process LRU tier bounded by {@code max-entries} and the
+ * TTL, in front of a remote {@link RedissonCache}.
+ * <p>
+ * Writes and evictions go to both tiers and are published on the {@link CacheInvalidationBus}, which evicts the local
+ * tier of the other instances. While the bus is not healthy, the local tier is bypassed. Local hits return the same
+ * instance to every caller: cached values must be treated as read-only.
+ * <p>
+ * A value read from the remote tier is kept locally only if its key was not invalidated, on this instance or through
+ * the bus, while it was being read: it may predate the invalidation. Invalidations are counted per stripe of keys, so
+ * an invalidation of another key of the same stripe costs a local miss at most.
+ * <p>
+ * {@code @Cacheable(sync = true)} methods load single-flight: on a miss, one caller per key on this instance runs the
+ * method and the concurrent callers wait for its result. With {@code cluster-single-flight}, that caller also takes a
+ * Redisson lock on the key and first re-reads the remote tier, so a value loaded meanwhile by another instance is
+ * reused instead of loaded again.
+ * <p>
+ * With {@code refresh-ahead-ratio}, the first hit on an entry whose local copy is older than that fraction of the TTL
+ * reloads it, while the concurrent callers keep getting the cached value; a failed refresh is logged and the cached
+ * value is returned. The reload runs on the caller's thread, as the loader is the intercepted method invocation, bound
+ * to that thread's transaction and security context. Refreshes are not cluster-wide: the new value evicts the other
+ * instances' copies, which read it from the remote tier.
+ */
+class NearCache extends AbstractValueAdaptingCache implements CacheInvalidationBus.LocalTier {
+
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final Logger log = LoggerFactory.getLogger(NearCache.class);
+
+    private final RedissonCache remote;
+
+    private final RMap<Object, Object> remoteMap;
+
+    private final CacheInvalidationBus bus;
+
+    private final LRUCacheMap<Object, LocalEntry> local;
+
+    private final boolean clusterSingleFlight;
+
+    /** {@link Long#MAX_VALUE} without refresh-ahead. */
+    private final long refreshAfterNanos;
+
+    private final LongSupplier nanoTime;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    private final AtomicLong clears = new AtomicLong();
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder puts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    NearCache(RedissonCache remote, ApplicationProperties.Cache.Policy policy, Duration ttl, CacheInvalidationBus bus) {
+        this(remote, policy, ttl, bus, System::nanoTime);
+    }
+
+    NearCache(
+        RedissonCache remote,
+        ApplicationProperties.Cache.Policy policy,
+        Duration ttl,
+        CacheInvalidationBus bus,
+        LongSupplier nanoTime
+    ) {
+        super(true);
+        this.remote = remote;
+        @SuppressWarnings("unchecked")
+        RMap<Object, Object> remoteMap = (RMap<Object, Object>) remote.getNativeCache();
+        this.remoteMap = remoteMap;
+        this.bus = bus;
+        this.local = new LRUCacheMap<>(policy.getMaxEntries(), ttl.toMillis(), 0);
+        this.clusterSingleFlight = policy.isClusterSingleFlight();
+        this.refreshAfterNanos = policy.getRefreshAheadRatio() > 0
+            ? (long) (ttl.toNanos() * policy.getRefreshAheadRatio())
+            : Long.MAX_VALUE;
+        this.nanoTime = nanoTime;
+        bus.register(getName(), this);
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public RMap<Object, Object> getNativeCache() {
+        return remoteMap;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        LocalEntry entry = localEntry(key);
+        if (entry != null) {
+            localHits.increment();
+            hits.increment();
+            return entry.storeValue;
+        }
+        return lookupRemote(key);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        invalidations.incrementAndGet(stripe(key));
+        putLocal(key, toStoreValue(value));
+        bus.invalidate(getName(), key);
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper previous = remote.putIfAbsent(key, value);
+        evictLocal(key);
+        bus.invalidate(getName(), key);
+        return previous;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(key);
+        bus.invalidate(getName(), key);
+        evictions.increment();
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        evictLocal(key);
+        bus.invalidate(getName(), key);
+        evictions.increment();
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        bus.invalidateAll(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = remote.invalidate();
+        clearLocal();
+        bus.invalidateAll(getName());
+        return present;
+    }
+
+    @Override
+    public void evictLocal(Object key) {
+        invalidations.incrementAndGet(stripe(key));
+        local.remove(key);
+    }
+
+    @Override
+    public void clearLocal() {
+        clears.incrementAndGet();
+        local.clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        LocalEntry entry = localEntry(key);
+        Object storeValue;
+        if (entry != null) {
+            localHits.increment();
+            hits.increment();
+            storeValue = entry.storeValue;
+        } else {
+            storeValue = lookupRemote(key);
+        }
+        if (storeValue == null) {
+            CompletableFuture<Object> load = new CompletableFuture<>();
+            CompletableFuture<Object> running = loads.putIfAbsent(key, load);
+            if (running != null) {
+                try {
+                    return (T) running.join();
+                } catch (CompletionException e) {
+                    throw new ValueRetrievalException(key, valueLoader, e.getCause());
+                }
+            }
+            return (T) load(key, valueLoader, load, clusterSingleFlight);
+        }
+        if (entry != null && nanoTime.getAsLong() - entry.loadedAtNanos >= refreshAfterNanos) {
+            CompletableFuture<Object> refresh = new CompletableFuture<>();
+            if (loads.putIfAbsent(key, refresh) == null) {
+                try {
+                    return (T) load(key, valueLoader, refresh, false);
+                } catch (ValueRetrievalException e) {
+                    log.warn("Refresh-ahead of {} in cache {} failed, serving the cached value: {}", key, getName(), e.getCause().toString());
+                }
+            }
+        }
+        return (T) fromStoreValue(storeValue);
+    }
+
+    long localSize() {
+        return local.size();
+    }
+
+    private LocalEntry localEntry(Object key) {
+        return bus.isHealthy() ? local.get(key) : null;
+    }
+
+    private Object lookupRemote(Object key) {
+        long generation = invalidationGeneration(key);
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        Object storeValue = toStoreValue(wrapper.get());
+        putLocalIfNotInvalidated(key, storeValue, generation);
+        return storeValue;
+    }
+
+    private void putLocal(Object key, Object storeValue) {
+        if (bus.isHealthy()) {
+            local.put(key, new LocalEntry(storeValue, nanoTime.getAsLong()));
+        }
+    }
+
+    /**
+     * Keeps a value read from the remote tier unless the key was invalidated since {@code generation} was taken, before
+     * the read. An invalidation racing with the put either removes the entry itself or is seen by the second check.
+     */
+    private void putLocalIfNotInvalidated(Object key, Object storeValue, long generation) {
+        if (invalidationGeneration(key) != generation) {
+            return;
+        }
+        putLocal(key, storeValue);
+        if (invalidationGeneration(key) != generation) {
+            local.remove(key);
+        }
+    }
+
+    /**
+     * @return a number that increases with every invalidation of the key, and possibly of other keys.
+     */
+    private long invalidationGeneration(Object key) {
+        return clears.get() + invalidations.get(stripe(key));
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, CompletableFuture<Object> load, boolean underLock) {
+        try {
+            Object value = underLock ? loadUnderLock(key, valueLoader) : loadAndPut(key, valueLoader);
+            load.complete(value);
+            return value;
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    private Object loadUnderLock(Object key, Callable<?> valueLoader) throws Exception {
+        RLock lock = remoteMap.getLock(key);
+        lock.lock();
+        try {
+            long generation = invalidationGeneration(key);
+            ValueWrapper loaded = remote.get(key);
+            if (loaded != null) {
+                putLocalIfNotInvalidated(key, toStoreValue(loaded.get()), generation);
+                return loaded.get();
+            }
+            return loadAndPut(key, valueLoader);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) throws Exception {
+        Object value = valueLoader.call();
+        put(key, value);
+        return value;
+    }
+
+    private static final class LocalEntry {
+
+        final Object storeValue;
+        final long loadedAtNanos;
+
+        LocalEntry(Object storeValue, long loadedAtNanos) {
+            this.storeValue = storeValue;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+
+    /**
+     * The standard cache meters of a {@link NearCache}, with {@code cache.local.hits} for the hits of the local tier.
+     */
+    static class Metrics extends CacheMeterBinder<NearCache> {
+
+        Metrics(NearCache cache, Iterable<Tag> tags) {
+            super(cache, cache.getName(), tags);
+        }
+
+        @Override
+        protected Long size() {
+            NearCache cache = getCache();
+            return cache == null ? null : cache.localSize();
+        }
+
+        @Override
+        protected long hitCount() {
+            NearCache cache = getCache();
+            return cache == null ? 0 : cache.hits.sum();
+        }
+
+        @Override
+        protected Long missCount() {
+            NearCache cache = getCache();
+            return cache == null ? null : cache.misses.sum();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            NearCache cache = getCache();
+            return cache == null ? null : cache.evictions.sum();
+        }
+
+        @Override
+        protected long putCount() {
+            NearCache cache = getCache();
+            return cache == null ? 0 : cache.puts.sum();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+            FunctionCounter.builder("cache.local.hits", getCache(), cache -> cache.localHits.sum())
+                .tags(getTagsWithCacheName())
+                .description("The number of times the local tier answered a cache lookup")
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.banking.dev.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.MediaType;
+
+/**
+ * {@link ObjectReader}s and {@link ObjectWriter}s of one {@link ObjectMapper}, created once for a fixed set of hot
+ * body types with their root deserializer or serializer already resolved.
+ * <p>
+ * The HTTP message converters otherwise derive a reader and a writer from the mapper on every request. A cached
+ * instance only replaces the one the converter derived when that one is plain: default mapper configuration, no JSON
+ * view, no filters, no server-sent event printer. Both are immutable and thread-safe.
+ * <p>
+ * Writer types must not be entities returned as a single body: a writer pinned to {@code Account} would serialize a
+ * Hibernate proxy as a plain {@code Account} instead of going through the Hibernate module. Lists of entities are
+ * fine, their elements are still serialized by runtime type.
+ */
+class PrecompiledObjectCodecs {
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<JavaType, ObjectReader> readers;
+
+    private final Map<JavaType, ObjectWriter> writers;
+
+    PrecompiledObjectCodecs(ObjectMapper objectMapper, List<Type> readTypes, List<Type> writeTypes) {
+        this.objectMapper = objectMapper;
+        Map<JavaType, ObjectReader> readers = new HashMap<>();
+        for (Type type : readTypes) {
+            JavaType javaType = objectMapper.constructType(type);
+            readers.put(javaType, objectMapper.readerFor(javaType));
+        }
+        Map<JavaType, ObjectWriter> writers = new HashMap<>();
+        for (Type type : writeTypes) {
+            JavaType javaType = objectMapper.constructType(type);
+            writers.put(javaType, objectMapper.writerFor(javaType));
+        }
+        this.readers = Map.copyOf(readers);
+        this.writers = Map.copyOf(writers);
+    }
+
+    /**
+     * @param reader the reader the converter derived for {@code javaType}.
+     * @return the cached reader for {@code javaType} if {@code reader} is plain, {@code reader} otherwise.
+     */
+    ObjectReader reader(ObjectReader reader, JavaType javaType) {
+        ObjectReader cached = readers.get(javaType);
+        if (cached == null || reader.getConfig() != objectMapper.getDeserializationConfig()) {
+            return reader;
+        }
+        return cached;
+    }
+
+    /**
+     * @param writer the writer the converter derived for {@code javaType}.
+     * @return the cached writer for {@code javaType} if {@code writer} is plain, {@code writer} otherwise.
+     */
+    ObjectWriter writer(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+        if (javaType == null || (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM))) {
+            return writer;
+        }
+        ObjectWriter cached = writers.get(javaType);
+        if (cached == null || writer.getConfig() != objectMapper.getSerializationConfig()) {
+            return writer;
+        }
+        return cached;
+    }
+}
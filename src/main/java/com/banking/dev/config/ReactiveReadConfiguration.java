@@ -0,0 +1,84 @@
+package com.banking.dev.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Non-blocking R2DBC connections for the reactive read endpoints, next to the JDBC pool used by JPA.
+ * <p>
+ * The pool connects to {@code spring.datasource.*} unless {@code application.reactive-reads.url} and credentials are
+ * set. It is only used for plain queries: no reactive transaction manager is registered, as a second
+ * {@code TransactionManager} would make {@code @Transactional} ambiguous (see the exclusions on {@code BankApp}). For
+ * the same reason the pool is not a bean, only the {@link DatabaseClient} on it is: a {@code ConnectionFactory} bean
+ * would turn off the auto-configuration of the JDBC {@code DataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.reactive-reads", name = "enabled", havingValue = "true")
+public class ReactiveReadConfiguration {
+
+    private static final Duration MAX_IDLE_TIME = Duration.ofMinutes(30);
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveReadDatabaseClient(
+        ApplicationProperties applicationProperties,
+        DataSourceProperties dataSourceProperties
+    ) {
+        connectionPool = connectionPool(applicationProperties, dataSourceProperties);
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void disposeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    private static ConnectionPool connectionPool(
+        ApplicationProperties applicationProperties,
+        DataSourceProperties dataSourceProperties
+    ) {
+        ApplicationProperties.ReactiveReads reactiveReads = applicationProperties.getReactiveReads();
+        boolean ownDatabase = reactiveReads.getUrl() != null;
+        String url = ownDatabase ? reactiveReads.getUrl() : toR2dbcUrl(dataSourceProperties.determineUrl());
+        String username = ownDatabase ? reactiveReads.getUsername() : dataSourceProperties.determineUsername();
+        String password = ownDatabase ? reactiveReads.getPassword() : dataSourceProperties.determinePassword();
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (username != null) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (password != null && !password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+            .name("reactive-reads")
+            .initialSize(reactiveReads.getInitialSize())
+            .maxSize(reactiveReads.getMaxSize())
+            .maxIdleTime(MAX_IDLE_TIME)
+            .build();
+        return new ConnectionPool(configuration);
+    }
+
+    /**
+     * {@code jdbc:postgresql://host:5432/db?options} becomes {@code r2dbc:postgresql://host:5432/db}.
+     */
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:")) {
+            throw new IllegalStateException("Cannot derive an R2DBC URL from " + jdbcUrl + ", set application.reactive-reads.url");
+        }
+        int query = jdbcUrl.indexOf('?');
+        return "r2dbc:" + jdbcUrl.substring("jdbc:".length(), query < 0 ? jdbcUrl.length() : query);
+    }
+}
@@ -0,0 +1,68 @@
+package com.banking.dev.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Sends read-only transactions ({@code @Transactional(readOnly = true)}) to a read replica.
+ * <p>
+ * The primary pool is still configured by {@code spring.datasource.*}, the replica pool by
+ * {@code application.read-replica.*}. Read-only transactions also get Hibernate read-only sessions from Spring:
+ * no flush and no snapshot kept for dirty checking.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.read-replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+        ApplicationProperties applicationProperties,
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource
+    ) {
+        ApplicationProperties.ReadReplica replica = applicationProperties.getReadReplica();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(primaryDataSource.getPoolName() + "-replica");
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername());
+        dataSource.setPassword(replica.getPassword());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        // Same transaction defaults as the primary, so the lazy proxy applies the same settings to both
+        dataSource.setAutoCommit(primaryDataSource.isAutoCommit());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        @Qualifier("replicaDataSource") HikariDataSource replicaDataSource
+    ) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
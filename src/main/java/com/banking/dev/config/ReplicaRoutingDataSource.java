@@ -0,0 +1,55 @@
+package com.banking.dev.config;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections of read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The decision is taken when the physical connection is requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager opens its
+ * connection before the transaction is flagged as read-only, the proxy only fetches the real one on the first
+ * statement.
+ * <p>
+ * Read-your-writes: once a thread running inside a {@link ReadYourWritesFilter} scope has used the primary, its
+ * read-only transactions stay on the primary until the end of the request, since the replica may lag.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA,
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Boolean pinned = PRIMARY_PINNED.get();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !Boolean.TRUE.equals(pinned)) {
+            return Target.REPLICA;
+        }
+        if (pinned != null) {
+            PRIMARY_PINNED.set(Boolean.TRUE);
+        }
+        return Target.PRIMARY;
+    }
+
+    /**
+     * Starts a read-your-writes scope on the current thread.
+     */
+    static void beginScope() {
+        PRIMARY_PINNED.set(Boolean.FALSE);
+    }
+
+    static void endScope() {
+        PRIMARY_PINNED.remove();
+    }
+}
@@ -0,0 +1,104 @@
+package com.banking.dev.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.spring.cache.CacheConfig;
+import org.redisson.spring.cache.RedissonCache;
+import org.redisson.spring.cache.RedissonSpringCacheManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+
+/**
+ * Spring {@link org.springframework.cache.CacheManager} applying an {@link ApplicationProperties.Cache.Policy} to each
+ * cache.
+ * <p>
+ * A remote cache is a Redisson map cache: every read is a Redis round trip, entries expire after the policy TTL and,
+ * with {@code max-entries} set, Redis evicts the least recently used ones.
+ * <p>
+ * A local cache is a {@link NearCache}: the same remote cache, with an in-process tier in front bounded by
+ * {@code max-entries} and the TTL, kept in sync across instances by the {@link CacheInvalidationBus}.
+ * <p>
+ * Caches without a policy are remote, with the default TTL. The caches with a policy are cleared on startup.
+ */
+class TieredCacheManager extends RedissonSpringCacheManager implements DisposableBean {
+
+    private final CacheInvalidationBus bus;
+
+    private final Map<String, ApplicationProperties.Cache.Policy> localPolicies = new HashMap<>();
+
+    private final ConcurrentMap<String, Cache> localCaches = new ConcurrentHashMap<>();
+
+    private final Set<String> cacheNames;
+
+    private final Duration defaultTtl;
+
+    TieredCacheManager(
+        RedissonClient redissonClient,
+        Map<String, ApplicationProperties.Cache.Policy> policies,
+        Duration defaultTtl,
+        CacheInvalidationBus bus
+    ) {
+        super(redissonClient);
+        this.bus = bus;
+        this.defaultTtl = defaultTtl;
+        this.cacheNames = new LinkedHashSet<>(policies.keySet());
+        Map<String, CacheConfig> remoteConfigs = new HashMap<>();
+        policies.forEach((name, policy) -> {
+            if (policy.isLocal()) {
+                localPolicies.put(name, policy);
+            }
+            CacheConfig config = new CacheConfig(ttl(policy).toMillis(), 0);
+            config.setMaxSize(policy.getMaxEntries());
+            remoteConfigs.put(name, config);
+        });
+        setConfig(remoteConfigs);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        ApplicationProperties.Cache.Policy policy = localPolicies.get(name);
+        if (policy == null) {
+            return super.getCache(name);
+        }
+        return localCaches.computeIfAbsent(name, cacheName -> createLocalCache(cacheName, policy));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return cacheNames;
+    }
+
+    @Override
+    protected CacheConfig createDefaultConfig() {
+        return new CacheConfig(defaultTtl.toMillis(), 0);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        super.afterPropertiesSet();
+        bus.start();
+        for (String name : cacheNames) {
+            getCache(name).clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        bus.close();
+    }
+
+    private Cache createLocalCache(String name, ApplicationProperties.Cache.Policy policy) {
+        return new NearCache((RedissonCache) super.getCache(name), policy, ttl(policy), bus);
+    }
+
+    private Duration ttl(ApplicationProperties.Cache.Policy policy) {
+        return policy.getTtlSeconds() > 0 ? Duration.ofSeconds(policy.getTtlSeconds()) : defaultTtl;
+    }
+}
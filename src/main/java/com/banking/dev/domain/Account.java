@@ -1,5 +1,6 @@
 package com.banking.dev.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.io.Serial;
 import java.io.Serializable;
@@ -31,6 +32,13 @@ public class Account implements Serializable {
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Bank bank;
 
+    /**
+     * Bumped by the database on every update, see the {@code increment_row_version} trigger.
+     */
+    @JsonIgnore
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    private long version;
+
     public Account() {
         // Default constructor with no arguments
     }
@@ -74,6 +82,10 @@ public class Account implements Serializable {
         this.bank = bank;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return "Account{" + "accountId=" + accountId + ", userName='" + userName + '\'' + ", balance=" + balance + ", bank=" + bank + '}';
@@ -1,5 +1,6 @@
 package com.banking.dev.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.io.Serial;
 import java.io.Serializable;
@@ -33,6 +34,13 @@ public class Bank implements Serializable {
     @Column(name = "transaction_percent_fee_value", nullable = false)
     private BigDecimal transactionPercentFeeValue;
 
+    /**
+     * Bumped by the database on every update, see the {@code increment_row_version} trigger.
+     */
+    @JsonIgnore
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    private long version;
+
     public Bank() {}
 
     public Bank(
@@ -99,6 +107,10 @@ public class Bank implements Serializable {
         this.transactionPercentFeeValue = transactionPercentFeeValue;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public String toString() {
         return (
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Objects;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
@@ -36,6 +37,12 @@ public class Transaction implements Serializable {
     @Column(name = "transaction_reason", nullable = false)
     private String transactionReason;
 
+    /**
+     * Partition key of the {@code transaction} table: queries bounded on it only scan the matching monthly partitions.
+     */
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate = Instant.now();
+
     public Transaction() {
         // Default constructor with no arguments
     }
@@ -94,6 +101,14 @@ public class Transaction implements Serializable {
         this.transactionReason = transactionReason;
     }
 
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
     @Override
     public String toString() {
         return (
@@ -109,6 +124,8 @@ public class Transaction implements Serializable {
             ", transactionReason='" +
             transactionReason +
             '\'' +
+            ", createdDate=" +
+            createdDate +
             '}'
         );
     }
@@ -123,12 +140,13 @@ public class Transaction implements Serializable {
             Objects.equals(amount, that.amount) &&
             Objects.equals(originatingAccount, that.originatingAccount) &&
             Objects.equals(resultingAccount, that.resultingAccount) &&
-            Objects.equals(transactionReason, that.transactionReason)
+            Objects.equals(transactionReason, that.transactionReason) &&
+            Objects.equals(createdDate, that.createdDate)
         );
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(transactionId, amount, originatingAccount, resultingAccount, transactionReason);
+        return Objects.hash(transactionId, amount, originatingAccount, resultingAccount, transactionReason, createdDate);
     }
 }
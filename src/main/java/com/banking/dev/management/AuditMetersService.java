@@ -0,0 +1,68 @@
+package com.banking.dev.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AuditMetersService {
+
+    public static final String QUEUED_METER_NAME = "application.audit.queued";
+    public static final String QUEUED_METER_DESCRIPTION = "Number of audit records buffered and not written yet.";
+
+    public static final String LAG_METER_NAME = "application.audit.lag";
+    public static final String LAG_METER_DESCRIPTION = "Time between an audit record being captured and being written.";
+
+    public static final String WRITTEN_METER_NAME = "application.audit.written";
+    public static final String WRITTEN_METER_DESCRIPTION = "Number of audit records written.";
+
+    public static final String DROPPED_METER_NAME = "application.audit.dropped";
+    public static final String DROPPED_METER_DESCRIPTION = "Number of audit records lost.";
+    public static final String DROPPED_METER_REASON_DIMENSION = "reason";
+
+    private final MeterRegistry registry;
+    private final AtomicLong queued = new AtomicLong();
+    private final Timer lagTimer;
+    private final Counter writtenCounter;
+
+    public AuditMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder(QUEUED_METER_NAME, queued, AtomicLong::get)
+            .baseUnit("records")
+            .description(QUEUED_METER_DESCRIPTION)
+            .register(registry);
+        this.lagTimer = Timer.builder(LAG_METER_NAME).description(LAG_METER_DESCRIPTION).register(registry);
+        this.writtenCounter = Counter.builder(WRITTEN_METER_NAME)
+            .baseUnit("records")
+            .description(WRITTEN_METER_DESCRIPTION)
+            .register(registry);
+    }
+
+    public void trackQueued(long size) {
+        this.queued.set(size);
+    }
+
+    public void trackWritten(int records) {
+        this.writtenCounter.increment(records);
+    }
+
+    public void trackLag(Duration lag) {
+        this.lagTimer.record(lag);
+    }
+
+    /**
+     * @param reason {@code full} when the buffer had no room, {@code failed} when the insert failed.
+     */
+    public void trackDropped(String reason, int records) {
+        Counter.builder(DROPPED_METER_NAME)
+            .baseUnit("records")
+            .description(DROPPED_METER_DESCRIPTION)
+            .tag(DROPPED_METER_REASON_DIMENSION, reason)
+            .register(registry)
+            .increment(records);
+    }
+}
@@ -0,0 +1,52 @@
+package com.banking.dev.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BatchJobMetersService {
+
+    public static final String ITEMS_METER_NAME = "application.batch.items";
+    public static final String ITEMS_METER_DESCRIPTION = "Number of items processed by a chunked job.";
+
+    public static final String CHUNK_METER_NAME = "application.batch.chunk";
+    public static final String CHUNK_METER_DESCRIPTION = "Time spent on one chunk of a chunked job, its transaction included.";
+
+    public static final String RUN_METER_NAME = "application.batch.run";
+    public static final String RUN_METER_DESCRIPTION = "Time spent on one run of a chunked job.";
+
+    public static final String JOB_DIMENSION = "job";
+    public static final String OUTCOME_DIMENSION = "outcome";
+
+    private final MeterRegistry registry;
+
+    public BatchJobMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void trackChunk(String job, int items, Duration duration) {
+        Counter.builder(ITEMS_METER_NAME)
+            .baseUnit("items")
+            .description(ITEMS_METER_DESCRIPTION)
+            .tag(JOB_DIMENSION, job)
+            .register(registry)
+            .increment(items);
+        Timer.builder(CHUNK_METER_NAME).description(CHUNK_METER_DESCRIPTION).tag(JOB_DIMENSION, job).register(registry).record(duration);
+    }
+
+    /**
+     * @param outcome {@code completed}, {@code suspended} when the run stopped at {@code max-chunks-per-run},
+     * {@code interrupted} or {@code failure}.
+     */
+    public void trackRun(String job, String outcome, Duration duration) {
+        Timer.builder(RUN_METER_NAME)
+            .description(RUN_METER_DESCRIPTION)
+            .tag(JOB_DIMENSION, job)
+            .tag(OUTCOME_DIMENSION, outcome)
+            .register(registry)
+            .record(duration);
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.dev.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class GroupCommitMetersService {
+
+    public static final String BATCH_METER_NAME = "application.group-commit.batch";
+    public static final String BATCH_METER_DESCRIPTION = "Number of money movements written in one transaction.";
+
+    public static final String COMMIT_METER_NAME = "application.group-commit.commit";
+    public static final String COMMIT_METER_DESCRIPTION = "Time spent writing and committing a batch of money movements.";
+
+    public static final String WAIT_METER_NAME = "application.group-commit.wait";
+    public static final String WAIT_METER_DESCRIPTION = "Time a money movement waited for its batch to be written.";
+
+    public static final String SPLIT_METER_NAME = "application.group-commit.split";
+    public static final String SPLIT_METER_DESCRIPTION = "Number of failed batches written again one movement at a time.";
+
+    public static final String QUEUED_METER_NAME = "application.group-commit.queued";
+    public static final String QUEUED_METER_DESCRIPTION = "Number of money movements waiting for a batch.";
+
+    private final AtomicLong queued = new AtomicLong();
+    private final DistributionSummary batchSummary;
+    private final Timer commitTimer;
+    private final Timer waitTimer;
+    private final Counter splitCounter;
+
+    public GroupCommitMetersService(MeterRegistry registry) {
+        Gauge.builder(QUEUED_METER_NAME, queued, AtomicLong::get)
+            .baseUnit("movements")
+            .description(QUEUED_METER_DESCRIPTION)
+            .register(registry);
+        this.batchSummary = DistributionSummary.builder(BATCH_METER_NAME)
+            .baseUnit("movements")
+            .description(BATCH_METER_DESCRIPTION)
+            .register(registry);
+        this.commitTimer = Timer.builder(COMMIT_METER_NAME).description(COMMIT_METER_DESCRIPTION).register(registry);
+        this.waitTimer = Timer.builder(WAIT_METER_NAME).description(WAIT_METER_DESCRIPTION).register(registry);
+        this.splitCounter = Counter.builder(SPLIT_METER_NAME)
+            .baseUnit("batches")
+            .description(SPLIT_METER_DESCRIPTION)
+            .register(registry);
+    }
+
+    public void trackBatch(int movements, Duration commit) {
+        this.batchSummary.record(movements);
+        this.commitTimer.record(commit);
+    }
+
+    public void trackWait(Duration wait) {
+        this.waitTimer.record(wait);
+    }
+
+    public void trackSplit() {
+        this.splitCounter.increment();
+    }
+
+    public void trackQueued(long movements) {
+        this.queued.set(movements);
+    }
+}
@@ -0,0 +1,58 @@
+package com.banking.dev.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Service;
+
+@Service
+public class JobLockMetersService {
+
+    public static final String HELD_METER_NAME = "application.job.lock.held";
+    public static final String HELD_METER_DESCRIPTION = "Whether this instance holds the lock of a scheduled job.";
+
+    public static final String SKIPPED_METER_NAME = "application.job.lock.skipped";
+    public static final String SKIPPED_METER_DESCRIPTION = "Number of scheduled runs skipped because another instance held the job lock.";
+
+    public static final String LOST_METER_NAME = "application.job.lock.lost";
+    public static final String LOST_METER_DESCRIPTION = "Number of job locks lost before the job finished, as they could not be renewed.";
+
+    public static final String JOB_DIMENSION = "job";
+
+    private final MeterRegistry registry;
+
+    private final ConcurrentMap<String, AtomicInteger> held = new ConcurrentHashMap<>();
+
+    public JobLockMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void trackHeld(String job, boolean isHeld) {
+        held
+            .computeIfAbsent(job, name -> {
+                AtomicInteger value = new AtomicInteger();
+                Gauge.builder(HELD_METER_NAME, value, AtomicInteger::get)
+                    .description(HELD_METER_DESCRIPTION)
+                    .tag(JOB_DIMENSION, name)
+                    .register(registry);
+                return value;
+            })
+            .set(isHeld ? 1 : 0);
+    }
+
+    public void trackSkipped(String job) {
+        Counter.builder(SKIPPED_METER_NAME)
+            .baseUnit("runs")
+            .description(SKIPPED_METER_DESCRIPTION)
+            .tag(JOB_DIMENSION, job)
+            .register(registry)
+            .increment();
+    }
+
+    public void trackLost(String job) {
+        Counter.builder(LOST_METER_NAME).description(LOST_METER_DESCRIPTION).tag(JOB_DIMENSION, job).register(registry).increment();
+    }
+}
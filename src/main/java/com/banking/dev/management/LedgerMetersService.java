@@ -0,0 +1,69 @@
+package com.banking.dev.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LedgerMetersService {
+
+    public static final String BATCH_METER_NAME = "application.ledger.batch";
+    public static final String BATCH_METER_DESCRIPTION = "Number of operations covered by one journal fsync.";
+
+    public static final String FSYNC_METER_NAME = "application.ledger.fsync";
+    public static final String FSYNC_METER_DESCRIPTION = "Time spent writing and syncing a group of journal records.";
+
+    public static final String UNPERSISTED_METER_NAME = "application.ledger.unpersisted";
+    public static final String UNPERSISTED_METER_DESCRIPTION = "Number of journal records not written to the database yet.";
+
+    public static final String PERSIST_FAILED_METER_NAME = "application.ledger.persist.failed";
+    public static final String PERSIST_FAILED_METER_DESCRIPTION = "Number of persister batches the database refused.";
+
+    public static final String RECOVERY_METER_NAME = "application.ledger.recovery";
+    public static final String RECOVERY_METER_DESCRIPTION = "Time spent loading the snapshots and replaying the journals.";
+
+    private final AtomicLong unpersisted = new AtomicLong();
+    private final DistributionSummary batchSummary;
+    private final Timer fsyncTimer;
+    private final Counter persistFailedCounter;
+    private final Timer recoveryTimer;
+
+    public LedgerMetersService(MeterRegistry registry) {
+        Gauge.builder(UNPERSISTED_METER_NAME, unpersisted, AtomicLong::get)
+            .baseUnit("records")
+            .description(UNPERSISTED_METER_DESCRIPTION)
+            .register(registry);
+        this.batchSummary = DistributionSummary.builder(BATCH_METER_NAME)
+            .baseUnit("operations")
+            .description(BATCH_METER_DESCRIPTION)
+            .register(registry);
+        this.fsyncTimer = Timer.builder(FSYNC_METER_NAME).description(FSYNC_METER_DESCRIPTION).register(registry);
+        this.persistFailedCounter = Counter.builder(PERSIST_FAILED_METER_NAME)
+            .baseUnit("batches")
+            .description(PERSIST_FAILED_METER_DESCRIPTION)
+            .register(registry);
+        this.recoveryTimer = Timer.builder(RECOVERY_METER_NAME).description(RECOVERY_METER_DESCRIPTION).register(registry);
+    }
+
+    public void trackGroupCommit(int operations, Duration fsync) {
+        this.batchSummary.record(operations);
+        this.fsyncTimer.record(fsync);
+    }
+
+    public void trackUnpersisted(long records) {
+        this.unpersisted.set(records);
+    }
+
+    public void trackPersistFailed() {
+        this.persistFailedCounter.increment();
+    }
+
+    public void trackRecovery(Duration duration) {
+        this.recoveryTimer.record(duration);
+    }
+}
@@ -0,0 +1,66 @@
+package com.banking.dev.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OutboxMetersService {
+
+    public static final String LAG_METER_NAME = "outbox.relay.lag";
+    public static final String LAG_METER_DESCRIPTION = "Age of the oldest outbox event that has not been published yet.";
+
+    public static final String BATCH_SIZE_METER_NAME = "outbox.relay.batch.size";
+    public static final String BATCH_SIZE_METER_DESCRIPTION = "Number of outbox events published per relay batch.";
+
+    public static final String DELIVERY_METER_NAME = "outbox.relay.delivery";
+    public static final String DELIVERY_METER_DESCRIPTION = "Time between an outbox event being committed and being published.";
+
+    public static final String FAILURES_METER_NAME = "outbox.relay.failures";
+    public static final String FAILURES_METER_DESCRIPTION = "Number of relay batches rolled back because a sink failed.";
+    public static final String FAILURES_METER_SINK_DIMENSION = "sink";
+
+    private final MeterRegistry registry;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final DistributionSummary batchSizeSummary;
+    private final Timer deliveryTimer;
+
+    public OutboxMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder(LAG_METER_NAME, lagMillis, value -> value.get() / 1000.0)
+            .baseUnit("seconds")
+            .description(LAG_METER_DESCRIPTION)
+            .register(registry);
+        this.batchSizeSummary = DistributionSummary.builder(BATCH_SIZE_METER_NAME)
+            .baseUnit("events")
+            .description(BATCH_SIZE_METER_DESCRIPTION)
+            .register(registry);
+        this.deliveryTimer = Timer.builder(DELIVERY_METER_NAME).description(DELIVERY_METER_DESCRIPTION).register(registry);
+    }
+
+    public void trackLag(Duration lag) {
+        this.lagMillis.set(Math.max(0, lag.toMillis()));
+    }
+
+    public void trackBatch(int size) {
+        this.batchSizeSummary.record(size);
+    }
+
+    public void trackDelivery(Duration delay) {
+        this.deliveryTimer.record(delay);
+    }
+
+    public void trackFailure(String sink) {
+        Counter.builder(FAILURES_METER_NAME)
+            .baseUnit("errors")
+            .description(FAILURES_METER_DESCRIPTION)
+            .tag(FAILURES_METER_SINK_DIMENSION, sink)
+            .register(registry)
+            .increment();
+    }
+}
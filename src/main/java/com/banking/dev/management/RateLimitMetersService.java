@@ -0,0 +1,45 @@
+package com.banking.dev.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RateLimitMetersService {
+
+    public static final String THROTTLED_METER_NAME = "http.requests.throttled";
+    public static final String THROTTLED_METER_DESCRIPTION = "Number of requests rejected with a 429 by the rate limiter.";
+    public static final String THROTTLED_METER_ENDPOINT_CLASS_DIMENSION = "endpoint_class";
+    public static final String THROTTLED_METER_DECISION_DIMENSION = "decision";
+
+    public static final String ERRORS_METER_NAME = "http.requests.rate-limit.errors";
+    public static final String ERRORS_METER_DESCRIPTION = "Number of requests let through because the distributed rate limiter failed.";
+
+    private final MeterRegistry registry;
+
+    public RateLimitMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param decision {@code local} when the request was rejected by the local pre-check, {@code redis} otherwise.
+     */
+    public void trackThrottled(String endpointClass, String decision) {
+        Counter.builder(THROTTLED_METER_NAME)
+            .baseUnit("requests")
+            .description(THROTTLED_METER_DESCRIPTION)
+            .tag(THROTTLED_METER_ENDPOINT_CLASS_DIMENSION, endpointClass)
+            .tag(THROTTLED_METER_DECISION_DIMENSION, decision)
+            .register(registry)
+            .increment();
+    }
+
+    public void trackError(String endpointClass) {
+        Counter.builder(ERRORS_METER_NAME)
+            .baseUnit("errors")
+            .description(ERRORS_METER_DESCRIPTION)
+            .tag(THROTTLED_METER_ENDPOINT_CLASS_DIMENSION, endpointClass)
+            .register(registry)
+            .increment();
+    }
+}
@@ -0,0 +1,53 @@
+package com.banking.dev.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class VelocityMetersService {
+
+    public static final String REJECTED_METER_NAME = "application.velocity.rejected";
+    public static final String REJECTED_METER_DESCRIPTION = "Number of money movements rejected by a velocity limit.";
+    public static final String REJECTED_METER_KIND_DIMENSION = "kind";
+
+    public static final String ACCOUNTS_METER_NAME = "application.velocity.accounts";
+    public static final String ACCOUNTS_METER_DESCRIPTION = "Number of accounts with movements in the velocity window.";
+
+    public static final String REBUILD_METER_NAME = "application.velocity.rebuild";
+    public static final String REBUILD_METER_DESCRIPTION = "Time spent rebuilding the velocity windows from the transaction table.";
+
+    private final MeterRegistry registry;
+    private final AtomicLong accounts = new AtomicLong();
+    private final Timer rebuildTimer;
+
+    public VelocityMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder(ACCOUNTS_METER_NAME, accounts, AtomicLong::get)
+            .baseUnit("accounts")
+            .description(ACCOUNTS_METER_DESCRIPTION)
+            .register(registry);
+        this.rebuildTimer = Timer.builder(REBUILD_METER_NAME).description(REBUILD_METER_DESCRIPTION).register(registry);
+    }
+
+    public void trackRejected(String kind) {
+        Counter.builder(REJECTED_METER_NAME)
+            .baseUnit("movements")
+            .description(REJECTED_METER_DESCRIPTION)
+            .tag(REJECTED_METER_KIND_DIMENSION, kind)
+            .register(registry)
+            .increment();
+    }
+
+    public void trackAccounts(long accounts) {
+        this.accounts.set(accounts);
+    }
+
+    public void trackRebuild(Duration duration) {
+        this.rebuildTimer.record(duration);
+    }
+}
@@ -0,0 +1,34 @@
+package com.banking.dev.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import org.springframework.stereotype.Service;
+
+@Service
+public class WarmUpMetersService {
+
+    public static final String WARM_UP_METER_NAME = "application.warmup";
+    public static final String WARM_UP_METER_DESCRIPTION = "Time spent warming up the application before it reports ready.";
+    public static final String WARM_UP_METER_STEP_DIMENSION = "step";
+    public static final String WARM_UP_METER_OUTCOME_DIMENSION = "outcome";
+
+    private final MeterRegistry registry;
+
+    public WarmUpMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * @param step a warm-up step, or {@code total} for the whole warm-up.
+     * @param outcome {@code success}, {@code failure} or {@code skipped}.
+     */
+    public void trackStep(String step, String outcome, Duration duration) {
+        Timer.builder(WARM_UP_METER_NAME)
+            .description(WARM_UP_METER_DESCRIPTION)
+            .tag(WARM_UP_METER_STEP_DIMENSION, step)
+            .tag(WARM_UP_METER_OUTCOME_DIMENSION, outcome)
+            .register(registry)
+            .record(duration);
+    }
+}
@@ -1,7 +1,14 @@
 package com.banking.dev.repository;
 
 import com.banking.dev.domain.Account;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,22 @@ import org.springframework.stereotype.Repository;
  */
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {}
+public interface AccountRepository extends JpaRepository<Account, Long> {
+    @Query("select a.version from Account a where a.accountId = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Locks the account for a money movement: concurrent movements wait for each other instead of overwriting each
+     * other's balance.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountId = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Locks the accounts of a money movement in id order, so that movements locking the same accounts cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountId in :ids order by a.accountId")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+}
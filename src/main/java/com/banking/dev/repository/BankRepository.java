@@ -1,11 +1,17 @@
 package com.banking.dev.repository;
 
 import com.banking.dev.domain.Bank;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the {@link Bank} entity.
  */
 @Repository
-public interface BankRepository extends JpaRepository<Bank, Long> {}
+public interface BankRepository extends JpaRepository<Bank, Long> {
+    @Query("select b.version from Bank b where b.bankId = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
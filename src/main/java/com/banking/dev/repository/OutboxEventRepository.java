@@ -0,0 +1,73 @@
+package com.banking.dev.repository;
+
+import com.banking.dev.domain.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link OutboxEvent} entity.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Locks the oldest unpublished events, in id order. Concurrent relays block on the same rows instead of skipping
+     * them.
+     * <p>
+     * The ids are taken when the events are inserted, not when their transactions commit: an event may commit, and be
+     * relayed, after events with higher ids.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e where e.publishedDate is null order by e.id asc")
+    List<OutboxEvent> findUnpublishedForUpdate(Pageable pageable);
+
+    /**
+     * Locks the oldest unpublished events the sink has not accepted yet, in id order.
+     */
+    @Query(
+        value = "select e.* from outbox_event e where e.published_date is null and not exists " +
+        "(select 1 from outbox_delivery d where d.sink = :sink and d.event_id = e.id) order by e.id limit :limit for update of e",
+        nativeQuery = true
+    )
+    List<OutboxEvent> findUndeliveredForUpdate(@Param("sink") String sink, @Param("limit") int limit);
+
+    @Modifying
+    @Query(
+        value = "insert into outbox_delivery (sink, event_id) select :sink, e.id from outbox_event e where e.id in :ids",
+        nativeQuery = true
+    )
+    int markDelivered(@Param("sink") String sink, @Param("ids") Collection<Long> ids);
+
+    /**
+     * @return the oldest unpublished events every one of {@code sinks} has accepted, in id order.
+     */
+    @Query(
+        value = "select e.id from outbox_event e where e.published_date is null and " +
+        "(select count(*) from outbox_delivery d where d.event_id = e.id and d.sink in :sinks) = :sinkCount order by e.id limit :limit",
+        nativeQuery = true
+    )
+    List<Long> findDeliveredToAll(@Param("sinks") Collection<String> sinks, @Param("sinkCount") long sinkCount, @Param("limit") int limit);
+
+    @Query("select min(e.createdDate) from OutboxEvent e where e.publishedDate is null")
+    Instant findOldestUnpublishedCreatedDate();
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedDate = :publishedDate where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedDate") Instant publishedDate);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedDate < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,8 +1,41 @@
 package com.banking.dev.repository;
 
 import com.banking.dev.domain.Transaction;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Spring Data JPA repository for the {@link Transaction} entity.
+ * <p>
+ * The table is partitioned by month on {@code created_date}: queries bounded by {@code [from, to)} on that column
+ * only scan the partitions covering the range, the unbounded ones from {@link JpaRepository} scan all of them.
+ */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {}
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+    @Query("select t from Transaction t where t.createdDate >= :from and t.createdDate < :to order by t.createdDate asc, t.transactionId asc")
+    List<Transaction> findAllCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query(
+        "select t from Transaction t where (t.originatingAccount.accountId = :accountId or t.resultingAccount.accountId = :accountId) " +
+        "and t.createdDate >= :from and t.createdDate < :to order by t.createdDate asc, t.transactionId asc"
+    )
+    List<Transaction> findAllByAccountCreatedBetween(
+        @Param("accountId") Long accountId,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+
+    /**
+     * @return the ids of the accounts that originated the most transactions since {@code since}, most active first.
+     */
+    @Query(
+        "select t.originatingAccount.accountId from Transaction t where t.createdDate >= :since " +
+        "group by t.originatingAccount.accountId order by count(t) desc"
+    )
+    List<Long> findMostActiveAccountIds(@Param("since") Instant since, Pageable pageable);
+}
@@ -2,13 +2,19 @@ package com.banking.dev.repository;
 
 import com.banking.dev.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -20,10 +26,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
 
+    String USER_COUNTS_CACHE = "userCounts";
+
     Optional<User> findOneByActivationKey(String activationKey);
 
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
 
+    List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBeforeAndIdGreaterThanOrderByIdAsc(
+        Instant dateTime,
+        Long id,
+        Limit limit
+    );
+
     Optional<User> findOneByResetKey(String resetKey);
 
     Optional<User> findOneByEmailIgnoreCase(String email);
@@ -31,12 +45,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
+    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, sync = true)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, sync = true)
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    Slice<User> findSliceByIdNotNull(Pageable pageable);
+
+    Slice<User> findSliceByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    long countByActivatedIsTrue();
+
+    /**
+     * @return the number of rows estimated by the planner statistics, -1 if the table was never analyzed.
+     */
+    @Query(value = "select reltuples::bigint from pg_class where oid = 'jhi_user'::regclass", nativeQuery = true)
+    long estimateCount();
+
+    @Modifying
+    @Query(value = "delete from jhi_user_authority where user_id in :ids", nativeQuery = true)
+    int deleteAuthoritiesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
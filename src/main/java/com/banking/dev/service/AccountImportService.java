@@ -0,0 +1,322 @@
+package com.banking.dev.service;
+
+import com.banking.dev.service.dto.AccountImportReportDTO;
+import com.banking.dev.service.dto.AccountImportReportDTO.RowError;
+import com.banking.dev.service.etag.TableChangeCounter;
+import jakarta.transaction.Transactional;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for importing large numbers of {@link com.banking.dev.domain.Account}s from CSV.
+ * <p>
+ * The upload is read incrementally in chunks. Each chunk is validated in parallel while the previous one is streamed
+ * through the PostgreSQL {@code COPY} protocol into a temporary staging table, and a single set-based
+ * {@code INSERT ... SELECT} then moves the rows whose bank exists into {@code account}. Expected columns are
+ * {@code user_name,balance,bank_id}; a header line is optional.
+ */
+@Service
+@Transactional
+public class AccountImportService {
+
+    static final int CHUNK_SIZE = 10_000;
+
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final String CREATE_STAGING_TABLE =
+        "CREATE TEMPORARY TABLE account_import_staging " +
+        "(line_no bigint NOT NULL, user_name varchar(255) NOT NULL, balance numeric(10, 2) NOT NULL, bank_id bigint NOT NULL) " +
+        "ON COMMIT DROP";
+
+    private static final String COPY_STAGING = "COPY account_import_staging (line_no, user_name, balance, bank_id) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String COUNT_UNKNOWN_BANKS =
+        "SELECT count(*) FROM account_import_staging s WHERE NOT EXISTS (SELECT 1 FROM bank b WHERE b.bank_id = s.bank_id)";
+
+    private static final String SELECT_UNKNOWN_BANKS =
+        "SELECT s.line_no, s.bank_id FROM account_import_staging s " +
+        "WHERE NOT EXISTS (SELECT 1 FROM bank b WHERE b.bank_id = s.bank_id) ORDER BY s.line_no LIMIT ?";
+
+    private static final String MERGE_ACCOUNTS =
+        "INSERT INTO account (user_name, balance, bank_id) " +
+        "SELECT s.user_name, s.balance, s.bank_id FROM account_import_staging s JOIN bank b ON b.bank_id = s.bank_id " +
+        "ORDER BY s.line_no";
+
+    private static final BigDecimal MAX_BALANCE = new BigDecimal("99999999.99");
+
+    private final Logger log = LoggerFactory.getLogger(AccountImportService.class);
+
+    private final DataSource dataSource;
+
+    private final TableChangeCounter tableChangeCounter;
+
+    public AccountImportService(DataSource dataSource, TableChangeCounter tableChangeCounter) {
+        this.dataSource = dataSource;
+        this.tableChangeCounter = tableChangeCounter;
+    }
+
+    public AccountImportReportDTO importAccounts(InputStream csv) {
+        log.debug("Request to import Accounts from CSV");
+        long start = System.nanoTime();
+        AccountImportReportDTO report = new AccountImportReportDTO();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+            }
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+            try {
+                streamIntoStaging(csv, copyIn, report);
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+            rejectUnknownBanks(connection, report);
+            tableChangeCounter.markChanged(TableChangeCounter.ACCOUNT);
+            try (Statement statement = connection.createStatement()) {
+                report.setImportedRows(statement.executeUpdate(MERGE_ACCOUNTS));
+            }
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Account import", COPY_STAGING, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.debug("Account import finished: {}", report);
+        return report;
+    }
+
+    private void streamIntoStaging(InputStream csv, CopyIn copyIn, AccountImportReportDTO report) throws SQLException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8), 1 << 16);
+        CompletableFuture<ValidatedChunk> pending = null;
+        Chunk chunk = new Chunk();
+        try {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && isHeader(line))) {
+                    continue;
+                }
+                chunk.add(lineNumber, line);
+                if (chunk.size() == CHUNK_SIZE) {
+                    // validate this chunk in the background while the previous one is written to the database
+                    Chunk full = chunk;
+                    CompletableFuture<ValidatedChunk> next = CompletableFuture.supplyAsync(() -> validate(full));
+                    if (pending != null) {
+                        write(pending.join(), copyIn, report);
+                    }
+                    pending = next;
+                    chunk = new Chunk();
+                }
+            }
+            if (pending != null) {
+                write(pending.join(), copyIn, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the account import upload", e);
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Could not validate the account import upload", e.getCause());
+        }
+        if (chunk.size() > 0) {
+            write(validate(chunk), copyIn, report);
+        }
+    }
+
+    private static void write(ValidatedChunk validated, CopyIn copyIn, AccountImportReportDTO report) throws SQLException {
+        report.setTotalRows(report.getTotalRows() + validated.rowCount);
+        if (validated.copyData.length > 0) {
+            copyIn.writeToCopy(validated.copyData, 0, validated.copyData.length);
+        }
+        for (RowError error : validated.errors) {
+            reject(report, error);
+        }
+    }
+
+    private void rejectUnknownBanks(Connection connection, AccountImportReportDTO report) throws SQLException {
+        long unknown;
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(COUNT_UNKNOWN_BANKS)) {
+            rs.next();
+            unknown = rs.getLong(1);
+        }
+        if (unknown == 0) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_UNKNOWN_BANKS)) {
+            statement.setInt(1, Math.max(0, MAX_REPORTED_ERRORS - report.getErrors().size()));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    report.getErrors().add(new RowError(rs.getLong(1), "Bank " + rs.getLong(2) + " does not exist"));
+                }
+            }
+        }
+        report.setRejectedRows(report.getRejectedRows() + unknown);
+        report.setErrorsTruncated(report.isErrorsTruncated() || report.getErrors().size() < report.getRejectedRows());
+    }
+
+    private static void reject(AccountImportReportDTO report, RowError error) {
+        report.setRejectedRows(report.getRejectedRows() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(error);
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    static ValidatedChunk validate(Chunk chunk) {
+        List<Object> rows = IntStream.range(0, chunk.size())
+            .parallel()
+            .mapToObj(i -> parseRow(chunk.lineNumbers[i], chunk.lines.get(i)))
+            .toList();
+        StringBuilder copyData = new StringBuilder(chunk.size() * 48);
+        List<RowError> errors = new ArrayList<>();
+        for (Object row : rows) {
+            if (row instanceof RowError error) {
+                errors.add(error);
+            } else {
+                copyData.append((String) row);
+            }
+        }
+        return new ValidatedChunk(chunk.size(), copyData.toString().getBytes(StandardCharsets.UTF_8), errors);
+    }
+
+    /**
+     * Parses and validates one CSV line.
+     *
+     * @return the row encoded as a {@code COPY ... (FORMAT csv)} line, or a {@link RowError}.
+     */
+    static Object parseRow(long lineNumber, String line) {
+        List<String> fields = splitCsv(line);
+        if (fields == null) {
+            return new RowError(lineNumber, "Unterminated quoted field");
+        }
+        if (fields.size() != 3) {
+            return new RowError(lineNumber, "Expected 3 columns (user_name,balance,bank_id) but found " + fields.size());
+        }
+        String userName = fields.get(0).strip();
+        if (userName.isEmpty() || userName.length() > 255) {
+            return new RowError(lineNumber, "user_name must be between 1 and 255 characters");
+        }
+        BigDecimal balance;
+        try {
+            balance = new BigDecimal(fields.get(1).strip());
+        } catch (NumberFormatException e) {
+            return new RowError(lineNumber, "balance is not a number");
+        }
+        if (balance.signum() < 0 || balance.scale() > 2 || balance.compareTo(MAX_BALANCE) > 0) {
+            return new RowError(lineNumber, "balance must be between 0 and " + MAX_BALANCE + " with at most 2 decimals");
+        }
+        long bankId;
+        try {
+            bankId = Long.parseLong(fields.get(2).strip());
+        } catch (NumberFormatException e) {
+            return new RowError(lineNumber, "bank_id is not a number");
+        }
+        if (bankId <= 0) {
+            return new RowError(lineNumber, "bank_id must be positive");
+        }
+        return lineNumber + ",\"" + userName.replace("\"", "\"\"") + "\"," + balance.toPlainString() + "," + bankId + "\n";
+    }
+
+    /**
+     * Splits an RFC 4180 line; returns {@code null} when a quoted field is not closed.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.strip().toLowerCase().startsWith("user_name");
+    }
+
+    static final class Chunk {
+
+        private final long[] lineNumbers = new long[CHUNK_SIZE];
+
+        private final List<String> lines = new ArrayList<>(CHUNK_SIZE);
+
+        void add(long lineNumber, String line) {
+            lineNumbers[lines.size()] = lineNumber;
+            lines.add(line);
+        }
+
+        int size() {
+            return lines.size();
+        }
+    }
+
+    static final class ValidatedChunk {
+
+        private final int rowCount;
+
+        private final byte[] copyData;
+
+        private final List<RowError> errors;
+
+        ValidatedChunk(int rowCount, byte[] copyData, List<RowError> errors) {
+            this.rowCount = rowCount;
+            this.copyData = copyData;
+            this.errors = errors;
+        }
+
+        byte[] getCopyData() {
+            return copyData;
+        }
+
+        List<RowError> getErrors() {
+            return errors;
+        }
+    }
+}
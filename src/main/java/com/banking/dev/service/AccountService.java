@@ -1,14 +1,20 @@
 package com.banking.dev.service;
 
+import com.banking.dev.config.ApplicationProperties;
 import com.banking.dev.domain.Account;
 import com.banking.dev.repository.AccountRepository;
-import jakarta.transaction.Transactional;
+import com.banking.dev.service.audit.AuditSnapshots;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -19,24 +25,51 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
 
-    public AccountService(AccountRepository accountRepository) {
+    private final TableChangeCounter tableChangeCounter;
+
+    private final AuditTrail auditTrail;
+
+    private final ApplicationProperties applicationProperties;
+
+    public AccountService(
+        AccountRepository accountRepository,
+        TableChangeCounter tableChangeCounter,
+        AuditTrail auditTrail,
+        ApplicationProperties applicationProperties
+    ) {
         this.accountRepository = accountRepository;
+        this.tableChangeCounter = tableChangeCounter;
+        this.auditTrail = auditTrail;
+        this.applicationProperties = applicationProperties;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Account> findOne(Long id) {
         log.debug("Request to find account by ID: {}", id);
         return accountRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Account> findAll() {
         log.debug("Request to find all Accounts");
         return accountRepository.findAll();
     }
 
+    /**
+     * @return the version of an account, without loading it.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return accountRepository.findVersionById(id);
+    }
+
     public Account createAccount(Account account) {
         log.debug("Request to create Account: {}", account);
         // Optionally perform any additional logic/validation here
-        return accountRepository.save(account);
+        tableChangeCounter.markChanged(TableChangeCounter.ACCOUNT);
+        Account result = accountRepository.save(account);
+        auditTrail.record(AuditTrail.ACCOUNT, result.getAccountId(), AuditTrail.CREATE, null, AuditSnapshots.of(result));
+        return result;
     }
 
     public Account updateAccount(Long accountId, Account updatedAccount) {
@@ -44,13 +77,22 @@ public class AccountService {
         Account existingAccount = accountRepository
             .findById(accountId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found"));
+        BigDecimal balance = updatedAccount.getBalance();
+        if (applicationProperties.getLedger().isEnabled() && (balance == null || balance.compareTo(existingAccount.getBalance()) != 0)) {
+            // the ledger holds the balance in memory, and would overwrite this one
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Balance is managed by the ledger");
+        }
+        Map<String, Object> before = AuditSnapshots.of(existingAccount);
 
         existingAccount.setUserName(updatedAccount.getUserName());
         existingAccount.setBalance(updatedAccount.getBalance());
         existingAccount.setBank(updatedAccount.getBank());
 
         log.debug("Updated Account: {}", existingAccount);
-        return accountRepository.save(existingAccount);
+        tableChangeCounter.markChanged(TableChangeCounter.ACCOUNT);
+        Account result = accountRepository.save(existingAccount);
+        auditTrail.record(AuditTrail.ACCOUNT, accountId, AuditTrail.UPDATE, before, AuditSnapshots.of(result));
+        return result;
     }
 
     public void delete(Long id) {
@@ -61,7 +103,15 @@ public class AccountService {
         if (!exists) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found");
         }
+        if (applicationProperties.getLedger().isEnabled()) {
+            // a transfer to it could be debited by the ledger before it finds it gone
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Accounts cannot be deleted while the ledger is enabled");
+        }
 
+        // loads it into the persistence context, where deleteById finds it again
+        Map<String, Object> before = accountRepository.findById(id).map(AuditSnapshots::of).orElse(null);
+        tableChangeCounter.markChanged(TableChangeCounter.ACCOUNT);
         accountRepository.deleteById(id);
+        auditTrail.record(AuditTrail.ACCOUNT, id, AuditTrail.DELETE, before, null);
     }
 }
@@ -0,0 +1,133 @@
+package com.banking.dev.service;
+
+import com.banking.dev.domain.Authority;
+import com.banking.dev.repository.AuthorityRepository;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The authorities, resolved in memory from an immutable snapshot of the {@code jhi_authority} table.
+ * <p>
+ * The snapshot is the single entry of the {@code authorities} cache, local to each instance: reads find it in the
+ * local tier without a query. Changes made through this registry load a new snapshot from the primary once they are
+ * committed and put it in the cache, which replaces the whole snapshot at once; the cache invalidation bus then evicts
+ * the copies of the other instances, which read the new one from Redis. Changes made directly in the database are
+ * seen after the cache TTL.
+ * <p>
+ * The returned authorities are shared by every caller and must not be modified. They are detached, which is enough to
+ * reference them from a user.
+ */
+@Service
+public class AuthorityRegistry {
+
+    private static final String SNAPSHOT_KEY = "snapshot";
+
+    private final Logger log = LoggerFactory.getLogger(AuthorityRegistry.class);
+
+    private final AuthorityRepository authorityRepository;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public AuthorityRegistry(
+        AuthorityRepository authorityRepository,
+        CacheManager cacheManager,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.authorityRepository = authorityRepository;
+        this.cacheManager = cacheManager;
+        // Not read-only, so that a snapshot loaded right after a change is read from the primary
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Optional<Authority> find(String name) {
+        return Optional.ofNullable(snapshot().authorities.get(name));
+    }
+
+    /**
+     * @return the authorities ordered by name.
+     */
+    public List<Authority> findAll() {
+        return List.copyOf(snapshot().authorities.values());
+    }
+
+    /**
+     * @return the names of the authorities, in order.
+     */
+    public List<String> names() {
+        return List.copyOf(snapshot().authorities.keySet());
+    }
+
+    @Transactional
+    public Authority save(Authority authority) {
+        Authority saved = authorityRepository.save(authority);
+        refreshAfterCommit();
+        return saved;
+    }
+
+    @Transactional
+    public void delete(String name) {
+        authorityRepository.deleteById(name);
+        refreshAfterCommit();
+    }
+
+    /**
+     * Loads a new snapshot from the database and replaces the current one, on every instance.
+     */
+    public void refresh() {
+        Snapshot snapshot = transactionTemplate.execute(status -> new Snapshot(authorityRepository.findAll()));
+        cache().put(SNAPSHOT_KEY, snapshot);
+        log.debug("Loaded {} authorities", Objects.requireNonNull(snapshot).authorities.size());
+    }
+
+    private void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            }
+        );
+    }
+
+    private Snapshot snapshot() {
+        return cache().get(SNAPSHOT_KEY, () -> new Snapshot(authorityRepository.findAll()));
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(AuthorityRepository.AUTHORITIES_CACHE));
+    }
+
+    static final class Snapshot implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TreeMap<String, Authority> authorities = new TreeMap<>();
+
+        Snapshot(Collection<Authority> authorities) {
+            authorities.forEach(authority -> this.authorities.put(authority.getName(), authority));
+        }
+    }
+}
@@ -6,14 +6,20 @@ import com.banking.dev.domain.Transaction;
 import com.banking.dev.repository.AccountRepository;
 import com.banking.dev.repository.BankRepository;
 import com.banking.dev.repository.TransactionRepository;
-import jakarta.transaction.Transactional;
+import com.banking.dev.service.audit.AuditSnapshots;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -28,28 +34,69 @@ public class BankService {
 
     private final TransactionRepository transactionRepository;
 
+    private final TableChangeCounter tableChangeCounter;
+
+    private final AuditTrail auditTrail;
+
     private final BigDecimal totalTransactionFeeAmount = BigDecimal.ZERO;
 
-    public BankService(BankRepository bankRepository, AccountRepository accountRepository, TransactionRepository transactionRepository) {
+    public BankService(
+        BankRepository bankRepository,
+        AccountRepository accountRepository,
+        TransactionRepository transactionRepository,
+        TableChangeCounter tableChangeCounter,
+        AuditTrail auditTrail
+    ) {
         this.bankRepository = bankRepository;
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
+        this.tableChangeCounter = tableChangeCounter;
+        this.auditTrail = auditTrail;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Bank> findOne(Long id) {
         log.debug("Request to find bank by ID: {}", id);
         return bankRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Bank> findAll() {
         log.debug("Request to find all Banks");
         return bankRepository.findAll();
     }
 
+    /**
+     * @return the version of a bank, without loading it.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return bankRepository.findVersionById(id);
+    }
+
+    /**
+     * @return the version of the bank table, to be read before the banks themselves; empty if it is not known.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OptionalLong findAllVersion() {
+        return tableChangeCounter.current(TableChangeCounter.BANK);
+    }
+
+    /**
+     * @return the version of the account table, to be read before the accounts themselves; empty if it is not known.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OptionalLong getAllAccountsVersion() {
+        return tableChangeCounter.current(TableChangeCounter.ACCOUNT);
+    }
+
     public Bank createBank(Bank bank) {
         log.debug("Request to create Bank: {}", bank);
         // Optionally perform any additional logic/validation here
-        return bankRepository.save(bank);
+        tableChangeCounter.markChanged(TableChangeCounter.BANK);
+        Bank result = bankRepository.save(bank);
+        auditTrail.record(AuditTrail.BANK, result.getBankId(), AuditTrail.CREATE, null, AuditSnapshots.of(result));
+        return result;
     }
 
     public Bank updateBank(Long bankId, Bank updatedBank) {
@@ -57,6 +104,7 @@ public class BankService {
         Bank existingBank = bankRepository
             .findById(bankId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Bank not found"));
+        Map<String, Object> before = AuditSnapshots.of(existingBank);
 
         existingBank.setBankName(updatedBank.getBankName());
         existingBank.setTotalTransactionFeeAmount(updatedBank.getTotalTransactionFeeAmount());
@@ -65,7 +113,10 @@ public class BankService {
         existingBank.setTransactionPercentFeeValue(updatedBank.getTransactionPercentFeeValue());
 
         log.debug("Updated Bank: {}", existingBank);
-        return bankRepository.save(existingBank);
+        tableChangeCounter.markChanged(TableChangeCounter.BANK);
+        Bank result = bankRepository.save(existingBank);
+        auditTrail.record(AuditTrail.BANK, bankId, AuditTrail.UPDATE, before, AuditSnapshots.of(result));
+        return result;
     }
 
     public void delete(Long id) {
@@ -77,13 +128,20 @@ public class BankService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Bank not found");
         }
 
+        // loads it into the persistence context, where deleteById finds it again
+        Map<String, Object> before = bankRepository.findById(id).map(AuditSnapshots::of).orElse(null);
+        // accounts go with their bank
+        tableChangeCounter.markChanged(TableChangeCounter.BANK, TableChangeCounter.ACCOUNT);
         bankRepository.deleteById(id);
+        auditTrail.record(AuditTrail.BANK, id, AuditTrail.DELETE, before, null);
     }
 
+    @Transactional(readOnly = true)
     public List<Account> getAllAccounts() {
         return accountRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal calculateTotalTransactionFeeAmount() {
         BigDecimal totalTransactionFeeAmount = BigDecimal.ZERO;
 
@@ -114,6 +172,7 @@ public class BankService {
         return totalFeeAmount;
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal calculateTotalTransferAmount() {
         List<Transaction> allTransactions = transactionRepository.findAll();
         BigDecimal totalTransferAmount = BigDecimal.ZERO;
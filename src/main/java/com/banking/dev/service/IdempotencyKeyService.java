@@ -0,0 +1,136 @@
+package com.banking.dev.service;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.service.lock.JobLock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The {@code Idempotency-Key}s sent with money movements, each recorded with the transaction id of its movement, so
+ * that a client repeating a movement it got no answer for is referred to the first one instead of applying it twice.
+ * <p>
+ * A key is recorded in the transaction writing its movement, or, for the ledger, before the movement is queued and
+ * released if it is rejected. Recording a key already there waits for the transaction that recorded it, then fails
+ * with a {@link MovementPendingException} if it committed. Keys are kept for {@code retention-seconds}.
+ */
+@Service
+public class IdempotencyKeyService {
+
+    private static final String FIND_SQL = "SELECT idempotency_key, transaction_id FROM idempotency_key WHERE idempotency_key = ANY(?)";
+
+    private static final String RECORD_SQL =
+        "INSERT INTO idempotency_key (idempotency_key, transaction_id, created_date) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String RELEASE_SQL = "DELETE FROM idempotency_key WHERE idempotency_key = ? AND transaction_id = ?";
+
+    private static final String PURGE_SQL = "DELETE FROM idempotency_key WHERE created_date < ?";
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyKeyService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Joins the caller's transaction, if any: the connections are not in auto-commit mode. */
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.IdempotencyKeys properties;
+
+    public IdempotencyKeyService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getIdempotencyKeys();
+    }
+
+    /**
+     * @return the transaction ids recorded under those of the keys that are known, by key.
+     */
+    public Map<String, Long> findAll(Collection<String> keys) {
+        Map<String, Long> transactionIds = new HashMap<>();
+        if (!keys.isEmpty()) {
+            jdbcTemplate.query(
+                FIND_SQL,
+                (RowCallbackHandler) rs -> transactionIds.put(rs.getString(1), rs.getLong(2)),
+                (Object) keys.toArray(new String[0])
+            );
+        }
+        return transactionIds;
+    }
+
+    /**
+     * @param key the client's key, or null if it sent none.
+     * @throws MovementPendingException referring to the earlier movement with the same key, if there is one.
+     */
+    public void checkNotRepeated(String key) {
+        if (key != null) {
+            Long transactionId = findAll(List.of(key)).get(key);
+            if (transactionId != null) {
+                throw new MovementPendingException(transactionId);
+            }
+        }
+    }
+
+    /**
+     * Records the keys of new transactions, in the current transaction if there is one, else in one of its own.
+     *
+     * @param transactionIds the transaction ids by key.
+     * @throws MovementPendingException referring to the earlier movement of the first key already recorded.
+     */
+    public void recordAll(Map<String, Long> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        List<String> keys = new ArrayList<>(transactionIds.keySet());
+        List<Object[]> rows = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            rows.add(new Object[] { key, transactionIds.get(key), now });
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            int[] inserted = jdbcTemplate.batchUpdate(RECORD_SQL, rows);
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i] == 0) {
+                    String key = keys.get(i);
+                    throw new MovementPendingException(findAll(List.of(key)).getOrDefault(key, transactionIds.get(key)));
+                }
+            }
+        });
+    }
+
+    /**
+     * Forgets the key of a movement that was rejected, so that the client can send it again with the same key.
+     * Best effort: if the key cannot be deleted, the client is referred to a transaction that does not exist until
+     * the key expires.
+     */
+    public void release(String key, long transactionId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(RELEASE_SQL, key, transactionId));
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {} of transaction {}: {}", key, transactionId, e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 30 * * * ?")
+    @JobLock(value = "purgeIdempotencyKeys", lockAtLeastForSeconds = 300)
+    public void purgeExpired() {
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC).minusSeconds(properties.getRetentionSeconds());
+        Integer purged = transactionTemplate.execute(status -> jdbcTemplate.update(PURGE_SQL, before));
+        log.debug("Purged {} idempotency keys recorded before {}", purged, before);
+    }
+}
@@ -0,0 +1,23 @@
+package com.banking.dev.service;
+
+/**
+ * Thrown when the outcome of a money movement is not known to its caller yet: either it was still being written when
+ * the caller stopped waiting, and it may yet be applied under the transaction id it was given, or be rejected, in
+ * which case no transaction ever has that id; or it repeats the idempotency key of an earlier movement, whose
+ * transaction id it carries.
+ */
+public class MovementPendingException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long transactionId;
+
+    public MovementPendingException(long transactionId) {
+        super("The movement is, or will be, transaction " + transactionId);
+        this.transactionId = transactionId;
+    }
+
+    public long getTransactionId() {
+        return transactionId;
+    }
+}
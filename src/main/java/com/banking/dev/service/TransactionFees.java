@@ -0,0 +1,40 @@
+package com.banking.dev.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Fees of the money movements processed by {@link TransactionService}: a flat fee, then a percentage fee computed on
+ * the amount including the flat fee.
+ */
+public final class TransactionFees {
+
+    static final BigDecimal FLAT_FEE = new BigDecimal("10.00");
+
+    static final BigDecimal PERCENTAGE_FEE = new BigDecimal("0.05");
+
+    private TransactionFees() {}
+
+    /**
+     * @return the amount taken from the account for a withdrawal of {@code amount}.
+     */
+    public static BigDecimal withdrawalDebit(BigDecimal amount) {
+        BigDecimal totalWithdrawalAmount = amount.add(FLAT_FEE);
+        return totalWithdrawalAmount.add(totalWithdrawalAmount.multiply(PERCENTAGE_FEE));
+    }
+
+    /**
+     * @return the amount added to the account for a deposit of {@code amount}.
+     */
+    public static BigDecimal depositCredit(BigDecimal amount) {
+        BigDecimal totalDepositAmount = amount.subtract(FLAT_FEE);
+        return totalDepositAmount.add(totalDepositAmount.multiply(PERCENTAGE_FEE));
+    }
+
+    /**
+     * @return the amount taken from the source account for a transfer of {@code amount}.
+     */
+    public static BigDecimal transferDebit(BigDecimal amount) {
+        BigDecimal totalTransferAmount = amount.add(FLAT_FEE);
+        return totalTransferAmount.add(totalTransferAmount.multiply(PERCENTAGE_FEE));
+    }
+}
@@ -0,0 +1,224 @@
+package com.banking.dev.service;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.service.lock.JobLock;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the monthly range partitions of the {@code transaction} table.
+ * <p>
+ * Partitions are named {@code transaction_pYYYY_MM} and cover {@code [first day of the month, first day of the next
+ * month)} in UTC. Every run creates the partitions up to {@code application.transaction-partitions.months-ahead}
+ * months after the current one, so inserts never hit a missing partition, and detaches partitions older than
+ * {@code retention-months}. Detaching is a catalog operation, unlike deleting the rows: the detached table is kept
+ * for archival, or dropped with {@code drop-detached}. It runs {@code CONCURRENTLY}, so that money movements into the
+ * current partitions are not blocked behind an {@code ACCESS EXCLUSIVE} lock on the parent table.
+ * <p>
+ * The connections are not in auto-commit mode: partitions are created and dropped in a transaction, and detached on
+ * a connection switched to auto-commit for the time of the statement.
+ */
+@Service
+public class TransactionPartitionService {
+
+    public static final String PARENT_TABLE = "transaction";
+
+    private static final String PARTITION_PREFIX = PARENT_TABLE + "_p";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final Logger log = LoggerFactory.getLogger(TransactionPartitionService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.TransactionPartitions properties;
+
+    public TransactionPartitionService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getTransactionPartitions();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.transaction-partitions.cron:0 0 3 * * ?}")
+    @JobLock(value = "maintainPartitions", lockAtLeastForSeconds = 300)
+    public void maintainPartitions() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        createPartitions(current, current.plusMonths(properties.getMonthsAhead()));
+        detachExpiredPartitions(current);
+    }
+
+    /**
+     * Creates the missing partitions for every month from {@code first} to {@code last}, both included, in the
+     * current transaction if there is one, else in one of their own.
+     */
+    public void createPartitions(YearMonth first, YearMonth last) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<String> existing = findPartitions();
+            for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                String name = partitionName(month);
+                if (!existing.contains(name)) {
+                    log.info("Creating partition {}", name);
+                    jdbcTemplate.execute(
+                        "CREATE TABLE IF NOT EXISTS " +
+                        name +
+                        " PARTITION OF " +
+                        PARENT_TABLE +
+                        " FOR VALUES FROM ('" +
+                        month.atDay(1).format(BOUND) +
+                        "') TO ('" +
+                        month.plusMonths(1).atDay(1).format(BOUND) +
+                        "')"
+                    );
+                }
+            }
+        });
+    }
+
+    /**
+     * Detaches, and optionally drops, the partitions that are entirely older than the retention period.
+     *
+     * @return the names of the detached partitions.
+     */
+    public List<String> detachExpiredPartitions(YearMonth current) {
+        List<String> expired = expiredPartitions(findPartitions(), current, properties.getRetentionMonths());
+        for (String name : expired) {
+            log.info("Detaching expired partition {}", name);
+            detachPartition(name);
+            if (properties.isDropDetached()) {
+                dropDetachedPartition(name);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Detaches a partition without blocking the reads and writes of the other partitions, or completes the detach
+     * of a previous run that was interrupted.
+     * <p>
+     * {@code DETACH PARTITION ... CONCURRENTLY} commits in two steps, so it cannot run inside a transaction: callers
+     * must not hold one.
+     */
+    public void detachPartition(String name) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot detach " + name + " concurrently inside a transaction");
+        }
+        List<Boolean> pending = jdbcTemplate.queryForList(
+            "SELECT inhdetachpending FROM pg_inherits WHERE inhrelid = to_regclass(?)",
+            Boolean.class,
+            name
+        );
+        if (pending.contains(Boolean.TRUE)) {
+            log.info("Finalizing the pending detach of partition {}", name);
+            executeAutoCommit("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name + " FINALIZE");
+        } else {
+            executeAutoCommit("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name + " CONCURRENTLY");
+        }
+    }
+
+    /**
+     * Drops a partition once detached, in the current transaction if there is one, else in one of its own.
+     */
+    public void dropDetachedPartition(String name) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute("DROP TABLE " + name));
+    }
+
+    /**
+     * Runs a statement that PostgreSQL refuses inside a transaction block, which the driver opens on every statement
+     * of a connection that is not in auto-commit mode. The connection is given back in its previous mode.
+     */
+    private void executeAutoCommit(String sql) {
+        jdbcTemplate.execute(
+            (ConnectionCallback<Void>) connection -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(sql);
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                return null;
+            }
+        );
+    }
+
+    /**
+     * @return the names of the partitions currently attached to the {@code transaction} table.
+     */
+    public List<String> findPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT child.relname FROM pg_inherits " +
+            "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent " +
+            "JOIN pg_class child ON child.oid = pg_inherits.inhrelid " +
+            "WHERE parent.relname = ? AND parent.relnamespace = to_regnamespace(current_schema())::oid",
+            String.class,
+            PARENT_TABLE
+        );
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    /**
+     * @return the month covered by a partition, or {@code null} if the table does not follow the naming scheme.
+     */
+    public static YearMonth partitionMonth(String name) {
+        if (!name.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * With a retention of {@code n} months, the current month and the {@code n - 1} previous ones are kept.
+     * A retention of 0 or less keeps everything.
+     */
+    static List<String> expiredPartitions(Collection<String> partitions, YearMonth current, int retentionMonths) {
+        List<String> expired = new ArrayList<>();
+        if (retentionMonths <= 0) {
+            return expired;
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+        for (String name : partitions) {
+            YearMonth month = partitionMonth(name);
+            if (month != null && month.isBefore(oldestKept)) {
+                expired.add(name);
+            }
+        }
+        expired.sort(null);
+        return expired;
+    }
+}
@@ -4,17 +4,31 @@ import com.banking.dev.domain.Account;
 import com.banking.dev.domain.Transaction;
 import com.banking.dev.repository.AccountRepository;
 import com.banking.dev.repository.TransactionRepository;
+import com.banking.dev.service.archive.ArchivedTransaction;
+import com.banking.dev.service.archive.LedgerArchive;
+import com.banking.dev.service.audit.AuditSnapshots;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
+import com.banking.dev.service.outbox.OutboxService;
+import com.banking.dev.service.velocity.VelocityService;
 import com.banking.dev.web.rest.vm.DepositRequest;
 import com.banking.dev.web.rest.vm.TransferRequest;
 import com.banking.dev.web.rest.vm.WithdrawalRequest;
-import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
@@ -25,26 +39,87 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
-
-    public TransactionService(TransactionRepository transactionRepository, AccountRepository accountRepository) {
+    private final OutboxService outboxService;
+    private final LedgerArchive ledgerArchive;
+    private final TableChangeCounter tableChangeCounter;
+    private final AuditTrail auditTrail;
+    private final VelocityService velocityService;
+    private final IdempotencyKeyService idempotencyKeyService;
+
+    public TransactionService(
+        TransactionRepository transactionRepository,
+        AccountRepository accountRepository,
+        OutboxService outboxService,
+        LedgerArchive ledgerArchive,
+        TableChangeCounter tableChangeCounter,
+        AuditTrail auditTrail,
+        VelocityService velocityService,
+        IdempotencyKeyService idempotencyKeyService
+    ) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
+        this.outboxService = outboxService;
+        this.ledgerArchive = ledgerArchive;
+        this.tableChangeCounter = tableChangeCounter;
+        this.auditTrail = auditTrail;
+        this.velocityService = velocityService;
+        this.idempotencyKeyService = idempotencyKeyService;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Transaction> findOne(Long id) {
         log.debug("Request to find transaction by ID: {}", id);
-        return transactionRepository.findById(id);
+        return transactionRepository.findById(id).or(() -> ledgerArchive.findById(id).map(this::toTransaction));
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> findAll() {
         log.debug("Request to find all Transactions");
-        return transactionRepository.findAll();
+        List<Transaction> table = transactionRepository.findAll();
+        List<Transaction> transactions = toTransactions(ledgerArchive.findAll(), table);
+        transactions.addAll(table);
+        return transactions;
+    }
+
+    /**
+     * The range is split at {@link LedgerArchive#archivedUntil()}: older months are read from the archive, the others
+     * from the partitions of the transaction table. The archive is read after the table, so that a month archived in
+     * between is found in one or the other, and possibly both.
+     */
+    @Transactional(readOnly = true)
+    public List<Transaction> findAllCreatedBetween(Instant from, Instant to) {
+        log.debug("Request to find Transactions created between {} and {}", from, to);
+        Instant tableFrom = max(from, ledgerArchive.archivedUntil());
+        List<Transaction> table = tableFrom.isBefore(to) ? transactionRepository.findAllCreatedBetween(tableFrom, to) : List.of();
+        List<Transaction> transactions = toTransactions(
+            ledgerArchive.findAllCreatedBetween(from, min(to, ledgerArchive.archivedUntil())),
+            table
+        );
+        transactions.addAll(table);
+        return transactions;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Transaction> findAllByAccountCreatedBetween(Long accountId, Instant from, Instant to) {
+        log.debug("Request to find Transactions of Account {} created between {} and {}", accountId, from, to);
+        Instant tableFrom = max(from, ledgerArchive.archivedUntil());
+        List<Transaction> table = tableFrom.isBefore(to)
+            ? transactionRepository.findAllByAccountCreatedBetween(accountId, tableFrom, to)
+            : List.of();
+        List<Transaction> transactions = toTransactions(
+            ledgerArchive.findAllByAccountCreatedBetween(accountId, from, min(to, ledgerArchive.archivedUntil())),
+            table
+        );
+        transactions.addAll(table);
+        return transactions;
     }
 
     public Transaction createTransaction(Transaction transaction) {
         log.debug("Request to create Transaction: {}", transaction);
         // Optionally perform any additional logic/validation here
-        return transactionRepository.save(transaction);
+        Transaction result = transactionRepository.save(transaction);
+        auditTrail.record(AuditTrail.TRANSACTION, result.getTransactionId(), AuditTrail.CREATE, null, AuditSnapshots.of(result));
+        return result;
     }
 
     public Transaction updateTransaction(Long transactionId, Transaction updatedTransaction) {
@@ -52,6 +127,7 @@ public class TransactionService {
         Transaction existingTransaction = transactionRepository
             .findById(transactionId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction not found"));
+        Map<String, Object> before = AuditSnapshots.of(existingTransaction);
 
         existingTransaction.setAmount(updatedTransaction.getAmount());
         existingTransaction.setOriginatingAccount(updatedTransaction.getOriginatingAccount());
@@ -59,7 +135,9 @@ public class TransactionService {
         existingTransaction.setTransactionReason(updatedTransaction.getTransactionReason());
 
         log.debug("Updated Transaction: {}", existingTransaction);
-        return transactionRepository.save(existingTransaction);
+        Transaction result = transactionRepository.save(existingTransaction);
+        auditTrail.record(AuditTrail.TRANSACTION, transactionId, AuditTrail.UPDATE, before, AuditSnapshots.of(result));
+        return result;
     }
 
     public void delete(Long id) {
@@ -71,30 +149,37 @@ public class TransactionService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction not found");
         }
 
+        // loads it into the persistence context, where deleteById finds it again
+        Map<String, Object> before = transactionRepository.findById(id).map(AuditSnapshots::of).orElse(null);
         transactionRepository.deleteById(id);
+        auditTrail.record(AuditTrail.TRANSACTION, id, AuditTrail.DELETE, before, null);
     }
 
-    public Transaction processWithdrawal(WithdrawalRequest withdrawalRequest) {
+    /**
+     * @param idempotencyKey the client's {@code Idempotency-Key}, or null.
+     */
+    public Transaction processWithdrawal(WithdrawalRequest withdrawalRequest, String idempotencyKey) {
         log.debug("Service request to process Withdrawal: {}", withdrawalRequest);
+        idempotencyKeyService.checkNotRepeated(idempotencyKey);
 
         Account account = accountRepository
-            .findById(withdrawalRequest.getAccountId())
+            .findByIdForUpdate(withdrawalRequest.getAccountId())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found"));
 
         BigDecimal withdrawalAmount = withdrawalRequest.getAmount();
         BigDecimal currentBalance = account.getBalance();
 
-        if (currentBalance.compareTo(withdrawalAmount) < 0) {
+        // Withdrawal amount plus flat fee plus percentage fee
+        BigDecimal totalAmountWithFee = TransactionFees.withdrawalDebit(withdrawalAmount);
+
+        if (currentBalance.compareTo(totalAmountWithFee) < 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient funds");
         }
+        if (!velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, account.getAccountId(), withdrawalAmount)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Withdrawal limit exceeded");
+        }
 
-        // Flat fee deduction for withdrawal
-        BigDecimal flatFee = new BigDecimal("10.00");
-        BigDecimal totalWithdrawalAmount = withdrawalAmount.add(flatFee);
-
-        // Percentage fee deduction for withdrawal
-        BigDecimal percentageFee = totalWithdrawalAmount.multiply(new BigDecimal("0.05")); // Assuming 5% fee
-        BigDecimal totalAmountWithFee = totalWithdrawalAmount.add(percentageFee);
+        Map<String, Object> before = AuditSnapshots.balances(account);
 
         // Deduct total amount (original withdrawal amount + flat fee + percentage fee)
         account.setBalance(currentBalance.subtract(totalAmountWithFee));
@@ -106,26 +191,26 @@ public class TransactionService {
         transaction.setOriginatingAccount(account);
         transaction.setTransactionReason("Withdrawal");
 
-        return transactionRepository.save(transaction);
+        return recordCommitted(transactionRepository.save(transaction), AuditTrail.WITHDRAWAL, before, idempotencyKey);
     }
 
-    public Transaction processDeposit(DepositRequest depositRequest) {
+    /**
+     * @param idempotencyKey the client's {@code Idempotency-Key}, or null.
+     */
+    public Transaction processDeposit(DepositRequest depositRequest, String idempotencyKey) {
         log.debug("Service request to process Deposit: {}", depositRequest);
+        idempotencyKeyService.checkNotRepeated(idempotencyKey);
 
         Account account = accountRepository
-            .findById(depositRequest.getAccountId())
+            .findByIdForUpdate(depositRequest.getAccountId())
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found"));
 
         BigDecimal depositAmount = depositRequest.getAmount();
         BigDecimal currentBalance = account.getBalance();
 
-        // Flat fee deduction for deposit
-        BigDecimal flatFee = new BigDecimal("10.00");
-        BigDecimal totalDepositAmount = depositAmount.subtract(flatFee);
-
-        // Percentage fee deduction for deposit
-        BigDecimal percentageFee = totalDepositAmount.multiply(new BigDecimal("0.05")); // Assuming 5% fee
-        BigDecimal totalAmountWithFee = totalDepositAmount.add(percentageFee);
+        // Deposit amount minus flat fee, plus percentage fee
+        BigDecimal totalAmountWithFee = TransactionFees.depositCredit(depositAmount);
+        Map<String, Object> before = AuditSnapshots.balances(account);
 
         // Add total amount (original deposit amount - flat fee - percentage fee)
         account.setBalance(currentBalance.add(totalAmountWithFee));
@@ -137,38 +222,46 @@ public class TransactionService {
         transaction.setOriginatingAccount(account);
         transaction.setTransactionReason("Deposit");
 
-        return transactionRepository.save(transaction);
+        return recordCommitted(transactionRepository.save(transaction), AuditTrail.DEPOSIT, before, idempotencyKey);
     }
 
-    public Transaction processTransfer(TransferRequest transferRequest) {
+    /**
+     * @param idempotencyKey the client's {@code Idempotency-Key}, or null.
+     */
+    public Transaction processTransfer(TransferRequest transferRequest, String idempotencyKey) {
         log.debug("Service request to process Transfer: {}", transferRequest);
+        idempotencyKeyService.checkNotRepeated(idempotencyKey);
 
         Long sourceAccountId = transferRequest.getSourceAccountId();
         Long targetAccountId = transferRequest.getDestinationAccountId();
 
-        Account sourceAccount = accountRepository
-            .findById(sourceAccountId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Source account not found"));
+        Map<Long, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(Stream.of(sourceAccountId, targetAccountId).distinct().toList())) {
+            accounts.put(account.getAccountId(), account);
+        }
 
-        Account targetAccount = accountRepository
-            .findById(targetAccountId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Target account not found"));
+        Account sourceAccount = Optional.ofNullable(accounts.get(sourceAccountId)).orElseThrow(() ->
+            new ResponseStatusException(HttpStatus.NOT_FOUND, "Source account not found")
+        );
 
-        BigDecimal transferAmount = transferRequest.getAmount();
+        Account targetAccount = Optional.ofNullable(accounts.get(targetAccountId)).orElseThrow(() ->
+            new ResponseStatusException(HttpStatus.NOT_FOUND, "Target account not found")
+        );
 
-        // Flat fee deduction for transfer
-        BigDecimal flatFee = new BigDecimal("10.00");
-        BigDecimal totalTransferAmount = transferAmount.add(flatFee);
+        BigDecimal transferAmount = transferRequest.getAmount();
 
-        // Percentage fee deduction for transfer
-        BigDecimal percentageFee = totalTransferAmount.multiply(new BigDecimal("0.05")); // Assuming 5% fee
-        BigDecimal totalAmountWithFee = totalTransferAmount.add(percentageFee);
+        // Transfer amount plus flat fee plus percentage fee
+        BigDecimal totalAmountWithFee = TransactionFees.transferDebit(transferAmount);
 
         BigDecimal sourceBalance = sourceAccount.getBalance();
 
         if (sourceBalance.compareTo(totalAmountWithFee) < 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient funds");
         }
+        if (!velocityService.tryAcquire(VelocityService.Kind.TRANSFER, sourceAccountId, transferAmount)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Transfer limit exceeded");
+        }
+        Map<String, Object> before = AuditSnapshots.balances(sourceAccount, targetAccount);
 
         // Deduct total amount (original transfer amount + flat fee + percentage fee) from source account
         sourceAccount.setBalance(sourceBalance.subtract(totalAmountWithFee));
@@ -185,6 +278,73 @@ public class TransactionService {
         transaction.setResultingAccount(targetAccount);
         transaction.setTransactionReason("Transfer");
 
-        return transactionRepository.save(transaction);
+        return recordCommitted(transactionRepository.save(transaction), AuditTrail.TRANSFER, before, idempotencyKey);
+    }
+
+    /**
+     * @return the archived transactions that are not also in {@code table}: a month is in both from the registration
+     * of its segment until its partition is dropped.
+     */
+    private List<Transaction> toTransactions(List<ArchivedTransaction> archived, List<Transaction> table) {
+        Set<Long> tableIds = new HashSet<>();
+        for (Transaction transaction : table) {
+            tableIds.add(transaction.getTransactionId());
+        }
+        List<Transaction> transactions = new ArrayList<>(archived.size() + table.size());
+        for (ArchivedTransaction transaction : archived) {
+            if (!tableIds.contains(transaction.getTransactionId())) {
+                transactions.add(toTransaction(transaction));
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Archived transactions reference their accounts through uninitialized proxies, serialized as ids only.
+     */
+    private Transaction toTransaction(ArchivedTransaction archived) {
+        Transaction transaction = new Transaction(
+            archived.getTransactionId(),
+            accountReference(archived.getOriginatingAccountId()),
+            archived.getAmount(),
+            accountReference(archived.getResultingAccountId()),
+            archived.getTransactionReason()
+        );
+        transaction.setCreatedDate(archived.getCreatedDate());
+        return transaction;
+    }
+
+    private Account accountReference(Long accountId) {
+        return accountId == null ? null : accountRepository.getReferenceById(accountId);
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Writes the outbox event for a money movement inside the current transaction, so downstream consumers only
+     * ever see movements that actually committed; the audit trail records it once it commits. The idempotency key
+     * is recorded in the same transaction, which rolls back if a concurrent request recorded it first.
+     */
+    private Transaction recordCommitted(Transaction transaction, String action, Map<String, Object> balancesBefore, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            idempotencyKeyService.recordAll(Map.of(idempotencyKey, transaction.getTransactionId()));
+        }
+        // balances changed
+        tableChangeCounter.markChanged(TableChangeCounter.ACCOUNT);
+        outboxService.recordTransaction(transaction);
+        auditTrail.record(
+            AuditTrail.TRANSACTION,
+            transaction.getTransactionId(),
+            action,
+            balancesBefore,
+            AuditSnapshots.movement(transaction)
+        );
+        return transaction;
     }
 }
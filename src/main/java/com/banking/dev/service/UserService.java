@@ -3,12 +3,14 @@ package com.banking.dev.service;
 import com.banking.dev.config.Constants;
 import com.banking.dev.domain.Authority;
 import com.banking.dev.domain.User;
-import com.banking.dev.repository.AuthorityRepository;
 import com.banking.dev.repository.UserRepository;
 import com.banking.dev.security.AuthoritiesConstants;
 import com.banking.dev.security.SecurityUtils;
+import com.banking.dev.service.batch.ChunkedJob;
+import com.banking.dev.service.batch.ChunkedJobRunner;
 import com.banking.dev.service.dto.AdminUserDTO;
 import com.banking.dev.service.dto.UserDTO;
+import com.banking.dev.service.lock.JobLock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -16,11 +18,15 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -37,20 +43,24 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
-    private final AuthorityRepository authorityRepository;
+    private final AuthorityRegistry authorityRegistry;
 
     private final CacheManager cacheManager;
 
+    private final ChunkedJobRunner chunkedJobRunner;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
-        AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        AuthorityRegistry authorityRegistry,
+        CacheManager cacheManager,
+        ChunkedJobRunner chunkedJobRunner
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.authorityRepository = authorityRepository;
+        this.authorityRegistry = authorityRegistry;
         this.cacheManager = cacheManager;
+        this.chunkedJobRunner = chunkedJobRunner;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -127,7 +137,7 @@ public class UserService {
         // new user gets registration key
         newUser.setActivationKey(RandomUtil.generateActivationKey());
         Set<Authority> authorities = new HashSet<>();
-        authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
+        authorityRegistry.find(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
@@ -168,7 +178,7 @@ public class UserService {
             Set<Authority> authorities = userDTO
                 .getAuthorities()
                 .stream()
-                .map(authorityRepository::findById)
+                .map(authorityRegistry::find)
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .collect(Collectors.toSet());
@@ -206,7 +216,7 @@ public class UserService {
                 userDTO
                     .getAuthorities()
                     .stream()
-                    .map(authorityRepository::findById)
+                    .map(authorityRegistry::find)
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
@@ -280,6 +290,40 @@ public class UserService {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
     }
 
+    /**
+     * Like {@link #getAllManagedUsers(Pageable)}, without counting the users: one more row is read to tell whether
+     * there is a next page.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AdminUserDTO> getAllManagedUsersSlice(Pageable pageable) {
+        return userRepository.findSliceByIdNotNull(pageable).map(AdminUserDTO::new);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> getAllPublicUsersSlice(Pageable pageable) {
+        return userRepository.findSliceByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
+    }
+
+    /**
+     * @return the number of users according to the planner statistics, counted only if the table was never
+     * analyzed. Cached for the {@code userCounts} TTL.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = UserRepository.USER_COUNTS_CACHE, key = "'managed'")
+    public long getManagedUserCountEstimate() {
+        long estimate = userRepository.estimateCount();
+        return estimate >= 0 ? estimate : userRepository.count();
+    }
+
+    /**
+     * @return the number of activated users, cached for the {@code userCounts} TTL.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = UserRepository.USER_COUNTS_CACHE, key = "'public'")
+    public long getPublicUserCountEstimate() {
+        return userRepository.countByActivatedIsTrue();
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserWithAuthoritiesByLogin(String login) {
         return userRepository.findOneWithAuthoritiesByLogin(login);
@@ -293,17 +337,13 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am), and runs in chunks, see {@link ChunkedJobRunner}.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @JobLock(value = "removeNotActivatedUsers", lockAtLeastForSeconds = 300)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        chunkedJobRunner.run(new NotActivatedUsersCleanup(Instant.now().minus(3, ChronoUnit.DAYS)));
     }
 
     /**
@@ -311,9 +351,49 @@ public class UserService {
      *
      * @return a list of all the authorities.
      */
-    @Transactional(readOnly = true)
     public List<String> getAuthorities() {
-        return authorityRepository.findAll().stream().map(Authority::getName).toList();
+        return authorityRegistry.names();
+    }
+
+    private class NotActivatedUsersCleanup implements ChunkedJob<User> {
+
+        private final Instant createdBefore;
+
+        NotActivatedUsersCleanup(Instant createdBefore) {
+            this.createdBefore = createdBefore;
+        }
+
+        @Override
+        public String name() {
+            return "removeNotActivatedUsers";
+        }
+
+        @Override
+        public List<User> fetchChunk(long afterKey, int size) {
+            return userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBeforeAndIdGreaterThanOrderByIdAsc(
+                createdBefore,
+                afterKey,
+                Limit.of(size)
+            );
+        }
+
+        @Override
+        public long keyOf(User user) {
+            return user.getId();
+        }
+
+        @Override
+        public void processChunk(List<User> users) {
+            List<Long> ids = users.stream().map(User::getId).toList();
+            userRepository.deleteAuthoritiesByUserIdIn(ids);
+            userRepository.deleteByIdIn(ids);
+            log.debug("Deleted {} not activated users", ids.size());
+        }
+
+        @Override
+        public void afterCommit(List<User> users) {
+            users.forEach(UserService.this::clearUserCaches);
+        }
     }
 
     private void clearUserCaches(User user) {
@@ -0,0 +1,104 @@
+package com.banking.dev.service.archive;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A transaction read back from the archive. Accounts are only referenced by id.
+ */
+public class ArchivedTransaction {
+
+    private final long transactionId;
+
+    private final BigDecimal amount;
+
+    private final Long originatingAccountId;
+
+    private final Long resultingAccountId;
+
+    private final String transactionReason;
+
+    private final Instant createdDate;
+
+    public ArchivedTransaction(
+        long transactionId,
+        BigDecimal amount,
+        Long originatingAccountId,
+        Long resultingAccountId,
+        String transactionReason,
+        Instant createdDate
+    ) {
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.originatingAccountId = originatingAccountId;
+        this.resultingAccountId = resultingAccountId;
+        this.transactionReason = transactionReason;
+        this.createdDate = createdDate;
+    }
+
+    public long getTransactionId() {
+        return transactionId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Long getOriginatingAccountId() {
+        return originatingAccountId;
+    }
+
+    public Long getResultingAccountId() {
+        return resultingAccountId;
+    }
+
+    public String getTransactionReason() {
+        return transactionReason;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ArchivedTransaction that = (ArchivedTransaction) o;
+        return (
+            transactionId == that.transactionId &&
+            Objects.equals(amount, that.amount) &&
+            Objects.equals(originatingAccountId, that.originatingAccountId) &&
+            Objects.equals(resultingAccountId, that.resultingAccountId) &&
+            Objects.equals(transactionReason, that.transactionReason) &&
+            Objects.equals(createdDate, that.createdDate)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(transactionId, amount, originatingAccountId, resultingAccountId, transactionReason, createdDate);
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "ArchivedTransaction{" +
+            "transactionId=" +
+            transactionId +
+            ", amount=" +
+            amount +
+            ", originatingAccountId=" +
+            originatingAccountId +
+            ", resultingAccountId=" +
+            resultingAccountId +
+            ", transactionReason='" +
+            transactionReason +
+            '\'' +
+            ", createdDate=" +
+            createdDate +
+            '}'
+        );
+    }
+}
@@ -0,0 +1,194 @@
+package com.banking.dev.service.archive;
+
+import com.banking.dev.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Read access to the archived transactions, one memory-mapped segment per archived month.
+ * <p>
+ * {@code application.archive.directory} is storage shared by every instance: {@link LedgerArchiver} writes a segment
+ * there and registers it in the {@code ledger_archive_segment} table before dropping the month from the database, and
+ * each instance opens the registered segments as it finds them, before every read. Segment files that were never
+ * registered, left by an interrupted run, are ignored. Months are archived oldest first, so the archive always covers
+ * every month before {@link #archivedUntil()} and the database every month from it, some possibly still both.
+ */
+@Service
+public class LedgerArchive {
+
+    private static final String SEGMENT_PREFIX = "transactions-";
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final DateTimeFormatter SEGMENT_MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private static final Comparator<ArchivedTransaction> CREATION_ORDER = Comparator
+        .comparing(ArchivedTransaction::getCreatedDate)
+        .thenComparingLong(ArchivedTransaction::getTransactionId);
+
+    private final Logger log = LoggerFactory.getLogger(LedgerArchive.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path directory;
+
+    private volatile NavigableMap<YearMonth, LedgerSegment> segments = Collections.emptyNavigableMap();
+
+    public LedgerArchive(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = Path.of(applicationProperties.getArchive().getDirectory());
+    }
+
+    /**
+     * @return the start of the first month that is not archived, the epoch if nothing is archived yet.
+     */
+    public Instant archivedUntil() {
+        NavigableMap<YearMonth, LedgerSegment> current = refresh();
+        return current.isEmpty() ? Instant.EPOCH : startOf(current.lastKey().plusMonths(1));
+    }
+
+    public Optional<ArchivedTransaction> findById(long transactionId) {
+        for (LedgerSegment segment : refresh().descendingMap().values()) {
+            if (segment.mayContainId(transactionId)) {
+                Optional<ArchivedTransaction> transaction = segment.findById(transactionId);
+                if (transaction.isPresent()) {
+                    return transaction;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the archived transactions created in {@code [from, to)}, in creation order.
+     */
+    public List<ArchivedTransaction> findAllCreatedBetween(Instant from, Instant to) {
+        List<ArchivedTransaction> result = new ArrayList<>();
+        long fromMicros = LedgerSegmentWriter.toMicros(from);
+        long toMicros = LedgerSegmentWriter.toMicros(to);
+        for (LedgerSegment segment : segmentsBetween(from, to)) {
+            segment.scan(fromMicros, toMicros, result::add);
+        }
+        result.sort(CREATION_ORDER);
+        return result;
+    }
+
+    /**
+     * @return the archived transactions of an account, as originating or resulting account, created in
+     * {@code [from, to)}, in creation order.
+     */
+    public List<ArchivedTransaction> findAllByAccountCreatedBetween(long accountId, Instant from, Instant to) {
+        List<ArchivedTransaction> result = new ArrayList<>();
+        long fromMicros = LedgerSegmentWriter.toMicros(from);
+        long toMicros = LedgerSegmentWriter.toMicros(to);
+        for (LedgerSegment segment : segmentsBetween(from, to)) {
+            result.addAll(segment.findByAccount(accountId, fromMicros, toMicros));
+        }
+        result.sort(CREATION_ORDER);
+        return result;
+    }
+
+    public List<ArchivedTransaction> findAll() {
+        return findAllCreatedBetween(Instant.EPOCH, archivedUntil());
+    }
+
+    Path segmentPath(YearMonth month) {
+        return directory.resolve(SEGMENT_PREFIX + month.format(SEGMENT_MONTH) + SEGMENT_SUFFIX);
+    }
+
+    boolean isRegistered(YearMonth month) {
+        return refresh().containsKey(month);
+    }
+
+    /**
+     * Makes a complete segment file readable by every instance. Readers may then find the month both in the archive
+     * and in its partition, until the partition is dropped. The segment is opened here once the registration is
+     * committed.
+     */
+    void register(YearMonth month, Path file, long rows) {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "INSERT INTO ledger_archive_segment (month, file_name, row_count, archived_date) VALUES (?, ?, ?, ?)",
+                month.atDay(1),
+                file.getFileName().toString(),
+                rows,
+                LocalDateTime.now(ZoneOffset.UTC)
+            )
+        );
+        refresh();
+    }
+
+    private List<LedgerSegment> segmentsBetween(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        YearMonth first = YearMonth.from(from.atOffset(ZoneOffset.UTC));
+        YearMonth last = YearMonth.from(to.minusNanos(1).atOffset(ZoneOffset.UTC));
+        return new ArrayList<>(refresh().subMap(first, true, last, true).values());
+    }
+
+    /**
+     * Opens the segments registered, by any instance, after the last known month.
+     *
+     * @return the open segments.
+     */
+    private NavigableMap<YearMonth, LedgerSegment> refresh() {
+        NavigableMap<YearMonth, LedgerSegment> current = segments;
+        List<Map<String, Object>> registered = jdbcTemplate.queryForList(
+            "SELECT month, file_name FROM ledger_archive_segment WHERE month > ? ORDER BY month",
+            current.isEmpty() ? LocalDate.EPOCH : current.lastKey().atDay(1)
+        );
+        return registered.isEmpty() ? current : open(registered);
+    }
+
+    private synchronized NavigableMap<YearMonth, LedgerSegment> open(List<Map<String, Object>> registered) {
+        NavigableMap<YearMonth, LedgerSegment> updated = new TreeMap<>(segments);
+        for (Map<String, Object> row : registered) {
+            YearMonth month = YearMonth.from(((Date) row.get("month")).toLocalDate());
+            if (!updated.containsKey(month)) {
+                Path file = directory.resolve((String) row.get("file_name"));
+                try {
+                    updated.put(month, LedgerSegment.open(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot open the archived month " + month + ", is " + directory + " shared?", e);
+                }
+                log.info("Opened ledger archive segment {}", file);
+            }
+        }
+        segments = Collections.unmodifiableNavigableMap(updated);
+        return segments;
+    }
+
+    private static Instant startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -0,0 +1,159 @@
+package com.banking.dev.service.archive;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.service.TransactionPartitionService;
+import com.banking.dev.service.lock.JobLock;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves whole months of transactions older than {@code application.archive.cutoff-months} from the database to
+ * segment files.
+ * <p>
+ * The unit of work is a monthly partition of the {@code transaction} table, attached or already detached by the
+ * retention policy. The segment is written to a temporary file in the shared archive directory, synced and renamed,
+ * registered with the {@link LedgerArchive}, and only then is the partition detached and dropped: a crash at any point
+ * leaves the month readable on every instance, and the next run either rewrites an unregistered segment from the
+ * table or drops the partition of a registered one. Partitions dropped by
+ * {@code application.transaction-partitions.drop-detached} cannot be archived, so the retention period should be
+ * longer than the archive cutoff.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.archive", name = "enabled", havingValue = "true")
+public class LedgerArchiver {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(LedgerArchiver.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Read-only, for the segment's rows, which a replica may serve. */
+    private final TransactionTemplate transactionTemplate;
+
+    private final LedgerArchive ledgerArchive;
+
+    private final TransactionPartitionService transactionPartitionService;
+
+    private final ApplicationProperties.Archive properties;
+
+    public LedgerArchiver(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        LedgerArchive ledgerArchive,
+        TransactionPartitionService transactionPartitionService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.ledgerArchive = ledgerArchive;
+        this.transactionPartitionService = transactionPartitionService;
+        this.properties = applicationProperties.getArchive();
+    }
+
+    @Scheduled(cron = "${application.archive.cron:0 30 3 * * ?}")
+    @JobLock(value = "archiveExpiredMonths", lockAtLeastForSeconds = 300)
+    public void archiveExpiredMonths() {
+        YearMonth cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(properties.getCutoffMonths());
+        for (String table : findPartitionTables()) {
+            YearMonth month = TransactionPartitionService.partitionMonth(table);
+            if (month != null && month.isBefore(cutoff)) {
+                archiveMonth(table, month);
+            }
+        }
+    }
+
+    void archiveMonth(String table, YearMonth month) {
+        if (!ledgerArchive.isRegistered(month)) {
+            writeAndRegister(table, month);
+        }
+
+        if (transactionPartitionService.findPartitions().contains(table)) {
+            transactionPartitionService.detachPartition(table);
+        }
+        transactionPartitionService.dropDetachedPartition(table);
+    }
+
+    private void writeAndRegister(String table, YearMonth month) {
+        Path segment = ledgerArchive.segmentPath(month);
+        Path temporary = segment.resolveSibling(segment.getFileName() + ".tmp");
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(segment.getParent());
+            Long rows = transactionTemplate.execute(status -> writeSegment(table, temporary));
+            Files.move(temporary, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            ledgerArchive.register(month, segment, rows);
+            log.info("Archived {} rows of {} to {} in {} ms", rows, table, segment, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot archive " + table, e);
+        }
+    }
+
+    /**
+     * @return the monthly transaction partitions, attached or detached, oldest first.
+     */
+    List<String> findPartitionTables() {
+        return jdbcTemplate.queryForList(
+            "SELECT relname FROM pg_class WHERE relkind = 'r' AND relname LIKE ? " +
+            "AND relnamespace = to_regnamespace(current_schema())::oid ORDER BY relname",
+            String.class,
+            TransactionPartitionService.PARENT_TABLE + "\\_p%"
+        );
+    }
+
+    private long writeSegment(String table, Path file) {
+        // Every row once under its originating account, and transfers a second time under their resulting account
+        String columns = "transaction_id, amount, originating_account_id, resulting_account_id, transaction_reason, created_date";
+        String sql =
+            "SELECT coalesce(originating_account_id, 0) AS account_id, " +
+            columns +
+            " FROM " +
+            table +
+            " UNION ALL SELECT resulting_account_id, " +
+            columns +
+            " FROM " +
+            table +
+            " WHERE resulting_account_id IS NOT NULL AND resulting_account_id <> coalesce(originating_account_id, 0)" +
+            " ORDER BY account_id, created_date, transaction_id";
+        try (LedgerSegmentWriter writer = new LedgerSegmentWriter(file, properties.getBlockRows())) {
+            long[] rows = new long[1];
+            jdbcTemplate.query(sql, rs -> {
+                ArchivedTransaction transaction = new ArchivedTransaction(
+                    rs.getLong("transaction_id"),
+                    rs.getBigDecimal("amount"),
+                    rs.getObject("originating_account_id", Long.class),
+                    rs.getObject("resulting_account_id", Long.class),
+                    rs.getString("transaction_reason"),
+                    rs.getObject("created_date", LocalDateTime.class).toInstant(ZoneOffset.UTC)
+                );
+                try {
+                    writer.append(rs.getLong("account_id"), transaction);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+            return rows[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + file, e);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.banking.dev.service.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A read-only, memory-mapped view of a segment written by {@link LedgerSegmentWriter}.
+ * <p>
+ * Only the footer is parsed when opening; blocks are inflated on demand, after the sparse index has narrowed the
+ * search down to the blocks holding the account, id or date range. Thread-safe: every read works on its own slice of
+ * the mapping.
+ */
+final class LedgerSegment {
+
+    private static final int FIRST_KEY = 0;
+    private static final int LAST_KEY = 1;
+    private static final int MIN_ID = 2;
+    private static final int MAX_ID = 3;
+    private static final int MIN_CREATED = 4;
+    private static final int MAX_CREATED = 5;
+    private static final int OFFSET = 6;
+    private static final int COMPRESSED_SIZE = 7;
+    private static final int SIZE = 8;
+    private static final int ROWS = 9;
+
+    private final Path file;
+
+    private final ByteBuffer data;
+
+    private final long[][] blocks;
+
+    private final String[] reasons;
+
+    private LedgerSegment(Path file, ByteBuffer data) throws IOException {
+        this.file = file;
+        this.data = data;
+        int size = data.capacity();
+        if (size < 28 || data.getLong(0) != LedgerSegmentWriter.MAGIC || data.getLong(size - 8) != LedgerSegmentWriter.MAGIC) {
+            throw new IOException("Not a ledger segment: " + file);
+        }
+        if (data.getInt(8) != LedgerSegmentWriter.VERSION) {
+            throw new IOException("Unsupported ledger segment version " + data.getInt(8) + ": " + file);
+        }
+        ByteBuffer footer = data.slice((int) data.getLong(size - 16), size - 16 - (int) data.getLong(size - 16));
+        this.blocks = new long[footer.getInt()][];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = new long[10];
+            for (int j = 0; j < 10; j++) {
+                blocks[i][j] = footer.getLong();
+            }
+        }
+        this.reasons = new String[footer.getInt() + 1];
+        for (int i = 1; i < reasons.length; i++) {
+            byte[] bytes = new byte[footer.getInt()];
+            footer.get(bytes);
+            reasons[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    static LedgerSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Segment larger than 2 GiB: " + file);
+            }
+            // The mapping stays valid once the channel is closed
+            return new LedgerSegment(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the transactions of an account, as originating or resulting account, created in
+     * {@code [fromMicros, toMicros)}, in creation order.
+     */
+    List<ArchivedTransaction> findByAccount(long accountId, long fromMicros, long toMicros) {
+        List<ArchivedTransaction> result = new ArrayList<>();
+        // First block whose last account is not before the one we look for
+        int low = 0;
+        int high = blocks.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blocks[mid][LAST_KEY] < accountId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int b = low; b < blocks.length && blocks[b][FIRST_KEY] <= accountId; b++) {
+            if (overlaps(blocks[b], fromMicros, toMicros)) {
+                Block block = decode(b);
+                for (int i = 0; i < block.rows; i++) {
+                    if (block.keys[i] == accountId && block.createdMicros[i] >= fromMicros && block.createdMicros[i] < toMicros) {
+                        result.add(block.transaction(i));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    Optional<ArchivedTransaction> findById(long transactionId) {
+        for (int b = 0; b < blocks.length; b++) {
+            if (blocks[b][MIN_ID] <= transactionId && transactionId <= blocks[b][MAX_ID]) {
+                Block block = decode(b);
+                for (int i = 0; i < block.rows; i++) {
+                    if (block.ids[i] == transactionId) {
+                        return Optional.of(block.transaction(i));
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Visits every transaction created in {@code [fromMicros, toMicros)} once, in no particular order.
+     */
+    void scan(long fromMicros, long toMicros, Consumer<ArchivedTransaction> consumer) {
+        for (int b = 0; b < blocks.length; b++) {
+            if (overlaps(blocks[b], fromMicros, toMicros)) {
+                Block block = decode(b);
+                for (int i = 0; i < block.rows; i++) {
+                    if (block.isPrimary(i) && block.createdMicros[i] >= fromMicros && block.createdMicros[i] < toMicros) {
+                        consumer.accept(block.transaction(i));
+                    }
+                }
+            }
+        }
+    }
+
+    boolean mayContainId(long transactionId) {
+        for (long[] block : blocks) {
+            if (block[MIN_ID] <= transactionId && transactionId <= block[MAX_ID]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean overlaps(long[] block, long fromMicros, long toMicros) {
+        return block[MAX_CREATED] >= fromMicros && block[MIN_CREATED] < toMicros;
+    }
+
+    private Block decode(int index) {
+        long[] meta = blocks[index];
+        byte[] encoded = new byte[(int) meta[SIZE]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data.slice((int) meta[OFFSET], (int) meta[COMPRESSED_SIZE]));
+            int size = 0;
+            while (size < encoded.length && !inflater.finished()) {
+                int inflated = inflater.inflate(encoded, size, encoded.length - size);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                size += inflated;
+            }
+            if (size != encoded.length) {
+                throw new IOException("Truncated block " + index + " in " + file);
+            }
+        } catch (DataFormatException | IOException e) {
+            throw new UncheckedIOException(new IOException("Corrupted block " + index + " in " + file, e));
+        } finally {
+            inflater.end();
+        }
+        return new Block(encoded, (int) meta[ROWS], reasons);
+    }
+
+    private static final class Block {
+
+        private final int rows;
+        private final long[] keys;
+        private final long[] ids;
+        private final long[] createdMicros;
+        private final long[] amounts;
+        private final Long[] originatingAccounts;
+        private final Long[] resultingAccounts;
+        private final String[] reasons;
+
+        private final byte[] encoded;
+        private int position;
+
+        private Block(byte[] encoded, int rows, String[] dictionary) {
+            this.encoded = encoded;
+            this.rows = rows;
+            this.keys = new long[rows];
+            this.ids = new long[rows];
+            this.createdMicros = new long[rows];
+            this.amounts = new long[rows];
+            this.originatingAccounts = new Long[rows];
+            this.resultingAccounts = new Long[rows];
+            this.reasons = new String[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += readVarLong();
+                keys[i] = previous;
+            }
+            previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += unZigZag(readVarLong());
+                ids[i] = previous;
+            }
+            previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += unZigZag(readVarLong());
+                createdMicros[i] = previous;
+            }
+            for (int i = 0; i < rows; i++) {
+                amounts[i] = unZigZag(readVarLong());
+            }
+            for (int i = 0; i < rows; i++) {
+                long value = readVarLong();
+                originatingAccounts[i] = value == 0 ? null : keys[i] + unZigZag(value - 1);
+            }
+            for (int i = 0; i < rows; i++) {
+                long value = readVarLong();
+                resultingAccounts[i] = value == 0 ? null : keys[i] + unZigZag(value - 1);
+            }
+            for (int i = 0; i < rows; i++) {
+                reasons[i] = dictionary[(int) readVarLong()];
+            }
+        }
+
+        /**
+         * Transfers are stored under both accounts; the copy under the originating account is the primary one.
+         */
+        private boolean isPrimary(int row) {
+            Long originating = originatingAccounts[row];
+            return originating == null ? keys[row] == 0 : keys[row] == originating;
+        }
+
+        private ArchivedTransaction transaction(int row) {
+            return new ArchivedTransaction(
+                ids[row],
+                BigDecimal.valueOf(amounts[row], 2),
+                originatingAccounts[row],
+                resultingAccounts[row],
+                reasons[row],
+                Instant.ofEpochSecond(Math.floorDiv(createdMicros[row], 1_000_000L), Math.floorMod(createdMicros[row], 1_000_000L) * 1_000)
+            );
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = encoded[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        private static long unZigZag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.banking.dev.service.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes an archive segment file.
+ * <p>
+ * Rows are keyed by account and must be appended in {@code (account, created date, id)} order; a transfer is
+ * appended once under each of its two accounts so that per-account reads never look elsewhere. Rows are grouped in
+ * blocks of {@code blockRows}, each block is stored column by column (delta and zig-zag varint encoded) and deflated.
+ * <p>
+ * Layout: {@code magic, version, blocks..., footer, footer offset, magic}. The footer is the sparse index (first and
+ * last account, id range and creation date range, offset and sizes of each block) followed by the dictionary of
+ * transaction reasons.
+ */
+final class LedgerSegmentWriter implements Closeable {
+
+    static final long MAGIC = 0x42414E4B4C454447L;
+
+    static final int VERSION = 1;
+
+    private final FileChannel channel;
+
+    private final int blockRows;
+
+    private final Deflater deflater = new Deflater();
+
+    private final Map<String, Integer> reasons = new HashMap<>();
+
+    private final List<String> reasonDictionary = new ArrayList<>();
+
+    private final List<long[]> blockIndex = new ArrayList<>();
+
+    private final long[] keys;
+    private final long[] ids;
+    private final long[] createdMicros;
+    private final long[] amounts;
+    private final Long[] originatingAccounts;
+    private final Long[] resultingAccounts;
+    private final int[] reasonCodes;
+
+    private int rows;
+
+    private long lastKey = Long.MIN_VALUE;
+
+    private long position;
+
+    private byte[] encoded = new byte[1 << 16];
+
+    private byte[] compressed = new byte[1 << 16];
+
+    LedgerSegmentWriter(Path file, int blockRows) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.blockRows = blockRows;
+        this.keys = new long[blockRows];
+        this.ids = new long[blockRows];
+        this.createdMicros = new long[blockRows];
+        this.amounts = new long[blockRows];
+        this.originatingAccounts = new Long[blockRows];
+        this.resultingAccounts = new Long[blockRows];
+        this.reasonCodes = new int[blockRows];
+        write(ByteBuffer.allocate(12).putLong(MAGIC).putInt(VERSION).flip());
+    }
+
+    void append(long accountId, ArchivedTransaction transaction) throws IOException {
+        if (accountId < lastKey) {
+            throw new IllegalArgumentException("Rows must be appended in account order");
+        }
+        lastKey = accountId;
+        keys[rows] = accountId;
+        ids[rows] = transaction.getTransactionId();
+        createdMicros[rows] = toMicros(transaction.getCreatedDate());
+        amounts[rows] = transaction.getAmount().setScale(2).unscaledValue().longValueExact();
+        originatingAccounts[rows] = transaction.getOriginatingAccountId();
+        resultingAccounts[rows] = transaction.getResultingAccountId();
+        reasonCodes[rows] = reasonCode(transaction.getTransactionReason());
+        if (++rows == blockRows) {
+            flushBlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rows > 0) {
+                flushBlock();
+            }
+            long footerOffset = position;
+            int footerSize = 8 + blockIndex.size() * 10 * 8;
+            List<byte[]> dictionary = new ArrayList<>();
+            for (String reason : reasonDictionary) {
+                byte[] bytes = reason.getBytes(StandardCharsets.UTF_8);
+                dictionary.add(bytes);
+                footerSize += 4 + bytes.length;
+            }
+            ByteBuffer footer = ByteBuffer.allocate(footerSize + 16);
+            footer.putInt(blockIndex.size());
+            for (long[] block : blockIndex) {
+                for (long value : block) {
+                    footer.putLong(value);
+                }
+            }
+            footer.putInt(dictionary.size());
+            for (byte[] bytes : dictionary) {
+                footer.putInt(bytes.length).put(bytes);
+            }
+            footer.putLong(footerOffset).putLong(MAGIC);
+            write(footer.flip());
+            channel.force(true);
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        int size = 0;
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        long minCreated = Long.MAX_VALUE;
+        long maxCreated = Long.MIN_VALUE;
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            size = putVarLong(size, keys[i] - previous);
+            previous = keys[i];
+        }
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            size = putVarLong(size, zigZag(ids[i] - previous));
+            previous = ids[i];
+            minId = Math.min(minId, ids[i]);
+            maxId = Math.max(maxId, ids[i]);
+        }
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            size = putVarLong(size, zigZag(createdMicros[i] - previous));
+            previous = createdMicros[i];
+            minCreated = Math.min(minCreated, createdMicros[i]);
+            maxCreated = Math.max(maxCreated, createdMicros[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            size = putVarLong(size, zigZag(amounts[i]));
+        }
+        for (int i = 0; i < rows; i++) {
+            size = putVarLong(size, originatingAccounts[i] == null ? 0 : zigZag(originatingAccounts[i] - keys[i]) + 1);
+        }
+        for (int i = 0; i < rows; i++) {
+            size = putVarLong(size, resultingAccounts[i] == null ? 0 : zigZag(resultingAccounts[i] - keys[i]) + 1);
+        }
+        for (int i = 0; i < rows; i++) {
+            size = putVarLong(size, reasonCodes[i]);
+        }
+
+        deflater.reset();
+        deflater.setInput(encoded, 0, size);
+        deflater.finish();
+        int compressedSize = 0;
+        while (!deflater.finished()) {
+            if (compressedSize == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedSize += deflater.deflate(compressed, compressedSize, compressed.length - compressedSize);
+        }
+
+        blockIndex.add(new long[] { keys[0], keys[rows - 1], minId, maxId, minCreated, maxCreated, position, compressedSize, size, rows });
+        write(ByteBuffer.wrap(compressed, 0, compressedSize));
+        Arrays.fill(originatingAccounts, null);
+        Arrays.fill(resultingAccounts, null);
+        rows = 0;
+    }
+
+    private int reasonCode(String reason) {
+        if (reason == null) {
+            return 0;
+        }
+        return reasons.computeIfAbsent(reason, key -> {
+            reasonDictionary.add(key);
+            return reasonDictionary.size();
+        });
+    }
+
+    private int putVarLong(int offset, long value) {
+        if (offset + 10 > encoded.length) {
+            encoded = Arrays.copyOf(encoded, encoded.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            encoded[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        encoded[offset++] = (byte) value;
+        return offset;
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Segment exceeds 2 GiB, use a smaller archive period");
+        }
+    }
+
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+}
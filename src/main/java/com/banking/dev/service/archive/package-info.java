@@ -0,0 +1,4 @@
+/**
+ * Cold ledger archive: old transactions moved out of the database into compressed, memory-mapped segment files.
+ */
+package com.banking.dev.service.archive;
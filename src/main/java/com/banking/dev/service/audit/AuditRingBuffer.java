@@ -0,0 +1,97 @@
+package com.banking.dev.service.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded ring of many producers and one consumer, without locks.
+ * <p>
+ * Each slot carries a sequence: a producer claims the next position with a compare-and-set, fills the slot and then
+ * publishes it by advancing the slot's sequence; the consumer empties published slots in order and hands them back to
+ * the producers of the next lap. Positions only grow, so that a producer knows when its element has been consumed.
+ */
+final class AuditRingBuffer<E> {
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return the position of the element, or -1 if the ring is full.
+     */
+    long offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return position;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return -1;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} published elements to {@code drain}; to be called by the consumer only.
+     *
+     * @return the number of elements moved.
+     */
+    int drainTo(List<E> drain, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            drain.add(elements.get(index));
+            elements.set(index, null);
+            sequences.set(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    /**
+     * @return the position of the next element to consume: all elements before it were consumed.
+     */
+    long consumed() {
+        return head.get();
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+}
@@ -0,0 +1,75 @@
+package com.banking.dev.service.audit;
+
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Bank;
+import com.banking.dev.domain.Transaction;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The state of an entity as recorded in the audit trail. Snapshots hold immutable values only, and are taken on the
+ * caller's thread, as the entities keep changing after they are recorded.
+ */
+public final class AuditSnapshots {
+
+    private AuditSnapshots() {}
+
+    public static Map<String, Object> of(Account account) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("accountId", account.getAccountId());
+        state.put("userName", account.getUserName());
+        state.put("balance", account.getBalance());
+        state.put("bankId", account.getBank() == null ? null : account.getBank().getBankId());
+        return state;
+    }
+
+    public static Map<String, Object> of(Bank bank) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("bankId", bank.getBankId());
+        state.put("bankName", bank.getBankName());
+        state.put("totalTransactionFeeAmount", bank.getTotalTransactionFeeAmount());
+        state.put("totalTransferAmount", bank.getTotalTransferAmount());
+        state.put("transactionFlatFeeAmount", bank.getTransactionFlatFeeAmount());
+        state.put("transactionPercentFeeValue", bank.getTransactionPercentFeeValue());
+        return state;
+    }
+
+    public static Map<String, Object> of(Transaction transaction) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("transactionId", transaction.getTransactionId());
+        state.put("transactionReason", transaction.getTransactionReason());
+        state.put("amount", transaction.getAmount());
+        state.put("originatingAccountId", accountId(transaction.getOriginatingAccount()));
+        state.put("resultingAccountId", accountId(transaction.getResultingAccount()));
+        return state;
+    }
+
+    /**
+     * @return the balances of the accounts by account id, for the money movements.
+     */
+    public static Map<String, Object> balances(Account... accounts) {
+        Map<String, Object> balances = new LinkedHashMap<>();
+        for (Account account : accounts) {
+            if (account == null) {
+                continue;
+            }
+            balances.put(String.valueOf(account.getAccountId()), account.getBalance());
+        }
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("balances", balances);
+        return state;
+    }
+
+    /**
+     * @return the transaction with the balances of its accounts once it was applied.
+     */
+    public static Map<String, Object> movement(Transaction transaction) {
+        Map<String, Object> state = of(transaction);
+        state.putAll(balances(transaction.getOriginatingAccount(), transaction.getResultingAccount()));
+        return state;
+    }
+
+    private static Long accountId(Account account) {
+        return account == null ? null : account.getAccountId();
+    }
+}
@@ -0,0 +1,364 @@
+package com.banking.dev.service.audit;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.config.Constants;
+import com.banking.dev.management.AuditMetersService;
+import com.banking.dev.security.SecurityUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records who changed which entity, with its state before and after the change, in the {@code audit_event} table.
+ * <p>
+ * The changes do not wait for the insert: records are captured on the caller's thread, put in a lock-free
+ * {@link AuditRingBuffer} once the caller's transaction commits, and inserted in batches by the {@code audit-writer}
+ * thread, every {@code flush-interval-ms} or as soon as a batch is full. Changes rolled back are not recorded.
+ * <p>
+ * The {@code durability} trades latency for loss: with {@code fire-and-forget}, a record that finds the buffer full is
+ * dropped; with {@code block-when-full}, the caller waits for room, up to {@code wait-timeout-ms}. Records still
+ * buffered are lost if the instance crashes, and the records of a batch whose insert failed are dropped; both are
+ * counted by {@link AuditMetersService}. With {@code flush-on-commit}, records bypass the buffer: each is inserted in
+ * the caller's transaction, just before it commits, so that a change commits with its record or not at all. Outside a
+ * transaction, it is inserted right away in one of its own.
+ */
+@Service
+public class AuditTrail implements DisposableBean {
+
+    public static final String ACCOUNT = "Account";
+    public static final String BANK = "Bank";
+    public static final String TRANSACTION = "Transaction";
+
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+    public static final String WITHDRAWAL = "WITHDRAWAL";
+    public static final String DEPOSIT = "DEPOSIT";
+    public static final String TRANSFER = "TRANSFER";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_event (occurred_at, principal, entity_type, entity_id, action, before_state, after_state) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Logger log = LoggerFactory.getLogger(AuditTrail.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectWriter stateWriter;
+
+    private final AuditMetersService auditMetersService;
+
+    private final ApplicationProperties.Audit config;
+
+    private final AuditRingBuffer<AuditRecord> ring;
+
+    /** Notified whenever the writer took records from the buffer. */
+    private final Object progress = new Object();
+
+    private volatile boolean running = true;
+
+    private Thread writer;
+
+    public AuditTrail(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        AuditMetersService auditMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this(jdbcTemplate, transactionManager, objectMapper, auditMetersService, applicationProperties.getAudit());
+        if (config.isEnabled()) {
+            writer = new Thread(this::writeLoop, "audit-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * Without the writer thread: {@link #flush()} writes the buffered records.
+     */
+    AuditTrail(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        AuditMetersService auditMetersService,
+        ApplicationProperties.Audit config
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stateWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.auditMetersService = auditMetersService;
+        this.config = config;
+        this.ring = new AuditRingBuffer<>(config.getCapacity());
+    }
+
+    /**
+     * Records a change made by the current user, once the current transaction commits, or with it for
+     * {@code flush-on-commit}.
+     *
+     * @param before the state before the change, see {@link AuditSnapshots}; {@code null} for a creation.
+     * @param after the state after the change; {@code null} for a deletion.
+     */
+    public void record(String entityType, Long entityId, String action, Map<String, Object> before, Map<String, Object> after) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        AuditRecord record = new AuditRecord(
+            Instant.now(),
+            System.nanoTime(),
+            SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM),
+            entityType,
+            entityId,
+            action,
+            before,
+            after
+        );
+        if (config.getDurability() == ApplicationProperties.Audit.Durability.FLUSH_ON_COMMIT) {
+            insertOnCommit(record);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        enqueue(record);
+                    }
+                }
+            );
+        } else {
+            enqueue(record);
+        }
+    }
+
+    private void enqueue(AuditRecord record) {
+        long position = ring.offer(record);
+        if (position < 0 && config.getDurability() != ApplicationProperties.Audit.Durability.FIRE_AND_FORGET) {
+            position = awaitRoom(record);
+        }
+        if (position < 0) {
+            log.debug("Audit buffer full, dropping {} of {} {}", record.action, record.entityType, record.entityId);
+            auditMetersService.trackDropped("full", 1);
+            return;
+        }
+        if (ring.size() >= config.getBatchSize()) {
+            wakeWriter();
+        }
+    }
+
+    /**
+     * Inserts the record on the caller's connection before its transaction commits, rather than waiting after the
+     * commit for the writer, which would need a connection of its own while the caller still holds one.
+     */
+    private void insertOnCommit(AuditRecord record) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        insert(record);
+                    }
+                }
+            );
+            return;
+        }
+        try {
+            insert(record);
+        } catch (RuntimeException e) {
+            log.warn(
+                "Could not write the audit record of {} {} {}, dropping it: {}",
+                record.action,
+                record.entityType,
+                record.entityId,
+                e.getMessage()
+            );
+            auditMetersService.trackDropped("failed", 1);
+        }
+    }
+
+    /**
+     * Inserts one record in the current transaction, or in one of its own.
+     */
+    private void insert(AuditRecord record) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, row(record)));
+        auditMetersService.trackWritten(1);
+        auditMetersService.trackLag(Duration.ofNanos(System.nanoTime() - record.capturedNanos));
+    }
+
+    private long awaitRoom(AuditRecord record) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getWaitTimeoutMs());
+        long position = -1;
+        while (position < 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !await(remaining)) {
+                return -1;
+            }
+            position = ring.offer(record);
+        }
+        return position;
+    }
+
+    /**
+     * @return false if interrupted.
+     */
+    private boolean await(long nanos) {
+        wakeWriter();
+        synchronized (progress) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(progress, nanos);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private void wakeWriter() {
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void writeLoop() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Audit writer failed: {}", e.getMessage());
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Writes the buffered records, one batch per transaction; to be called by the writer only.
+     *
+     * @return the number of records taken from the buffer.
+     */
+    int flush() {
+        List<AuditRecord> batch = new ArrayList<>(config.getBatchSize());
+        int total = 0;
+        while (ring.drainTo(batch, config.getBatchSize()) > 0) {
+            write(batch);
+            total += batch.size();
+            batch.clear();
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+        }
+        auditMetersService.trackQueued(ring.size());
+        return total;
+    }
+
+    int queued() {
+        return ring.size();
+    }
+
+    private void write(List<AuditRecord> batch) {
+        try {
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (AuditRecord record : batch) {
+                rows.add(row(record));
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        } catch (RuntimeException e) {
+            log.warn("Could not write {} audit records, dropping them: {}", batch.size(), e.getMessage());
+            auditMetersService.trackDropped("failed", batch.size());
+            return;
+        }
+        auditMetersService.trackWritten(batch.size());
+        long now = System.nanoTime();
+        for (AuditRecord record : batch) {
+            auditMetersService.trackLag(Duration.ofNanos(now - record.capturedNanos));
+        }
+    }
+
+    private Object[] row(AuditRecord record) {
+        return new Object[] {
+            Timestamp.from(record.occurredAt),
+            record.principal,
+            record.entityType,
+            record.entityId,
+            record.action,
+            toJson(record.before),
+            toJson(record.after),
+        };
+    }
+
+    private String toJson(Map<String, Object> state) {
+        if (state == null) {
+            return null;
+        }
+        try {
+            return stateWriter.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize audit state", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(SHUTDOWN_TIMEOUT.toMillis());
+        }
+    }
+
+    private static final class AuditRecord {
+
+        final Instant occurredAt;
+        final long capturedNanos;
+        final String principal;
+        final String entityType;
+        final Long entityId;
+        final String action;
+        final Map<String, Object> before;
+        final Map<String, Object> after;
+
+        AuditRecord(
+            Instant occurredAt,
+            long capturedNanos,
+            String principal,
+            String entityType,
+            Long entityId,
+            String action,
+            Map<String, Object> before,
+            Map<String, Object> after
+        ) {
+            this.occurredAt = occurredAt;
+            this.capturedNanos = capturedNanos;
+            this.principal = principal;
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.action = action;
+            this.before = before;
+            this.after = after;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The audit trail of the account, bank and transaction changes, written asynchronously in batches.
+ */
+package com.banking.dev.service.audit;
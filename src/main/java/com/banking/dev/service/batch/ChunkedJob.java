@@ -0,0 +1,38 @@
+package com.banking.dev.service.batch;
+
+import java.util.List;
+
+/**
+ * A bulk maintenance job over items ordered by a numeric key, run by the {@link ChunkedJobRunner}.
+ *
+ * @param <T> the type of the items.
+ */
+public interface ChunkedJob<T> {
+    /**
+     * @return the name of the job, the key of its checkpoint and the tag of its meters.
+     */
+    String name();
+
+    /**
+     * Reads the next chunk in the chunk's transaction, with a keyset query rather than an offset, so that each chunk
+     * costs the same however far the job is.
+     *
+     * @param afterKey the key of the last item processed, 0 at the start.
+     * @param size the maximum number of items.
+     * @return the items with a key greater than {@code afterKey}, in key order.
+     */
+    List<T> fetchChunk(long afterKey, int size);
+
+    long keyOf(T item);
+
+    /**
+     * Processes a chunk in the transaction that read it, preferably with bulk statements.
+     */
+    void processChunk(List<T> chunk);
+
+    /**
+     * Called once the chunk's transaction has committed, for side effects that must not see uncommitted data, such
+     * as cache evictions.
+     */
+    default void afterCommit(List<T> chunk) {}
+}
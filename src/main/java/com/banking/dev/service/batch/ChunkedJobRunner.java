@@ -0,0 +1,150 @@
+package com.banking.dev.service.batch;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.management.BatchJobMetersService;
+import com.banking.dev.service.lock.JobLease;
+import com.banking.dev.service.lock.JobLockService;
+import java.time.Duration;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs {@link ChunkedJob}s in chunks of {@code application.batch.chunk-size} items, each read, processed and
+ * checkpointed in its own transaction.
+ * <p>
+ * Short transactions keep locks, undo and replication lag bounded however many items a job has, and a failure only
+ * rolls back the current chunk. The key of the last item of each committed chunk is stored in
+ * {@code batch_job_checkpoint}, in the same transaction, and the next run of a job that failed, or stopped at
+ * {@code max-chunks-per-run}, resumes after it. The checkpoint is removed with the last chunk.
+ * <p>
+ * Under a {@link com.banking.dev.service.lock.JobLock}, each chunk first checks the lease's fencing token, so that an
+ * instance that lost the lease stops before writing.
+ */
+@Service
+public class ChunkedJobRunner {
+
+    private final Logger log = LoggerFactory.getLogger(ChunkedJobRunner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BatchJobMetersService batchJobMetersService;
+
+    private final JobLockService jobLockService;
+
+    private final ApplicationProperties.Batch properties;
+
+    public ChunkedJobRunner(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        BatchJobMetersService batchJobMetersService,
+        JobLockService jobLockService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchJobMetersService = batchJobMetersService;
+        this.jobLockService = jobLockService;
+        this.properties = applicationProperties.getBatch();
+    }
+
+    /**
+     * Runs a job to completion, or up to {@code max-chunks-per-run} chunks. Must not be called in a transaction, which
+     * each chunk would join.
+     *
+     * @return the number of items processed by this run.
+     */
+    public <T> long run(ChunkedJob<T> job) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Job " + job.name() + " must not run in a transaction");
+        }
+        long start = System.nanoTime();
+        long afterKey = loadCheckpoint(job.name());
+        if (afterKey > 0) {
+            log.info("Resuming job {} after key {}", job.name(), afterKey);
+        }
+        long processed = 0;
+        int chunks = 0;
+        String outcome = "failure";
+        try {
+            while (true) {
+                long chunkStart = System.nanoTime();
+                long from = afterKey;
+                List<T> chunk = transactionTemplate.execute(status -> runChunk(job, from));
+                if (chunk == null || chunk.isEmpty()) {
+                    outcome = "completed";
+                    break;
+                }
+                job.afterCommit(chunk);
+                afterKey = job.keyOf(chunk.get(chunk.size() - 1));
+                processed += chunk.size();
+                chunks++;
+                batchJobMetersService.trackChunk(job.name(), chunk.size(), Duration.ofNanos(System.nanoTime() - chunkStart));
+                log.debug("Job {} processed {} items, up to key {}", job.name(), processed, afterKey);
+                if (chunk.size() < properties.getChunkSize()) {
+                    outcome = "completed";
+                    break;
+                }
+                if (chunks == properties.getMaxChunksPerRun()) {
+                    outcome = "suspended";
+                    break;
+                }
+                if (!pause()) {
+                    outcome = "interrupted";
+                    break;
+                }
+            }
+        } finally {
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            batchJobMetersService.trackRun(job.name(), outcome, duration);
+            log.info("Job {} {} after {} items in {} chunks, {} ms", job.name(), outcome, processed, chunks, duration.toMillis());
+        }
+        return processed;
+    }
+
+    private <T> List<T> runChunk(ChunkedJob<T> job, long afterKey) {
+        jobLockService.current().ifPresent(JobLease::checkFence);
+        List<T> chunk = job.fetchChunk(afterKey, properties.getChunkSize());
+        if (!chunk.isEmpty()) {
+            job.processChunk(chunk);
+        }
+        if (chunk.size() < properties.getChunkSize()) {
+            jdbcTemplate.update("DELETE FROM batch_job_checkpoint WHERE job_name = ?", job.name());
+        } else {
+            jdbcTemplate.update(
+                "INSERT INTO batch_job_checkpoint (job_name, last_key, processed, updated_date) VALUES (?, ?, ?, now()) " +
+                "ON CONFLICT (job_name) DO UPDATE SET last_key = excluded.last_key, " +
+                "processed = batch_job_checkpoint.processed + excluded.processed, updated_date = excluded.updated_date",
+                job.name(),
+                job.keyOf(chunk.get(chunk.size() - 1)),
+                chunk.size()
+            );
+        }
+        return chunk;
+    }
+
+    private long loadCheckpoint(String jobName) {
+        List<Long> keys = jdbcTemplate.queryForList("SELECT last_key FROM batch_job_checkpoint WHERE job_name = ?", Long.class, jobName);
+        return keys.isEmpty() ? 0 : keys.get(0);
+    }
+
+    private boolean pause() {
+        if (properties.getPauseBetweenChunksMs() <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(properties.getPauseBetweenChunksMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
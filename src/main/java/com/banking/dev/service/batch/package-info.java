@@ -0,0 +1,4 @@
+/**
+ * Bulk maintenance jobs run in keyset-ordered chunks, one transaction per chunk, resumable from a checkpoint.
+ */
+package com.banking.dev.service.batch;
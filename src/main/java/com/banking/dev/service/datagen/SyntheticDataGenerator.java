@@ -0,0 +1,173 @@
+package com.banking.dev.service.datagen;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.service.TransactionPartitionService;
+import com.banking.dev.service.etag.TableChangeCounter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Loads a production-sized synthetic ledger when the application is started with the {@code datagen} profile.
+ * <p>
+ * Sizes, skew and seed come from {@code application.datagen.*}; the same seed always produces the same rows. Rows are
+ * appended after any existing data through {@code COPY}, one table per database transaction, and the serial sequences
+ * are moved past the generated ids. The monthly transaction partitions covering the generated history are created
+ * first, in a transaction of their own. Example:
+ * <pre>
+ * ./mvnw -Dspring-boot.run.profiles=dev,datagen -Dspring-boot.run.arguments=--application.datagen.accounts=1000000
+ * </pre>
+ */
+@Service
+@Profile("datagen")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private final Logger log = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private final DataSource dataSource;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ApplicationContext applicationContext;
+
+    private final TransactionPartitionService transactionPartitionService;
+
+    private final TableChangeCounter tableChangeCounter;
+
+    public SyntheticDataGenerator(
+        DataSource dataSource,
+        ApplicationProperties applicationProperties,
+        ApplicationContext applicationContext,
+        TransactionPartitionService transactionPartitionService,
+        TableChangeCounter tableChangeCounter
+    ) {
+        this.dataSource = dataSource;
+        this.applicationProperties = applicationProperties;
+        this.applicationContext = applicationContext;
+        this.transactionPartitionService = transactionPartitionService;
+        this.tableChangeCounter = tableChangeCounter;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ApplicationProperties.Datagen config = applicationProperties.getDatagen();
+        log.info(
+            "Generating {} banks, {} accounts and {} transactions with seed {}",
+            config.getBanks(),
+            config.getAccounts(),
+            config.getTransactions(),
+            config.getSeed()
+        );
+        SyntheticLedger ledger = new SyntheticLedger(config);
+        Instant historyEnd = Instant.now();
+        // committed before the COPY, which would fail on a month without its partition
+        transactionPartitionService.createPartitions(
+            YearMonth.from(ledger.historyStart(historyEnd).atOffset(ZoneOffset.UTC)),
+            YearMonth.from(historyEnd.atOffset(ZoneOffset.UTC))
+        );
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long firstBankId = nextId(connection, "bank", "bank_id");
+            long firstAccountId = nextId(connection, "account", "account_id");
+
+            copy(
+                connection,
+                "COPY bank (bank_id, bank_name, total_transaction_fee_amount, total_transfer_amount, " +
+                "transaction_flat_fee_amount, transaction_percent_fee_value) FROM STDIN",
+                out -> ledger.writeBanks(firstBankId, out)
+            );
+            resetSequence(connection, "bank", "bank_id");
+            connection.commit();
+
+            copy(
+                connection,
+                "COPY account (account_id, user_name, balance, bank_id) FROM STDIN",
+                out -> ledger.writeAccounts(firstBankId, firstAccountId, out)
+            );
+            resetSequence(connection, "account", "account_id");
+            connection.commit();
+
+            copy(
+                connection,
+                "COPY transaction (amount, originating_account_id, resulting_account_id, transaction_reason, created_date) FROM STDIN",
+                out -> ledger.writeTransactions(firstAccountId, historyEnd, out)
+            );
+            connection.commit();
+            tableChangeCounter.markChanged(TableChangeCounter.BANK, TableChangeCounter.ACCOUNT);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE bank, account, transaction");
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("Synthetic data generation", null, e);
+        }
+        log.info("Synthetic data generated in {} ms", (System.nanoTime() - start) / 1_000_000);
+
+        if (config.isExitOnCompletion()) {
+            // closes the context, which stops the web server and lets the JVM end
+            SpringApplication.exit(applicationContext, () -> 0);
+        }
+    }
+
+    private static void copy(Connection connection, String sql, RowWriter rows) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (
+            Writer out = new BufferedWriter(
+                new OutputStreamWriter(new PGCopyOutputStream(pgConnection, sql, COPY_BUFFER_SIZE), StandardCharsets.UTF_8),
+                COPY_BUFFER_SIZE
+            )
+        ) {
+            rows.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("COPY failed: " + sql, e);
+        }
+    }
+
+    private static long nextId(Connection connection, String table, String idColumn) throws SQLException {
+        try (
+            Statement statement = connection.createStatement();
+            ResultSet rs = statement.executeQuery("SELECT coalesce(max(" + idColumn + "), 0) + 1 FROM " + table)
+        ) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void resetSequence(Connection connection, String table, String idColumn) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                "SELECT setval(pg_get_serial_sequence('" + table + "', '" + idColumn + "'), (SELECT max(" + idColumn + ") FROM " + table + "))"
+            );
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Appendable out) throws IOException;
+    }
+}
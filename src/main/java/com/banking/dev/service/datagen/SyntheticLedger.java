@@ -0,0 +1,173 @@
+package com.banking.dev.service.datagen;
+
+import com.banking.dev.config.ApplicationProperties;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+/**
+ * Generates banks, accounts and transactions as PostgreSQL {@code COPY} text rows.
+ * <p>
+ * Every table is driven by its own random stream derived from the seed, so the output for a table only depends on
+ * the seed, the configured sizes and the id offsets, never on the order the tables are written in.
+ * <p>
+ * Skew: accounts are spread over banks with a Zipf distribution, a small set of hot accounts originates a large share
+ * of transactions, and transfer targets follow a Zipf distribution over a seeded permutation of the accounts.
+ * Transactions are spread uniformly over the {@code history-months} months before a given end date.
+ */
+public class SyntheticLedger {
+
+    private static final long BANK_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long ACCOUNT_STREAM = 0xC2B2AE3D27D4EB4FL;
+    private static final long TRANSACTION_STREAM = 0x165667B19E3779F9L;
+
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+
+    private final ApplicationProperties.Datagen config;
+
+    public SyntheticLedger(ApplicationProperties.Datagen config) {
+        this.config = config;
+    }
+
+    /**
+     * Columns: {@code bank_id, bank_name, total_transaction_fee_amount, total_transfer_amount,
+     * transaction_flat_fee_amount, transaction_percent_fee_value}.
+     */
+    public void writeBanks(long firstBankId, Appendable out) throws IOException {
+        SplittableRandom random = new SplittableRandom(config.getSeed() ^ BANK_STREAM);
+        for (int i = 0; i < config.getBanks(); i++) {
+            BigDecimal flatFee = BigDecimal.valueOf(random.nextInt(0, 2001), 2);
+            BigDecimal percentFee = BigDecimal.valueOf(random.nextInt(0, 1001), 2);
+            out
+                .append(Long.toString(firstBankId + i))
+                .append('\t')
+                .append(String.format("Synthetic Bank %04d", i))
+                .append("\t0.00\t0.00\t")
+                .append(flatFee.toPlainString())
+                .append('\t')
+                .append(percentFee.toPlainString())
+                .append('\n');
+        }
+    }
+
+    /**
+     * Columns: {@code account_id, user_name, balance, bank_id}.
+     */
+    public void writeAccounts(long firstBankId, long firstAccountId, Appendable out) throws IOException {
+        SplittableRandom random = new SplittableRandom(config.getSeed() ^ ACCOUNT_STREAM);
+        ZipfSampler bankSampler = new ZipfSampler(config.getBanks(), 0.8);
+        for (int i = 0; i < config.getAccounts(); i++) {
+            out
+                .append(Long.toString(firstAccountId + i))
+                .append('\t')
+                .append("user_")
+                .append(Integer.toString(i))
+                .append('\t')
+                .append(logNormalAmount(random, Math.log(2_000), 1.5).toPlainString())
+                .append('\t')
+                .append(Long.toString(firstBankId + bankSampler.sample(random)))
+                .append('\n');
+        }
+    }
+
+    /**
+     * @return the start of the creation dates of transactions generated up to {@code end}.
+     */
+    public Instant historyStart(Instant end) {
+        return end.atOffset(ZoneOffset.UTC).minusMonths(config.getHistoryMonths()).toInstant();
+    }
+
+    /**
+     * Columns: {@code amount, originating_account_id, resulting_account_id, transaction_reason, created_date}, with
+     * the same sign and account conventions as {@code TransactionService} and creation dates in
+     * {@code [historyStart(end), end)}, UTC.
+     */
+    public void writeTransactions(long firstAccountId, Instant end, Appendable out) throws IOException {
+        SplittableRandom random = new SplittableRandom(config.getSeed() ^ TRANSACTION_STREAM);
+        long historyStartMicros = historyStart(end).toEpochMilli() * 1_000;
+        long historyMicros = Math.max(1, end.toEpochMilli() * 1_000 - historyStartMicros);
+        int accounts = config.getAccounts();
+        int[] permutation = permutation(accounts, random);
+        int hotAccounts = Math.max(1, (int) (accounts * config.getHotAccountRatio()));
+        ZipfSampler targetSampler = new ZipfSampler(accounts, config.getZipfExponent());
+
+        for (long i = 0; i < config.getTransactions(); i++) {
+            int source = random.nextDouble() < config.getHotAccountTrafficShare() || hotAccounts == accounts
+                ? permutation[random.nextInt(hotAccounts)]
+                : permutation[hotAccounts + random.nextInt(accounts - hotAccounts)];
+            BigDecimal amount = logNormalAmount(random, Math.log(50), 1.2);
+            LocalDateTime createdDate = createdDate(historyStartMicros + random.nextLong(historyMicros));
+            double kind = random.nextDouble();
+            if (kind < 0.30) {
+                appendTransaction(out, amount, firstAccountId + source, null, "Deposit", createdDate);
+            } else if (kind < 0.55) {
+                appendTransaction(out, amount.negate(), firstAccountId + source, null, "Withdrawal", createdDate);
+            } else {
+                int target = permutation[targetSampler.sample(random)];
+                if (target == source) {
+                    target = permutation[(targetSampler.sample(random) + 1) % accounts];
+                }
+                appendTransaction(out, amount.negate(), firstAccountId + source, firstAccountId + target, "Transfer", createdDate);
+            }
+        }
+    }
+
+    private static void appendTransaction(
+        Appendable out,
+        BigDecimal amount,
+        long originating,
+        Long resulting,
+        String reason,
+        LocalDateTime createdDate
+    ) throws IOException {
+        out
+            .append(amount.toPlainString())
+            .append('\t')
+            .append(Long.toString(originating))
+            .append('\t')
+            .append(resulting == null ? "\\N" : Long.toString(resulting))
+            .append('\t')
+            .append(reason)
+            .append('\t')
+            .append(createdDate.toString())
+            .append('\n');
+    }
+
+    private static LocalDateTime createdDate(long epochMicros) {
+        return LocalDateTime.ofEpochSecond(
+            Math.floorDiv(epochMicros, 1_000_000),
+            Math.floorMod(epochMicros, 1_000_000) * 1_000,
+            ZoneOffset.UTC
+        );
+    }
+
+    private static BigDecimal logNormalAmount(SplittableRandom random, double mu, double sigma) {
+        double value = Math.exp(mu + sigma * gaussian(random));
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).min(MAX_AMOUNT);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    private static int[] permutation(int n, SplittableRandom random) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+        return permutation;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Deterministic, production-scale synthetic data for local performance work.
+ */
+package com.banking.dev.service.datagen;
@@ -0,0 +1,57 @@
+package com.banking.dev.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A DTO for the balance of an {@link com.banking.dev.domain.Account}.
+ */
+public class AccountBalanceDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long accountId;
+
+    private BigDecimal balance;
+
+    private Long bankId;
+
+    public AccountBalanceDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public AccountBalanceDTO(Long accountId, BigDecimal balance, Long bankId) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.bankId = bankId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public Long getBankId() {
+        return bankId;
+    }
+
+    public void setBankId(Long bankId) {
+        this.bankId = bankId;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountBalanceDTO{" + "accountId=" + accountId + ", balance=" + balance + ", bankId=" + bankId + '}';
+    }
+}
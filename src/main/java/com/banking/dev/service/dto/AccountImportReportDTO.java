@@ -0,0 +1,131 @@
+package com.banking.dev.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO summarising a bulk account import, with the rows that were rejected and why.
+ */
+public class AccountImportReportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long totalRows;
+
+    private long importedRows;
+
+    private long rejectedRows;
+
+    private boolean errorsTruncated;
+
+    private long elapsedMillis;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public void setRejectedRows(long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AccountImportReportDTO{" +
+            "totalRows=" + totalRows +
+            ", importedRows=" + importedRows +
+            ", rejectedRows=" + rejectedRows +
+            ", errorsTruncated=" + errorsTruncated +
+            ", elapsedMillis=" + elapsedMillis +
+            "}";
+    }
+
+    /**
+     * A rejected CSV row, identified by its 1-based line number in the upload.
+     */
+    public static class RowError implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long lineNumber;
+
+        private String message;
+
+        public RowError() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public RowError(long lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public void setLineNumber(long lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "RowError{" +
+                "lineNumber=" + lineNumber +
+                ", message='" + message + '\'' +
+                "}";
+        }
+    }
+}
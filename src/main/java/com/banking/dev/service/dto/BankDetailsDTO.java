@@ -0,0 +1,87 @@
+package com.banking.dev.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A DTO for the details of a {@link com.banking.dev.domain.Bank}, with its number of accounts.
+ */
+public class BankDetailsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long bankId;
+
+    private String bankName;
+
+    private BigDecimal totalTransactionFeeAmount;
+
+    private BigDecimal totalTransferAmount;
+
+    private BigDecimal transactionFlatFeeAmount;
+
+    private BigDecimal transactionPercentFeeValue;
+
+    private long accountCount;
+
+    public Long getBankId() {
+        return bankId;
+    }
+
+    public void setBankId(Long bankId) {
+        this.bankId = bankId;
+    }
+
+    public String getBankName() {
+        return bankName;
+    }
+
+    public void setBankName(String bankName) {
+        this.bankName = bankName;
+    }
+
+    public BigDecimal getTotalTransactionFeeAmount() {
+        return totalTransactionFeeAmount;
+    }
+
+    public void setTotalTransactionFeeAmount(BigDecimal totalTransactionFeeAmount) {
+        this.totalTransactionFeeAmount = totalTransactionFeeAmount;
+    }
+
+    public BigDecimal getTotalTransferAmount() {
+        return totalTransferAmount;
+    }
+
+    public void setTotalTransferAmount(BigDecimal totalTransferAmount) {
+        this.totalTransferAmount = totalTransferAmount;
+    }
+
+    public BigDecimal getTransactionFlatFeeAmount() {
+        return transactionFlatFeeAmount;
+    }
+
+    public void setTransactionFlatFeeAmount(BigDecimal transactionFlatFeeAmount) {
+        this.transactionFlatFeeAmount = transactionFlatFeeAmount;
+    }
+
+    public BigDecimal getTransactionPercentFeeValue() {
+        return transactionPercentFeeValue;
+    }
+
+    public void setTransactionPercentFeeValue(BigDecimal transactionPercentFeeValue) {
+        this.transactionPercentFeeValue = transactionPercentFeeValue;
+    }
+
+    public long getAccountCount() {
+        return accountCount;
+    }
+
+    public void setAccountCount(long accountCount) {
+        this.accountCount = accountCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BankDetailsDTO{" + "bankId=" + bankId + ", bankName='" + bankName + '\'' + ", accountCount=" + accountCount + '}';
+    }
+}
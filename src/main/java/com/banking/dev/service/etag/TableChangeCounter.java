@@ -0,0 +1,123 @@
+package com.banking.dev.service.etag;
+
+import java.util.List;
+import java.util.OptionalLong;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-table change counters shared by all instances through Redis, to tag whole-table reads.
+ * <p>
+ * A writer bumps the counter of the tables it changes before its transaction commits and again once it has
+ * completed. A reader that takes the counter before loading the table can therefore use it as a version of what it
+ * loaded: while the counter still has that value, no change can have committed that the read did not see.
+ * <p>
+ * Counters start from the current time rather than from 0, so a counter lost with Redis never comes back with a
+ * value handed out before. If Redis cannot be reached readers get no version, which turns conditional reads off.
+ */
+@Service
+public class TableChangeCounter {
+
+    public static final String BANK = "bank";
+
+    public static final String ACCOUNT = "account";
+
+    static final String KEY_PREFIX = "bankApp:table-version:";
+
+    /**
+     * KEYS[1] = counter; ARGV = initial value, increment. Returns the value after the increment.
+     */
+    private static final String INCREMENT_SCRIPT =
+        "if redis.call('EXISTS', KEYS[1]) == 0 then redis.call('SET', KEYS[1], ARGV[1]) end " +
+        "return redis.call('INCRBY', KEYS[1], ARGV[2])";
+
+    private final Logger log = LoggerFactory.getLogger(TableChangeCounter.class);
+
+    private final RedissonClient redissonClient;
+
+    public TableChangeCounter(RedissonClient redissonClient) {
+        this.redissonClient = redissonClient;
+    }
+
+    /**
+     * @return the current version of {@code table}, or empty if it is not known.
+     */
+    public OptionalLong current(String table) {
+        try {
+            return OptionalLong.of(increment(table, 0));
+        } catch (RuntimeException e) {
+            log.warn("Could not read the change counter of {}: {}", table, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Records that the current transaction, or the statement that just ran outside of one, changed {@code tables}.
+     */
+    public void markChanged(String... tables) {
+        bump(tables);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        // nobody waits on this one, the change is already visible
+                        for (String table : tables) {
+                            script()
+                                .evalAsync(
+                                    RScript.Mode.READ_WRITE,
+                                    INCREMENT_SCRIPT,
+                                    RScript.ReturnType.INTEGER,
+                                    List.of(KEY_PREFIX + table),
+                                    initialValue(),
+                                    "1"
+                                )
+                                .whenComplete((value, e) -> {
+                                    if (e != null) {
+                                        log.warn("Could not bump the change counter of {}: {}", table, e.getMessage());
+                                    }
+                                });
+                        }
+                    }
+                }
+            );
+        }
+    }
+
+    private void bump(String... tables) {
+        for (String table : tables) {
+            try {
+                increment(table, 1);
+            } catch (RuntimeException e) {
+                log.warn("Could not bump the change counter of {}: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    private long increment(String table, long delta) {
+        Long value = script()
+            .eval(
+                RScript.Mode.READ_WRITE,
+                INCREMENT_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(KEY_PREFIX + table),
+                initialValue(),
+                Long.toString(delta)
+            );
+        return value;
+    }
+
+    private RScript script() {
+        return redissonClient.getScript(StringCodec.INSTANCE);
+    }
+
+    private static String initialValue() {
+        return Long.toString(System.currentTimeMillis() * 1000);
+    }
+}
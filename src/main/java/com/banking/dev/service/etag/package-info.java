@@ -0,0 +1,4 @@
+/**
+ * Versions of tables and rows, used to answer conditional reads without loading the data.
+ */
+package com.banking.dev.service.etag;
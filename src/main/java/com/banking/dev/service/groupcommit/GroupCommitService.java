@@ -0,0 +1,528 @@
+package com.banking.dev.service.groupcommit;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.management.GroupCommitMetersService;
+import com.banking.dev.service.IdempotencyKeyService;
+import com.banking.dev.service.MovementPendingException;
+import com.banking.dev.service.TransactionFees;
+import com.banking.dev.service.audit.AuditSnapshots;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
+import com.banking.dev.service.outbox.OutboxService;
+import com.banking.dev.service.velocity.VelocityService;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Withdrawals, deposits and transfers written many at a time, when {@code application.group-commit.enabled}: the
+ * request threads queue them, and each {@code group-commit} thread takes the movements arriving within
+ * {@code window-ms} of the first, up to {@code max-batch}, and writes them in one transaction, with one batched
+ * statement for the transaction rows and one for the balances. The commit, and its fsync, is shared by the batch.
+ * <p>
+ * The accounts of a batch are locked in id order, then the movements are applied in the order they arrived, each
+ * seeing the balances left by the previous ones. A movement failing its checks is rejected alone. If the transaction
+ * itself fails, each movement of the batch is written again in a transaction of its own, so that only the one at
+ * fault fails. The fees, the checks and their error responses are those of
+ * {@link com.banking.dev.service.TransactionService}; the accounts returned do not carry their bank.
+ * <p>
+ * The transaction id of a movement is reserved when it is queued. A caller waits for its movement for
+ * {@code timeout-ms}: if no writer has taken it by then, it is withdrawn and rejected with a 503, so that it can be
+ * retried; otherwise it is answered with a {@link MovementPendingException} carrying its transaction id. A movement
+ * repeating the idempotency key of an earlier one is not applied, and answered the same way with the earlier id.
+ */
+@Service
+public class GroupCommitService implements DisposableBean {
+
+    private static final String LOCK_ACCOUNTS_SQL =
+        "SELECT account_id, user_name, balance FROM account WHERE account_id = ANY(?) ORDER BY account_id FOR UPDATE";
+
+    private static final String RESERVE_TRANSACTION_IDS_SQL = "SELECT nextval('transaction_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_TRANSACTION_SQL =
+        "INSERT INTO transaction (transaction_id, amount, originating_account_id, resulting_account_id, transaction_reason, " +
+        "created_date) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_BALANCE_SQL = "UPDATE account SET balance = ? WHERE account_id = ?";
+
+    /** The scale of the balance column, to which the database rounds each balance it stores. */
+    private static final int SCALE = 2;
+
+    private static final long POLL_MILLIS = 100;
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Logger log = LoggerFactory.getLogger(GroupCommitService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxService outboxService;
+
+    private final TableChangeCounter tableChangeCounter;
+
+    private final AuditTrail auditTrail;
+
+    private final VelocityService velocityService;
+
+    private final GroupCommitMetersService groupCommitMetersService;
+
+    private final IdempotencyKeyService idempotencyKeyService;
+
+    private final ApplicationProperties.GroupCommit config;
+
+    private final LinkedBlockingQueue<MoneyMovement> queue;
+
+    private final List<Thread> writers = new ArrayList<>();
+
+    private volatile boolean running = true;
+
+    private long[] transactionIds = new long[0];
+
+    private int nextTransactionId;
+
+    public GroupCommitService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        OutboxService outboxService,
+        TableChangeCounter tableChangeCounter,
+        AuditTrail auditTrail,
+        VelocityService velocityService,
+        GroupCommitMetersService groupCommitMetersService,
+        IdempotencyKeyService idempotencyKeyService,
+        ApplicationProperties applicationProperties
+    ) {
+        this(
+            jdbcTemplate,
+            transactionManager,
+            outboxService,
+            tableChangeCounter,
+            auditTrail,
+            velocityService,
+            groupCommitMetersService,
+            idempotencyKeyService,
+            applicationProperties.getGroupCommit()
+        );
+        if (config.isEnabled() && applicationProperties.getLedger().isEnabled()) {
+            // the ledger holds the balances in memory, and would overwrite those written here
+            throw new IllegalStateException("application.group-commit and application.ledger cannot both be enabled");
+        }
+        if (config.isEnabled()) {
+            for (int i = 0; i < config.getWriters(); i++) {
+                Thread writer = new Thread(this::writeLoop, "group-commit-" + i);
+                writer.setDaemon(true);
+                writer.start();
+                writers.add(writer);
+            }
+        }
+    }
+
+    /**
+     * Without the writer threads: {@link #flush()} writes the queued movements.
+     */
+    GroupCommitService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        OutboxService outboxService,
+        TableChangeCounter tableChangeCounter,
+        AuditTrail auditTrail,
+        VelocityService velocityService,
+        GroupCommitMetersService groupCommitMetersService,
+        IdempotencyKeyService idempotencyKeyService,
+        ApplicationProperties.GroupCommit config
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxService = outboxService;
+        this.tableChangeCounter = tableChangeCounter;
+        this.auditTrail = auditTrail;
+        this.velocityService = velocityService;
+        this.groupCommitMetersService = groupCommitMetersService;
+        this.idempotencyKeyService = idempotencyKeyService;
+        this.config = config;
+        this.queue = new LinkedBlockingQueue<>(config.getQueueCapacity());
+    }
+
+    /**
+     * @return whether the money movements are written in batches rather than one transaction each.
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * @param idempotencyKey the client's {@code Idempotency-Key}, or null.
+     */
+    public Transaction withdraw(long accountId, BigDecimal amount, String idempotencyKey) {
+        log.debug("Group commit request to process Withdrawal of {} from Account {}", amount, accountId);
+        return await(submit(new MoneyMovement(MoneyMovement.Kind.WITHDRAWAL, accountId, 0, amount, idempotencyKey)));
+    }
+
+    /**
+     * @param idempotencyKey the client's {@code Idempotency-Key}, or null.
+     */
+    public Transaction deposit(long accountId, BigDecimal amount, String idempotencyKey) {
+        log.debug("Group commit request to process Deposit of {} to Account {}", amount, accountId);
+        return await(submit(new MoneyMovement(MoneyMovement.Kind.DEPOSIT, accountId, 0, amount, idempotencyKey)));
+    }
+
+    /**
+     * @param idempotencyKey the client's {@code Idempotency-Key}, or null.
+     */
+    public Transaction transfer(long sourceAccountId, long targetAccountId, BigDecimal amount, String idempotencyKey) {
+        log.debug(
+            "Group commit request to process Transfer of {} from Account {} to Account {}",
+            amount,
+            sourceAccountId,
+            targetAccountId
+        );
+        return await(submit(new MoneyMovement(MoneyMovement.Kind.TRANSFER, sourceAccountId, targetAccountId, amount, idempotencyKey)));
+    }
+
+    MoneyMovement submit(MoneyMovement movement) {
+        movement.transactionId = nextTransactionId();
+        if (!queue.offer(movement)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending money movements");
+        }
+        groupCommitMetersService.trackQueued(queue.size());
+        return movement;
+    }
+
+    private Transaction await(MoneyMovement movement) {
+        try {
+            return movement.result.get(config.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw timedOut(movement, "Group commit timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw timedOut(movement, "Group commit interrupted");
+        }
+    }
+
+    private static RuntimeException timedOut(MoneyMovement movement, String reason) {
+        if (movement.cancel()) {
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        }
+        return new MovementPendingException(movement.transactionId);
+    }
+
+    /**
+     * Reserves the ids from the sequence {@code id-block-size} at a time.
+     */
+    private synchronized long nextTransactionId() {
+        if (nextTransactionId == transactionIds.length) {
+            transactionIds = jdbcTemplate
+                .queryForList(RESERVE_TRANSACTION_IDS_SQL, Long.class, config.getIdBlockSize())
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+            nextTransactionId = 0;
+        }
+        return transactionIds[nextTransactionId++];
+    }
+
+    private void writeLoop() {
+        List<MoneyMovement> batch = new ArrayList<>(config.getMaxBatch());
+        while (running || !queue.isEmpty()) {
+            try {
+                MoneyMovement first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, first.queuedNanos + TimeUnit.MILLISECONDS.toNanos(config.getWindowMs()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            groupCommitMetersService.trackQueued(queue.size());
+            writeClaimed(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Adds the movements queued until {@code deadline}, or until the batch is full. Once the writers fall behind, the
+     * window of the first movement is already over: the batch takes what is queued, without waiting.
+     */
+    private void collect(List<MoneyMovement> batch, long deadline) throws InterruptedException {
+        while (batch.size() < config.getMaxBatch()) {
+            queue.drainTo(batch, config.getMaxBatch() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= config.getMaxBatch() || remaining <= 0) {
+                return;
+            }
+            MoneyMovement next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Writes one batch of the queued movements, without waiting for more.
+     *
+     * @return the number of movements written or rejected.
+     */
+    int flush() {
+        List<MoneyMovement> batch = new ArrayList<>(config.getMaxBatch());
+        queue.drainTo(batch, config.getMaxBatch());
+        writeClaimed(batch);
+        return batch.size();
+    }
+
+    /**
+     * Writes the movements of the batch their callers still wait for.
+     */
+    private void writeClaimed(List<MoneyMovement> batch) {
+        batch.removeIf(movement -> !movement.claim());
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Writes a batch in one transaction, then completes its movements; if it rolls back, writes them one by one.
+     */
+    void write(List<MoneyMovement> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            groupCommitMetersService.trackSplit();
+            log.warn("Could not write a batch of {} money movements, writing them one by one: {}", batch.size(), e.getMessage());
+            for (MoneyMovement movement : batch) {
+                movement.reset();
+                write(List.of(movement));
+            }
+            return;
+        }
+        long end = System.nanoTime();
+        groupCommitMetersService.trackBatch(batch.size(), Duration.ofNanos(end - start));
+        for (MoneyMovement movement : batch) {
+            groupCommitMetersService.trackWait(Duration.ofNanos(end - movement.queuedNanos));
+            movement.complete();
+        }
+    }
+
+    private void apply(List<MoneyMovement> batch) {
+        Map<Long, Account> accounts = lockAccounts(batch);
+        Map<String, Long> recordedKeys = idempotencyKeyService.findAll(idempotencyKeys(batch));
+        Map<String, Long> newKeys = new HashMap<>();
+        List<MoneyMovement> accepted = new ArrayList<>(batch.size());
+        Map<Long, BigDecimal> balances = new TreeMap<>();
+        for (MoneyMovement movement : batch) {
+            String key = movement.idempotencyKey;
+            Long repeated = key == null ? null : recordedKeys.getOrDefault(key, newKeys.get(key));
+            if (repeated != null) {
+                movement.rejection = new MovementPendingException(repeated);
+                continue;
+            }
+            try {
+                apply(movement, accounts);
+            } catch (ResponseStatusException e) {
+                movement.rejection = e;
+                continue;
+            }
+            if (key != null) {
+                newKeys.put(key, movement.transactionId);
+            }
+            accepted.add(movement);
+            Transaction transaction = movement.transaction;
+            balances.put(transaction.getOriginatingAccount().getAccountId(), transaction.getOriginatingAccount().getBalance());
+            if (transaction.getResultingAccount() != null) {
+                balances.put(transaction.getResultingAccount().getAccountId(), transaction.getResultingAccount().getBalance());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> transactionRows = new ArrayList<>(accepted.size());
+        for (MoneyMovement movement : accepted) {
+            Transaction transaction = movement.transaction;
+            transaction.setTransactionId(movement.transactionId);
+            Account resulting = transaction.getResultingAccount();
+            transactionRows.add(
+                new Object[] {
+                    transaction.getTransactionId(),
+                    transaction.getAmount(),
+                    transaction.getOriginatingAccount().getAccountId(),
+                    resulting == null ? null : resulting.getAccountId(),
+                    transaction.getTransactionReason(),
+                    LocalDateTime.ofInstant(transaction.getCreatedDate(), ZoneOffset.UTC),
+                }
+            );
+        }
+        List<Object[]> balanceRows = new ArrayList<>(balances.size());
+        balances.forEach((accountId, balance) -> balanceRows.add(new Object[] { balance, accountId }));
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactionRows);
+        jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, balanceRows);
+        // a key recorded by a concurrent batch since the lookup fails this one, which is then written movement by movement
+        idempotencyKeyService.recordAll(newKeys);
+
+        // balances changed
+        tableChangeCounter.markChanged(TableChangeCounter.ACCOUNT);
+        for (MoneyMovement movement : accepted) {
+            outboxService.recordTransaction(movement.transaction);
+            auditTrail.record(
+                AuditTrail.TRANSACTION,
+                movement.transaction.getTransactionId(),
+                action(movement.kind),
+                movement.balancesBefore,
+                AuditSnapshots.movement(movement.transaction)
+            );
+        }
+    }
+
+    private static List<String> idempotencyKeys(List<MoneyMovement> batch) {
+        List<String> keys = new ArrayList<>();
+        for (MoneyMovement movement : batch) {
+            if (movement.idempotencyKey != null) {
+                keys.add(movement.idempotencyKey);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Locks the accounts of the batch in id order, so that concurrent batches wait for each other without deadlocks.
+     */
+    private Map<Long, Account> lockAccounts(List<MoneyMovement> batch) {
+        TreeSet<Long> accountIds = new TreeSet<>();
+        for (MoneyMovement movement : batch) {
+            accountIds.add(movement.accountId);
+            if (movement.kind == MoneyMovement.Kind.TRANSFER) {
+                accountIds.add(movement.targetAccountId);
+            }
+        }
+        Map<Long, Account> accounts = new HashMap<>();
+        jdbcTemplate.query(
+            LOCK_ACCOUNTS_SQL,
+            (RowCallbackHandler) rs -> accounts.put(rs.getLong(1), new Account(rs.getLong(1), rs.getString(2), rs.getBigDecimal(3), null)),
+            (Object) accountIds.toArray(new Long[0])
+        );
+        return accounts;
+    }
+
+    /**
+     * Applies a movement to the balances of the batch, as {@link com.banking.dev.service.TransactionService} does.
+     */
+    private void apply(MoneyMovement movement, Map<Long, Account> accounts) {
+        BigDecimal amount = movement.amount;
+        switch (movement.kind) {
+            case WITHDRAWAL -> {
+                Account account = account(accounts, movement.accountId, "Account not found");
+                BigDecimal debit = TransactionFees.withdrawalDebit(amount);
+                if (account.getBalance().compareTo(debit) < 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient funds");
+                }
+                if (!velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, movement.accountId, amount)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Withdrawal limit exceeded");
+                }
+                movement.balancesBefore = AuditSnapshots.balances(account);
+                add(account, debit.negate());
+                movement.transaction = new Transaction(null, copy(account), amount.negate(), null, "Withdrawal");
+            }
+            case DEPOSIT -> {
+                Account account = account(accounts, movement.accountId, "Account not found");
+                movement.balancesBefore = AuditSnapshots.balances(account);
+                add(account, TransactionFees.depositCredit(amount));
+                movement.transaction = new Transaction(null, copy(account), amount, null, "Deposit");
+            }
+            case TRANSFER -> {
+                Account source = account(accounts, movement.accountId, "Source account not found");
+                Account target = account(accounts, movement.targetAccountId, "Target account not found");
+                BigDecimal debit = TransactionFees.transferDebit(amount);
+                if (source.getBalance().compareTo(debit) < 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient funds");
+                }
+                if (!velocityService.tryAcquire(VelocityService.Kind.TRANSFER, movement.accountId, amount)) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Transfer limit exceeded");
+                }
+                movement.balancesBefore = AuditSnapshots.balances(source, target);
+                add(source, debit.negate());
+                add(target, amount);
+                movement.transaction = new Transaction(null, copy(source), amount.negate(), copy(target), "Transfer");
+            }
+        }
+    }
+
+    private static Account account(Map<Long, Account> accounts, long accountId, String notFound) {
+        Account account = accounts.get(accountId);
+        if (account == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, notFound);
+        }
+        return account;
+    }
+
+    /**
+     * Rounds as the database does when the balance is stored, which the next movement of a separate transaction
+     * would read.
+     */
+    private static void add(Account account, BigDecimal amount) {
+        account.setBalance(account.getBalance().add(amount).setScale(SCALE, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * The account as left by one movement, for its response and its audit record.
+     */
+    private static Account copy(Account account) {
+        return new Account(account.getAccountId(), account.getUserName(), account.getBalance(), null);
+    }
+
+    private static String action(MoneyMovement.Kind kind) {
+        return switch (kind) {
+            case WITHDRAWAL -> AuditTrail.WITHDRAWAL;
+            case DEPOSIT -> AuditTrail.DEPOSIT;
+            case TRANSFER -> AuditTrail.TRANSFER;
+        };
+    }
+
+    /**
+     * Writes what is queued, for up to {@link #SHUTDOWN_TIMEOUT}.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+        for (Thread writer : writers) {
+            writer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+    }
+}
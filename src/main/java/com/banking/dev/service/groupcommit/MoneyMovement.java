@@ -0,0 +1,79 @@
+package com.banking.dev.service.groupcommit;
+
+import com.banking.dev.domain.Transaction;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A withdrawal, deposit or transfer waiting for its batch, with the transaction id reserved for it, and what became of
+ * it in the batch's transaction: either its transaction, or the error rejecting it alone. Neither is known to the
+ * caller before the batch commits.
+ */
+final class MoneyMovement {
+
+    enum Kind {
+        WITHDRAWAL,
+        DEPOSIT,
+        TRANSFER,
+    }
+
+    final Kind kind;
+    final long accountId;
+    /** The target account of a transfer, 0 otherwise. */
+    final long targetAccountId;
+    final BigDecimal amount;
+    /** The client's Idempotency-Key, or null. */
+    final String idempotencyKey;
+    /** Reserved when the movement is queued. */
+    long transactionId;
+    final long queuedNanos;
+    final CompletableFuture<Transaction> result = new CompletableFuture<>();
+    /** Set once by the writer taking the movement into a batch, or by the caller giving up first. */
+    private final AtomicBoolean taken = new AtomicBoolean();
+
+    Transaction transaction;
+    Map<String, Object> balancesBefore;
+    RuntimeException rejection;
+
+    MoneyMovement(Kind kind, long accountId, long targetAccountId, BigDecimal amount, String idempotencyKey) {
+        this.kind = kind;
+        this.accountId = accountId;
+        this.targetAccountId = targetAccountId;
+        this.amount = amount;
+        this.idempotencyKey = idempotencyKey;
+        this.queuedNanos = System.nanoTime();
+    }
+
+    /**
+     * @return false if the caller gave up on the movement, which is then left out of the batch.
+     */
+    boolean claim() {
+        return taken.compareAndSet(false, true);
+    }
+
+    /**
+     * @return whether the movement was withdrawn before a writer took it: it will never be written.
+     */
+    boolean cancel() {
+        return taken.compareAndSet(false, true);
+    }
+
+    /**
+     * Forgets the outcome of a batch that rolled back.
+     */
+    void reset() {
+        transaction = null;
+        balancesBefore = null;
+        rejection = null;
+    }
+
+    void complete() {
+        if (rejection != null) {
+            result.completeExceptionally(rejection);
+        } else {
+            result.complete(transaction);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Group commit of concurrent money movements: many requests, one database transaction.
+ */
+package com.banking.dev.service.groupcommit;
@@ -0,0 +1,536 @@
+package com.banking.dev.service.ledger;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.management.LedgerMetersService;
+import com.banking.dev.service.IdempotencyKeyService;
+import com.banking.dev.service.MovementPendingException;
+import com.banking.dev.service.audit.AuditSnapshots;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
+import com.banking.dev.service.lock.JobLease;
+import com.banking.dev.service.lock.JobLockService;
+import com.banking.dev.service.outbox.OutboxService;
+import com.banking.dev.service.velocity.VelocityService;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Withdrawals, deposits and transfers on balances held in memory, when {@code application.ledger.enabled}: the
+ * request threads queue them to the {@link LedgerPartition} of their account, whose single thread applies them
+ * without locks and syncs their journal records once per batch. A movement is acknowledged once its records are on
+ * the local disk; the {@link LedgerPersister} writes them to the database afterwards.
+ * <p>
+ * On startup, each partition loads its last snapshot and replays its journal; the records the database does not
+ * have yet are persisted again, and the transfers debited but not credited are credited. Movements are rejected with
+ * a 503 until then.
+ * <p>
+ * While enabled, the engine owns the balances of the accounts it has touched, and the other writers of balances
+ * refuse to run: the group commit, and the balance updates and deletions of
+ * {@link com.banking.dev.service.AccountService}. A single instance may run it: startup fails if the
+ * {@value #LOCK_NAME} lock is held by another one, and the persister checks it still holds it in each transaction.
+ * <p>
+ * A caller waits for its movement for {@code timeout-ms}. If the partition has not taken it by then, it is withdrawn
+ * and rejected with a 503, so that it can be retried; otherwise it is answered with a {@link MovementPendingException}
+ * carrying its transaction id, under which it may still be applied. The idempotency key of a movement is recorded
+ * before it is queued, which costs a database round trip, and released if the movement is rejected; a crash in
+ * between leaves the key referring to a transaction that never comes. The fees, the checks and their error responses
+ * are those of {@link com.banking.dev.service.TransactionService}; the accounts returned only carry their id and
+ * balance.
+ */
+@Service
+public class LedgerEngine implements ApplicationRunner, DisposableBean {
+
+    private static final String ACCOUNT_BALANCE_SQL = "SELECT balance FROM account WHERE account_id = ?";
+
+    private static final String RESERVE_TRANSACTION_IDS_SQL = "SELECT nextval('transaction_id_seq') FROM generate_series(1, ?)";
+
+    private static final String CHECKPOINTS_SQL = "SELECT partition_id, persisted_seq FROM ledger_checkpoint";
+
+    private static final String PARTITION_DIRECTORY_PREFIX = "partition-";
+
+    private static final String PARTITIONS_FILE = "partitions";
+
+    static final String LOCK_NAME = "ledgerEngine";
+
+    /** Amounts are held in hundredths, the scale of the balance and amount columns. */
+    static final int SCALE = 2;
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxService outboxService;
+
+    private final TableChangeCounter tableChangeCounter;
+
+    private final AuditTrail auditTrail;
+
+    private final VelocityService velocityService;
+
+    private final LedgerMetersService ledgerMetersService;
+
+    private final JobLockService jobLockService;
+
+    private final IdempotencyKeyService idempotencyKeyService;
+
+    private final ApplicationProperties.Ledger config;
+
+    private final Duration lockLease;
+
+    private final LongSupplier currentTimeMicros;
+
+    private LedgerPartition[] partitions;
+
+    private LedgerPersister persister;
+
+    private JobLease lease;
+
+    private long[] transactionIds = new long[0];
+
+    private int nextTransactionId;
+
+    private volatile boolean ready;
+
+    public LedgerEngine(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        OutboxService outboxService,
+        TableChangeCounter tableChangeCounter,
+        AuditTrail auditTrail,
+        VelocityService velocityService,
+        LedgerMetersService ledgerMetersService,
+        JobLockService jobLockService,
+        IdempotencyKeyService idempotencyKeyService,
+        ApplicationProperties applicationProperties
+    ) {
+        this(
+            jdbcTemplate,
+            transactionManager,
+            outboxService,
+            tableChangeCounter,
+            auditTrail,
+            velocityService,
+            ledgerMetersService,
+            jobLockService,
+            idempotencyKeyService,
+            applicationProperties.getLedger(),
+            Duration.ofSeconds(applicationProperties.getJobLock().getLeaseSeconds()),
+            () -> ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now())
+        );
+    }
+
+    LedgerEngine(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        OutboxService outboxService,
+        TableChangeCounter tableChangeCounter,
+        AuditTrail auditTrail,
+        VelocityService velocityService,
+        LedgerMetersService ledgerMetersService,
+        JobLockService jobLockService,
+        IdempotencyKeyService idempotencyKeyService,
+        ApplicationProperties.Ledger config,
+        Duration lockLease,
+        LongSupplier currentTimeMicros
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxService = outboxService;
+        this.tableChangeCounter = tableChangeCounter;
+        this.auditTrail = auditTrail;
+        this.velocityService = velocityService;
+        this.ledgerMetersService = ledgerMetersService;
+        this.jobLockService = jobLockService;
+        this.idempotencyKeyService = idempotencyKeyService;
+        this.config = config;
+        this.lockLease = lockLease;
+        this.currentTimeMicros = currentTimeMicros;
+    }
+
+    /**
+     * @return whether the money movements go through the engine rather than through the JPA path.
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * @param idempotencyKey the client's {@code Idempotency-Key}, or null.
+     */
+    public Transaction withdraw(long accountId, BigDecimal amount, String idempotencyKey) {
+        log.debug("Ledger request to process Withdrawal of {} from Account {}", amount, accountId);
+        LedgerPartition.Operation operation = operation(LedgerRecord.WITHDRAWAL, accountId, 0, amount);
+        Transaction transaction = submit(operation, idempotencyKey);
+        audit(transaction, AuditTrail.WITHDRAWAL, AuditSnapshots.balances(account(accountId, operation.balanceBefore)));
+        return transaction;
+    }
+
+    /**
+     * @param idempotencyKey the client's {@code Idempotency-Key}, or null.
+     */
+    public Transaction deposit(long accountId, BigDecimal amount, String idempotencyKey) {
+        log.debug("Ledger request to process Deposit of {} to Account {}", amount, accountId);
+        LedgerPartition.Operation operation = operation(LedgerRecord.DEPOSIT, accountId, 0, amount);
+        Transaction transaction = submit(operation, idempotencyKey);
+        audit(transaction, AuditTrail.DEPOSIT, AuditSnapshots.balances(account(accountId, operation.balanceBefore)));
+        return transaction;
+    }
+
+    /**
+     * Debits the source on its partition, which sends the credit to the target's.
+     *
+     * @param idempotencyKey the client's {@code Idempotency-Key}, or null.
+     */
+    public Transaction transfer(long sourceAccountId, long targetAccountId, BigDecimal amount, String idempotencyKey) {
+        log.debug("Ledger request to process Transfer of {} from Account {} to Account {}", amount, sourceAccountId, targetAccountId);
+        LedgerPartition.Operation operation = operation(LedgerRecord.TRANSFER_DEBIT, sourceAccountId, targetAccountId, amount);
+        Transaction transaction = submit(operation, idempotencyKey);
+        audit(
+            transaction,
+            AuditTrail.TRANSFER,
+            AuditSnapshots.balances(
+                account(sourceAccountId, operation.balanceBefore),
+                account(targetAccountId, operation.otherBalanceBefore)
+            )
+        );
+        return transaction;
+    }
+
+    /**
+     * Loads the balances the partitions do not hold yet, a missing source being reported first, as by the JPA path,
+     * and reserves the transaction id.
+     */
+    private LedgerPartition.Operation operation(byte type, long accountId, long otherAccountId, BigDecimal amount) {
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ledger recovering");
+        }
+        if (!lease.isHeld()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ledger lock lost");
+        }
+        boolean transfer = type == LedgerRecord.TRANSFER_DEBIT;
+        Long loadedBalance = loadIfNotHeld(accountId, transfer ? "Source account not found" : "Account not found");
+        Long otherLoadedBalance = transfer ? loadIfNotHeld(otherAccountId, "Target account not found") : null;
+        LedgerPartition.Operation operation = new LedgerPartition.Operation(
+            type,
+            nextTransactionId(),
+            accountId,
+            otherAccountId,
+            amount
+        );
+        operation.loadedBalance = loadedBalance;
+        operation.otherLoadedBalance = otherLoadedBalance;
+        return operation;
+    }
+
+    /**
+     * Records the idempotency key, queues the operation and waits for it; the key is released if it is rejected.
+     */
+    private Transaction submit(LedgerPartition.Operation operation, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            idempotencyKeyService.recordAll(Map.of(idempotencyKey, operation.transactionId));
+        }
+        try {
+            partitionOf(operation.accountId).submit(operation);
+            return await(operation);
+        } catch (MovementPendingException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (idempotencyKey != null) {
+                idempotencyKeyService.release(idempotencyKey, operation.transactionId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the balance in hundredths, or null if the account's partition holds it.
+     * @throws ResponseStatusException if there is no such account.
+     */
+    private Long loadIfNotHeld(long accountId, String notFound) {
+        if (partitionOf(accountId).holds(accountId)) {
+            return null;
+        }
+        BigDecimal balance = loadBalance(accountId);
+        if (balance == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, notFound);
+        }
+        return toHundredths(balance);
+    }
+
+    private Transaction await(LedgerPartition.Operation operation) {
+        try {
+            return operation.result.get(config.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw timedOut(operation, "Ledger timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw timedOut(operation, "Ledger interrupted");
+        }
+    }
+
+    private RuntimeException timedOut(LedgerPartition.Operation operation, String reason) {
+        if (operation.cancel()) {
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        }
+        return new MovementPendingException(operation.transactionId);
+    }
+
+    private void audit(Transaction transaction, String action, Map<String, Object> balancesBefore) {
+        auditTrail.record(
+            AuditTrail.TRANSACTION,
+            transaction.getTransactionId(),
+            action,
+            balancesBefore,
+            AuditSnapshots.movement(transaction)
+        );
+    }
+
+    /**
+     * Recovers the partitions, then starts their threads and the persister's.
+     */
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (config.isEnabled()) {
+            start();
+        }
+    }
+
+    void start() throws IOException {
+        long start = System.nanoTime();
+        lease = jobLockService
+            .tryAcquire(LOCK_NAME, lockLease)
+            .orElseThrow(() -> new IllegalStateException("The ledger is run by another instance, holding the " + LOCK_NAME + " lock"));
+        try {
+            recover(start);
+        } catch (IOException | RuntimeException e) {
+            lease.close();
+            lease = null;
+            throw e;
+        }
+    }
+
+    private void recover(long start) throws IOException {
+        Path directory = Path.of(config.getDirectory());
+        checkPartitions(directory);
+        Map<Integer, Long> checkpoints = new HashMap<>();
+        jdbcTemplate.query(CHECKPOINTS_SQL, (RowCallbackHandler) rs -> checkpoints.put(rs.getInt(1), rs.getLong(2)));
+
+        persister = new LedgerPersister(
+            this,
+            jdbcTemplate,
+            transactionTemplate,
+            outboxService,
+            tableChangeCounter,
+            ledgerMetersService,
+            config
+        );
+        partitions = new LedgerPartition[config.getPartitions()];
+        for (int i = 0; i < partitions.length; i++) {
+            LedgerJournal journal = new LedgerJournal(directory.resolve(PARTITION_DIRECTORY_PREFIX + i), config.isFsync());
+            partitions[i] = new LedgerPartition(i, this, journal, config);
+        }
+        List<LedgerRecord> unpersisted = new ArrayList<>();
+        for (LedgerPartition partition : partitions) {
+            unpersisted.addAll(partition.recover(checkpoints.getOrDefault(partition.id, 0L)));
+        }
+        persister.enqueue(unpersisted);
+        int credits = 0;
+        for (LedgerPartition source : partitions) {
+            for (LedgerRecord debit : source.recoveredDebits()) {
+                LedgerPartition target = partitionOf(debit.otherAccountId);
+                if (debit.seq > target.creditedUpTo(source.id)) {
+                    Long targetBalance = target.holds(debit.otherAccountId) ? null : loadBalanceInHundredths(debit.otherAccountId);
+                    source.awaitCredit(debit.seq);
+                    target.send(new LedgerPartition.Credit(debit, null, targetBalance));
+                    credits++;
+                }
+            }
+            source.recoveredDebits().clear();
+        }
+
+        persister.start();
+        for (LedgerPartition partition : partitions) {
+            partition.start();
+        }
+        ready = true;
+        ledgerMetersService.trackRecovery(Duration.ofNanos(System.nanoTime() - start));
+        log.info("Ledger engine started: {} records to persist, {} transfers to credit", unpersisted.size(), credits);
+    }
+
+    /**
+     * Accounts are spread by id: the journals on disk must have been written with the same number of partitions, which
+     * is recorded with them.
+     */
+    private void checkPartitions(Path directory) throws IOException {
+        Path file = Files.createDirectories(directory).resolve(PARTITIONS_FILE);
+        String partitions = String.valueOf(config.getPartitions());
+        if (!Files.exists(file)) {
+            Files.writeString(file, partitions);
+            return;
+        }
+        String written = Files.readString(file).trim();
+        if (!written.equals(partitions)) {
+            throw new IllegalStateException("Ledger directory " + directory + " holds " + written + " partitions, not " + partitions);
+        }
+    }
+
+    LedgerPartition partitionOf(long accountId) {
+        return partitions[(int) Math.floorMod(accountId, (long) partitions.length)];
+    }
+
+    LedgerPartition partition(int id) {
+        return partitions[id];
+    }
+
+    LedgerPersister persister() {
+        return persister;
+    }
+
+    LedgerMetersService metrics() {
+        return ledgerMetersService;
+    }
+
+    VelocityService velocity() {
+        return velocityService;
+    }
+
+    long currentTimeMicros() {
+        return currentTimeMicros.getAsLong();
+    }
+
+    /**
+     * Checks, in the current transaction of the persister, that this instance still runs the ledger.
+     */
+    void checkLease() {
+        lease.checkFence();
+    }
+
+    /**
+     * Sends the reversal of a transfer debit whose target account is gone to the debit's partition, once its
+     * transaction id is reserved, off the partition threads. If that fails, the next recovery sends the credit again.
+     */
+    void reverse(LedgerRecord debit, LedgerPartition.Operation operation) {
+        CompletableFuture.runAsync(() ->
+            partition(debit.partition).send(new LedgerPartition.Reversal(debit, nextTransactionId(), operation))
+        ).exceptionally(e -> {
+            log.error("Could not reverse transfer {} of account {}, retried on the next start", debit.transactionId, debit.accountId, e);
+            return null;
+        });
+    }
+
+    /**
+     * @return the balance of the account in the database, or null if there is no such account.
+     */
+    private BigDecimal loadBalance(long accountId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(ACCOUNT_BALANCE_SQL, BigDecimal.class, accountId);
+        return balances.isEmpty() ? null : balances.get(0);
+    }
+
+    private Long loadBalanceInHundredths(long accountId) {
+        BigDecimal balance = loadBalance(accountId);
+        return balance == null ? null : toHundredths(balance);
+    }
+
+    /**
+     * Reserves the ids from the sequence {@code id-block-size} at a time, for the request threads.
+     */
+    private synchronized long nextTransactionId() {
+        if (nextTransactionId == transactionIds.length) {
+            transactionIds = jdbcTemplate
+                .queryForList(RESERVE_TRANSACTION_IDS_SQL, Long.class, config.getIdBlockSize())
+                .stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+            nextTransactionId = 0;
+        }
+        return transactionIds[nextTransactionId++];
+    }
+
+    /**
+     * @param credit the credit of a transfer debit, for the balance of its target; may be null.
+     */
+    Transaction toTransaction(LedgerRecord record, LedgerRecord credit) {
+        Account resulting = null;
+        if (record.type == LedgerRecord.TRANSFER_DEBIT) {
+            resulting = account(record.otherAccountId, credit == null ? null : credit.balance);
+        }
+        Transaction transaction = new Transaction(
+            record.transactionId,
+            account(record.accountId, record.balance),
+            toAmount(record.amount),
+            resulting,
+            record.transactionReason()
+        );
+        transaction.setCreatedDate(Instant.EPOCH.plus(record.createdMicros, ChronoUnit.MICROS));
+        return transaction;
+    }
+
+    private static Account account(long accountId, Long balance) {
+        Account account = new Account();
+        account.setAccountId(accountId);
+        account.setBalance(balance == null ? null : toAmount(balance));
+        return account;
+    }
+
+    static long toHundredths(BigDecimal amount) {
+        // rounded as the database rounds to the scale of its columns
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal toAmount(long hundredths) {
+        return BigDecimal.valueOf(hundredths, SCALE);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        ready = false;
+        if (partitions == null) {
+            return;
+        }
+        for (LedgerPartition partition : partitions) {
+            partition.shutdown(SHUTDOWN_TIMEOUT);
+        }
+        persister.shutdown(SHUTDOWN_TIMEOUT);
+        if (lease != null) {
+            lease.close();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.banking.dev.service.ledger;
+
+import com.carrotsearch.hppc.LongLongHashMap;
+import com.carrotsearch.hppc.cursors.LongLongCursor;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The write-ahead journal of one partition, in a directory of its own: segment files of checksummed
+ * {@link LedgerRecord}s named after the sequence number of their first record, and the latest balance snapshot.
+ * <p>
+ * Records are buffered by {@link #append} and made durable together by {@link #force}, one fsync for a whole batch.
+ * A crash may leave a torn record at the end of the last segment; the replay stops there and cuts it off. A new
+ * segment is started after each snapshot, so that the older ones can be deleted once nothing needs them any more.
+ * <p>
+ * Not thread-safe: used by the partition's thread only, and before it starts, for the recovery.
+ */
+final class LedgerJournal implements Closeable {
+
+    /**
+     * The balances of a partition's accounts after the record {@code seq}, and for each source partition, the last
+     * of its debits credited here.
+     */
+    static final class Snapshot {
+
+        final long seq;
+        final LongLongHashMap balances;
+        final long[] creditedUpTo;
+
+        Snapshot(long seq, LongLongHashMap balances, long[] creditedUpTo) {
+            this.seq = seq;
+            this.balances = balances;
+            this.creditedUpTo = creditedUpTo;
+        }
+    }
+
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String SNAPSHOT_TEMP_FILE = "snapshot.tmp";
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /** A record and its checksum. */
+    private static final int FRAME = LedgerRecord.SIZE + Integer.BYTES;
+
+    private static final int SNAPSHOT_MAGIC = 0x4c444753;
+
+    private final Logger log = LoggerFactory.getLogger(LedgerJournal.class);
+
+    private final Path directory;
+
+    private final boolean fsync;
+
+    /** Segment files by the sequence number of their first record. */
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(FRAME * 1024);
+
+    private final CRC32C checksum = new CRC32C();
+
+    private FileChannel channel;
+
+    LedgerJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+            }
+        }
+    }
+
+    /**
+     * @return the latest snapshot, or null if none was taken yet.
+     */
+    Snapshot readSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer data = ByteBuffer.wrap(bytes);
+        checksum.reset();
+        checksum.update(bytes, 0, Math.max(0, bytes.length - Integer.BYTES));
+        if (
+            bytes.length < Integer.BYTES * 2 ||
+            data.getInt() != SNAPSHOT_MAGIC ||
+            data.getInt(bytes.length - Integer.BYTES) != (int) checksum.getValue()
+        ) {
+            throw new IOException("Corrupt ledger snapshot " + file);
+        }
+        long seq = data.getLong();
+        long[] creditedUpTo = new long[data.getInt()];
+        for (int i = 0; i < creditedUpTo.length; i++) {
+            creditedUpTo[i] = data.getLong();
+        }
+        int accounts = data.getInt();
+        LongLongHashMap balances = new LongLongHashMap(accounts);
+        for (int i = 0; i < accounts; i++) {
+            balances.put(data.getLong(), data.getLong());
+        }
+        return new Snapshot(seq, balances, creditedUpTo);
+    }
+
+    /**
+     * Reads the records of all the segments in order, then cuts off a torn record at the end of the last one.
+     *
+     * @return the sequence number of the last record, 0 if there is none.
+     */
+    long replay(Consumer<LedgerRecord> consumer) throws IOException {
+        long last = 0;
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            byte[] bytes = Files.readAllBytes(segment.getValue());
+            ByteBuffer data = ByteBuffer.wrap(bytes);
+            while (data.remaining() >= FRAME) {
+                int start = data.position();
+                checksum.reset();
+                checksum.update(bytes, start, LedgerRecord.SIZE);
+                LedgerRecord record = LedgerRecord.readFrom(data);
+                if (data.getInt() != (int) checksum.getValue()) {
+                    data.position(start);
+                    break;
+                }
+                consumer.accept(record);
+                last = record.seq;
+            }
+            if (data.position() < bytes.length) {
+                if (!segment.getKey().equals(segments.lastKey())) {
+                    throw new IOException("Corrupt ledger journal " + segment.getValue() + " at byte " + data.position());
+                }
+                log.warn("Cutting off {} bytes torn at the end of {}", bytes.length - data.position(), segment.getValue());
+                try (FileChannel file = FileChannel.open(segment.getValue(), StandardOpenOption.WRITE)) {
+                    file.truncate(data.position());
+                    file.force(true);
+                }
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Opens the last segment to append to it, or the first one, starting at {@code nextSeq}.
+     */
+    void open(long nextSeq) throws IOException {
+        if (segments.isEmpty()) {
+            startSegment(nextSeq);
+        } else {
+            channel = FileChannel.open(segments.lastEntry().getValue(), StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+    }
+
+    void append(LedgerRecord record) throws IOException {
+        if (buffer.remaining() < FRAME) {
+            write();
+        }
+        int start = buffer.position();
+        record.writeTo(buffer);
+        checksum.reset();
+        checksum.update(buffer.array(), start, LedgerRecord.SIZE);
+        buffer.putInt((int) checksum.getValue());
+    }
+
+    /**
+     * Writes the records appended since the last call and, unless {@code fsync} is off, waits for the disk.
+     */
+    void force() throws IOException {
+        write();
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Replaces the snapshot, then starts a new segment after it; to be called right after {@link #force}.
+     */
+    void writeSnapshot(Snapshot snapshot) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(
+            Integer.BYTES * 4 + Long.BYTES * (1 + snapshot.creditedUpTo.length + 2 * snapshot.balances.size())
+        );
+        data.putInt(SNAPSHOT_MAGIC).putLong(snapshot.seq).putInt(snapshot.creditedUpTo.length);
+        for (long seq : snapshot.creditedUpTo) {
+            data.putLong(seq);
+        }
+        data.putInt(snapshot.balances.size());
+        for (LongLongCursor balance : snapshot.balances) {
+            data.putLong(balance.key).putLong(balance.value);
+        }
+        checksum.reset();
+        checksum.update(data.array(), 0, data.position());
+        data.putInt((int) checksum.getValue()).flip();
+
+        Path temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+        StandardOpenOption[] options = {
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+        };
+        try (FileChannel file = FileChannel.open(temp, options)) {
+            while (data.hasRemaining()) {
+                file.write(data);
+            }
+            file.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+        if (segments.lastKey() != snapshot.seq + 1) {
+            channel.close();
+            startSegment(snapshot.seq + 1);
+        }
+    }
+
+    /**
+     * Deletes the segments whose records all have a sequence number up to {@code seq}; never the last one.
+     */
+    void deleteSegmentsUpTo(long seq) throws IOException {
+        while (segments.size() > 1 && segments.higherKey(segments.firstKey()) - 1 <= seq) {
+            Files.deleteIfExists(segments.pollFirstEntry().getValue());
+        }
+    }
+
+    int segments() {
+        return segments.size();
+    }
+
+    private void startSegment(long firstSeq) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        segments.put(firstSeq, file);
+        syncDirectory();
+    }
+
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Makes a created or renamed file survive a crash; not supported on every platform.
+     */
+    private void syncDirectory() {
+        if (!fsync) {
+            return;
+        }
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Could not sync directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
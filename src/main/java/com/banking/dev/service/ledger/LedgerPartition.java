@@ -0,0 +1,648 @@
+package com.banking.dev.service.ledger;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.service.TransactionFees;
+import com.banking.dev.service.velocity.VelocityService;
+import com.carrotsearch.hppc.LongLongHashMap;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The balances of the accounts whose id falls in one partition, changed by its own thread only, so that no operation
+ * waits for a lock. The thread takes the operations queued since its last batch, up to {@code max-batch}, applies
+ * them in memory, appends their records to the {@link LedgerJournal} and syncs it once for all of them; then it
+ * answers the callers and hands the records to the {@link LedgerPersister}. If the journal cannot be written, the
+ * partition stops and rejects everything: its memory may be ahead of its journal.
+ * <p>
+ * The thread never waits for the database: the callers load the balances of the accounts the partition does not hold
+ * yet and reserve the transaction ids before queuing their operations.
+ * <p>
+ * A transfer is debited here, on the partition of its source account, and credited by the partition of its target
+ * account once the debit is durable; its caller is answered by the credit. Until the credit is journaled, the debit
+ * is kept in the journal, so that a restart sends the credit again. If the target account is gone, the debit is
+ * reversed on this partition instead.
+ */
+final class LedgerPartition implements Runnable {
+
+    /**
+     * Something for the partition's thread to do.
+     */
+    abstract static class Command {
+
+        /**
+         * @return false if the command is to be skipped, its caller having given up on it.
+         */
+        boolean claim() {
+            return true;
+        }
+
+        /**
+         * Applies the command on the partition's thread; the completions run once its records are durable.
+         *
+         * @throws ResponseStatusException if the command is rejected.
+         */
+        abstract void apply(LedgerPartition partition, List<Runnable> completions);
+
+        abstract void fail(RuntimeException e);
+    }
+
+    /**
+     * A withdrawal, deposit or transfer asked by a caller, with its transaction id, and the balances in the database
+     * of its accounts the partitions did not hold when it was queued.
+     */
+    static final class Operation extends Command {
+
+        final byte type;
+        final long transactionId;
+        final long accountId;
+        /** The target of a transfer. */
+        final long otherAccountId;
+        final BigDecimal amount;
+        final CompletableFuture<Transaction> result = new CompletableFuture<>();
+        /** Set once by the partition taking the operation, or by the caller giving up first. */
+        private final AtomicBoolean taken = new AtomicBoolean();
+        Long loadedBalance;
+        Long otherLoadedBalance;
+        long balanceBefore;
+        long otherBalanceBefore;
+
+        Operation(byte type, long transactionId, long accountId, long otherAccountId, BigDecimal amount) {
+            this.type = type;
+            this.transactionId = transactionId;
+            this.accountId = accountId;
+            this.otherAccountId = otherAccountId;
+            this.amount = amount;
+        }
+
+        @Override
+        boolean claim() {
+            return taken.compareAndSet(false, true);
+        }
+
+        /**
+         * @return whether the operation was withdrawn before a partition took it: it will never be applied.
+         */
+        boolean cancel() {
+            return taken.compareAndSet(false, true);
+        }
+
+        @Override
+        void apply(LedgerPartition partition, List<Runnable> completions) {
+            switch (type) {
+                case LedgerRecord.WITHDRAWAL -> partition.withdraw(this, completions);
+                case LedgerRecord.DEPOSIT -> partition.deposit(this, completions);
+                default -> partition.debit(this, completions);
+            }
+        }
+
+        @Override
+        void fail(RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * The credit of a durable transfer debit, with the caller's operation, or null when sent again by the recovery.
+     */
+    static final class Credit extends Command {
+
+        final LedgerRecord debit;
+        final Operation operation;
+        /** The balance of the target in the database, if the partition did not hold it; null if there is no such account. */
+        final Long loadedBalance;
+
+        Credit(LedgerRecord debit, Operation operation, Long loadedBalance) {
+            this.debit = debit;
+            this.operation = operation;
+            this.loadedBalance = loadedBalance;
+        }
+
+        @Override
+        void apply(LedgerPartition partition, List<Runnable> completions) {
+            partition.credit(this, completions);
+        }
+
+        @Override
+        void fail(RuntimeException e) {
+            if (operation != null) {
+                operation.fail(e);
+            }
+        }
+    }
+
+    /**
+     * Gives a transfer debit back to its source account, its target account being gone, with the caller's operation,
+     * or null after a restart.
+     */
+    static final class Reversal extends Command {
+
+        final LedgerRecord debit;
+        final long transactionId;
+        final Operation operation;
+
+        Reversal(LedgerRecord debit, long transactionId, Operation operation) {
+            this.debit = debit;
+            this.transactionId = transactionId;
+            this.operation = operation;
+        }
+
+        @Override
+        void apply(LedgerPartition partition, List<Runnable> completions) {
+            partition.reverse(this, completions);
+        }
+
+        @Override
+        void fail(RuntimeException e) {
+            if (operation != null) {
+                operation.fail(e);
+            }
+        }
+    }
+
+    private static final long POLL_MILLIS = 100;
+
+    private final Logger log = LoggerFactory.getLogger(LedgerPartition.class);
+
+    final int id;
+
+    private final LedgerEngine engine;
+
+    private final LedgerJournal journal;
+
+    private final ApplicationProperties.Ledger config;
+
+    private final LinkedBlockingQueue<Command> inbox = new LinkedBlockingQueue<>();
+
+    /** Balances in hundredths by account id. */
+    private final LongLongHashMap balances = new LongLongHashMap();
+
+    /** The ids of {@link #balances}, for the callers to tell which balances they need to load. */
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
+
+    /** For each source partition, the last of its debits credited here; its debits are credited in order. */
+    private final long[] creditedUpTo;
+
+    /** The debits of this partition whose credit is not durable yet. */
+    private final ConcurrentSkipListSet<Long> pendingCredits = new ConcurrentSkipListSet<>();
+
+    /** The records of the current batch. */
+    private final List<LedgerRecord> appended = new ArrayList<>();
+
+    /** Debits found by the recovery, for the engine to credit again. */
+    private final List<LedgerRecord> recoveredDebits = new ArrayList<>();
+
+    /** The sequence numbers of the debits reversed in the retained journal, which need no credit. */
+    private final Set<Long> reversedDebits = new HashSet<>();
+
+    private long seq;
+
+    private long snapshotSeq;
+
+    private long recordsSinceSnapshot;
+
+    private volatile long persistedSeq;
+
+    private volatile boolean running = true;
+
+    private volatile boolean failed;
+
+    private Thread thread;
+
+    LedgerPartition(int id, LedgerEngine engine, LedgerJournal journal, ApplicationProperties.Ledger config) {
+        this.id = id;
+        this.engine = engine;
+        this.journal = journal;
+        this.config = config;
+        this.creditedUpTo = new long[config.getPartitions()];
+    }
+
+    /**
+     * Loads the snapshot and replays the journal after it, before the thread starts.
+     *
+     * @param persistedSeq the last record of this partition written to the database.
+     * @return the records after it, to persist again.
+     */
+    List<LedgerRecord> recover(long persistedSeq) throws IOException {
+        this.persistedSeq = persistedSeq;
+        LedgerJournal.Snapshot snapshot = journal.readSnapshot();
+        if (snapshot != null) {
+            balances.putAll(snapshot.balances);
+            System.arraycopy(snapshot.creditedUpTo, 0, creditedUpTo, 0, Math.min(creditedUpTo.length, snapshot.creditedUpTo.length));
+            seq = snapshotSeq = snapshot.seq;
+        }
+        List<LedgerRecord> unpersisted = new ArrayList<>();
+        long lastSeq = journal.replay(record -> {
+            if (record.seq > snapshotSeq) {
+                balances.put(record.accountId, record.balance);
+                if (record.type == LedgerRecord.TRANSFER_CREDIT) {
+                    creditedUpTo[record.debitPartition] = Math.max(creditedUpTo[record.debitPartition], record.debitSeq);
+                }
+            }
+            if (record.seq > persistedSeq) {
+                unpersisted.add(record);
+            }
+            if (record.type == LedgerRecord.TRANSFER_DEBIT) {
+                recoveredDebits.add(record);
+            } else if (record.type == LedgerRecord.TRANSFER_REVERSAL) {
+                reversedDebits.add(record.debitSeq);
+            }
+        });
+        recoveredDebits.removeIf(debit -> reversedDebits.contains(debit.seq));
+        reversedDebits.clear();
+        for (LongCursor cursor : balances.keys()) {
+            held.add(cursor.value);
+        }
+        seq = Math.max(seq, lastSeq);
+        recordsSinceSnapshot = seq - snapshotSeq;
+        journal.open(seq + 1);
+        return unpersisted;
+    }
+
+    /**
+     * @return the debits of the retained journal not reversed; those after {@link #creditedUpTo} of their target still
+     * need a credit.
+     */
+    List<LedgerRecord> recoveredDebits() {
+        return recoveredDebits;
+    }
+
+    long creditedUpTo(int sourcePartition) {
+        return creditedUpTo[sourcePartition];
+    }
+
+    /**
+     * @return whether the partition holds the balance of the account; if not, it is loaded by the caller.
+     */
+    boolean holds(long accountId) {
+        return held.contains(accountId);
+    }
+
+    void start() {
+        thread = new Thread(this, "ledger-partition-" + id);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues an operation of a caller, unless the partition is stopped or too far behind.
+     */
+    void submit(Command command) {
+        if (failed || !running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ledger unavailable");
+        }
+        if (inbox.size() >= config.getQueueCapacity()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ledger busy");
+        }
+        inbox.add(command);
+    }
+
+    /**
+     * Queues a command of another partition; never rejected, it follows up on a durable record.
+     */
+    void send(Command command) {
+        inbox.add(command);
+    }
+
+    void awaitCredit(long debitSeq) {
+        pendingCredits.add(debitSeq);
+    }
+
+    void credited(long debitSeq) {
+        pendingCredits.remove(debitSeq);
+    }
+
+    void persisted(long seq) {
+        if (seq > persistedSeq) {
+            persistedSeq = seq;
+        }
+    }
+
+    @Override
+    public void run() {
+        List<Command> batch = new ArrayList<>(config.getMaxBatch());
+        List<Runnable> completions = new ArrayList<>(config.getMaxBatch());
+        while (running || !inbox.isEmpty()) {
+            Command first;
+            try {
+                first = inbox.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (first == null) {
+                deleteObsoleteSegments();
+                continue;
+            }
+            batch.add(first);
+            inbox.drainTo(batch, config.getMaxBatch() - 1);
+            try {
+                applyAll(batch, completions);
+            } catch (IOException | UncheckedIOException e) {
+                stop(batch, e);
+                return;
+            }
+            completions.forEach(Runnable::run);
+            completions.clear();
+            batch.clear();
+            if (recordsSinceSnapshot >= config.getSnapshotEveryRecords()) {
+                snapshot();
+            }
+        }
+        if (!failed && recordsSinceSnapshot > 0) {
+            snapshot();
+        }
+    }
+
+    private void applyAll(List<Command> batch, List<Runnable> completions) throws IOException {
+        for (Command command : batch) {
+            if (!command.claim()) {
+                continue;
+            }
+            try {
+                command.apply(this, completions);
+            } catch (UncheckedIOException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                completions.add(() -> command.fail(e));
+            }
+        }
+        if (appended.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        journal.force();
+        engine.metrics().trackGroupCommit(batch.size(), Duration.ofNanos(System.nanoTime() - start));
+        engine.persister().enqueue(appended);
+        recordsSinceSnapshot += appended.size();
+        appended.clear();
+    }
+
+    private void withdraw(Operation operation, List<Runnable> completions) {
+        long balance = balance(operation.accountId, operation.loadedBalance, "Account not found");
+        BigDecimal current = LedgerEngine.toAmount(balance);
+        BigDecimal debit = TransactionFees.withdrawalDebit(operation.amount);
+        if (current.compareTo(debit) < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient funds");
+        }
+        if (!engine.velocity().tryAcquire(VelocityService.Kind.WITHDRAWAL, operation.accountId, operation.amount)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Withdrawal limit exceeded");
+        }
+        LedgerRecord record = append(
+            LedgerRecord.WITHDRAWAL,
+            operation.transactionId,
+            operation.accountId,
+            0,
+            LedgerEngine.toHundredths(operation.amount.negate()),
+            LedgerEngine.toHundredths(current.subtract(debit)),
+            engine.currentTimeMicros(),
+            0,
+            0
+        );
+        operation.balanceBefore = balance;
+        completions.add(() -> operation.result.complete(engine.toTransaction(record, null)));
+    }
+
+    private void deposit(Operation operation, List<Runnable> completions) {
+        long balance = balance(operation.accountId, operation.loadedBalance, "Account not found");
+        LedgerRecord record = append(
+            LedgerRecord.DEPOSIT,
+            operation.transactionId,
+            operation.accountId,
+            0,
+            LedgerEngine.toHundredths(operation.amount),
+            LedgerEngine.toHundredths(LedgerEngine.toAmount(balance).add(TransactionFees.depositCredit(operation.amount))),
+            engine.currentTimeMicros(),
+            0,
+            0
+        );
+        operation.balanceBefore = balance;
+        completions.add(() -> operation.result.complete(engine.toTransaction(record, null)));
+    }
+
+    private void debit(Operation operation, List<Runnable> completions) {
+        long balance = balance(operation.accountId, operation.loadedBalance, "Source account not found");
+        BigDecimal current = LedgerEngine.toAmount(balance);
+        BigDecimal debit = TransactionFees.transferDebit(operation.amount);
+        if (current.compareTo(debit) < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient funds");
+        }
+        if (!engine.velocity().tryAcquire(VelocityService.Kind.TRANSFER, operation.accountId, operation.amount)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Transfer limit exceeded");
+        }
+        LedgerRecord record = append(
+            LedgerRecord.TRANSFER_DEBIT,
+            operation.transactionId,
+            operation.accountId,
+            operation.otherAccountId,
+            LedgerEngine.toHundredths(operation.amount.negate()),
+            LedgerEngine.toHundredths(current.subtract(debit)),
+            engine.currentTimeMicros(),
+            0,
+            0
+        );
+        operation.balanceBefore = balance;
+        pendingCredits.add(record.seq);
+        completions.add(() ->
+            engine.partitionOf(operation.otherAccountId).send(new Credit(record, operation, operation.otherLoadedBalance))
+        );
+    }
+
+    private void credit(Credit credit, List<Runnable> completions) {
+        LedgerRecord debit = credit.debit;
+        LedgerPartition source = engine.partition(debit.partition);
+        if (debit.seq <= creditedUpTo[debit.partition]) {
+            // sent again by the recovery, but already journaled
+            completions.add(() -> source.credited(debit.seq));
+            return;
+        }
+        Operation operation = credit.operation;
+        if (!balances.containsKey(debit.otherAccountId) && credit.loadedBalance == null) {
+            log.warn(
+                "Transfer {} debited account {}, but account {} is gone: reversing the debit",
+                debit.transactionId,
+                debit.accountId,
+                debit.otherAccountId
+            );
+            completions.add(() -> engine.reverse(debit, operation));
+            return;
+        }
+        long balance = balance(debit.otherAccountId, credit.loadedBalance, "Target account not found");
+        LedgerRecord record = append(
+            LedgerRecord.TRANSFER_CREDIT,
+            debit.transactionId,
+            debit.otherAccountId,
+            debit.accountId,
+            -debit.amount,
+            balance - debit.amount,
+            debit.createdMicros,
+            debit.partition,
+            debit.seq
+        );
+        creditedUpTo[debit.partition] = debit.seq;
+        if (operation != null) {
+            operation.otherBalanceBefore = balance;
+        }
+        completions.add(() -> {
+            source.credited(debit.seq);
+            if (operation != null) {
+                operation.result.complete(engine.toTransaction(debit, record));
+            }
+        });
+    }
+
+    /**
+     * Gives the debited amount back, fees included, then answers the transfer's caller that its target is gone.
+     */
+    private void reverse(Reversal reversal, List<Runnable> completions) {
+        LedgerRecord debit = reversal.debit;
+        long balance = balance(debit.accountId, null, "Source account not found");
+        // the debit rounded the balance left half up, so it took the fees rounded half down
+        long debited = TransactionFees.transferDebit(LedgerEngine.toAmount(-debit.amount))
+            .setScale(LedgerEngine.SCALE, RoundingMode.HALF_DOWN)
+            .unscaledValue()
+            .longValueExact();
+        append(
+            LedgerRecord.TRANSFER_REVERSAL,
+            reversal.transactionId,
+            debit.accountId,
+            debit.otherAccountId,
+            debited,
+            balance + debited,
+            engine.currentTimeMicros(),
+            debit.partition,
+            debit.seq
+        );
+        completions.add(() -> {
+            credited(debit.seq);
+            reversal.fail(new ResponseStatusException(HttpStatus.NOT_FOUND, "Target account not found"));
+        });
+    }
+
+    /**
+     * @param loaded the balance in the database, loaded by the caller if the partition did not hold the account.
+     * @return the balance of the account.
+     * @throws ResponseStatusException if there is no such account.
+     */
+    private long balance(long accountId, Long loaded, String notFound) {
+        int index = balances.indexOf(accountId);
+        if (balances.indexExists(index)) {
+            return balances.indexGet(index);
+        }
+        if (loaded == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, notFound);
+        }
+        balances.put(accountId, loaded);
+        held.add(accountId);
+        return loaded;
+    }
+
+    private LedgerRecord append(
+        byte type,
+        long transactionId,
+        long accountId,
+        long otherAccountId,
+        long amount,
+        long balance,
+        long createdMicros,
+        int debitPartition,
+        long debitSeq
+    ) {
+        LedgerRecord record = new LedgerRecord(
+            type,
+            id,
+            seq + 1,
+            transactionId,
+            accountId,
+            otherAccountId,
+            amount,
+            balance,
+            createdMicros,
+            debitPartition,
+            debitSeq
+        );
+        try {
+            journal.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        seq = record.seq;
+        balances.put(accountId, balance);
+        appended.add(record);
+        return record;
+    }
+
+    private void snapshot() {
+        try {
+            journal.writeSnapshot(new LedgerJournal.Snapshot(seq, balances, creditedUpTo.clone()));
+            snapshotSeq = seq;
+            recordsSinceSnapshot = 0;
+        } catch (IOException e) {
+            log.warn("Ledger partition {} could not write its snapshot, keeping the journal: {}", id, e.getMessage());
+        }
+        deleteObsoleteSegments();
+    }
+
+    /**
+     * Deletes the segments replaced by the snapshot, persisted, and without a debit waiting for its credit.
+     */
+    private void deleteObsoleteSegments() {
+        Long firstPendingCredit = pendingCredits.isEmpty() ? null : pendingCredits.first();
+        long upTo = Math.min(Math.min(snapshotSeq, persistedSeq), firstPendingCredit == null ? seq : firstPendingCredit - 1);
+        try {
+            journal.deleteSegmentsUpTo(upTo);
+        } catch (IOException e) {
+            log.warn("Ledger partition {} could not delete its old journal segments: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Fails the batch and everything queued after it; the operations whose records were written may still be
+     * applied by the next recovery.
+     */
+    private void stop(List<Command> batch, Exception cause) {
+        failed = true;
+        running = false;
+        log.error("Ledger partition {} could not write its journal, stopping it", id, cause);
+        ResponseStatusException error = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ledger unavailable");
+        batch.forEach(command -> command.fail(error));
+        Command command;
+        while ((command = inbox.poll()) != null) {
+            command.fail(error);
+        }
+    }
+
+    /**
+     * Stops taking operations, applies those queued, snapshots and closes the journal.
+     */
+    void shutdown(Duration timeout) throws InterruptedException {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            current.join(timeout.toMillis());
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Ledger partition {} could not close its journal: {}", id, e.getMessage());
+        }
+    }
+}
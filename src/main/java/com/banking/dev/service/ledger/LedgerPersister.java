@@ -0,0 +1,248 @@
+package com.banking.dev.service.ledger;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.management.LedgerMetersService;
+import com.banking.dev.service.etag.TableChangeCounter;
+import com.banking.dev.service.outbox.OutboxService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes the durable journal records of all the partitions to the database, in the order they were journaled, from
+ * the {@code ledger-persister} thread: for each batch, one transaction inserts the transaction rows, sets the balances
+ * of the accounts to their last value, records the outbox events and moves the {@code ledger_checkpoint} of each
+ * partition past its records. Each transaction first checks that this instance still holds the ledger's lock, so that
+ * it never writes behind the back of an instance that took the ledger over.
+ * <p>
+ * Records are written at least once: after a crash, the records past the checkpoints are written again, and the rows
+ * already there are skipped. A batch the database cannot take is retried until it can, except for the records
+ * violating a constraint, such as a movement of a deleted account, which are logged and skipped.
+ */
+final class LedgerPersister implements Runnable {
+
+    private static final String INSERT_TRANSACTION_SQL =
+        "INSERT INTO transaction (transaction_id, amount, originating_account_id, resulting_account_id, transaction_reason, " +
+        "created_date) VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String UPDATE_BALANCE_SQL = "UPDATE account SET balance = ? WHERE account_id = ?";
+
+    private static final String CHECKPOINT_SQL =
+        "INSERT INTO ledger_checkpoint (partition_id, persisted_seq, updated_date) VALUES (?, ?, ?) " +
+        "ON CONFLICT (partition_id) DO UPDATE SET persisted_seq = excluded.persisted_seq, updated_date = excluded.updated_date";
+
+    private static final long POLL_MILLIS = 100;
+
+    private final Logger log = LoggerFactory.getLogger(LedgerPersister.class);
+
+    private final LedgerEngine engine;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxService outboxService;
+
+    private final TableChangeCounter tableChangeCounter;
+
+    private final LedgerMetersService ledgerMetersService;
+
+    private final ApplicationProperties.Ledger config;
+
+    private final LinkedBlockingQueue<LedgerRecord> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running = true;
+
+    private Thread thread;
+
+    LedgerPersister(
+        LedgerEngine engine,
+        JdbcTemplate jdbcTemplate,
+        TransactionTemplate transactionTemplate,
+        OutboxService outboxService,
+        TableChangeCounter tableChangeCounter,
+        LedgerMetersService ledgerMetersService,
+        ApplicationProperties.Ledger config
+    ) {
+        this.engine = engine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxService = outboxService;
+        this.tableChangeCounter = tableChangeCounter;
+        this.ledgerMetersService = ledgerMetersService;
+        this.config = config;
+    }
+
+    void start() {
+        thread = new Thread(this, "ledger-persister");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void enqueue(List<LedgerRecord> records) {
+        queue.addAll(records);
+        ledgerMetersService.trackUnpersisted(queue.size());
+    }
+
+    @Override
+    public void run() {
+        List<LedgerRecord> batch = new ArrayList<>(config.getPersistBatchSize());
+        while (running || !queue.isEmpty()) {
+            LedgerRecord first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, config.getPersistBatchSize() - 1);
+            if (!persistRetrying(batch)) {
+                return;
+            }
+            batch.clear();
+            ledgerMetersService.trackUnpersisted(queue.size());
+        }
+    }
+
+    /**
+     * @return false if stopped before the batch could be written; the journals still hold it.
+     */
+    private boolean persistRetrying(List<LedgerRecord> batch) {
+        while (true) {
+            try {
+                persist(batch);
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                ledgerMetersService.trackPersistFailed();
+                persistOneByOne(batch);
+                return true;
+            } catch (RuntimeException e) {
+                ledgerMetersService.trackPersistFailed();
+                log.warn(
+                    "Could not persist {} ledger records, retrying in {} ms: {}",
+                    batch.size(),
+                    config.getPersistRetryMs(),
+                    e.getMessage()
+                );
+            }
+            try {
+                Thread.sleep(config.getPersistRetryMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            if (!running) {
+                return false;
+            }
+        }
+    }
+
+    private void persistOneByOne(List<LedgerRecord> batch) {
+        for (LedgerRecord record : batch) {
+            try {
+                persist(List.of(record));
+            } catch (DataIntegrityViolationException e) {
+                log.error(
+                    "Skipping ledger record {} of partition {}, transaction {} of account {}: {}",
+                    record.seq,
+                    record.partition,
+                    record.transactionId,
+                    record.accountId,
+                    e.getMostSpecificCause().getMessage()
+                );
+                persistCheckpoint(record);
+            }
+        }
+    }
+
+    /**
+     * Writes a batch in one transaction, then lets each partition delete the journal segments it covered.
+     */
+    void persist(List<LedgerRecord> batch) {
+        List<LedgerRecord> transactions = new ArrayList<>(batch.size());
+        List<Object[]> transactionRows = new ArrayList<>(batch.size());
+        Map<Long, Long> balances = new LinkedHashMap<>();
+        Map<Integer, Long> checkpoints = new TreeMap<>();
+        for (LedgerRecord record : batch) {
+            if (record.isTransaction()) {
+                transactions.add(record);
+                transactionRows.add(
+                    new Object[] {
+                        record.transactionId,
+                        LedgerEngine.toAmount(record.amount),
+                        record.accountId,
+                        record.type == LedgerRecord.TRANSFER_DEBIT ? record.otherAccountId : null,
+                        record.transactionReason(),
+                        createdDate(record.createdMicros),
+                    }
+                );
+            }
+            balances.put(record.accountId, record.balance);
+            checkpoints.merge(record.partition, record.seq, Math::max);
+        }
+        List<Object[]> balanceRows = new ArrayList<>(balances.size());
+        balances.forEach((accountId, balance) -> balanceRows.add(new Object[] { LedgerEngine.toAmount(balance), accountId }));
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        List<Object[]> checkpointRows = new ArrayList<>(checkpoints.size());
+        checkpoints.forEach((partition, seq) -> checkpointRows.add(new Object[] { partition, seq, now }));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            engine.checkLease();
+            int[] inserted = jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactionRows);
+            jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, balanceRows);
+            jdbcTemplate.batchUpdate(CHECKPOINT_SQL, checkpointRows);
+            for (int i = 0; i < inserted.length; i++) {
+                // written again after a restart: its event was recorded with it
+                if (inserted[i] != 0) {
+                    outboxService.recordTransaction(engine.toTransaction(transactions.get(i), null));
+                }
+            }
+        });
+        // balances changed
+        tableChangeCounter.markChanged(TableChangeCounter.ACCOUNT);
+        checkpoints.forEach((partition, seq) -> engine.partition(partition).persisted(seq));
+    }
+
+    private void persistCheckpoint(LedgerRecord record) {
+        transactionTemplate.executeWithoutResult(status -> {
+            engine.checkLease();
+            jdbcTemplate.update(CHECKPOINT_SQL, record.partition, record.seq, LocalDateTime.now(ZoneOffset.UTC));
+        });
+        engine.partition(record.partition).persisted(record.seq);
+    }
+
+    private static LocalDateTime createdDate(long epochMicros) {
+        return LocalDateTime.ofEpochSecond(
+            Math.floorDiv(epochMicros, 1_000_000L),
+            (int) Math.floorMod(epochMicros, 1_000_000L) * 1000,
+            ZoneOffset.UTC
+        );
+    }
+
+    /**
+     * Writes what is queued, for up to {@code timeout}; the rest is written after the next start.
+     */
+    void shutdown(Duration timeout) throws InterruptedException {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            current.join(timeout.toMillis());
+        }
+    }
+}
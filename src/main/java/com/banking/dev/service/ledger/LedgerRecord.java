@@ -0,0 +1,114 @@
+package com.banking.dev.service.ledger;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One journal record: a change of the balance of one account, with the balance it ends at rather than the delta, so
+ * replaying a record that was already applied changes nothing. Amounts and balances are in hundredths.
+ * <p>
+ * A transfer is two records: its debit in the journal of the source account's partition, then its credit in the
+ * journal of the target account's partition, which refers back to the debit by its partition and sequence number.
+ * If the target account is gone by then, the debit is reversed instead, by a record in the source's journal that
+ * refers back to it the same way and gives the debited amount back, fees included.
+ */
+final class LedgerRecord {
+
+    static final byte WITHDRAWAL = 1;
+    static final byte DEPOSIT = 2;
+    static final byte TRANSFER_DEBIT = 3;
+    static final byte TRANSFER_CREDIT = 4;
+    static final byte TRANSFER_REVERSAL = 5;
+
+    /** Bytes of an encoded record. */
+    static final int SIZE = 1 + 4 + 8 + 8 + 8 + 8 + 8 + 8 + 8 + 4 + 8;
+
+    final byte type;
+    /** The partition whose journal holds the record. */
+    final int partition;
+    final long seq;
+    final long transactionId;
+    final long accountId;
+    /** The target of a debit or reversal, the source of a credit, 0 otherwise. */
+    final long otherAccountId;
+    /** The amount of the transaction row: negative for withdrawals and transfers, positive for credits and reversals. */
+    final long amount;
+    /** The balance of {@link #accountId} once the record is applied. */
+    final long balance;
+    final long createdMicros;
+    /** For a credit or reversal, the partition and sequence number of its debit. */
+    final int debitPartition;
+    final long debitSeq;
+
+    LedgerRecord(
+        byte type,
+        int partition,
+        long seq,
+        long transactionId,
+        long accountId,
+        long otherAccountId,
+        long amount,
+        long balance,
+        long createdMicros,
+        int debitPartition,
+        long debitSeq
+    ) {
+        this.type = type;
+        this.partition = partition;
+        this.seq = seq;
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.otherAccountId = otherAccountId;
+        this.amount = amount;
+        this.balance = balance;
+        this.createdMicros = createdMicros;
+        this.debitPartition = debitPartition;
+        this.debitSeq = debitSeq;
+    }
+
+    /**
+     * @return whether the record is a row of the transaction table; the credit of a transfer shares the row of its debit.
+     */
+    boolean isTransaction() {
+        return type != TRANSFER_CREDIT;
+    }
+
+    String transactionReason() {
+        return switch (type) {
+            case WITHDRAWAL -> "Withdrawal";
+            case DEPOSIT -> "Deposit";
+            case TRANSFER_REVERSAL -> "Transfer reversal";
+            default -> "Transfer";
+        };
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer
+            .put(type)
+            .putInt(partition)
+            .putLong(seq)
+            .putLong(transactionId)
+            .putLong(accountId)
+            .putLong(otherAccountId)
+            .putLong(amount)
+            .putLong(balance)
+            .putLong(createdMicros)
+            .putInt(debitPartition)
+            .putLong(debitSeq);
+    }
+
+    static LedgerRecord readFrom(ByteBuffer buffer) {
+        return new LedgerRecord(
+            buffer.get(),
+            buffer.getInt(),
+            buffer.getLong(),
+            buffer.getLong(),
+            buffer.getLong(),
+            buffer.getLong(),
+            buffer.getLong(),
+            buffer.getLong(),
+            buffer.getLong(),
+            buffer.getInt(),
+            buffer.getLong()
+        );
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * The optional ledger engine: money movements applied to in-memory balances by single-writer partitions, journaled
+ * locally and persisted to the database asynchronously.
+ */
+package com.banking.dev.service.ledger;
@@ -0,0 +1,69 @@
+package com.banking.dev.service.lock;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * A lock held by this instance, renewed in the background until it is closed.
+ */
+public final class JobLease implements AutoCloseable {
+
+    private final JobLockService jobLockService;
+
+    private final String name;
+
+    private final long fencingToken;
+
+    private final Duration lockAtLeastFor;
+
+    volatile long expiresAtNanos;
+
+    volatile boolean lost;
+
+    volatile ScheduledFuture<?> renewal;
+
+    JobLease(JobLockService jobLockService, String name, long fencingToken, Duration lockAtLeastFor, long expiresAtNanos) {
+        this.jobLockService = jobLockService;
+        this.name = name;
+        this.fencingToken = fencingToken;
+        this.lockAtLeastFor = lockAtLeastFor;
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a number greater than the one of every earlier holder of the lock.
+     */
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public Duration getLockAtLeastFor() {
+        return lockAtLeastFor;
+    }
+
+    /**
+     * @return whether the lease was renewed in time, as far as this instance knows.
+     */
+    public boolean isHeld() {
+        return !lost && jobLockService.nanoTime() - expiresAtNanos < 0;
+    }
+
+    /**
+     * Checks in the current transaction that the lease is still held, and keeps another instance from taking it over
+     * until that transaction ends.
+     *
+     * @throws JobLockLostException if it is not.
+     */
+    public void checkFence() {
+        jobLockService.checkFence(this);
+    }
+
+    @Override
+    public void close() {
+        jobLockService.release(this);
+    }
+}
@@ -0,0 +1,33 @@
+package com.banking.dev.service.lock;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method, typically a {@code @Scheduled} one, only on the instance that acquires the named lock;
+ * the other instances skip that run. See {@link JobLockService}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface JobLock {
+    /**
+     * @return the name of the lock, the same on every instance.
+     */
+    String value();
+
+    /**
+     * @return the lease, 0 uses {@code application.job-lock.lease-seconds}.
+     */
+    long leaseSeconds() default 0;
+
+    /**
+     * @return how long after the start of a run the lock stays held once the run is over, so that instances whose
+     * schedule fires a little later, with a slower clock or after a short run, skip it. Only for jobs scheduled
+     * further apart than this.
+     */
+    long lockAtLeastForSeconds() default 0;
+}
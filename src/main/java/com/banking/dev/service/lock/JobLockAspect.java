@@ -0,0 +1,55 @@
+package com.banking.dev.service.lock;
+
+import com.banking.dev.config.ApplicationProperties;
+import java.time.Duration;
+import java.util.Optional;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link JobLock} methods under their lease, outside of any transaction they open, or skips them.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class JobLockAspect {
+
+    private final Logger log = LoggerFactory.getLogger(JobLockAspect.class);
+
+    private final JobLockService jobLockService;
+
+    private final ApplicationProperties.JobLock properties;
+
+    public JobLockAspect(JobLockService jobLockService, ApplicationProperties applicationProperties) {
+        this.jobLockService = jobLockService;
+        this.properties = applicationProperties.getJobLock();
+    }
+
+    @Around("@annotation(jobLock)")
+    public Object runLocked(ProceedingJoinPoint joinPoint, JobLock jobLock) throws Throwable {
+        if (!properties.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        Duration lease = Duration.ofSeconds(jobLock.leaseSeconds() > 0 ? jobLock.leaseSeconds() : properties.getLeaseSeconds());
+        Duration lockAtLeastFor = Duration.ofSeconds(jobLock.lockAtLeastForSeconds());
+        Optional<JobLease> acquired = jobLockService.tryAcquire(jobLock.value(), lease, lockAtLeastFor);
+        if (acquired.isEmpty()) {
+            log.debug("Skipping {}, lock {} is held by another instance", joinPoint.getSignature().toShortString(), jobLock.value());
+            return null;
+        }
+        try (JobLease held = acquired.get()) {
+            JobLease previous = jobLockService.bind(held);
+            try {
+                return joinPoint.proceed();
+            } finally {
+                jobLockService.unbind(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.dev.service.lock;
+
+/**
+ * Thrown when a job finds that its lease expired or was taken over by another instance.
+ */
+public class JobLockLostException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JobLockLostException(String name, long fencingToken) {
+        super("Lock " + name + " with fencing token " + fencingToken + " is no longer held");
+    }
+}
@@ -0,0 +1,222 @@
+package com.banking.dev.service.lock;
+
+import com.banking.dev.management.JobLockMetersService;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Leases on the {@code job_lock} table, one row per lock name.
+ * <p>
+ * A lease is acquired by inserting the row, or by taking it over once its {@code lock_until} has passed, which
+ * increments its fencing token. While held, it is extended every third of its duration on a dedicated thread; if an
+ * extension finds another token, or cannot reach the database before the lease ends, the lease is lost. A crashed
+ * holder thus blocks the job for at most one lease. Releasing a lease keeps the lock until its lock-at-least-for
+ * period after acquisition has passed, so that the same scheduled run is not repeated by a later instance.
+ * <p>
+ * Expiry alone cannot keep a paused holder from writing after a takeover. Jobs guard their writes with
+ * {@link JobLease#checkFence()} in each transaction: it verifies the token and share-locks the row, so that a takeover
+ * waits for that transaction to end, and the old holder's next transaction fails.
+ */
+@Service
+public class JobLockService implements DisposableBean {
+
+    private static final String ACQUIRE_SQL =
+        "INSERT INTO job_lock (name, locked_by, fencing_token, locked_at, lock_until) " +
+        "VALUES (?, ?, 1, now(), now() + ? * interval '1 millisecond') " +
+        "ON CONFLICT (name) DO UPDATE SET locked_by = excluded.locked_by, fencing_token = job_lock.fencing_token + 1, " +
+        "locked_at = excluded.locked_at, lock_until = excluded.lock_until WHERE job_lock.lock_until <= now() " +
+        "RETURNING fencing_token";
+
+    private final Logger log = LoggerFactory.getLogger(JobLockService.class);
+
+    private final ThreadLocal<JobLease> current = new ThreadLocal<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JobLockMetersService jobLockMetersService;
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final LongSupplier nanoTime;
+
+    private final ScheduledExecutorService renewals;
+
+    public JobLockService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, JobLockMetersService jobLockMetersService) {
+        this(jdbcTemplate, transactionManager, jobLockMetersService, System::nanoTime);
+    }
+
+    JobLockService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        JobLockMetersService jobLockMetersService,
+        LongSupplier nanoTime
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jobLockMetersService = jobLockMetersService;
+        this.nanoTime = nanoTime;
+        this.renewals = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-lock-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the lease, or empty if another instance holds it.
+     */
+    public Optional<JobLease> tryAcquire(String name, Duration lease) {
+        return tryAcquire(name, lease, Duration.ZERO);
+    }
+
+    /**
+     * @param lockAtLeastFor how long after acquisition the lock stays held, even if the lease is released earlier.
+     * @return the lease, or empty if another instance holds it.
+     */
+    public Optional<JobLease> tryAcquire(String name, Duration lease, Duration lockAtLeastFor) {
+        long start = nanoTime.getAsLong();
+        List<Long> tokens = transactionTemplate.execute(status ->
+            jdbcTemplate.queryForList(ACQUIRE_SQL, Long.class, name, owner, lease.toMillis())
+        );
+        if (tokens == null || tokens.isEmpty()) {
+            jobLockMetersService.trackSkipped(name);
+            return Optional.empty();
+        }
+        JobLease jobLease = new JobLease(this, name, tokens.get(0), lockAtLeastFor, start + lease.toNanos());
+        long period = Math.max(1, lease.toMillis() / 3);
+        jobLease.renewal = renewals.scheduleWithFixedDelay(() -> renew(jobLease, lease), period, period, TimeUnit.MILLISECONDS);
+        jobLockMetersService.trackHeld(name, true);
+        log.debug("Acquired lock {} with fencing token {}", name, jobLease.getFencingToken());
+        return Optional.of(jobLease);
+    }
+
+    /**
+     * @return the lease held by the job running on the current thread, if any.
+     */
+    public Optional<JobLease> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    JobLease bind(JobLease lease) {
+        JobLease previous = current.get();
+        current.set(lease);
+        return previous;
+    }
+
+    void unbind(JobLease previous) {
+        if (previous == null) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    void renew(JobLease lease, Duration duration) {
+        if (lease.lost) {
+            return;
+        }
+        long start = nanoTime.getAsLong();
+        try {
+            // committed before the lease is extended locally: the connections are not in auto-commit mode
+            Integer renewed = transactionTemplate.execute(status ->
+                jdbcTemplate.update(
+                    "UPDATE job_lock SET lock_until = now() + ? * interval '1 millisecond' WHERE name = ? AND fencing_token = ?",
+                    duration.toMillis(),
+                    lease.getName(),
+                    lease.getFencingToken()
+                )
+            );
+            if (renewed != null && renewed == 1) {
+                lease.expiresAtNanos = start + duration.toNanos();
+            } else {
+                lose(lease, "it was taken over");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not renew lock {}: {}", lease.getName(), e.getMessage());
+            if (!lease.isHeld()) {
+                lose(lease, "it expired");
+            }
+        }
+    }
+
+    void checkFence(JobLease lease) {
+        if (
+            !lease.isHeld() ||
+            jdbcTemplate
+                .queryForList(
+                    "SELECT fencing_token FROM job_lock WHERE name = ? AND fencing_token = ? AND lock_until > now() FOR SHARE",
+                    Long.class,
+                    lease.getName(),
+                    lease.getFencingToken()
+                )
+                .isEmpty()
+        ) {
+            throw new JobLockLostException(lease.getName(), lease.getFencingToken());
+        }
+    }
+
+    void release(JobLease lease) {
+        cancelRenewal(lease);
+        jobLockMetersService.trackHeld(lease.getName(), false);
+        if (lease.lost) {
+            return;
+        }
+        lease.lost = true;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(
+                    "UPDATE job_lock SET lock_until = greatest(now(), locked_at + ? * interval '1 millisecond') " +
+                    "WHERE name = ? AND fencing_token = ?",
+                    lease.getLockAtLeastFor().toMillis(),
+                    lease.getName(),
+                    lease.getFencingToken()
+                )
+            );
+        } catch (DataAccessException e) {
+            log.warn("Could not release lock {}, it will expire: {}", lease.getName(), e.getMessage());
+        }
+    }
+
+    long nanoTime() {
+        return nanoTime.getAsLong();
+    }
+
+    @Override
+    public void destroy() {
+        renewals.shutdownNow();
+    }
+
+    private void lose(JobLease lease, String reason) {
+        lease.lost = true;
+        cancelRenewal(lease);
+        jobLockMetersService.trackLost(lease.getName());
+        jobLockMetersService.trackHeld(lease.getName(), false);
+        log.warn("Lost lock {} with fencing token {}: {}", lease.getName(), lease.getFencingToken(), reason);
+    }
+
+    private static void cancelRenewal(JobLease lease) {
+        ScheduledFuture<?> renewal = lease.renewal;
+        if (renewal != null) {
+            renewal.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Leases on a PostgreSQL table, so that each scheduled job runs on one instance at a time.
+ */
+package com.banking.dev.service.lock;
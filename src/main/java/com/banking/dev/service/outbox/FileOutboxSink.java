@@ -0,0 +1,91 @@
+package com.banking.dev.service.outbox;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends relayed outbox events to a newline-delimited JSON file, one batch per write.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.outbox.sinks.file", name = "enabled", havingValue = "true")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter lineWriter;
+
+    private final Path path;
+
+    private final boolean fsync;
+
+    public FileOutboxSink(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        // one event per line, whatever the application-wide indentation setting is
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.path = Paths.get(applicationProperties.getOutbox().getSinks().getFile().getPath());
+        this.fsync = applicationProperties.getOutbox().getSinks().getFile().isFsync();
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            lines.append(toJsonLine(event)).append('\n');
+        }
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+            ) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (fsync) {
+                    channel.force(false);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append outbox events to " + path, e);
+        }
+    }
+
+    private String toJsonLine(OutboxEvent event) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", event.getId());
+        node.put("aggregateType", event.getAggregateType());
+        node.put("aggregateId", event.getAggregateId());
+        node.put("eventType", event.getEventType());
+        node.put("createdDate", event.getCreatedDate().toString());
+        try {
+            node.set("payload", objectMapper.readTree(event.getPayload()));
+            return lineWriter.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.banking.dev.service.outbox;
+
+import com.banking.dev.domain.OutboxEvent;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes relayed outbox events as Spring application events, for in-process {@code @EventListener}s.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.outbox.sinks.listener", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ListenerOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public ListenerOutboxSink(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return "listener";
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,140 @@
+package com.banking.dev.service.outbox;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.OutboxEvent;
+import com.banking.dev.management.OutboxMetersService;
+import com.banking.dev.repository.OutboxEventRepository;
+import com.banking.dev.service.lock.JobLock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relays committed outbox events to every configured {@link OutboxSink}.
+ * <p>
+ * Each sink progresses on its own: a batch of the events it has not accepted yet is locked, published to it and
+ * recorded in {@code outbox_delivery} in one transaction, so a failing sink only holds back its own events and a
+ * retry never publishes again to the sinks that accepted them. Once every sink has accepted an event, it is deleted
+ * (or marked as published). A run keeps draining full batches, up to {@code application.outbox.max-batches-per-run}
+ * per sink, so lag stays bounded by the poll interval under normal load.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final List<OutboxSink> sinks;
+
+    private final List<String> sinkNames;
+
+    private final OutboxMetersService outboxMetersService;
+
+    private final ApplicationProperties.Outbox properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxRelay(
+        OutboxEventRepository outboxEventRepository,
+        List<OutboxSink> sinks,
+        OutboxMetersService outboxMetersService,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.sinkNames = sinks.stream().map(OutboxSink::getName).toList();
+        this.outboxMetersService = outboxMetersService;
+        this.properties = applicationProperties.getOutbox();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.poll-interval-ms:500}")
+    @JobLock(value = "outboxRelay", leaseSeconds = 10)
+    public void relay() {
+        try {
+            for (OutboxSink sink : sinks) {
+                try {
+                    drain(() -> transactionTemplate.execute(status -> publishNextBatch(sink)));
+                } catch (RuntimeException e) {
+                    log.warn("Outbox sink '{}' failed, will retry: {}", sink.getName(), e.getMessage());
+                    outboxMetersService.trackFailure(sink.getName());
+                }
+            }
+            drain(() -> transactionTemplate.execute(status -> completeNextBatch()));
+            if (!properties.isDeleteAfterPublish()) {
+                transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.deletePublishedBefore(
+                        Instant.now().minusSeconds(properties.getPublishedRetentionSeconds())
+                    )
+                );
+            }
+        } finally {
+            trackLag();
+        }
+    }
+
+    private void drain(Supplier<Integer> batch) {
+        for (int i = 0; i < properties.getMaxBatchesPerRun(); i++) {
+            Integer size = batch.get();
+            if (size == null || size < properties.getBatchSize()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Publishes the next events the sink has not accepted, and records that it did; rolled back if the sink throws.
+     */
+    int publishNextBatch(OutboxSink sink) {
+        List<OutboxEvent> batch = outboxEventRepository.findUndeliveredForUpdate(sink.getName(), properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        sink.publish(batch);
+        outboxEventRepository.markDelivered(sink.getName(), batch.stream().map(OutboxEvent::getId).toList());
+        Instant now = Instant.now();
+        batch.forEach(event -> outboxMetersService.trackDelivery(Duration.between(event.getCreatedDate(), now)));
+        outboxMetersService.trackBatch(batch.size());
+        log.debug("Relayed {} outbox events to sink '{}'", batch.size(), sink.getName());
+        return batch.size();
+    }
+
+    /**
+     * Deletes, or marks as published, the next events every sink has accepted.
+     */
+    int completeNextBatch() {
+        List<Long> ids = sinks.isEmpty()
+            ? outboxEventRepository
+                .findUnpublishedForUpdate(PageRequest.of(0, properties.getBatchSize()))
+                .stream()
+                .map(OutboxEvent::getId)
+                .toList()
+            : outboxEventRepository.findDeliveredToAll(sinkNames, sinkNames.size(), properties.getBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (properties.isDeleteAfterPublish()) {
+            outboxEventRepository.deleteByIdIn(ids);
+        } else {
+            outboxEventRepository.markPublished(ids, Instant.now());
+        }
+        return ids.size();
+    }
+
+    private void trackLag() {
+        Instant oldest = outboxEventRepository.findOldestUnpublishedCreatedDate();
+        outboxMetersService.trackLag(oldest == null ? Duration.ZERO : Duration.between(oldest, Instant.now()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.banking.dev.service.outbox;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.OutboxEvent;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for recording money-movement events in the transactional outbox.
+ * <p>
+ * Must be called inside the caller's transaction so the event commits or rolls back with the change it describes.
+ */
+@Service
+public class OutboxService {
+
+    public static final String TRANSACTION_AGGREGATE = "Transaction";
+
+    private final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectWriter payloadWriter;
+
+    private final ApplicationProperties applicationProperties;
+
+    public OutboxService(
+        OutboxEventRepository outboxEventRepository,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.payloadWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.applicationProperties = applicationProperties;
+    }
+
+    public void recordTransaction(Transaction transaction) {
+        if (!applicationProperties.getOutbox().isEnabled()) {
+            return;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("transactionId", transaction.getTransactionId());
+        payload.put("transactionReason", transaction.getTransactionReason());
+        payload.put("amount", transaction.getAmount());
+        payload.put("originatingAccountId", accountId(transaction.getOriginatingAccount()));
+        payload.put("resultingAccountId", accountId(transaction.getResultingAccount()));
+
+        OutboxEvent event = new OutboxEvent(
+            TRANSACTION_AGGREGATE,
+            transaction.getTransactionId(),
+            transaction.getTransactionReason(),
+            toJson(payload)
+        );
+        log.debug("Recording outbox event: {}", event);
+        outboxEventRepository.save(event);
+    }
+
+    private static Long accountId(Account account) {
+        return account == null ? null : account.getAccountId();
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return payloadWriter.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.dev.service.outbox;
+
+import com.banking.dev.domain.OutboxEvent;
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events.
+ * <p>
+ * Each batch is in id order, but the order of the events is not guaranteed: ids are taken when the events are
+ * inserted, so an event whose transaction commits late may come after events with higher ids, in a later batch.
+ * Consumers needing an order should derive it from the event's aggregate and payload. A sink that throws is given
+ * the same batch again on the next run, while the other sinks go on, so delivery is at-least-once and
+ * implementations should tolerate duplicates. The name identifies what the sink has accepted, and must be stable and
+ * unique.
+ */
+public interface OutboxSink {
+    String getName();
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,59 @@
+package com.banking.dev.service.outbox;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.OutboxEvent;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends relayed outbox events to a Redis stream, pipelining a whole batch in a single round trip.
+ * <p>
+ * The stream is trimmed approximately to {@code application.outbox.sinks.redis.max-length} entries.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.outbox.sinks.redis", name = "enabled", havingValue = "true")
+public class RedisStreamOutboxSink implements OutboxSink {
+
+    private final RedissonClient redissonClient;
+
+    private final String streamName;
+
+    private final int maxLength;
+
+    public RedisStreamOutboxSink(RedissonClient redissonClient, ApplicationProperties applicationProperties) {
+        this.redissonClient = redissonClient;
+        this.streamName = applicationProperties.getOutbox().getSinks().getRedis().getStreamName();
+        this.maxLength = applicationProperties.getOutbox().getSinks().getRedis().getMaxLength();
+    }
+
+    @Override
+    public String getName() {
+        return "redis";
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+        RStreamAsync<String, String> stream = batch.getStream(streamName, StringCodec.INSTANCE);
+        for (OutboxEvent event : events) {
+            Map<String, String> entries = new LinkedHashMap<>();
+            entries.put("id", String.valueOf(event.getId()));
+            entries.put("aggregateType", event.getAggregateType());
+            entries.put("aggregateId", String.valueOf(event.getAggregateId()));
+            entries.put("eventType", event.getEventType());
+            entries.put("createdDate", event.getCreatedDate().toString());
+            entries.put("payload", event.getPayload());
+            stream.addAsync(StreamAddArgs.entries(entries).trimNonStrict().maxLen(maxLength).noLimit());
+        }
+        batch.execute();
+    }
+}
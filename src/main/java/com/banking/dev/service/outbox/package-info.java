@@ -0,0 +1,4 @@
+/**
+ * Transactional outbox: events written with the business change and relayed to downstream sinks.
+ */
+package com.banking.dev.service.outbox;
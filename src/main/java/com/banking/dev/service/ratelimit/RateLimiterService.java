@@ -0,0 +1,235 @@
+package com.banking.dev.service.ratelimit;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.management.RateLimitMetersService;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Token-bucket rate limiting per client and endpoint class, shared by all instances through Redis.
+ * <p>
+ * Every instance also keeps a local bucket per key with the same limit, charged only for the requests it admitted.
+ * Since the shared bucket is charged at least as much, an empty local bucket means an empty shared one: such requests,
+ * and requests arriving while Redis has asked the client to wait, are rejected without a round trip.
+ * <p>
+ * Admitting a request takes up to {@code lease-tokens} tokens from the shared bucket at once: the instance admits the
+ * next requests of that key with the tokens left, without calling Redis, for up to {@code lease-millis}. The shared
+ * bucket is charged before the requests are admitted, so the limit holds across instances; tokens left unused on an
+ * instance are only lost to the other instances until the lease lapses.
+ * <p>
+ * If Redis cannot be reached the request is let through: losing the limiter must not take the API down.
+ */
+@Service
+public class RateLimiterService {
+
+    static final String KEY_PREFIX = "bankApp:rate-limit:";
+
+    private static final int MAX_LOCAL_BUCKETS = 10_000;
+
+    /**
+     * KEYS[1] = bucket; ARGV = capacity, refill per second, tokens wanted. Returns the number of tokens taken, from 1 to
+     * the number wanted, otherwise minus the number of milliseconds until one is available.
+     */
+    private static final String TOKEN_BUCKET_SCRIPT =
+        "local capacity = tonumber(ARGV[1]) " +
+        "local refill = tonumber(ARGV[2]) " +
+        "local wanted = tonumber(ARGV[3]) " +
+        "local time = redis.call('TIME') " +
+        "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+        "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts') " +
+        "local tokens = tonumber(state[1]) or capacity " +
+        "local ts = tonumber(state[2]) or now " +
+        "tokens = math.min(capacity, tokens + math.max(0, now - ts) * refill / 1000) " +
+        "local taken = math.min(wanted, math.floor(tokens)) " +
+        "if taken >= 1 then tokens = tokens - taken else taken = -math.ceil((1 - tokens) * 1000 / refill) end " +
+        "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now)) " +
+        "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / refill) + 1000) " +
+        "return taken";
+
+    private final Logger log = LoggerFactory.getLogger(RateLimiterService.class);
+
+    private final RedissonClient redissonClient;
+
+    private final RateLimitMetersService rateLimitMetersService;
+
+    private final ApplicationProperties.RateLimit properties;
+
+    private final Map<String, LocalBucket> localBuckets = new ConcurrentHashMap<>();
+
+    public RateLimiterService(
+        RedissonClient redissonClient,
+        RateLimitMetersService rateLimitMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.redissonClient = redissonClient;
+        this.rateLimitMetersService = rateLimitMetersService;
+        this.properties = applicationProperties.getRateLimit();
+    }
+
+    /**
+     * Takes a token for a request of {@code subject} on an endpoint of {@code endpointClass}.
+     *
+     * @return 0 if the request may proceed, otherwise the number of milliseconds the client should wait.
+     */
+    public long tryAcquire(String endpointClass, String subject, Collection<String> authorities) {
+        ApplicationProperties.RateLimit.EndpointClass endpoint = properties.getEndpointClasses().get(endpointClass);
+        if (!properties.isEnabled() || endpoint == null) {
+            return 0;
+        }
+        ApplicationProperties.RateLimit.Limit limit = resolveLimit(endpoint, authorities);
+        String key = KEY_PREFIX + endpointClass + ":" + subject;
+        long now = System.nanoTime();
+
+        LocalBucket local = localBucket(key, limit, now);
+        long localWait = local.tryAcquire(limit, now);
+        if (localWait > 0) {
+            rateLimitMetersService.trackThrottled(endpointClass, "local");
+            return localWait;
+        }
+        if (local.takeLeased(now)) {
+            return 0;
+        }
+
+        long wanted = Math.max(1, Math.min(properties.getLeaseTokens(), limit.getCapacity()));
+        long taken;
+        try {
+            Long result = redissonClient
+                .getScript(StringCodec.INSTANCE)
+                .eval(
+                    RScript.Mode.READ_WRITE,
+                    TOKEN_BUCKET_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.of(key),
+                    Long.toString(limit.getCapacity()),
+                    Double.toString(limit.getRefillPerSecond()),
+                    Long.toString(wanted)
+                );
+            taken = result == null ? 1 : result;
+        } catch (RuntimeException e) {
+            log.warn("Rate limiter unavailable, letting the request through: {}", e.getMessage());
+            rateLimitMetersService.trackError(endpointClass);
+            return 0;
+        }
+        if (taken <= 0) {
+            local.reject(now, -taken);
+            rateLimitMetersService.trackThrottled(endpointClass, "redis");
+            return -taken;
+        }
+        local.lease(taken - 1, now + properties.getLeaseMillis() * 1_000_000);
+        return 0;
+    }
+
+    /**
+     * The most generous of the limits configured for the caller's authorities, or the endpoint class default.
+     */
+    static ApplicationProperties.RateLimit.Limit resolveLimit(
+        ApplicationProperties.RateLimit.EndpointClass endpoint,
+        Collection<String> authorities
+    ) {
+        ApplicationProperties.RateLimit.Limit limit = null;
+        for (String authority : authorities) {
+            ApplicationProperties.RateLimit.Limit candidate = endpoint.getAuthorities().get(authority);
+            if (candidate != null && (limit == null || candidate.getRefillPerSecond() > limit.getRefillPerSecond())) {
+                limit = candidate;
+            }
+        }
+        return limit == null ? endpoint : limit;
+    }
+
+    private LocalBucket localBucket(String key, ApplicationProperties.RateLimit.Limit limit, long now) {
+        LocalBucket bucket = localBuckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (localBuckets.size() >= MAX_LOCAL_BUCKETS) {
+            // Full buckets carry no information, the shared bucket will be consulted anyway
+            localBuckets.values().removeIf(candidate -> candidate.isFull(now));
+        }
+        return localBuckets.computeIfAbsent(key, k -> new LocalBucket(limit.getCapacity(), now));
+    }
+
+    static final class LocalBucket {
+
+        private double tokens;
+
+        private long lastRefillNanos;
+
+        private long blockedUntilNanos;
+
+        /** Tokens taken from the shared bucket and not used yet. */
+        private long leased;
+
+        private long leaseExpiresNanos;
+
+        private double capacity;
+
+        private double refillPerNano;
+
+        LocalBucket(long capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+            this.blockedUntilNanos = now;
+        }
+
+        synchronized long tryAcquire(ApplicationProperties.RateLimit.Limit limit, long now) {
+            capacity = limit.getCapacity();
+            refillPerNano = limit.getRefillPerSecond() / 1_000_000_000.0;
+            refill(now);
+            if (now - blockedUntilNanos < 0) {
+                return toMillis(blockedUntilNanos - now);
+            }
+            if (tokens < 1) {
+                return toMillis((long) Math.ceil((1 - tokens) / refillPerNano));
+            }
+            tokens -= 1;
+            return 0;
+        }
+
+        /**
+         * @return whether a token taken earlier from the shared bucket admits the request.
+         */
+        synchronized boolean takeLeased(long now) {
+            if (leased == 0 || now - leaseExpiresNanos >= 0) {
+                leased = 0;
+                return false;
+            }
+            leased--;
+            return true;
+        }
+
+        synchronized void lease(long tokens, long expiresNanos) {
+            leased += tokens;
+            leaseExpiresNanos = expiresNanos;
+        }
+
+        /**
+         * Gives back the token of a request the shared bucket rejected, and remembers how long it asked to wait.
+         */
+        synchronized void reject(long now, long waitMillis) {
+            tokens = Math.min(capacity, tokens + 1);
+            blockedUntilNanos = now + waitMillis * 1_000_000;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity && now - blockedUntilNanos >= 0 && (leased == 0 || now - leaseExpiresNanos >= 0);
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+            lastRefillNanos = now;
+        }
+
+        private static long toMillis(long nanos) {
+            return Math.max(1, (nanos + 999_999) / 1_000_000);
+        }
+    }
+}
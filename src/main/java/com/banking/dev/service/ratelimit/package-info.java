@@ -0,0 +1,4 @@
+/**
+ * Distributed per-client rate limiting.
+ */
+package com.banking.dev.service.ratelimit;
@@ -0,0 +1,67 @@
+package com.banking.dev.service.reactive;
+
+import com.banking.dev.service.dto.AccountBalanceDTO;
+import com.banking.dev.service.dto.BankDetailsDTO;
+import io.r2dbc.spi.Readable;
+import java.math.BigDecimal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking lookups of balances and bank details.
+ * <p>
+ * Neither a thread nor a connection is held while the database works: the connection goes back to the pool as soon
+ * as the row is read, and the query needs no transaction. Results are what was committed when the query ran.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.reactive-reads", name = "enabled", havingValue = "true")
+public class ReactiveAccountQueryService {
+
+    static final String ACCOUNT_BALANCE = "SELECT account_id, balance, bank_id FROM account WHERE account_id = $1";
+
+    static final String BANK_DETAILS =
+        "SELECT b.bank_id, b.bank_name, b.total_transaction_fee_amount, b.total_transfer_amount, " +
+        "b.transaction_flat_fee_amount, b.transaction_percent_fee_value, " +
+        "(SELECT count(*) FROM account a WHERE a.bank_id = b.bank_id) AS account_count " +
+        "FROM bank b WHERE b.bank_id = $1";
+
+    private final Logger log = LoggerFactory.getLogger(ReactiveAccountQueryService.class);
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveAccountQueryService(@Qualifier("reactiveReadDatabaseClient") DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<AccountBalanceDTO> findAccountBalance(Long accountId) {
+        log.debug("Request to find the balance of account: {}", accountId);
+        return databaseClient.sql(ACCOUNT_BALANCE).bind(0, accountId).map(ReactiveAccountQueryService::toAccountBalance).one();
+    }
+
+    public Mono<BankDetailsDTO> findBankDetails(Long bankId) {
+        log.debug("Request to find the details of bank: {}", bankId);
+        return databaseClient.sql(BANK_DETAILS).bind(0, bankId).map(ReactiveAccountQueryService::toBankDetails).one();
+    }
+
+    static AccountBalanceDTO toAccountBalance(Readable row) {
+        return new AccountBalanceDTO(row.get("account_id", Long.class), row.get("balance", BigDecimal.class), row.get("bank_id", Long.class));
+    }
+
+    static BankDetailsDTO toBankDetails(Readable row) {
+        BankDetailsDTO bank = new BankDetailsDTO();
+        bank.setBankId(row.get("bank_id", Long.class));
+        bank.setBankName(row.get("bank_name", String.class));
+        bank.setTotalTransactionFeeAmount(row.get("total_transaction_fee_amount", BigDecimal.class));
+        bank.setTotalTransferAmount(row.get("total_transfer_amount", BigDecimal.class));
+        bank.setTransactionFlatFeeAmount(row.get("transaction_flat_fee_amount", BigDecimal.class));
+        bank.setTransactionPercentFeeValue(row.get("transaction_percent_fee_value", BigDecimal.class));
+        Long accountCount = row.get("account_count", Long.class);
+        bank.setAccountCount(accountCount == null ? 0 : accountCount);
+        return bank;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Non-blocking read paths on R2DBC, next to the blocking JPA services.
+ */
+package com.banking.dev.service.reactive;
@@ -0,0 +1,252 @@
+package com.banking.dev.service.velocity;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.management.VelocityMetersService;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Limits the number and the total amount of the withdrawals and transfers of each account over a rolling window,
+ * without querying the transaction table: the movements are counted in {@link VelocityWindows}.
+ * <p>
+ * A movement is counted when it is accepted, and uncounted if its transaction rolls back. Before the application takes
+ * traffic, the windows are rebuilt from the transactions created during the last window.
+ * <p>
+ * Each instance only sees its own movements, unless {@code shared}: then the movements committed on an instance are
+ * published on a Redis topic and counted by the others. Two instances may still both accept a movement that, together,
+ * exceed a limit; the delivery delay bounds that excess.
+ */
+@Service
+public class VelocityService implements ApplicationRunner, DisposableBean {
+
+    public enum Kind {
+        WITHDRAWAL("Withdrawal"),
+        TRANSFER("Transfer");
+
+        private final String transactionReason;
+
+        Kind(String transactionReason) {
+            this.transactionReason = transactionReason;
+        }
+    }
+
+    /**
+     * A movement accepted by one instance, published to the others.
+     */
+    static final class Movement implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        final String node;
+        final int kind;
+        final long accountId;
+        final long amount;
+        final long atMillis;
+
+        Movement(String node, int kind, long accountId, long amount, long atMillis) {
+            this.node = node;
+            this.kind = kind;
+            this.accountId = accountId;
+            this.amount = amount;
+            this.atMillis = atMillis;
+        }
+    }
+
+    private static final String REBUILD_SQL =
+        "SELECT originating_account_id, transaction_reason, amount, created_date FROM transaction " +
+        "WHERE created_date >= ? AND transaction_reason IN (?, ?)";
+
+    /** Amounts are counted in hundredths. */
+    private static final int MINOR_UNITS = 2;
+
+    private final Logger log = LoggerFactory.getLogger(VelocityService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RTopic topic;
+
+    private final VelocityMetersService velocityMetersService;
+
+    private final ApplicationProperties.Velocity config;
+
+    private final LongSupplier currentTimeMillis;
+
+    private final VelocityWindows windows;
+
+    private final String node = UUID.randomUUID().toString();
+
+    public VelocityService(
+        JdbcTemplate jdbcTemplate,
+        RedissonClient redissonClient,
+        VelocityMetersService velocityMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this(
+            jdbcTemplate,
+            topic(redissonClient, applicationProperties.getVelocity()),
+            velocityMetersService,
+            applicationProperties.getVelocity(),
+            System::currentTimeMillis
+        );
+    }
+
+    VelocityService(
+        JdbcTemplate jdbcTemplate,
+        RTopic topic,
+        VelocityMetersService velocityMetersService,
+        ApplicationProperties.Velocity config,
+        LongSupplier currentTimeMillis
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topic = topic;
+        this.velocityMetersService = velocityMetersService;
+        this.config = config;
+        this.currentTimeMillis = currentTimeMillis;
+        this.windows = new VelocityWindows(Kind.values().length, Duration.ofHours(config.getWindowHours()), config.getBuckets());
+    }
+
+    private static RTopic topic(RedissonClient redissonClient, ApplicationProperties.Velocity config) {
+        return config.isShared() ? redissonClient.getTopic(config.getTopic()) : null;
+    }
+
+    /**
+     * Counts a movement of {@code amount} from the account, unless it would exceed a limit.
+     *
+     * @return false if the movement must be rejected.
+     */
+    public boolean tryAcquire(Kind kind, long accountId, BigDecimal amount) {
+        ApplicationProperties.Velocity.Rule rule = rule(kind);
+        if (!config.isEnabled() || !rule.isLimited()) {
+            return true;
+        }
+        long minorAmount = toMinorUnits(amount);
+        long maxAmount = rule.getMaxAmount() == null ? -1 : toMinorUnits(rule.getMaxAmount());
+        long now = currentTimeMillis.getAsLong();
+        if (!windows.tryAdd(accountId, kind.ordinal(), minorAmount, now, rule.getMaxCount(), maxAmount)) {
+            velocityMetersService.trackRejected(kind.name().toLowerCase(Locale.ROOT));
+            return false;
+        }
+        Movement movement = new Movement(node, kind.ordinal(), accountId, minorAmount, now);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            publish(movement);
+                        } else {
+                            windows.add(accountId, movement.kind, -1, -minorAmount, now, currentTimeMillis.getAsLong());
+                        }
+                    }
+                }
+            );
+        } else {
+            publish(movement);
+        }
+        return true;
+    }
+
+    /**
+     * Subscribes to the movements of the other instances, then rebuilds the windows from the transaction table.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!config.isEnabled() || !(config.getWithdrawal().isLimited() || config.getTransfer().isLimited())) {
+            return;
+        }
+        if (topic != null) {
+            topic.addListener(Movement.class, (channel, movement) -> receive(movement));
+        }
+        long start = System.nanoTime();
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild the velocity windows, counting from now on: {}", e.getMessage());
+        }
+        velocityMetersService.trackRebuild(Duration.ofNanos(System.nanoTime() - start));
+        velocityMetersService.trackAccounts(windows.accounts());
+    }
+
+    void rebuild() {
+        long now = currentTimeMillis.getAsLong();
+        Timestamp from = new Timestamp(now - Duration.ofHours(config.getWindowHours()).toMillis());
+        long[] movements = new long[1];
+        jdbcTemplate.query(
+            REBUILD_SQL,
+            rs -> {
+                Kind kind = Kind.WITHDRAWAL.transactionReason.equals(rs.getString(2)) ? Kind.WITHDRAWAL : Kind.TRANSFER;
+                if (rule(kind).isLimited()) {
+                    long atMillis = rs.getTimestamp(4).getTime();
+                    windows.add(rs.getLong(1), kind.ordinal(), 1, toMinorUnits(rs.getBigDecimal(3)), atMillis, now);
+                    movements[0]++;
+                }
+            },
+            from,
+            Kind.WITHDRAWAL.transactionReason,
+            Kind.TRANSFER.transactionReason
+        );
+        log.info("Rebuilt the velocity windows of {} accounts from {} movements", windows.accounts(), movements[0]);
+    }
+
+    void receive(Movement movement) {
+        if (!node.equals(movement.node)) {
+            windows.add(movement.accountId, movement.kind, 1, movement.amount, movement.atMillis, currentTimeMillis.getAsLong());
+        }
+    }
+
+    /**
+     * Drops the accounts whose movements all left the window.
+     */
+    @Scheduled(fixedDelayString = "PT15M")
+    public void evictIdle() {
+        int evicted = windows.evictIdle(currentTimeMillis.getAsLong());
+        log.debug("Dropped the velocity windows of {} idle accounts", evicted);
+        velocityMetersService.trackAccounts(windows.accounts());
+    }
+
+    private void publish(Movement movement) {
+        if (topic == null) {
+            return;
+        }
+        topic
+            .publishAsync(movement)
+            .whenComplete((receivers, e) -> {
+                if (e != null) {
+                    log.warn("Could not publish velocity movement of account {}: {}", movement.accountId, e.getMessage());
+                }
+            });
+    }
+
+    private ApplicationProperties.Velocity.Rule rule(Kind kind) {
+        return kind == Kind.WITHDRAWAL ? config.getWithdrawal() : config.getTransfer();
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.abs().movePointRight(MINOR_UNITS).setScale(0, RoundingMode.CEILING).longValue();
+    }
+
+    @Override
+    public void destroy() {
+        if (topic != null) {
+            topic.removeAllListeners();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.banking.dev.service.velocity;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import java.time.Duration;
+
+/**
+ * Sliding-window counters per account, in primitive maps keyed by account id.
+ * <p>
+ * Each account holds, for each kind of movement, a ring of time buckets of {@code window / buckets}, plus one so that
+ * the buckets counted always cover the whole window: a limit is enforced over the last window and at most one bucket
+ * more. A bucket is two longs: its epoch and count packed together, and the total amount in minor units.
+ * <p>
+ * Accounts are spread over stripes, each a {@link LongObjectHashMap} guarded by its own lock, so a check is a hash
+ * lookup and a sum over a few dozen longs under an uncontended lock.
+ */
+final class VelocityWindows {
+
+    private static final int STRIPES = 64;
+
+    private final int kinds;
+
+    private final int slots;
+
+    private final long bucketMillis;
+
+    private final Object[] locks = new Object[STRIPES];
+
+    private final LongObjectHashMap<long[]>[] stripes;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    VelocityWindows(int kinds, Duration window, int buckets) {
+        this.kinds = kinds;
+        this.slots = buckets + 1;
+        // epochs of at least a second fit in the 32 bits packed with the count
+        this.bucketMillis = Math.max(1000, window.toMillis() / buckets);
+        this.stripes = new LongObjectHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+            stripes[i] = new LongObjectHashMap<>();
+        }
+    }
+
+    /**
+     * Counts a movement unless it would take the account past a limit.
+     *
+     * @param maxCount 0 for no limit on the number of movements.
+     * @param maxAmount negative for no limit on their total.
+     * @return whether the movement was counted.
+     */
+    boolean tryAdd(long accountId, int kind, long amount, long nowMillis, long maxCount, long maxAmount) {
+        long epoch = nowMillis / bucketMillis;
+        int stripe = stripe(accountId);
+        synchronized (locks[stripe]) {
+            long[] state = stripes[stripe].get(accountId);
+            long count = 0;
+            long total = 0;
+            if (state != null) {
+                int base = kind * slots * 2;
+                for (int slot = 0; slot < slots; slot++) {
+                    long packed = state[base + slot * 2];
+                    if (inWindow(packed >>> 32, epoch)) {
+                        count += (int) packed;
+                        total += state[base + slot * 2 + 1];
+                    }
+                }
+            }
+            if ((maxCount > 0 && count + 1 > maxCount) || (maxAmount >= 0 && total + amount > maxAmount)) {
+                return false;
+            }
+            if (state == null) {
+                state = new long[kinds * slots * 2];
+                stripes[stripe].put(accountId, state);
+            }
+            add(state, kind, epoch, 1, amount);
+            return true;
+        }
+    }
+
+    /**
+     * Counts, or with negative deltas uncounts, a movement made at {@code atMillis}, unless it has left the window.
+     */
+    void add(long accountId, int kind, int countDelta, long amountDelta, long atMillis, long nowMillis) {
+        long epoch = atMillis / bucketMillis;
+        if (!inWindow(epoch, nowMillis / bucketMillis)) {
+            return;
+        }
+        int stripe = stripe(accountId);
+        synchronized (locks[stripe]) {
+            long[] state = stripes[stripe].get(accountId);
+            if (state == null) {
+                if (countDelta <= 0) {
+                    return;
+                }
+                state = new long[kinds * slots * 2];
+                stripes[stripe].put(accountId, state);
+            }
+            add(state, kind, epoch, countDelta, amountDelta);
+        }
+    }
+
+    /**
+     * Drops the accounts without any movement left in the window.
+     *
+     * @return the number of accounts dropped.
+     */
+    int evictIdle(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int evicted = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            synchronized (locks[stripe]) {
+                evicted += stripes[stripe].removeAll((accountId, state) -> isIdle(state, epoch));
+            }
+        }
+        return evicted;
+    }
+
+    int accounts() {
+        int accounts = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            synchronized (locks[stripe]) {
+                accounts += stripes[stripe].size();
+            }
+        }
+        return accounts;
+    }
+
+    private void add(long[] state, int kind, long epoch, int countDelta, long amountDelta) {
+        int index = (kind * slots + (int) (epoch % slots)) * 2;
+        long packed = state[index];
+        long slotEpoch = packed >>> 32;
+        if (slotEpoch > epoch) {
+            // the slot has moved on to a later bucket
+            return;
+        }
+        int count = slotEpoch == epoch ? (int) packed : 0;
+        long amount = slotEpoch == epoch ? state[index + 1] : 0;
+        state[index] = (epoch << 32) | ((count + countDelta) & 0xFFFFFFFFL);
+        state[index + 1] = amount + amountDelta;
+    }
+
+    private boolean isIdle(long[] state, long epoch) {
+        for (int index = 0; index < state.length; index += 2) {
+            if (inWindow(state[index] >>> 32, epoch) && (int) state[index] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean inWindow(long bucketEpoch, long epoch) {
+        return bucketEpoch > epoch - slots && bucketEpoch <= epoch;
+    }
+
+    private static int stripe(long accountId) {
+        return (int) ((accountId ^ (accountId >>> 32)) & (STRIPES - 1));
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Per-account velocity limits on money movements, checked in memory.
+ */
+package com.banking.dev.service.velocity;
@@ -0,0 +1,223 @@
+package com.banking.dev.service.warmup;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.management.WarmUpMetersService;
+import com.banking.dev.repository.AccountRepository;
+import com.banking.dev.repository.BankRepository;
+import com.banking.dev.repository.TransactionRepository;
+import com.banking.dev.service.AuthorityRegistry;
+import com.banking.dev.service.TransactionFees;
+import com.banking.dev.service.etag.TableChangeCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Warms the application up before it takes traffic.
+ * <p>
+ * Spring Boot only switches the readiness state to {@code ACCEPTING_TRAFFIC} once every {@link ApplicationRunner} has
+ * returned, so {@code /management/health/readiness} reports {@code OUT_OF_SERVICE} until the warm-up is over. Steps:
+ * <ol>
+ *     <li>{@code pools}: opens the minimum idle connections of every Hikari pool and of the R2DBC pool, if any;</li>
+ *     <li>{@code data}: loads the banks and the most active accounts through the same JPA paths as the requests, and the
+ *     authority registry, and reads the table versions, which loads the Redis script;</li>
+ *     <li>{@code jit}: runs synthetic fee computations and JSON round trips of transactions referencing the hot
+ *     accounts, so the JIT compiles them before the first requests.</li>
+ * </ol>
+ * A failing step is logged and skipped, and the steps left when {@code application.warm-up.timeout-seconds} runs out
+ * are skipped: the warm-up never prevents the application from starting. Each step and the whole warm-up are recorded
+ * by {@link WarmUpMetersService}.
+ */
+@Service
+public class WarmUpRunner implements ApplicationRunner {
+
+    static final String POOLS = "pools";
+    static final String DATA = "data";
+    static final String JIT = "jit";
+    static final String TOTAL = "total";
+
+    private final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ObjectProvider<HikariDataSource> hikariDataSources;
+
+    private final ObjectProvider<ConnectionPool> reactiveConnectionPools;
+
+    private final BankRepository bankRepository;
+
+    private final AuthorityRegistry authorityRegistry;
+
+    private final AccountRepository accountRepository;
+
+    private final TransactionRepository transactionRepository;
+
+    private final TableChangeCounter tableChangeCounter;
+
+    private final ObjectMapper objectMapper;
+
+    private final WarmUpMetersService warmUpMetersService;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    /** Detached accounts loaded by the data step, serialized by the JIT step. */
+    private List<Account> hotAccounts = List.of();
+
+    public WarmUpRunner(
+        ApplicationProperties applicationProperties,
+        ObjectProvider<HikariDataSource> hikariDataSources,
+        ObjectProvider<ConnectionPool> reactiveConnectionPools,
+        BankRepository bankRepository,
+        AuthorityRegistry authorityRegistry,
+        AccountRepository accountRepository,
+        TransactionRepository transactionRepository,
+        TableChangeCounter tableChangeCounter,
+        ObjectMapper objectMapper,
+        WarmUpMetersService warmUpMetersService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.applicationProperties = applicationProperties;
+        this.hikariDataSources = hikariDataSources;
+        this.reactiveConnectionPools = reactiveConnectionPools;
+        this.bankRepository = bankRepository;
+        this.authorityRegistry = authorityRegistry;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.tableChangeCounter = tableChangeCounter;
+        this.objectMapper = objectMapper;
+        this.warmUpMetersService = warmUpMetersService;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ApplicationProperties.WarmUp config = applicationProperties.getWarmUp();
+        if (!config.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + Duration.ofSeconds(config.getTimeoutSeconds()).toNanos();
+        runStep(POOLS, deadline, this::openPoolConnections);
+        runStep(DATA, deadline, () -> loadData(config));
+        runStep(JIT, deadline, () -> exerciseHotCode(config, deadline));
+        Duration total = Duration.ofNanos(System.nanoTime() - start);
+        warmUpMetersService.trackStep(TOTAL, "success", total);
+        log.info("Warm-up done in {} ms", total.toMillis());
+    }
+
+    private void runStep(String step, long deadline, Runnable action) {
+        long start = System.nanoTime();
+        if (start >= deadline) {
+            log.warn("Warm-up step {} skipped, the warm-up timed out", step);
+            warmUpMetersService.trackStep(step, "skipped", Duration.ZERO);
+            return;
+        }
+        String outcome = "success";
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            log.warn("Warm-up step {} failed: {}", step, e.getMessage());
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        warmUpMetersService.trackStep(step, outcome, duration);
+        log.debug("Warm-up step {} done in {} ms: {}", step, duration.toMillis(), outcome);
+    }
+
+    /**
+     * Checks out the minimum idle number of connections of each pool at once, so they are all physically open.
+     */
+    void openPoolConnections() {
+        hikariDataSources.orderedStream().forEach(dataSource -> {
+            int connections = Math.min(dataSource.getMinimumIdle(), dataSource.getMaximumPoolSize());
+            List<Connection> opened = new ArrayList<>(connections);
+            try {
+                for (int i = 0; i < connections; i++) {
+                    opened.add(dataSource.getConnection());
+                }
+            } catch (SQLException e) {
+                throw new CannotGetJdbcConnectionException("Warm-up of pool " + dataSource.getPoolName(), e);
+            } finally {
+                closeAll(opened);
+            }
+            log.debug("Opened {} connections of pool {}", opened.size(), dataSource.getPoolName());
+        });
+        reactiveConnectionPools.ifAvailable(pool -> pool.warmup().block(Duration.ofSeconds(applicationProperties.getWarmUp().getTimeoutSeconds())));
+    }
+
+    void loadData(ApplicationProperties.WarmUp config) {
+        Instant since = Instant.now().minus(config.getHotAccountWindowHours(), ChronoUnit.HOURS);
+        hotAccounts = readOnlyTransactionTemplate.execute(status -> {
+            bankRepository.findAll();
+            authorityRegistry.findAll();
+            List<Account> accounts = new ArrayList<>();
+            for (Long accountId : transactionRepository.findMostActiveAccountIds(since, PageRequest.of(0, config.getHotAccounts()))) {
+                accountRepository.findById(accountId).ifPresent(accounts::add);
+            }
+            return accounts;
+        });
+        tableChangeCounter.current(TableChangeCounter.BANK);
+        tableChangeCounter.current(TableChangeCounter.ACCOUNT);
+        log.debug("Loaded {} hot accounts", hotAccounts.size());
+    }
+
+    /**
+     * Transactions are both a request and a response body, written and read back here.
+     */
+    void exerciseHotCode(ApplicationProperties.WarmUp config, long deadline) {
+        try {
+            List<Account> accounts = hotAccounts.isEmpty() ? List.of(new Account()) : hotAccounts;
+            long sink = 0;
+            for (int i = 0; i < config.getIterations() && System.nanoTime() < deadline; i++) {
+                BigDecimal amount = BigDecimal.valueOf(1_000 + i % 100_000, 2);
+                sink += TransactionFees.withdrawalDebit(amount).scale();
+                sink += TransactionFees.depositCredit(amount).scale();
+                sink += TransactionFees.transferDebit(amount).scale();
+
+                Transaction transaction = new Transaction();
+                transaction.setAmount(amount.negate());
+                transaction.setOriginatingAccount(accounts.get(i % accounts.size()));
+                transaction.setTransactionReason("Warm-up");
+                transaction.setCreatedDate(Instant.now());
+                byte[] json = objectMapper.writeValueAsBytes(transaction);
+                sink += objectMapper.readValue(json, Transaction.class).getAmount().scale();
+            }
+            log.trace("Warm-up sink {}", sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeAll(List<Connection> connections) {
+        for (Connection connection : connections) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Could not close warm-up connection: {}", e.getMessage());
+            }
+        }
+    }
+}
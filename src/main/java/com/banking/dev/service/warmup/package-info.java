@@ -0,0 +1,4 @@
+/**
+ * Warm-up of pools, data and hot code paths before the application reports ready.
+ */
+package com.banking.dev.service.warmup;
@@ -0,0 +1,53 @@
+package com.banking.dev.web.ratelimit;
+
+import com.banking.dev.service.ratelimit.RateLimiterService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies {@link RateLimited} to handler methods. The client is the subject of the JWT; unauthenticated requests
+ * are left to Spring Security. Rejected requests get a 429 with a {@code Retry-After} header, in seconds.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiterService rateLimiterService;
+
+    public RateLimitInterceptor(RateLimiterService rateLimiterService) {
+        this.rateLimiterService = rateLimiterService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimited rateLimited = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RateLimited.class);
+        if (rateLimited == null) {
+            rateLimited = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RateLimited.class);
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (rateLimited == null || authentication == null || !authentication.isAuthenticated()) {
+            return true;
+        }
+
+        List<String> authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        long waitMillis = rateLimiterService.tryAcquire(rateLimited.value(), authentication.getName(), authorities);
+        if (waitMillis <= 0) {
+            return true;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((waitMillis + 999) / 1000));
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.banking.dev.web.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rate limits a REST endpoint per authenticated client, with the limits configured for its endpoint class under
+ * {@code application.rate-limit.endpoint-classes}.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+    /**
+     * The endpoint class, sharing one bucket per client across all its endpoints.
+     */
+    String value();
+}
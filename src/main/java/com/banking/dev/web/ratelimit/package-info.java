@@ -0,0 +1,4 @@
+/**
+ * Rate limiting of REST endpoints, see {@link com.banking.dev.web.ratelimit.RateLimited}.
+ */
+package com.banking.dev.web.ratelimit;
@@ -2,6 +2,7 @@ package com.banking.dev.web.rest;
 
 import com.banking.dev.domain.Authority;
 import com.banking.dev.repository.AuthorityRepository;
+import com.banking.dev.service.AuthorityRegistry;
 import com.banking.dev.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import java.net.URI;
@@ -29,12 +30,14 @@ public class AuthorityResource {
     private static final String ENTITY_NAME = "adminAuthority";
     private final Logger log = LoggerFactory.getLogger(AuthorityResource.class);
     private final AuthorityRepository authorityRepository;
+    private final AuthorityRegistry authorityRegistry;
 
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
-    public AuthorityResource(AuthorityRepository authorityRepository) {
+    public AuthorityResource(AuthorityRepository authorityRepository, AuthorityRegistry authorityRegistry) {
         this.authorityRepository = authorityRepository;
+        this.authorityRegistry = authorityRegistry;
     }
 
     /**
@@ -51,7 +54,7 @@ public class AuthorityResource {
         if (authorityRepository.existsById(authority.getName())) {
             throw new BadRequestAlertException("authority already exists", ENTITY_NAME, "idexists");
         }
-        authority = authorityRepository.save(authority);
+        authority = authorityRegistry.save(authority);
         return ResponseEntity.created(new URI("/api/authorities/" + authority.getName()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, authority.getName()))
             .body(authority);
@@ -93,7 +96,7 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public ResponseEntity<Void> deleteAuthority(@PathVariable("id") String id) {
         log.debug("REST request to delete Authority : {}", id);
-        authorityRepository.deleteById(id);
+        authorityRegistry.delete(id);
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id)).build();
     }
 }
@@ -2,13 +2,18 @@ package com.banking.dev.web.rest;
 
 import com.banking.dev.domain.Account;
 import com.banking.dev.security.AuthoritiesConstants;
+import com.banking.dev.service.AccountImportService;
 import com.banking.dev.service.AccountService;
+import com.banking.dev.service.dto.AccountImportReportDTO;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -21,22 +26,37 @@ public class BankAccountResource {
 
     private final AccountService accountService;
 
-    public BankAccountResource(AccountService accountService) {
+    private final AccountImportService accountImportService;
+
+    public BankAccountResource(AccountService accountService, AccountImportService accountImportService) {
         this.accountService = accountService;
+        this.accountImportService = accountImportService;
     }
 
     /**
      * Retrieves a specific account by ID.
      *
-     * @param id the ID of the account to retrieve.
-     * @return the specified account, or a 404 response if not found.
+     * @param id          the ID of the account to retrieve.
+     * @param ifNoneMatch the ETag of the account the client already has, if any.
+     * @param accept      the requested representations, which get distinct ETags.
+     * @return the specified account, a 304 response if it did not change, or a 404 response if not found.
      */
     @GetMapping("/accounts/{id}")
-    public ResponseEntity<Account> getAccount(@PathVariable Long id) {
+    public ResponseEntity<Account> getAccount(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
         log.debug("REST request to get Account by ID: {}", id);
+        if (ifNoneMatch != null) {
+            String etag = accountService.findVersion(id).map(version -> ETags.of("account-" + id, version, accept)).orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
         return accountService
             .findOne(id)
-            .map(account -> new ResponseEntity<>(account, HttpStatus.OK))
+            .map(account -> ETags.ok(account, ETags.of("account-" + id, account.getVersion(), accept)))
             .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -67,6 +87,21 @@ public class BankAccountResource {
         return ResponseEntity.created(new URI("/api/accounts/" + createdAccount.getAccountId())).body(createdAccount);
     }
 
+    /**
+     * Imports accounts in bulk from a CSV body with the columns {@code user_name,balance,bank_id}.
+     * <p>
+     * The body is streamed rather than buffered, so uploads of millions of rows are fine.
+     *
+     * @param csv the raw CSV request body.
+     * @return a 200 response with the number of imported rows and the rows that were rejected.
+     */
+    @PostMapping(value = "/accounts/import", consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE })
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<AccountImportReportDTO> importAccounts(InputStream csv) {
+        log.debug("REST request to import Accounts from CSV");
+        return ResponseEntity.ok(accountImportService.importAccounts(csv));
+    }
+
     /**
      * Updates an existing account.
      *
@@ -8,8 +8,10 @@ import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.OptionalLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -30,14 +32,28 @@ public class BankResource {
     /**
      * GET /api/bank-accounts : Retrieve all bank accounts.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of bank accounts in the body
+     * @param ifNoneMatch the ETag of the accounts the client already has, if any.
+     * @param accept      the requested representations, which get distinct ETags.
+     * @return the ResponseEntity with status 200 (OK) and the list of bank accounts in the body,
+     * or with status 304 (Not Modified) if the accounts did not change
      */
     @GetMapping("/bank-accounts")
-    public ResponseEntity<List<Account>> getAllBankAccounts() {
+    public ResponseEntity<List<Account>> getAllBankAccounts(
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
         log.debug("REST request to get all Bank Accounts");
+        OptionalLong version = bankService.getAllAccountsVersion();
+        if (version.isEmpty()) {
+            return new ResponseEntity<>(bankService.getAllAccounts(), HttpStatus.OK);
+        }
+        String etag = ETags.of("accounts", version.getAsLong(), accept);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
         List<Account> accounts = bankService.getAllAccounts();
 
-        return new ResponseEntity<>(accounts, HttpStatus.OK);
+        return ETags.ok(accounts, etag);
     }
 
     /**
@@ -65,28 +81,53 @@ public class BankResource {
     /**
      * Retrieves a specific bank by ID.
      *
-     * @param id the ID of the bank to retrieve.
-     * @return the specified bank, or a 404 response if not found.
+     * @param id          the ID of the bank to retrieve.
+     * @param ifNoneMatch the ETag of the bank the client already has, if any.
+     * @param accept      the requested representations, which get distinct ETags.
+     * @return the specified bank, a 304 response if it did not change, or a 404 response if not found.
      */
     @GetMapping("/banks/{id}")
-    public ResponseEntity<Bank> getBank(@PathVariable Long id) {
+    public ResponseEntity<Bank> getBank(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
         log.debug("REST request to get Bank by ID: {}", id);
+        if (ifNoneMatch != null) {
+            String etag = bankService.findVersion(id).map(version -> ETags.of("bank-" + id, version, accept)).orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
         return bankService
             .findOne(id)
-            .map(bank -> new ResponseEntity<>(bank, HttpStatus.OK))
+            .map(bank -> ETags.ok(bank, ETags.of("bank-" + id, bank.getVersion(), accept)))
             .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     /**
      * Retrieves all banks.
      *
-     * @return a list of all banks.
+     * @param ifNoneMatch the ETag of the banks the client already has, if any.
+     * @param accept      the requested representations, which get distinct ETags.
+     * @return a list of all banks, or a 304 response if the banks did not change.
      */
     @GetMapping("/banks")
-    public ResponseEntity<List<Bank>> getAllBanks() {
+    public ResponseEntity<List<Bank>> getAllBanks(
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
         log.debug("REST request to get all Banks");
+        OptionalLong version = bankService.findAllVersion();
+        if (version.isEmpty()) {
+            return new ResponseEntity<>(bankService.findAll(), HttpStatus.OK);
+        }
+        String etag = ETags.of("banks", version.getAsLong(), accept);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
         List<Bank> banks = bankService.findAll();
-        return new ResponseEntity<>(banks, HttpStatus.OK);
+        return ETags.ok(banks, etag);
     }
 
     /**
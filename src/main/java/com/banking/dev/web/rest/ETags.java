@@ -0,0 +1,89 @@
+package com.banking.dev.web.rest;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong ETags for polled read endpoints.
+ * <p>
+ * The version behind an ETag is looked up first, without loading the entities: if the client already has it the
+ * request is answered with a 304 and nothing else is read. Responses may be stored but must be revalidated.
+ * <p>
+ * JSON, Smile and CBOR representations of the same version get distinct ETags, and responses vary by {@code Accept}.
+ */
+final class ETags {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private ETags() {}
+
+    /**
+     * @param accept the {@code Accept} request header, if any.
+     */
+    static String of(String resource, long version, String accept) {
+        return "\"" + resource + "-" + version + representation(accept) + "\"";
+    }
+
+    /**
+     * The binary representation asked for first, if any: clients that want Smile or CBOR ask for it explicitly.
+     */
+    private static String representation(String accept) {
+        if (accept == null) {
+            return "";
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.equalsTypeAndSubtype(SMILE)) {
+                    return "-smile";
+                }
+                if (mediaType.equalsTypeAndSubtype(CBOR)) {
+                    return "-cbor";
+                }
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return "";
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // answered with a 406 anyway
+        }
+        return "";
+    }
+
+    /**
+     * @param ifNoneMatch the {@code If-None-Match} request header, possibly a comma separated list.
+     * @return whether the client already has the representation tagged {@code etag}.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            // If-None-Match uses the weak comparison
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(CACHE_CONTROL)
+            .varyBy(HttpHeaders.ACCEPT)
+            .build();
+    }
+
+    static <T> ResponseEntity<T> ok(T body, String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+}
@@ -9,12 +9,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.PaginationUtil;
@@ -39,18 +41,28 @@ public class PublicUserResource {
      * {@code GET /users} : get all users with only public information - calling this method is allowed for anyone.
      *
      * @param pageable the pagination information.
+     * @param count how the total is counted: {@code exact}, {@code estimate} or {@code none}, see {@link SlicePagination}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllPublicUsers(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<UserDTO>> getAllPublicUsers(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = SlicePagination.COUNT_PARAMETER, defaultValue = SlicePagination.EXACT) String count
+    ) {
         log.debug("REST request to get all public User names");
-        if (!onlyContainsAllowedProperties(pageable)) {
+        if (!onlyContainsAllowedProperties(pageable) || !SlicePagination.isCountMode(count)) {
             return ResponseEntity.badRequest().build();
         }
 
-        final Page<UserDTO> page = userService.getAllPublicUsers(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        if (SlicePagination.EXACT.equals(count)) {
+            final Page<UserDTO> page = userService.getAllPublicUsers(pageable);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        final Slice<UserDTO> slice = userService.getAllPublicUsersSlice(pageable);
+        Long total = SlicePagination.ESTIMATE.equals(count) ? userService.getPublicUserCountEstimate() : null;
+        HttpHeaders headers = SlicePagination.headers(ServletUriComponentsBuilder.fromCurrentRequest(), slice, total);
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
@@ -0,0 +1,58 @@
+package com.banking.dev.web.rest;
+
+import com.banking.dev.service.dto.AccountBalanceDTO;
+import com.banking.dev.service.dto.BankDetailsDTO;
+import com.banking.dev.service.reactive.ReactiveAccountQueryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of balances and bank details.
+ * <p>
+ * Handlers return a {@link Mono}: Spring MVC processes the request asynchronously, so the servlet thread is released
+ * while the query runs on the R2DBC pool instead of waiting on a JDBC connection.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@ConditionalOnProperty(prefix = "application.reactive-reads", name = "enabled", havingValue = "true")
+public class ReactiveAccountResource {
+
+    private final Logger log = LoggerFactory.getLogger(ReactiveAccountResource.class);
+
+    private final ReactiveAccountQueryService reactiveAccountQueryService;
+
+    public ReactiveAccountResource(ReactiveAccountQueryService reactiveAccountQueryService) {
+        this.reactiveAccountQueryService = reactiveAccountQueryService;
+    }
+
+    /**
+     * Retrieves the balance of an account.
+     *
+     * @param id the ID of the account.
+     * @return the balance, or a 404 response if the account is not found.
+     */
+    @GetMapping("/accounts/{id}/balance")
+    public Mono<ResponseEntity<AccountBalanceDTO>> getAccountBalance(@PathVariable Long id) {
+        log.debug("REST request to get the balance of Account: {}", id);
+        return reactiveAccountQueryService.findAccountBalance(id).map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves the details of a bank.
+     *
+     * @param id the ID of the bank.
+     * @return the bank details, or a 404 response if the bank is not found.
+     */
+    @GetMapping("/banks/{id}")
+    public Mono<ResponseEntity<BankDetailsDTO>> getBankDetails(@PathVariable Long id) {
+        log.debug("REST request to get the details of Bank: {}", id);
+        return reactiveAccountQueryService.findBankDetails(id).map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.dev.web.rest;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Pagination headers for listings that skip the {@code COUNT(*)} of a {@link org.springframework.data.domain.Page}.
+ * <p>
+ * Clients choose with the {@code count} request parameter: {@code exact}, the default, keeps the page and its exact
+ * {@code X-Total-Count}; {@code estimate} sends a cached or estimated {@code X-Total-Count}, flagged by
+ * {@code X-Total-Count-Estimated}; {@code none} sends no total. Without an exact total, the {@code Link} header has
+ * no {@code last} relation, and a {@code next} one only when there is a next page.
+ */
+final class SlicePagination {
+
+    static final String COUNT_PARAMETER = "count";
+
+    static final String EXACT = "exact";
+
+    static final String ESTIMATE = "estimate";
+
+    static final String NONE = "none";
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+    private static final String HEADER_X_TOTAL_COUNT_ESTIMATED = "X-Total-Count-Estimated";
+
+    private SlicePagination() {}
+
+    static boolean isCountMode(String count) {
+        return EXACT.equals(count) || ESTIMATE.equals(count) || NONE.equals(count);
+    }
+
+    /**
+     * @param estimatedTotal the total to send, or {@code null}.
+     */
+    static HttpHeaders headers(UriComponentsBuilder uriBuilder, Slice<?> slice, Long estimatedTotal) {
+        HttpHeaders headers = new HttpHeaders();
+        if (estimatedTotal != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(estimatedTotal));
+            headers.add(HEADER_X_TOTAL_COUNT_ESTIMATED, "true");
+        }
+        int pageNumber = slice.getNumber();
+        int pageSize = slice.getSize();
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(link(uriBuilder, pageNumber + 1, pageSize, "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(link(uriBuilder, pageNumber - 1, pageSize, "prev"));
+        }
+        links.add(link(uriBuilder, 0, pageSize, "first"));
+        headers.add(HttpHeaders.LINK, String.join(",", links));
+        return headers;
+    }
+
+    private static String link(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        String uri = uriBuilder
+            .replaceQueryParam("page", Integer.toString(pageNumber))
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+        return "<" + uri + ">; rel=\"" + relType + "\"";
+    }
+}
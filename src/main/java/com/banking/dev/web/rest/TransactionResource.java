@@ -2,77 +2,159 @@ package com.banking.dev.web.rest;
 
 import com.banking.dev.domain.Transaction;
 import com.banking.dev.security.AuthoritiesConstants;
+import com.banking.dev.service.MovementPendingException;
 import com.banking.dev.service.TransactionService;
+import com.banking.dev.service.groupcommit.GroupCommitService;
+import com.banking.dev.service.ledger.LedgerEngine;
+import com.banking.dev.web.ratelimit.RateLimited;
 import com.banking.dev.web.rest.vm.DepositRequest;
 import com.banking.dev.web.rest.vm.TransferRequest;
 import com.banking.dev.web.rest.vm.WithdrawalRequest;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api")
 public class TransactionResource {
 
+    private static final String MONEY_MOVEMENT = "money-movement";
+
+    /** Sent by clients that may repeat a movement they got no answer for; at most as long as the column holding it. */
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+
     private final Logger log = LoggerFactory.getLogger(TransactionResource.class);
 
     private final TransactionService transactionService;
 
-    public TransactionResource(TransactionService transactionService) {
+    private final LedgerEngine ledgerEngine;
+
+    private final GroupCommitService groupCommitService;
+
+    public TransactionResource(TransactionService transactionService, LedgerEngine ledgerEngine, GroupCommitService groupCommitService) {
         this.transactionService = transactionService;
+        this.ledgerEngine = ledgerEngine;
+        this.groupCommitService = groupCommitService;
     }
 
     /**
      * Creates a withdrawal transaction.
      *
      * @param withdrawalRequest the withdrawal request data.
-     * @return the created transaction with a 201 response, or a 400 response if the request is invalid.
+     * @param idempotencyKey a key of the client's, optional: a repeated key is answered with a 202 locating the first
+     * movement sent with it, which is not applied again.
+     * @return the created transaction with a 201 response, a 202 response locating it if it is still being written, or
+     * a 400 response if the request is invalid.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/transactions/withdrawal")
+    @RateLimited(MONEY_MOVEMENT)
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<Transaction> createWithdrawalTransaction(@RequestBody WithdrawalRequest withdrawalRequest)
-        throws URISyntaxException {
+    public ResponseEntity<Transaction> createWithdrawalTransaction(
+        @RequestBody WithdrawalRequest withdrawalRequest,
+        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) throws URISyntaxException {
         log.debug("REST request to create Withdrawal Transaction: {}", withdrawalRequest);
-        Transaction createdTransaction = transactionService.processWithdrawal(withdrawalRequest);
-        return ResponseEntity.created(new URI("/api/transactions/" + createdTransaction.getTransactionId())).body(createdTransaction);
+        return created(idempotencyKey, () ->
+            ledgerEngine.isEnabled()
+                ? ledgerEngine.withdraw(withdrawalRequest.getAccountId(), withdrawalRequest.getAmount(), idempotencyKey)
+                : groupCommitService.isEnabled()
+                    ? groupCommitService.withdraw(withdrawalRequest.getAccountId(), withdrawalRequest.getAmount(), idempotencyKey)
+                    : transactionService.processWithdrawal(withdrawalRequest, idempotencyKey)
+        );
     }
 
     /**
      * Creates a deposit transaction.
      *
      * @param depositRequest the deposit request data.
-     * @return the created transaction with a 201 response, or a 400 response if the request is invalid.
+     * @param idempotencyKey a key of the client's, optional: a repeated key is answered with a 202 locating the first
+     * movement sent with it, which is not applied again.
+     * @return the created transaction with a 201 response, a 202 response locating it if it is still being written, or
+     * a 400 response if the request is invalid.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/transactions/deposit")
+    @RateLimited(MONEY_MOVEMENT)
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<Transaction> createDepositTransaction(@RequestBody DepositRequest depositRequest) throws URISyntaxException {
+    public ResponseEntity<Transaction> createDepositTransaction(
+        @RequestBody DepositRequest depositRequest,
+        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) throws URISyntaxException {
         log.debug("REST request to create Deposit Transaction: {}", depositRequest);
-        Transaction createdTransaction = transactionService.processDeposit(depositRequest);
-        return ResponseEntity.created(new URI("/api/transactions/" + createdTransaction.getTransactionId())).body(createdTransaction);
+        return created(idempotencyKey, () ->
+            ledgerEngine.isEnabled()
+                ? ledgerEngine.deposit(depositRequest.getAccountId(), depositRequest.getAmount(), idempotencyKey)
+                : groupCommitService.isEnabled()
+                    ? groupCommitService.deposit(depositRequest.getAccountId(), depositRequest.getAmount(), idempotencyKey)
+                    : transactionService.processDeposit(depositRequest, idempotencyKey)
+        );
     }
 
     /**
      * Creates a transfer transaction.
      *
      * @param transferRequest the transfer request data.
-     * @return the created transaction with a 201 response, or a 400 response if the request is invalid.
+     * @param idempotencyKey a key of the client's, optional: a repeated key is answered with a 202 locating the first
+     * movement sent with it, which is not applied again.
+     * @return the created transaction with a 201 response, a 202 response locating it if it is still being written, or
+     * a 400 response if the request is invalid.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("/transactions/transfer")
+    @RateLimited(MONEY_MOVEMENT)
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<Transaction> createTransferTransaction(@RequestBody TransferRequest transferRequest) throws URISyntaxException {
+    public ResponseEntity<Transaction> createTransferTransaction(
+        @RequestBody TransferRequest transferRequest,
+        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) throws URISyntaxException {
         log.debug("REST request to create Transfer Transaction: {}", transferRequest);
-        Transaction createdTransaction = transactionService.processTransfer(transferRequest);
-        return ResponseEntity.created(new URI("/api/transactions/" + createdTransaction.getTransactionId())).body(createdTransaction);
+        return created(idempotencyKey, () ->
+            ledgerEngine.isEnabled()
+                ? ledgerEngine.transfer(
+                    transferRequest.getSourceAccountId(),
+                    transferRequest.getDestinationAccountId(),
+                    transferRequest.getAmount(),
+                    idempotencyKey
+                )
+                : groupCommitService.isEnabled()
+                    ? groupCommitService.transfer(
+                        transferRequest.getSourceAccountId(),
+                        transferRequest.getDestinationAccountId(),
+                        transferRequest.getAmount(),
+                        idempotencyKey
+                    )
+                    : transactionService.processTransfer(transferRequest, idempotencyKey)
+        );
+    }
+
+    /**
+     * A movement still being written when its caller stopped waiting is answered with a 202 locating the transaction
+     * it may become, rather than an error the client would retry, which could apply it twice; so is a movement
+     * repeating the idempotency key of an earlier one, with the transaction of that one.
+     */
+    private static ResponseEntity<Transaction> created(String idempotencyKey, Supplier<Transaction> movement) throws URISyntaxException {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid " + IDEMPOTENCY_KEY);
+        }
+        try {
+            Transaction createdTransaction = movement.get();
+            return ResponseEntity.created(new URI("/api/transactions/" + createdTransaction.getTransactionId())).body(createdTransaction);
+        } catch (MovementPendingException e) {
+            return ResponseEntity.accepted().location(new URI("/api/transactions/" + e.getTransactionId())).build();
+        }
     }
 
     /**
@@ -90,14 +172,31 @@ public class TransactionResource {
     }
 
     /**
-     * Retrieves all transactions.
+     * Retrieves all transactions, or only those created in {@code [from, to)} when both bounds are given, optionally
+     * restricted to one account. A bounded request only reads the monthly partitions and archive segments covering
+     * the range.
      *
-     * @return a list of all transactions.
+     * @param from the inclusive lower bound of the creation date, optional.
+     * @param to the exclusive upper bound of the creation date, optional.
+     * @param accountId the originating or resulting account, optional, requires both bounds.
+     * @return a list of the matching transactions, or a 400 response if a bound is missing.
      */
     @GetMapping("/transactions")
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        log.debug("REST request to get all Transactions");
-        List<Transaction> transactions = transactionService.findAll();
+    public ResponseEntity<List<Transaction>> getAllTransactions(
+        @RequestParam(required = false) Instant from,
+        @RequestParam(required = false) Instant to,
+        @RequestParam(required = false) Long accountId
+    ) {
+        log.debug("REST request to get all Transactions, from: {}, to: {}, accountId: {}", from, to, accountId);
+        if (from == null && to == null && accountId == null) {
+            return new ResponseEntity<>(transactionService.findAll(), HttpStatus.OK);
+        }
+        if (from == null || to == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Both from and to are required");
+        }
+        List<Transaction> transactions = accountId == null
+            ? transactionService.findAllCreatedBetween(from, to)
+            : transactionService.findAllByAccountCreatedBetween(accountId, from, to);
         return new ResponseEntity<>(transactions, HttpStatus.OK);
     }
 
@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -162,19 +163,29 @@ public class UserResource {
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
      *
      * @param pageable the pagination information.
+     * @param count how the total is counted: {@code exact}, {@code estimate} or {@code none}, see {@link SlicePagination}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
      */
     @GetMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<List<AdminUserDTO>> getAllUsers(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<AdminUserDTO>> getAllUsers(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = SlicePagination.COUNT_PARAMETER, defaultValue = SlicePagination.EXACT) String count
+    ) {
         log.debug("REST request to get all User for an admin");
-        if (!onlyContainsAllowedProperties(pageable)) {
+        if (!onlyContainsAllowedProperties(pageable) || !SlicePagination.isCountMode(count)) {
             return ResponseEntity.badRequest().build();
         }
 
-        final Page<AdminUserDTO> page = userService.getAllManagedUsers(pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        if (SlicePagination.EXACT.equals(count)) {
+            final Page<AdminUserDTO> page = userService.getAllManagedUsers(pageable);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        final Slice<AdminUserDTO> slice = userService.getAllManagedUsersSlice(pageable);
+        Long total = SlicePagination.ESTIMATE.equals(count) ? userService.getManagedUserCountEstimate() : null;
+        HttpHeaders headers = SlicePagination.headers(ServletUriComponentsBuilder.fromCurrentRequest(), slice, total);
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
     }
 
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
@@ -0,0 +1,131 @@
+package com.banking.dev.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.redisson.api.RFuture;
+import org.redisson.api.RTopic;
+
+class CacheInvalidationBusTest {
+
+    @Mock
+    RTopic topic;
+
+    @Mock
+    RFuture<Long> published;
+
+    @Mock
+    CacheInvalidationBus.LocalTier usersByLogin;
+
+    @Mock
+    CacheInvalidationBus.LocalTier usersByEmail;
+
+    final AtomicLong nanoTime = new AtomicLong();
+
+    CacheInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(topic.publishAsync(any())).thenReturn(published);
+        bus = new CacheInvalidationBus(topic, new ApplicationProperties.Cache.Invalidation(), nanoTime::get);
+        bus.register("usersByLogin", usersByLogin);
+        bus.register("usersByEmail", usersByEmail);
+    }
+
+    @Test
+    void testEvictionsAreCoalescedIntoOneBatch() {
+        // Mock data
+        bus.invalidate("usersByLogin", "admin");
+        bus.invalidate("usersByLogin", "admin");
+        bus.invalidate("usersByLogin", "user");
+        bus.invalidate("usersByEmail", "admin@localhost");
+        bus.invalidateAll("usersByEmail");
+
+        // Test
+        bus.tick();
+        bus.tick();
+
+        // Assertion
+        CacheInvalidationBus.Batch batch = publishedBatch();
+        assertThat(batch.sequence).isEqualTo(1);
+        assertThat(batch.keys).isEqualTo(Map.of("usersByLogin", Set.of("admin", "user")));
+        assertThat(batch.clearedCaches).containsExactly("usersByEmail");
+    }
+
+    @Test
+    void testHeartbeatWhenIdle() {
+        // Test
+        bus.tick();
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        bus.tick();
+
+        // Assertion
+        CacheInvalidationBus.Batch batch = publishedBatch();
+        assertThat(batch.keys).isEmpty();
+        assertThat(batch.clearedCaches).isEmpty();
+    }
+
+    @Test
+    void testBatchOfAnotherInstanceEvictsTheLocalTiers() {
+        // Test
+        bus.receive(new CacheInvalidationBus.Batch("other", 1, Map.of("usersByLogin", Set.of("admin")), Set.of("usersByEmail")));
+
+        // Assertion
+        verify(usersByLogin).evictLocal("admin");
+        verify(usersByLogin, never()).clearLocal();
+        verify(usersByEmail).clearLocal();
+    }
+
+    @Test
+    void testSequenceGapClearsAllLocalTiers() {
+        // Mock data
+        bus.receive(new CacheInvalidationBus.Batch("other", 1, Map.of(), Set.of()));
+        bus.receive(new CacheInvalidationBus.Batch("other", 2, Map.of(), Set.of()));
+        verify(usersByLogin, never()).clearLocal();
+
+        // Test
+        bus.receive(new CacheInvalidationBus.Batch("other", 4, Map.of(), Set.of()));
+
+        // Assertion
+        verify(usersByLogin).clearLocal();
+        verify(usersByEmail).clearLocal();
+    }
+
+    @Test
+    void testUnhealthyUntilTheOwnBatchesComeBack() {
+        // Mock data
+        bus.invalidate("usersByLogin", "admin");
+        bus.tick();
+        CacheInvalidationBus.Batch own = publishedBatch();
+
+        // Test
+        nanoTime.addAndGet(Duration.ofSeconds(6).toNanos());
+        bus.tick();
+        boolean healthyWithoutEcho = bus.isHealthy();
+        bus.receive(own);
+        bus.tick();
+
+        // Assertion
+        assertThat(healthyWithoutEcho).isFalse();
+        assertThat(bus.isHealthy()).isTrue();
+        verify(usersByLogin).clearLocal();
+        verify(usersByLogin, never()).evictLocal(any());
+    }
+
+    private CacheInvalidationBus.Batch publishedBatch() {
+        ArgumentCaptor<CacheInvalidationBus.Batch> batch = ArgumentCaptor.forClass(CacheInvalidationBus.Batch.class);
+        verify(topic, times(1)).publishAsync(batch.capture());
+        return batch.getValue();
+    }
+}
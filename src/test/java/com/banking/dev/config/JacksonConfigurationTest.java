@@ -0,0 +1,75 @@
+package com.banking.dev.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Transaction;
+import java.math.BigDecimal;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+class JacksonConfigurationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private final JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+
+    private Transaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        Account account = new Account();
+        account.setAccountId(7L);
+        transaction = new Transaction();
+        transaction.setTransactionId(1L);
+        transaction.setAmount(new BigDecimal("-125.50"));
+        transaction.setOriginatingAccount(account);
+        transaction.setTransactionReason("Withdrawal");
+        transaction.setCreatedDate(Instant.parse("2026-10-19T08:30:00.123456Z"));
+    }
+
+    @Test
+    void smileSharesTheJsonModules() throws Exception {
+        AbstractJackson2HttpMessageConverter converter = jacksonConfiguration.smileHttpMessageConverter(builder());
+
+        assertThat(converter.getSupportedMediaTypes()).contains(SMILE);
+        assertThat(roundTrip(converter, SMILE)).isEqualTo(transaction);
+    }
+
+    @Test
+    void cborSharesTheJsonModules() throws Exception {
+        AbstractJackson2HttpMessageConverter converter = jacksonConfiguration.cborHttpMessageConverter(builder());
+
+        assertThat(converter.getSupportedMediaTypes()).contains(CBOR);
+        assertThat(roundTrip(converter, CBOR)).isEqualTo(transaction);
+    }
+
+    /**
+     * What Spring Boot hands out: a builder with every {@code Module} bean of the context.
+     */
+    private Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder()
+            .modulesToInstall(
+                jacksonConfiguration.javaTimeModule(),
+                jacksonConfiguration.jdk8TimeModule(),
+                jacksonConfiguration.hibernate6Module(),
+                jacksonConfiguration.blackbirdModule()
+            );
+    }
+
+    private Transaction roundTrip(AbstractJackson2HttpMessageConverter converter, MediaType mediaType) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(transaction, mediaType, output);
+        MockHttpInputMessage input = new MockHttpInputMessage(output.getBodyAsBytes());
+        input.getHeaders().setContentType(mediaType);
+        return (Transaction) converter.read(Transaction.class, input);
+    }
+}
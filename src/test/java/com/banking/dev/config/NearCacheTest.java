@@ -0,0 +1,260 @@
+package com.banking.dev.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.redisson.api.RLock;
+import org.redisson.api.RMapCache;
+import org.redisson.spring.cache.RedissonCache;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+class NearCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(100);
+
+    @Mock
+    RedissonCache remote;
+
+    @Mock
+    RMapCache<Object, Object> map;
+
+    @Mock
+    RLock lock;
+
+    @Mock
+    CacheInvalidationBus bus;
+
+    final AtomicLong nanoTime = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(map.getLock(any())).thenReturn(lock);
+        doReturn(map).when(remote).getNativeCache();
+        when(remote.getName()).thenReturn("usersByLogin");
+        when(bus.isHealthy()).thenReturn(true);
+    }
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        // Mock data
+        NearCache cache = cache(policy(false, 0));
+        CountDownLatch loading = new CountDownLatch(1);
+        AtomicReference<Thread> waiter = new AtomicReference<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Test
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() ->
+            cache.get("admin", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                while (waiter.get() == null || waiter.get().getState() != Thread.State.WAITING) {
+                    Thread.onSpinWait();
+                }
+                return "loaded";
+            })
+        );
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        Thread thread = new Thread(() ->
+            second.complete(
+                cache.get("admin", () -> {
+                    loads.incrementAndGet();
+                    return "loaded again";
+                })
+            )
+        );
+        waiter.set(thread);
+        thread.start();
+
+        // Assertion
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        assertThat(loads).hasValue(1);
+        verify(remote, times(1)).put("admin", "loaded");
+        verify(bus).invalidate("usersByLogin", "admin");
+        verify(lock, never()).lock();
+    }
+
+    @Test
+    void testClusterSingleFlightReusesAValueLoadedElsewhere() {
+        // Mock data
+        NearCache cache = cache(policy(true, 0));
+        when(remote.get("admin")).thenReturn(null, new SimpleValueWrapper("loaded elsewhere"));
+
+        // Test
+        String value = cache.get("admin", () -> "loaded here");
+
+        // Assertion
+        assertThat(value).isEqualTo("loaded elsewhere");
+        verify(lock).lock();
+        verify(lock).unlock();
+        verify(remote, never()).put(any(), any());
+    }
+
+    @Test
+    void testHitPastTheRefreshRatioReloads() {
+        // Mock data
+        NearCache cache = cache(policy(false, 0.5));
+        when(remote.get("admin")).thenReturn(new SimpleValueWrapper("cached"));
+        assertThat(cache.get("admin", () -> "reloaded")).isEqualTo("cached");
+
+        // Test
+        nanoTime.addAndGet(Duration.ofSeconds(40).toNanos());
+        String early = cache.get("admin", () -> "reloaded");
+        nanoTime.addAndGet(Duration.ofSeconds(20).toNanos());
+        String late = cache.get("admin", () -> "reloaded");
+
+        // Assertion
+        assertThat(early).isEqualTo("cached");
+        assertThat(late).isEqualTo("reloaded");
+        assertThat(cache.get("admin", () -> "reloaded again")).isEqualTo("reloaded");
+        verify(remote, times(1)).get("admin");
+        verify(remote, times(1)).put("admin", "reloaded");
+    }
+
+    @Test
+    void testFailedRefreshServesTheCachedValue() {
+        // Mock data
+        NearCache cache = cache(policy(false, 0.5));
+        when(remote.get("admin")).thenReturn(new SimpleValueWrapper("cached"));
+        cache.get("admin", () -> "reloaded");
+        nanoTime.addAndGet(Duration.ofSeconds(60).toNanos());
+
+        // Test
+        String value = cache.get("admin", () -> {
+            throw new IllegalStateException("database down");
+        });
+
+        // Assertion
+        assertThat(value).isEqualTo("cached");
+    }
+
+    @Test
+    void testFailedLoadIsRethrown() {
+        // Mock data
+        NearCache cache = cache(policy(false, 0));
+
+        // Test
+        // Assertion
+        assertThatThrownBy(() ->
+            cache.get("admin", () -> {
+                throw new IllegalStateException("database down");
+            })
+        )
+            .isInstanceOf(Cache.ValueRetrievalException.class)
+            .hasRootCauseMessage("database down");
+        verify(remote, never()).put(any(), any());
+    }
+
+    @Test
+    void testBusEvictionDropsTheLocalCopyOnly() {
+        // Mock data
+        NearCache cache = cache(policy(false, 0));
+        when(remote.get("admin")).thenReturn(new SimpleValueWrapper("cached"));
+        cache.get("admin");
+        cache.get("admin");
+
+        // Test
+        cache.evictLocal("admin");
+        cache.get("admin");
+
+        // Assertion
+        verify(remote, times(2)).get("admin");
+        verify(remote, never()).evict(any());
+    }
+
+    @Test
+    void testValueReadBeforeAnInvalidationIsNotKeptLocally() {
+        // Mock data
+        NearCache cache = cache(policy(false, 0));
+        when(remote.get("admin")).thenAnswer(invocation -> {
+            cache.evictLocal("admin");
+            return new SimpleValueWrapper("stale");
+        });
+
+        // Test
+        cache.get("admin");
+        when(remote.get("admin")).thenReturn(new SimpleValueWrapper("fresh"));
+        Cache.ValueWrapper value = cache.get("admin");
+
+        // Assertion
+        assertThat(value.get()).isEqualTo("fresh");
+        assertThat(cache.localSize()).isEqualTo(1);
+    }
+
+    @Test
+    void testClearDuringAReadIsNotUndone() {
+        // Mock data
+        NearCache cache = cache(policy(true, 0));
+        when(remote.get("admin")).thenReturn(null).thenAnswer(invocation -> {
+            cache.clearLocal();
+            return new SimpleValueWrapper("loaded elsewhere");
+        });
+
+        // Test
+        String value = cache.get("admin", () -> "loaded here");
+
+        // Assertion
+        assertThat(value).isEqualTo("loaded elsewhere");
+        assertThat(cache.localSize()).isZero();
+    }
+
+    @Test
+    void testUnhealthyBusBypassesTheLocalTier() {
+        // Mock data
+        NearCache cache = cache(policy(false, 0));
+        when(remote.get("admin")).thenReturn(new SimpleValueWrapper("cached"));
+        cache.get("admin");
+        when(bus.isHealthy()).thenReturn(false);
+
+        // Test
+        cache.get("admin");
+
+        // Assertion
+        verify(remote, times(2)).get("admin");
+    }
+
+    @Test
+    void testEvictIsPublished() {
+        // Mock data
+        NearCache cache = cache(policy(false, 0));
+
+        // Test
+        cache.evict("admin");
+        cache.clear();
+
+        // Assertion
+        verify(remote).evict("admin");
+        verify(bus).invalidate("usersByLogin", "admin");
+        verify(remote).clear();
+        verify(bus).invalidateAll("usersByLogin");
+    }
+
+    private NearCache cache(ApplicationProperties.Cache.Policy policy) {
+        return new NearCache(remote, policy, TTL, bus, nanoTime::get);
+    }
+
+    private static ApplicationProperties.Cache.Policy policy(boolean clusterSingleFlight, double refreshAheadRatio) {
+        ApplicationProperties.Cache.Policy policy = new ApplicationProperties.Cache.Policy();
+        policy.setLocal(true);
+        policy.setMaxEntries(100);
+        policy.setClusterSingleFlight(clusterSingleFlight);
+        policy.setRefreshAheadRatio(refreshAheadRatio);
+        return policy;
+    }
+}
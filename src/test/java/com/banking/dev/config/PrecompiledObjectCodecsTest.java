@@ -0,0 +1,73 @@
+package com.banking.dev.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.web.rest.vm.TransferRequest;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class PrecompiledObjectCodecsTest {
+
+    private ObjectMapper objectMapper;
+
+    private PrecompiledObjectCodecs codecs;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        codecs = JacksonConfiguration.precompiledObjectCodecs(objectMapper);
+    }
+
+    @Test
+    void plainReaderOfHotTypeIsReplacedByCachedOne() {
+        JavaType type = objectMapper.constructType(TransferRequest.class);
+
+        ObjectReader first = codecs.reader(objectMapper.reader().forType(type), type);
+        ObjectReader second = codecs.reader(objectMapper.reader().forType(type), type);
+
+        assertThat(first).isSameAs(second);
+    }
+
+    @Test
+    void readerWithViewIsKept() {
+        JavaType type = objectMapper.constructType(TransferRequest.class);
+        ObjectReader withView = objectMapper.readerWithView(Object.class).forType(type);
+
+        assertThat(codecs.reader(withView, type)).isSameAs(withView);
+    }
+
+    @Test
+    void plainWriterOfHotListIsReplacedByCachedOne() {
+        JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, Transaction.class);
+
+        ObjectWriter first = codecs.writer(objectMapper.writer().forType(type), type, MediaType.APPLICATION_JSON);
+        ObjectWriter second = codecs.writer(objectMapper.writer().forType(type), type, MediaType.APPLICATION_JSON);
+
+        assertThat(first).isSameAs(second);
+        assertThat(first.hasPrefetchedSerializer()).isTrue();
+    }
+
+    @Test
+    void writerOfSingleEntityIsKept() {
+        JavaType type = objectMapper.constructType(Account.class);
+        ObjectWriter writer = objectMapper.writer();
+
+        assertThat(codecs.writer(writer, type, MediaType.APPLICATION_JSON)).isSameAs(writer);
+    }
+
+    @Test
+    void writerForServerSentEventsIsKept() {
+        JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, Transaction.class);
+        ObjectWriter writer = objectMapper.writer().forType(type);
+
+        assertThat(codecs.writer(writer, type, MediaType.TEXT_EVENT_STREAM)).isSameAs(writer);
+    }
+}
@@ -0,0 +1,84 @@
+package com.banking.dev.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.IntegrationTest;
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Bank;
+import com.banking.dev.repository.AccountRepository;
+import com.banking.dev.repository.BankRepository;
+import com.banking.dev.service.dto.AccountBalanceDTO;
+import com.banking.dev.service.reactive.ReactiveAccountQueryService;
+import com.zaxxer.hikari.HikariDataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Boots with the reactive reads on: the JDBC pool used by JPA must still be auto-configured next to the R2DBC one.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.reactive-reads.enabled=true")
+class ReactiveReadConfigurationIT {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ReactiveAccountQueryService reactiveAccountQueryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Account account;
+
+    @AfterEach
+    void deleteAccount() {
+        if (account != null) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                accountRepository.deleteById(account.getAccountId());
+                bankRepository.deleteById(account.getBank().getBankId());
+            });
+        }
+    }
+
+    @Test
+    void assertThatJpaAndR2dbcReadTheSameAccount() throws Exception {
+        assertThat(dataSource.isWrapperFor(HikariDataSource.class)).isTrue();
+        account = new TransactionTemplate(transactionManager).execute(status -> {
+            Bank bank = new Bank();
+            bank.setBankName("Reactive");
+            bank.setTotalTransactionFeeAmount(BigDecimal.ZERO);
+            bank.setTotalTransferAmount(BigDecimal.ZERO);
+            bank.setTransactionFlatFeeAmount(BigDecimal.TEN);
+            bank.setTransactionPercentFeeValue(BigDecimal.valueOf(5));
+            Account created = new Account();
+            created.setUserName("reactive");
+            created.setBalance(new BigDecimal("125.50"));
+            created.setBank(bankRepository.save(bank));
+            return accountRepository.save(created);
+        });
+
+        Account read = accountRepository.findById(account.getAccountId()).orElseThrow();
+        AccountBalanceDTO balance = reactiveAccountQueryService.findAccountBalance(account.getAccountId()).block(TIMEOUT);
+
+        assertThat(read.getBalance()).isEqualByComparingTo(account.getBalance());
+        assertThat(balance).isNotNull();
+        assertThat(balance.getBalance()).isEqualByComparingTo(account.getBalance());
+        assertThat(balance.getBankId()).isEqualTo(account.getBank().getBankId());
+    }
+}
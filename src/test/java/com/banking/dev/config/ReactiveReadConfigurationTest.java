@@ -0,0 +1,26 @@
+package com.banking.dev.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class ReactiveReadConfigurationTest {
+
+    @Test
+    void derivesR2dbcUrlFromJdbcUrl() {
+        assertThat(ReactiveReadConfiguration.toR2dbcUrl("jdbc:postgresql://localhost:5432/bankApp")).isEqualTo(
+            "r2dbc:postgresql://localhost:5432/bankApp"
+        );
+        assertThat(ReactiveReadConfiguration.toR2dbcUrl("jdbc:postgresql://db:5432/bankApp?sslmode=require")).isEqualTo(
+            "r2dbc:postgresql://db:5432/bankApp"
+        );
+    }
+
+    @Test
+    void rejectsNonJdbcUrl() {
+        assertThatThrownBy(() -> ReactiveReadConfiguration.toR2dbcUrl("postgresql://localhost/bankApp")).isInstanceOf(
+            IllegalStateException.class
+        );
+    }
+}
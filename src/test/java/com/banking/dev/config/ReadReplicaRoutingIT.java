@@ -0,0 +1,87 @@
+package com.banking.dev.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.IntegrationTest;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Runs against two independent PostgreSQL instances, told apart by their database name: replication itself is not
+ * under test, only which instance serves each transaction.
+ */
+@IntegrationTest
+class ReadReplicaRoutingIT {
+
+    private static final PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:16.2").withDatabaseName("replica");
+
+    static {
+        replica.start();
+    }
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("application.read-replica.enabled", () -> "true");
+        registry.add("application.read-replica.url", replica::getJdbcUrl);
+        registry.add("application.read-replica.username", replica::getUsername);
+        registry.add("application.read-replica.password", replica::getPassword);
+    }
+
+    @AfterAll
+    static void stopReplica() {
+        replica.stop();
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(currentDatabase(true)).isEqualTo("replica");
+        assertThat(currentDatabase(false)).isEqualTo("bankApp");
+    }
+
+    @Test
+    void readsFollowingAWriteInTheSameScopeUseThePrimary() {
+        ReplicaRoutingDataSource.beginScope();
+        try {
+            assertThat(currentDatabase(true)).isEqualTo("replica");
+            assertThat(currentDatabase(false)).isEqualTo("bankApp");
+            assertThat(currentDatabase(true)).isEqualTo("bankApp");
+        } finally {
+            ReplicaRoutingDataSource.endScope();
+        }
+        assertThat(currentDatabase(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReadOnlySessions() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Boolean defaultReadOnly = readOnly.execute(status -> entityManager.unwrap(Session.class).isDefaultReadOnly());
+
+        assertThat(defaultReadOnly).isTrue();
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+}
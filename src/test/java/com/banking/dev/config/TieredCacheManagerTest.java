@@ -0,0 +1,109 @@
+package com.banking.dev.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.spring.cache.RedissonCache;
+import org.springframework.cache.Cache;
+
+class TieredCacheManagerTest {
+
+    @Mock
+    RedissonClient redissonClient;
+
+    @Mock
+    CacheInvalidationBus bus;
+
+    @Mock
+    RMapCache<Object, Object> mapCache;
+
+    @Mock
+    RMapCache<Object, Object> localMapCache;
+
+    TieredCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redissonClient.<Object, Object>getMapCache("local")).thenReturn(localMapCache);
+        when(localMapCache.getName()).thenReturn("local");
+        when(redissonClient.<Object, Object>getMapCache("remote")).thenReturn(mapCache);
+        when(redissonClient.<Object, Object>getMapCache("unlisted")).thenReturn(mapCache);
+
+        Map<String, ApplicationProperties.Cache.Policy> policies = new LinkedHashMap<>();
+        policies.put("local", policy(true, 60, 100));
+        policies.put("remote", policy(false, 0, 500));
+        cacheManager = new TieredCacheManager(redissonClient, policies, Duration.ofHours(1), bus);
+    }
+
+    @Test
+    void testLocalCacheIsANearCacheOverTheRemoteOne() {
+        // Test
+        Cache cache = cacheManager.getCache("local");
+
+        // Assertion
+        assertThat(cache).isInstanceOf(NearCache.class);
+        assertThat(cacheManager.getCache("local")).isSameAs(cache);
+        assertThat(cache.getNativeCache()).isSameAs(localMapCache);
+        verify(localMapCache).setMaxSize(100);
+        verify(bus).register("local", (NearCache) cache);
+    }
+
+    @Test
+    void testLocalCachePutGoesToRedisWithItsTtl() {
+        // Mock data
+        Cache cache = cacheManager.getCache("local");
+
+        // Test
+        cache.put("admin", "value");
+
+        // Assertion
+        verify(localMapCache).fastPut(eq("admin"), eq("value"), eq(Duration.ofSeconds(60).toMillis()), any(), anyLong(), any());
+        verify(bus).invalidate("local", "admin");
+    }
+
+    @Test
+    void testRemoteCacheHasItsTtlAndMaxEntries() {
+        // Test
+        Cache cache = cacheManager.getCache("remote");
+        cache.put("admin", "value");
+
+        // Assertion
+        assertThat(cache).isInstanceOf(RedissonCache.class).isNotInstanceOf(NearCache.class);
+        verify(mapCache).setMaxSize(500);
+        ArgumentCaptor<Long> ttl = ArgumentCaptor.forClass(Long.class);
+        verify(mapCache).fastPut(eq("admin"), eq("value"), ttl.capture(), any(), anyLong(), any());
+        assertThat(ttl.getValue()).isEqualTo(Duration.ofHours(1).toMillis());
+    }
+
+    @Test
+    void testUnlistedCacheGetsTheDefaultTtl() {
+        // Test
+        Cache cache = cacheManager.getCache("unlisted");
+        cache.put("admin", "value");
+
+        // Assertion
+        assertThat(cacheManager.getCacheNames()).containsExactly("local", "remote");
+        verify(mapCache).setMaxSize(0);
+        verify(mapCache).fastPut(eq("admin"), eq("value"), eq(Duration.ofHours(1).toMillis()), any(), anyLong(), any());
+    }
+
+    private static ApplicationProperties.Cache.Policy policy(boolean local, long ttlSeconds, int maxEntries) {
+        ApplicationProperties.Cache.Policy policy = new ApplicationProperties.Cache.Policy();
+        policy.setLocal(local);
+        policy.setTtlSeconds(ttlSeconds);
+        policy.setMaxEntries(maxEntries);
+        return policy;
+    }
+}
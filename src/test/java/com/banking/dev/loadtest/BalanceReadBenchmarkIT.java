@@ -0,0 +1,338 @@
+package com.banking.dev.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.BankApp;
+import com.banking.dev.config.AsyncSyncConfiguration;
+import com.banking.dev.config.EmbeddedRedis;
+import com.banking.dev.config.EmbeddedSQL;
+import com.banking.dev.config.JacksonConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.function.LongFunction;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Compares the blocking account read ({@code GET /api/bank/accounts/{id}}, JPA on Hikari) with the non-blocking
+ * balance read ({@code GET /api/reactive/accounts/{id}/balance}, R2DBC) under the same closed-model load.
+ * <p>
+ * Both pools get the same number of connections. For each concurrency level the benchmark reports throughput,
+ * throughput per CPU second of the JVM (clients included, the same for both), latency percentiles, the peak number of
+ * connections checked out and the peak number of live threads.
+ * <p>
+ * Opt-in, as it needs Docker and takes a while:
+ * <pre>
+ * ./mvnw verify -Dloadtest=true -Dit.test=BalanceReadBenchmarkIT -Dbenchmark.concurrency=16,64,256 -Dbenchmark.duration=20
+ * </pre>
+ */
+@SpringBootTest(
+    classes = { BankApp.class, JacksonConfiguration.class, AsyncSyncConfiguration.class },
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + BalanceReadBenchmarkIT.CONNECTIONS,
+        "application.reactive-reads.enabled=true",
+        "application.reactive-reads.max-size=" + BalanceReadBenchmarkIT.CONNECTIONS,
+    }
+)
+@EmbeddedRedis
+@EmbeddedSQL
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class BalanceReadBenchmarkIT {
+
+    static final int CONNECTIONS = 10;
+
+    private static final int ACCOUNTS = 1000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private final Logger log = LoggerFactory.getLogger(BalanceReadBenchmarkIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DatabaseClient reactiveReadDatabaseClient;
+
+    @Test
+    void reactiveBalanceReadsVersusBlockingAccountReads() throws Exception {
+        int[] concurrencyLevels = parseLevels(System.getProperty("benchmark.concurrency", "16,64,256"));
+        Duration duration = Duration.ofSeconds(Long.getLong("benchmark.duration", 20));
+        long[] accountIds = createAccounts();
+
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        IntSupplier jdbcInUse = () -> hikari.getHikariPoolMXBean().getActiveConnections();
+        ConnectionPool reactiveReadConnectionPool = (ConnectionPool) reactiveReadDatabaseClient.getConnectionFactory();
+        IntSupplier r2dbcInUse = () -> reactiveReadConnectionPool.getMetrics().map(PoolMetrics::acquiredSize).orElse(0);
+
+        int maxConcurrency = concurrencyLevels[concurrencyLevels.length - 1];
+        ExecutorService clients = Executors.newFixedThreadPool(maxConcurrency);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        List<Result> results = new ArrayList<>();
+        try {
+            String token = authenticate(client);
+            Target blocking = new Target("blocking", id -> "/api/bank/accounts/" + id, jdbcInUse);
+            Target reactive = new Target("reactive", id -> "/api/reactive/accounts/" + id + "/balance", r2dbcInUse);
+            for (Target target : List.of(blocking, reactive)) {
+                run(client, clients, token, target, accountIds, maxConcurrency, WARMUP);
+            }
+            for (int concurrency : concurrencyLevels) {
+                for (Target target : List.of(blocking, reactive)) {
+                    results.add(run(client, clients, token, target, accountIds, concurrency, duration));
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        report(results, duration);
+        for (int i = 0; i < results.size(); i += 2) {
+            Result blocking = results.get(i);
+            Result reactive = results.get(i + 1);
+            assertThat(blocking.recorder.errors() + reactive.recorder.errors()).as("errors at concurrency " + blocking.concurrency).isZero();
+            assertThat(reactive.peakConnections).as("connections at concurrency " + blocking.concurrency).isLessThanOrEqualTo(CONNECTIONS);
+        }
+    }
+
+    /**
+     * Runs {@code concurrency} clients sending requests back to back for {@code duration}.
+     */
+    private Result run(
+        HttpClient client,
+        ExecutorService clients,
+        String token,
+        Target target,
+        long[] accountIds,
+        int concurrency,
+        Duration duration
+    ) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        AtomicInteger peakConnections = new AtomicInteger();
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakConnections.accumulateAndGet(target.connectionsInUse.getAsInt(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long cpuStart = processCpuNanos();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            long seed = i;
+            workers.add(
+                clients.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    while (System.nanoTime() < end) {
+                        HttpRequest request = HttpRequest.newBuilder(uri(target.path.apply(accountIds[random.nextInt(accountIds.length)])))
+                            .timeout(REQUEST_TIMEOUT)
+                            .header("Authorization", "Bearer " + token)
+                            .GET()
+                            .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                recorder.recordSuccess(System.nanoTime() - sent);
+                            } else {
+                                recorder.recordError();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            recorder.recordError();
+                        }
+                    }
+                })
+            );
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get(duration.toSeconds() + REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException("Benchmark client failed", e);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long cpu = processCpuNanos() - cpuStart;
+        sampler.interrupt();
+        sampler.join();
+        return new Result(target.name, concurrency, recorder, elapsed, cpu, peakConnections.get(), threads.getPeakThreadCount());
+    }
+
+    private void report(List<Result> results, Duration duration) {
+        StringBuilder report = new StringBuilder("\nBalance read benchmark (")
+            .append(duration.toSeconds())
+            .append(" s per run, ")
+            .append(CONNECTIONS)
+            .append(" connections per pool, ")
+            .append(Runtime.getRuntime().availableProcessors())
+            .append(" cores)\n")
+            .append(
+                String.format(
+                    "%-9s %7s %9s %11s %9s %9s %11s %9s%n",
+                    "path",
+                    "clients",
+                    "req/s",
+                    "req/cpu-s",
+                    "p50 ms",
+                    "p99 ms",
+                    "peak conns",
+                    "threads"
+                )
+            );
+        for (Result result : results) {
+            report.append(
+                String.format(
+                    "%-9s %7d %9.1f %11.1f %9.2f %9.2f %11d %9d%n",
+                    result.name,
+                    result.concurrency,
+                    result.recorder.successes() / (result.elapsedNanos / 1_000_000_000.0),
+                    result.recorder.successes() / (result.cpuNanos / 1_000_000_000.0),
+                    result.recorder.percentileMillis(50),
+                    result.recorder.percentileMillis(99),
+                    result.peakConnections,
+                    result.peakThreads
+                )
+            );
+        }
+        log.info(report.toString());
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    private static int[] parseLevels(String levels) {
+        String[] parts = levels.split(",");
+        int[] parsed = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parsed[i] = Integer.parseInt(parts[i].strip());
+        }
+        Arrays.sort(parsed);
+        return parsed;
+    }
+
+    private long[] createAccounts() {
+        Long bankId = jdbcTemplate.queryForObject(
+            "INSERT INTO bank (bank_name, total_transaction_fee_amount, total_transfer_amount, " +
+            "transaction_flat_fee_amount, transaction_percent_fee_value) VALUES ('Benchmark Bank', 0, 0, 10, 5) RETURNING bank_id",
+            Long.class
+        );
+        long[] accountIds = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds[i] = jdbcTemplate.queryForObject(
+                "INSERT INTO account (user_name, balance, bank_id) VALUES (?, ?, ?) RETURNING account_id",
+                Long.class,
+                "benchmark_" + i,
+                BigDecimal.valueOf(100_000, 2),
+                bankId
+            );
+        }
+        return accountIds;
+    }
+
+    private String authenticate(HttpClient client) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/authenticate"))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin\",\"rememberMe\":false}"))
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("authentication").isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("id_token").asText();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static final class Target {
+
+        final String name;
+        final LongFunction<String> path;
+        final IntSupplier connectionsInUse;
+
+        Target(String name, LongFunction<String> path, IntSupplier connectionsInUse) {
+            this.name = name;
+            this.path = path;
+            this.connectionsInUse = connectionsInUse;
+        }
+    }
+
+    private static final class Result {
+
+        final String name;
+        final int concurrency;
+        final LatencyRecorder recorder;
+        final long elapsedNanos;
+        final long cpuNanos;
+        final int peakConnections;
+        final int peakThreads;
+
+        Result(
+            String name,
+            int concurrency,
+            LatencyRecorder recorder,
+            long elapsedNanos,
+            long cpuNanos,
+            int peakConnections,
+            int peakThreads
+        ) {
+            this.name = name;
+            this.concurrency = concurrency;
+            this.recorder = recorder;
+            this.elapsedNanos = elapsedNanos;
+            this.cpuNanos = cpuNanos;
+            this.peakConnections = peakConnections;
+            this.peakThreads = peakThreads;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.banking.dev.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.config.CacheConfiguration;
+import com.banking.dev.config.RedisTestContainer;
+import com.banking.dev.domain.Authority;
+import com.banking.dev.domain.User;
+import com.banking.dev.repository.UserRepository;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Compares a hit in the local tier of the {@code usersByLogin} cache with a hit in a remote cache, both holding the same
+ * user.
+ * <p>
+ * Opt-in, as it needs Docker:
+ * <pre>
+ * ./mvnw verify -Dloadtest=true -Dit.test=CacheHitBenchmarkIT -Dbenchmark.duration=5
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Timeout(value = 30, unit = TimeUnit.MINUTES)
+class CacheHitBenchmarkIT {
+
+    private static final String REMOTE_CACHE = "cacheHitBenchmark";
+
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+
+    private final Logger log = LoggerFactory.getLogger(CacheHitBenchmarkIT.class);
+
+    @Test
+    void compareLocalAndRemoteHits() throws Exception {
+        Duration duration = Duration.ofSeconds(Long.getLong("benchmark.duration", 5));
+        RedisTestContainer redis = new RedisTestContainer();
+        redis.afterPropertiesSet();
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getCache()
+            .getRedis()
+            .setServer(new String[] { "redis://" + redis.getRedisContainer().getHost() + ":" + redis.getRedisContainer().getMappedPort(6379) });
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Policy local = new ApplicationProperties.Cache.Policy();
+        local.setLocal(true);
+        local.setMaxEntries(10_000);
+        applicationProperties.getCache().getPolicies().put(UserRepository.USERS_BY_LOGIN_CACHE, local);
+
+        CacheConfiguration cacheConfiguration = new CacheConfiguration();
+        RedissonClient redissonClient = cacheConfiguration.redissonClient(jHipsterProperties);
+        try {
+            CacheManager cacheManager = cacheConfiguration.cacheManager(redissonClient, jHipsterProperties, applicationProperties);
+            ((InitializingBean) cacheManager).afterPropertiesSet();
+            Cache localCache = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+            Cache remoteCache = cacheManager.getCache(REMOTE_CACHE);
+            User user = user();
+            localCache.put(user.getLogin(), user);
+            remoteCache.put(user.getLogin(), user);
+
+            Throughput.measure(() -> localCache.get(user.getLogin()), WARMUP);
+            Throughput localHits = Throughput.measure(() -> localCache.get(user.getLogin()), duration);
+            Throughput.measure(() -> remoteCache.get(user.getLogin()), WARMUP);
+            Throughput remoteHits = Throughput.measure(() -> remoteCache.get(user.getLogin()), duration);
+
+            log.info(
+                "Cache hits: local {} ns/op, {} B/op; remote {} ns/op, {} B/op",
+                Math.round(1_000_000_000 / localHits.operationsPerSecond),
+                localHits.bytesPerOperation,
+                Math.round(1_000_000_000 / remoteHits.operationsPerSecond),
+                remoteHits.bytesPerOperation
+            );
+            assertThat(localHits.operationsPerSecond).isGreaterThan(remoteHits.operationsPerSecond);
+            remoteCache.clear();
+            localCache.clear();
+            ((DisposableBean) cacheManager).destroy();
+        } finally {
+            redissonClient.shutdown();
+            redis.destroy();
+        }
+    }
+
+    private static User user() {
+        Authority authority = new Authority();
+        authority.setName("ROLE_USER");
+        User user = new User();
+        user.setId(1L);
+        user.setLogin("benchmark-user");
+        user.setEmail("benchmark-user@localhost");
+        user.setActivated(true);
+        user.setAuthorities(Set.of(authority));
+        return user;
+    }
+}
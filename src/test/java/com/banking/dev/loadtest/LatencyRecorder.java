@@ -0,0 +1,64 @@
+package com.banking.dev.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects latencies for one operation type and reports exact percentiles.
+ * <p>
+ * Latencies are measured from the scheduled arrival time, not from when the request was actually sent, so a stalled
+ * server shows up in the tail instead of silently lowering the offered load (coordinated omission).
+ */
+final class LatencyRecorder {
+
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private long rejected;
+    private long errors;
+
+    synchronized void recordSuccess(long latencyNanos) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+    }
+
+    /** A 4xx answer: the server stayed healthy and refused the operation, e.g. for insufficient funds. */
+    synchronized void recordRejected() {
+        rejected++;
+    }
+
+    /** A 5xx answer or an I/O failure. */
+    synchronized void recordError() {
+        errors++;
+    }
+
+    synchronized long successes() {
+        return count;
+    }
+
+    synchronized long rejected() {
+        return rejected;
+    }
+
+    synchronized long errors() {
+        return errors;
+    }
+
+    synchronized long total() {
+        return count + rejected + errors;
+    }
+
+    /**
+     * @param percentile between 0 and 100.
+     * @return the latency in milliseconds, or 0 without successful samples.
+     */
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+}
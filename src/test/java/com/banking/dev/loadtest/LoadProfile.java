@@ -0,0 +1,94 @@
+package com.banking.dev.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties.
+ * <ul>
+ * <li>{@code loadtest.rate}: arrivals per second (default 200)</li>
+ * <li>{@code loadtest.duration}: measured run, in seconds (default 30)</li>
+ * <li>{@code loadtest.warmup}: unmeasured run before it, in seconds (default 5)</li>
+ * <li>{@code loadtest.accounts}: accounts to spread the load over (default 50)</li>
+ * <li>{@code loadtest.mix}: operation weights (default {@code deposit:25,withdrawal:20,transfer:35,read:20})</li>
+ * <li>{@code loadtest.seed}: seed for arrivals, operations and amounts (default 42)</li>
+ * <li>{@code loadtest.max-error-rate}: highest tolerated share of 5xx/IO errors (default 0.01)</li>
+ * </ul>
+ */
+final class LoadProfile {
+
+    enum Operation {
+        DEPOSIT,
+        WITHDRAWAL,
+        TRANSFER,
+        READ,
+    }
+
+    final double ratePerSecond;
+    final Duration duration;
+    final Duration warmup;
+    final int accounts;
+    final Map<Operation, Integer> mix;
+    final long seed;
+    final double maxErrorRate;
+
+    private LoadProfile(
+        double ratePerSecond,
+        Duration duration,
+        Duration warmup,
+        int accounts,
+        Map<Operation, Integer> mix,
+        long seed,
+        double maxErrorRate
+    ) {
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.accounts = accounts;
+        this.mix = mix;
+        this.seed = seed;
+        this.maxErrorRate = maxErrorRate;
+    }
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+            Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+            Duration.ofSeconds(Long.getLong("loadtest.duration", 30)),
+            Duration.ofSeconds(Long.getLong("loadtest.warmup", 5)),
+            Integer.getInteger("loadtest.accounts", 50),
+            parseMix(System.getProperty("loadtest.mix", "deposit:25,withdrawal:20,transfer:35,read:20")),
+            Long.getLong("loadtest.seed", 42),
+            Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"))
+        );
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.strip().split(":");
+            weights.put(Operation.valueOf(parts[0].strip().toUpperCase()), Integer.parseInt(parts[1].strip()));
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "LoadProfile{" +
+            "ratePerSecond=" +
+            ratePerSecond +
+            ", duration=" +
+            duration +
+            ", warmup=" +
+            warmup +
+            ", accounts=" +
+            accounts +
+            ", mix=" +
+            mix +
+            ", seed=" +
+            seed +
+            '}'
+        );
+    }
+}
@@ -0,0 +1,185 @@
+package com.banking.dev.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.config.JacksonConfiguration;
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Bank;
+import com.banking.dev.domain.Transaction;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Compares JSON, Smile and CBOR for the payloads of {@code GET /api/bank-accounts} and {@code GET /api/transactions}.
+ * <p>
+ * The three mappers are built like the HTTP message converters, from one builder carrying the
+ * {@link JacksonConfiguration} modules. For each format and payload the benchmark reports the body size, raw and
+ * gzipped, and the serialization and deserialization throughput in operations and megabytes of body per second, after
+ * a warm-up. Transactions reference their accounts by id only, as lazy associations are written by the Hibernate
+ * module.
+ * <p>
+ * Opt-in, no Docker needed:
+ * <pre>
+ * ./mvnw verify -Dloadtest=true -Dit.test=PayloadFormatBenchmarkIT -Dbenchmark.items=1000 -Dbenchmark.duration=5
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Timeout(value = 30, unit = TimeUnit.MINUTES)
+class PayloadFormatBenchmarkIT {
+
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+
+    private final Logger log = LoggerFactory.getLogger(PayloadFormatBenchmarkIT.class);
+
+    @Test
+    void compareFormats() throws IOException {
+        int items = Integer.getInteger("benchmark.items", 1000);
+        Duration duration = Duration.ofSeconds(Long.getLong("benchmark.duration", 5));
+
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        List<Format> formats = List.of(
+            new Format("json", mapper(jacksonConfiguration, new JsonFactory())),
+            new Format("smile", mapper(jacksonConfiguration, new SmileFactory())),
+            new Format("cbor", mapper(jacksonConfiguration, new CBORFactory()))
+        );
+        List<Account> accounts = accounts(items);
+        List<Transaction> transactions = transactions(items, accounts);
+
+        for (Format format : formats) {
+            run(format, "accounts", accounts, format.mapper.getTypeFactory().constructCollectionType(List.class, Account.class), duration);
+            run(
+                format,
+                "transactions",
+                transactions,
+                format.mapper.getTypeFactory().constructCollectionType(List.class, Transaction.class),
+                duration
+            );
+        }
+    }
+
+    private void run(Format format, String payloadName, List<?> payload, JavaType type, Duration duration) throws IOException {
+        ObjectMapper mapper = format.mapper;
+        byte[] body = mapper.writeValueAsBytes(payload);
+        assertThat((List<?>) mapper.readValue(body, type)).hasSameSizeAs(payload);
+
+        Throughput.measure(() -> mapper.writeValueAsBytes(payload), WARMUP);
+        Throughput.measure(() -> mapper.readValue(body, type), WARMUP);
+        double writesPerSecond = Throughput.measure(() -> mapper.writeValueAsBytes(payload), duration).operationsPerSecond;
+        double readsPerSecond = Throughput.measure(() -> mapper.readValue(body, type), duration).operationsPerSecond;
+
+        log.info(
+            "{} {} ({} items): {} bytes, {} gzipped; write {} ops/s {} MB/s; read {} ops/s {} MB/s",
+            format.name,
+            payloadName,
+            payload.size(),
+            body.length,
+            gzippedSize(body),
+            String.format("%.0f", writesPerSecond),
+            String.format("%.1f", writesPerSecond * body.length / 1_000_000),
+            String.format("%.0f", readsPerSecond),
+            String.format("%.1f", readsPerSecond * body.length / 1_000_000)
+        );
+    }
+
+    private static ObjectMapper mapper(JacksonConfiguration jacksonConfiguration, JsonFactory factory) {
+        return new Jackson2ObjectMapperBuilder()
+            .modulesToInstall(
+                jacksonConfiguration.javaTimeModule(),
+                jacksonConfiguration.jdk8TimeModule(),
+                jacksonConfiguration.hibernate6Module(),
+                jacksonConfiguration.blackbirdModule()
+            )
+            .factory(factory)
+            .build();
+    }
+
+    private static List<Account> accounts(int items) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Bank> banks = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            Bank bank = new Bank();
+            bank.setBankId(i);
+            bank.setBankName("Bank " + i);
+            bank.setTotalTransactionFeeAmount(BigDecimal.valueOf(random.nextLong(10_000_000), 2));
+            bank.setTotalTransferAmount(BigDecimal.valueOf(random.nextLong(1_000_000_000), 2));
+            bank.setTransactionFlatFeeAmount(BigDecimal.valueOf(random.nextInt(2_000), 2));
+            bank.setTransactionPercentFeeValue(BigDecimal.valueOf(random.nextInt(1_000), 2));
+            banks.add(bank);
+        }
+        List<Account> accounts = new ArrayList<>(items);
+        for (long i = 1; i <= items; i++) {
+            Account account = new Account();
+            account.setAccountId(i);
+            account.setUserName("user_" + i);
+            account.setBalance(BigDecimal.valueOf(random.nextLong(100_000_000), 2));
+            account.setBank(banks.get(random.nextInt(banks.size())));
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    private static List<Transaction> transactions(int items, List<Account> accounts) {
+        SplittableRandom random = new SplittableRandom(43);
+        Instant now = Instant.now();
+        List<Transaction> transactions = new ArrayList<>(items);
+        for (long i = 1; i <= items; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(i);
+            transaction.setAmount(BigDecimal.valueOf(-random.nextLong(1_000_000), 2));
+            transaction.setOriginatingAccount(reference(accounts.get(random.nextInt(accounts.size()))));
+            if (random.nextBoolean()) {
+                transaction.setResultingAccount(reference(accounts.get(random.nextInt(accounts.size()))));
+                transaction.setTransactionReason("Transfer");
+            } else {
+                transaction.setTransactionReason("Withdrawal");
+            }
+            transaction.setCreatedDate(now.minusMillis(random.nextLong(30L * 24 * 3600 * 1000)));
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    private static Account reference(Account account) {
+        Account reference = new Account();
+        reference.setAccountId(account.getAccountId());
+        return reference;
+    }
+
+    private static int gzippedSize(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.size();
+    }
+
+    private static final class Format {
+
+        final String name;
+        final ObjectMapper mapper;
+
+        Format(String name, ObjectMapper mapper) {
+            this.name = name;
+            this.mapper = mapper;
+        }
+    }
+}
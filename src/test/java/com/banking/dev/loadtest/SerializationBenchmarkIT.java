@@ -0,0 +1,139 @@
+package com.banking.dev.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.config.JacksonConfiguration;
+import com.banking.dev.domain.Account;
+import com.banking.dev.domain.Bank;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.web.rest.vm.TransferRequest;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Tracks the JSON serialization cost of the hot request and response bodies.
+ * <p>
+ * Each case runs on a mapper with the stock {@link JacksonConfiguration} modules and on one with Blackbird added,
+ * and both with a reader or writer derived per call, as the message converters did, and with a precompiled one, as
+ * they do now. The benchmark reports operations per second and bytes allocated per operation; the allocation figure
+ * is the steadier of the two for spotting regressions between runs.
+ * <p>
+ * Opt-in, no Docker needed:
+ * <pre>
+ * ./mvnw verify -Dloadtest=true -Dit.test=SerializationBenchmarkIT -Dbenchmark.duration=5
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Timeout(value = 30, unit = TimeUnit.MINUTES)
+class SerializationBenchmarkIT {
+
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+
+    private static final int LIST_SIZE = 100;
+
+    private final Logger log = LoggerFactory.getLogger(SerializationBenchmarkIT.class);
+
+    @Test
+    void compareSerializationPaths() throws IOException {
+        Duration duration = Duration.ofSeconds(Long.getLong("benchmark.duration", 5));
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        List<Module> stockModules = List.of(
+            jacksonConfiguration.javaTimeModule(),
+            jacksonConfiguration.jdk8TimeModule(),
+            jacksonConfiguration.hibernate6Module()
+        );
+        List<Module> blackbirdModules = new ArrayList<>(stockModules);
+        blackbirdModules.add(jacksonConfiguration.blackbirdModule());
+
+        Transaction transaction = transaction(1, account(1));
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 1; i <= LIST_SIZE; i++) {
+            transactions.add(transaction(i, account(i)));
+        }
+
+        for (List<Module> modules : List.of(stockModules, blackbirdModules)) {
+            String mapperName = modules == stockModules ? "stock" : "blackbird";
+            ObjectMapper mapper = new Jackson2ObjectMapperBuilder().modulesToInstall(modules.toArray(new Module[0])).build();
+            JavaType requestType = mapper.constructType(TransferRequest.class);
+            JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, Transaction.class);
+            byte[] requestBody = mapper.writeValueAsBytes(transferRequest());
+            assertThat(mapper.<TransferRequest>readValue(requestBody, requestType).getAmount()).isEqualByComparingTo("125.50");
+
+            ObjectReader requestReader = mapper.readerFor(requestType);
+            ObjectWriter listWriter = mapper.writerFor(listType);
+
+            run(mapperName, "read TransferRequest, per call", () -> mapper.reader().forType(requestType).readValue(requestBody), duration);
+            run(mapperName, "read TransferRequest, precompiled", () -> requestReader.readValue(requestBody), duration);
+            run(mapperName, "write Transaction", () -> mapper.writer().writeValueAsBytes(transaction), duration);
+            run(
+                mapperName,
+                "write " + LIST_SIZE + " Transactions, per call",
+                () -> mapper.writer().forType(listType).writeValueAsBytes(transactions),
+                duration
+            );
+            run(mapperName, "write " + LIST_SIZE + " Transactions, precompiled", () -> listWriter.writeValueAsBytes(transactions), duration);
+        }
+    }
+
+    private void run(String mapperName, String caseName, Throughput.Operation operation, Duration duration) throws IOException {
+        Throughput.measure(operation, WARMUP);
+        Throughput result = Throughput.measure(operation, duration);
+        log.info(
+            "{} mapper, {}: {} ops/s, {} bytes allocated/op",
+            mapperName,
+            caseName,
+            String.format("%.0f", result.operationsPerSecond),
+            result.bytesPerOperation
+        );
+    }
+
+    private static TransferRequest transferRequest() {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountId(1L);
+        request.setDestinationAccountId(2L);
+        request.setAmount(new BigDecimal("125.50"));
+        return request;
+    }
+
+    private static Account account(long id) {
+        Bank bank = new Bank();
+        bank.setBankId(1L);
+        bank.setBankName("Bank 1");
+        bank.setTotalTransactionFeeAmount(new BigDecimal("1250.00"));
+        bank.setTotalTransferAmount(new BigDecimal("980000.00"));
+        bank.setTransactionFlatFeeAmount(new BigDecimal("1.50"));
+        bank.setTransactionPercentFeeValue(new BigDecimal("0.25"));
+        Account account = new Account();
+        account.setAccountId(id);
+        account.setUserName("user_" + id);
+        account.setBalance(new BigDecimal("2000.00"));
+        account.setBank(bank);
+        return account;
+    }
+
+    private static Transaction transaction(long id, Account account) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setAmount(new BigDecimal("-125.50"));
+        transaction.setOriginatingAccount(account);
+        transaction.setTransactionReason("Withdrawal");
+        transaction.setCreatedDate(Instant.parse("2026-10-19T08:30:00Z").plusSeconds(id));
+        return transaction;
+    }
+}
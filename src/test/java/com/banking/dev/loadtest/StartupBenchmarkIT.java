@@ -0,0 +1,210 @@
+package com.banking.dev.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.BankApp;
+import com.banking.dev.config.PostgreSqlTestContainer;
+import com.banking.dev.config.RedisTestContainer;
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ClassUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+
+/**
+ * Records the time-to-ready of {@code BankApp}: from launching a fresh JVM to the first successful
+ * {@code GET /management/health/readiness}.
+ * <p>
+ * Variants: the plain start, with an application class-data-sharing archive recorded by a training run of the same
+ * class path, and, when the classes were built with the {@code aot-cds} Maven profile, with Spring AOT and with both.
+ * Each variant is started {@code benchmark.runs} times after a first, discarded start that applies the Liquibase
+ * changelog; the benchmark reports the minimum, median and maximum.
+ * <p>
+ * Opt-in, as it needs Docker and takes a while:
+ * <pre>
+ * ./mvnw -Pprod,aot-cds verify -Djib.skip -Dexec.skip -Dloadtest=true -Dit.test=StartupBenchmarkIT -Dbenchmark.runs=5
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Timeout(value = 30, unit = TimeUnit.MINUTES)
+class StartupBenchmarkIT {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(3);
+
+    private static final String AOT_INITIALIZER = BankApp.class.getName() + "__ApplicationContextInitializer";
+
+    private final Logger log = LoggerFactory.getLogger(StartupBenchmarkIT.class);
+
+    private final Path workDirectory = Paths.get("target", "startup-benchmark");
+
+    @Test
+    void timeToReady() throws Exception {
+        int runs = Integer.getInteger("benchmark.runs", 5);
+        String profiles = System.getProperty("benchmark.profiles", "prod");
+        Files.createDirectories(workDirectory);
+
+        PostgreSqlTestContainer postgres = new PostgreSqlTestContainer();
+        RedisTestContainer redis = new RedisTestContainer();
+        postgres.afterPropertiesSet();
+        redis.afterPropertiesSet();
+        try {
+            List<String> arguments = applicationArguments(profiles, postgres.getTestContainer(), redis.getRedisContainer());
+            boolean aot = ClassUtils.isPresent(AOT_INITIALIZER, getClass().getClassLoader());
+            if (!aot) {
+                log.info("{} not found, build with the aot-cds profile to include the AOT variants", AOT_INITIALIZER);
+            }
+
+            Path archive = workDirectory.resolve("app.jsa");
+            Path aotArchive = workDirectory.resolve("app-aot.jsa");
+            List<Variant> variants = new ArrayList<>();
+            variants.add(new Variant("plain", List.of()));
+            variants.add(new Variant("cds", List.of("-XX:SharedArchiveFile=" + archive)));
+            if (aot) {
+                variants.add(new Variant("aot", List.of("-Dspring.aot.enabled=true")));
+                variants.add(new Variant("aot+cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + aotArchive)));
+            }
+
+            timeToReady(List.of(), arguments);
+            train(archive, List.of(), arguments);
+            if (aot) {
+                train(aotArchive, List.of("-Dspring.aot.enabled=true"), arguments);
+            }
+
+            List<String> report = new ArrayList<>();
+            for (Variant variant : variants) {
+                long[] millis = new long[runs];
+                for (int i = 0; i < runs; i++) {
+                    millis[i] = timeToReady(variant.jvmOptions, arguments);
+                }
+                Arrays.sort(millis);
+                report.add(
+                    String.format("%-8s min %6d ms, median %6d ms, max %6d ms", variant.name, millis[0], millis[runs / 2], millis[runs - 1])
+                );
+            }
+            log.info("Time to ready over {} runs:\n{}", runs, String.join("\n", report));
+        } finally {
+            redis.destroy();
+            postgres.destroy();
+        }
+    }
+
+    /**
+     * Starts the application until its context is refreshed and dumps the loaded classes to {@code archive}.
+     */
+    private void train(Path archive, List<String> jvmOptions, List<String> arguments) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive);
+        List<String> options = new ArrayList<>(jvmOptions);
+        options.add("-XX:ArchiveClassesAtExit=" + archive);
+        options.add("-Dspring.context.exit=onRefresh");
+        Process process = start(options, arguments, "training-" + archive.getFileName() + ".log");
+        assertThat(process.waitFor(READY_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).as("training run of " + archive).isTrue();
+        assertThat(archive).isNotEmptyFile();
+    }
+
+    /**
+     * @return the milliseconds from launching the JVM to the first ready answer.
+     */
+    private long timeToReady(List<String> jvmOptions, List<String> arguments) throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> withPort = new ArrayList<>(arguments);
+        withPort.add("--server.port=" + port);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/management/health/readiness"))
+            .timeout(Duration.ofSeconds(5))
+            .build();
+
+        long start = System.nanoTime();
+        Process process = start(jvmOptions, withPort, "run.log");
+        try {
+            long deadline = start + READY_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                assertThat(process.isAlive()).as("application process, see " + workDirectory.resolve("run.log")).isTrue();
+                try {
+                    if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("Not ready within " + READY_TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private Process start(List<String> jvmOptions, List<String> arguments, String logFile) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(applicationClassPath());
+        command.add(BankApp.class.getName());
+        command.addAll(arguments);
+        return new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(workDirectory.resolve(logFile).toFile())
+            .start();
+    }
+
+    /**
+     * The class path of this JVM without the test classes, whose configuration files would shadow the application's.
+     */
+    private static String applicationClassPath() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+            .filter(entry -> !entry.endsWith("test-classes"))
+            .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static List<String> applicationArguments(String profiles, JdbcDatabaseContainer<?> postgres, GenericContainer<?> redis) {
+        return List.of(
+            "--spring.profiles.active=" + profiles,
+            "--spring.datasource.url=" + postgres.getJdbcUrl(),
+            "--spring.datasource.username=" + postgres.getUsername(),
+            "--spring.datasource.password=" + postgres.getPassword(),
+            "--spring.liquibase.url=" + postgres.getJdbcUrl(),
+            "--spring.liquibase.user=" + postgres.getUsername(),
+            "--spring.liquibase.password=" + postgres.getPassword(),
+            "--jhipster.cache.redis.server=redis://" + redis.getHost() + ":" + redis.getMappedPort(6379),
+            "--jhipster.cache.redis.cluster=false"
+        );
+    }
+
+    private static final class Variant {
+
+        final String name;
+        final List<String> jvmOptions;
+
+        Variant(String name, List<String> jvmOptions) {
+            this.name = name;
+            this.jvmOptions = jvmOptions;
+        }
+    }
+}
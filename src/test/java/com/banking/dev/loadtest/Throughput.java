@@ -0,0 +1,49 @@
+package com.banking.dev.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Runs one operation in a tight loop on the calling thread and reports its throughput and allocation rate.
+ */
+final class Throughput {
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    final double operationsPerSecond;
+
+    /** Bytes allocated by the calling thread per operation, -1 when the JVM cannot tell. */
+    final long bytesPerOperation;
+
+    private Throughput(double operationsPerSecond, long bytesPerOperation) {
+        this.operationsPerSecond = operationsPerSecond;
+        this.bytesPerOperation = bytesPerOperation;
+    }
+
+    static Throughput measure(Operation operation, Duration duration) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        boolean allocation = THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+        long allocatedBefore = allocation ? THREADS.getThreadAllocatedBytes(threadId) : 0;
+        long operations = 0;
+        long blackhole = 0;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long now;
+        do {
+            blackhole += operation.run().hashCode();
+            operations++;
+            now = System.nanoTime();
+        } while (now < end);
+        long allocated = allocation ? THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore : -1;
+        if (blackhole == 42) {
+            System.out.print("");
+        }
+        return new Throughput(operations * 1_000_000_000.0 / (now - start), allocation ? allocated / operations : -1);
+    }
+
+    @FunctionalInterface
+    interface Operation {
+        Object run() throws IOException;
+    }
+}
@@ -0,0 +1,323 @@
+package com.banking.dev.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.BankApp;
+import com.banking.dev.config.AsyncSyncConfiguration;
+import com.banking.dev.config.EmbeddedRedis;
+import com.banking.dev.config.EmbeddedSQL;
+import com.banking.dev.config.JacksonConfiguration;
+import com.banking.dev.loadtest.LoadProfile.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Open-model load test for the transaction API.
+ * <p>
+ * Requests arrive following a Poisson process at a fixed rate, independently of how fast the server answers, and each
+ * latency is measured from the scheduled arrival. After the run the money is reconciled: the sum of all balances must
+ * have moved by exactly the amount implied by the fee rules of every accepted operation, and one transaction row must
+ * exist per accepted operation. This holds because each movement locks its accounts before reading their balances
+ * ({@link com.banking.dev.repository.AccountRepository#findAllByIdForUpdate}); without the locks, concurrent movements
+ * on the same account would overwrite each other's balance and the check would fail.
+ * <p>
+ * Opt-in, as it needs Docker and takes a while:
+ * <pre>
+ * ./mvnw verify -Dloadtest=true -Dit.test=TransactionLoadIT -Dloadtest.rate=500 -Dloadtest.duration=60
+ * </pre>
+ * See {@link LoadProfile} for the other settings.
+ */
+@SpringBootTest(
+    classes = { BankApp.class, JacksonConfiguration.class, AsyncSyncConfiguration.class },
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "spring.datasource.hikari.maximum-pool-size=10"
+)
+@EmbeddedRedis
+@EmbeddedSQL
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class TransactionLoadIT {
+
+    private static final long INITIAL_BALANCE_CENTS = 1_000_000_00L;
+    private static final int MIN_AMOUNT = 20;
+    private static final int MAX_AMOUNT = 200;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Logger log = LoggerFactory.getLogger(TransactionLoadIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Balance change implied by every accepted money movement, warm-up included, in cents. */
+    private final AtomicLong expectedDeltaCents = new AtomicLong();
+
+    /** Accepted money movements, warm-up included. */
+    private final AtomicLong acceptedMovements = new AtomicLong();
+
+    @Test
+    void transactionApiUnderLoad() throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        log.info("Starting load test with {}", profile);
+
+        long[] accountIds = createAccounts(profile.accounts);
+        long initialCents = totalBalanceCents();
+        long initialTransactions = transactionCount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder().executor(executor).connectTimeout(REQUEST_TIMEOUT).build();
+        try {
+            String token = authenticate(client);
+            SplittableRandom random = new SplittableRandom(profile.seed);
+
+            run(client, token, profile, accountIds, random, profile.warmup, newRecorders());
+            Map<Operation, LatencyRecorder> recorders = newRecorders();
+            long measuredNanos = run(client, token, profile, accountIds, random, profile.duration, recorders);
+
+            report(profile, recorders, measuredNanos);
+
+            long errors = recorders.values().stream().mapToLong(LatencyRecorder::errors).sum();
+            long total = recorders.values().stream().mapToLong(LatencyRecorder::total).sum();
+            assertThat(total).as("requests sent").isPositive();
+            assertThat((double) errors / total).as("error rate").isLessThanOrEqualTo(profile.maxErrorRate);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(totalBalanceCents()).as("sum of balances").isEqualTo(initialCents + expectedDeltaCents.get());
+        assertThat(transactionCount()).as("transaction rows").isEqualTo(initialTransactions + acceptedMovements.get());
+    }
+
+    /**
+     * Drives the open model for the given duration and waits for the outstanding responses.
+     *
+     * @return the elapsed time in nanoseconds, outstanding responses included.
+     */
+    private long run(
+        HttpClient client,
+        String token,
+        LoadProfile profile,
+        long[] accountIds,
+        SplittableRandom random,
+        Duration duration,
+        Map<Operation, LatencyRecorder> recorders
+    ) {
+        Operation[] operations = profile.mix.keySet().toArray(new Operation[0]);
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += profile.mix.get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long nextArrival = start;
+        while (true) {
+            // Exponential inter-arrival times give a Poisson arrival process
+            nextArrival += (long) (-Math.log(1.0 - random.nextDouble()) / profile.ratePerSecond * 1_000_000_000L);
+            if (nextArrival >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = nextArrival - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= pick) {
+                index++;
+            }
+            pending.add(send(client, token, operations[index], accountIds, random, nextArrival, recorders.get(operations[index])));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).orTimeout(1, TimeUnit.MINUTES).join();
+        return System.nanoTime() - start;
+    }
+
+    private CompletableFuture<Void> send(
+        HttpClient client,
+        String token,
+        Operation operation,
+        long[] accountIds,
+        SplittableRandom random,
+        long scheduledAt,
+        LatencyRecorder recorder
+    ) {
+        long account = accountIds[random.nextInt(accountIds.length)];
+        long amount = random.nextInt(MIN_AMOUNT, MAX_AMOUNT + 1);
+        HttpRequest request;
+        long deltaCents;
+        switch (operation) {
+            case DEPOSIT -> {
+                request = post(token, "/api/transactions/deposit", "{\"accountId\":" + account + ",\"amount\":" + amount + "}");
+                deltaCents = (amount - 10) * 105;
+            }
+            case WITHDRAWAL -> {
+                request = post(token, "/api/transactions/withdrawal", "{\"accountId\":" + account + ",\"amount\":" + amount + "}");
+                deltaCents = -(amount + 10) * 105;
+            }
+            case TRANSFER -> {
+                long destination = accountIds[random.nextInt(accountIds.length)];
+                if (destination == account) {
+                    destination = accountIds[(int) ((destination - accountIds[0] + 1) % accountIds.length)];
+                }
+                request = post(
+                    token,
+                    "/api/transactions/transfer",
+                    "{\"sourceAccountId\":" + account + ",\"destinationAccountId\":" + destination + ",\"amount\":" + amount + "}"
+                );
+                // The source pays amount plus fees, the destination only receives the amount
+                deltaCents = amount * 100 - (amount + 10) * 105;
+            }
+            default -> {
+                request = authorized(token, "/api/bank/accounts/" + account).GET().build();
+                deltaCents = 0;
+            }
+        }
+
+        return client
+            .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .handle((response, failure) -> {
+                if (failure != null || response.statusCode() >= 500) {
+                    recorder.recordError();
+                } else if (response.statusCode() >= 400) {
+                    recorder.recordRejected();
+                } else {
+                    recorder.recordSuccess(System.nanoTime() - scheduledAt);
+                    if (operation != Operation.READ) {
+                        expectedDeltaCents.addAndGet(deltaCents);
+                        acceptedMovements.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+    }
+
+    private void report(LoadProfile profile, Map<Operation, LatencyRecorder> recorders, long elapsedNanos) {
+        StringBuilder report = new StringBuilder("\nLoad test report (target ")
+            .append(profile.ratePerSecond)
+            .append(" req/s for ")
+            .append(profile.duration.toSeconds())
+            .append(" s)\n")
+            .append(
+                String.format(
+                    "%-11s %9s %9s %9s %9s %9s %9s %9s%n",
+                    "operation",
+                    "ok",
+                    "rejected",
+                    "errors",
+                    "req/s",
+                    "p50 ms",
+                    "p99 ms",
+                    "p999 ms"
+                )
+            );
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        recorders.forEach((operation, recorder) ->
+            report.append(
+                String.format(
+                    "%-11s %9d %9d %9d %9.1f %9.2f %9.2f %9.2f%n",
+                    operation.name().toLowerCase(),
+                    recorder.successes(),
+                    recorder.rejected(),
+                    recorder.errors(),
+                    recorder.total() / seconds,
+                    recorder.percentileMillis(50),
+                    recorder.percentileMillis(99),
+                    recorder.percentileMillis(99.9)
+                )
+            )
+        );
+        log.info(report.toString());
+    }
+
+    private Map<Operation, LatencyRecorder> newRecorders() {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        return recorders;
+    }
+
+    private long[] createAccounts(int count) {
+        Long bankId = jdbcTemplate.queryForObject(
+            "INSERT INTO bank (bank_name, total_transaction_fee_amount, total_transfer_amount, " +
+            "transaction_flat_fee_amount, transaction_percent_fee_value) VALUES ('Load Test Bank', 0, 0, 10, 5) RETURNING bank_id",
+            Long.class
+        );
+        long[] accountIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            accountIds[i] = jdbcTemplate.queryForObject(
+                "INSERT INTO account (user_name, balance, bank_id) VALUES (?, ?, ?) RETURNING account_id",
+                Long.class,
+                "load_" + i,
+                BigDecimal.valueOf(INITIAL_BALANCE_CENTS, 2),
+                bankId
+            );
+        }
+        return accountIds;
+    }
+
+    private long totalBalanceCents() {
+        return jdbcTemplate.queryForObject("SELECT coalesce(sum(balance * 100), 0)::bigint FROM account", Long.class);
+    }
+
+    private long transactionCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM transaction", Long.class);
+    }
+
+    private String authenticate(HttpClient client) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/authenticate"))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin\",\"rememberMe\":false}"))
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("authentication").isEqualTo(200);
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("id_token").asText();
+    }
+
+    private HttpRequest post(String token, String path, String json) {
+        return authorized(token, path).header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private HttpRequest.Builder authorized(String token, String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT).header("Authorization", "Bearer " + token);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
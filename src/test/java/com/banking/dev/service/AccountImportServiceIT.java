@@ -0,0 +1,122 @@
+package com.banking.dev.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.IntegrationTest;
+import com.banking.dev.service.dto.AccountImportReportDTO;
+import com.banking.dev.service.dto.AccountImportReportDTO.RowError;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link AccountImportService}: the {@code COPY} into the staging table and the merge into
+ * {@code account}, on PostgreSQL.
+ */
+@IntegrationTest
+@Transactional
+class AccountImportServiceIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AccountImportServiceIT.class);
+
+    private static final int MILLION = 1_000_000;
+
+    private static final long MILLION_TARGET_MILLIS = 60_000;
+
+    private static final long MISSING_BANK_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private AccountImportService accountImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long bankId;
+
+    @BeforeEach
+    void init() {
+        bankId = jdbcTemplate.queryForObject(
+            "INSERT INTO bank (bank_name, transaction_flat_fee_amount, transaction_percent_fee_value) " +
+            "VALUES ('import-it', 10.00, 5.00) RETURNING bank_id",
+            Long.class
+        );
+    }
+
+    @Test
+    void assertThatValidRowsAreMergedAndTheOthersReported() {
+        String csv = """
+            user_name,balance,bank_id
+            alice,100.50,%1$d
+            bob,not-a-number,%1$d
+            "Doe, ""JJ""\",0,%1$d
+            carol,10,%2$d
+            """.formatted(bankId, MISSING_BANK_ID);
+
+        AccountImportReportDTO report = accountImportService.importAccounts(stream(csv));
+
+        assertThat(report.getTotalRows()).isEqualTo(4);
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getRejectedRows()).isEqualTo(2);
+        assertThat(report.isErrorsTruncated()).isFalse();
+        assertThat(report.getErrors()).extracting(RowError::getLineNumber).containsExactlyInAnyOrder(3L, 5L);
+        assertThat(report.getErrors()).extracting(RowError::getMessage).anyMatch(message -> message.contains("does not exist"));
+        assertThat(
+            jdbcTemplate.queryForList("SELECT user_name, balance FROM account WHERE bank_id = ? ORDER BY account_id", bankId)
+        ).containsExactly(
+            Map.of("user_name", "alice", "balance", new BigDecimal("100.50")),
+            Map.of("user_name", "Doe, \"JJ\"", "balance", new BigDecimal("0.00"))
+        );
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM account WHERE user_name = 'carol'", Long.class)).isZero();
+    }
+
+    @Test
+    void assertThatAMillionAccountsAreImportedWithinTheTarget() {
+        AccountImportReportDTO report = accountImportService.importAccounts(generated(MILLION));
+
+        LOG.info("Imported {} accounts in {} ms", report.getImportedRows(), report.getElapsedMillis());
+        assertThat(report.getImportedRows()).isEqualTo(MILLION);
+        assertThat(report.getRejectedRows()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM account WHERE bank_id = ?", Long.class, bankId)).isEqualTo(MILLION);
+        assertThat(report.getElapsedMillis()).isLessThan(MILLION_TARGET_MILLIS);
+    }
+
+    private static InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The rows are generated as they are read, in chunks of a thousand, rather than held in memory.
+     */
+    private InputStream generated(int rows) {
+        return new SequenceInputStream(
+            new Enumeration<>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasMoreElements() {
+                    return next < rows;
+                }
+
+                @Override
+                public InputStream nextElement() {
+                    StringBuilder chunk = new StringBuilder(32 * 1000);
+                    for (int end = Math.min(rows, next + 1000); next < end; next++) {
+                        chunk.append("user-").append(next).append(',').append(next % 10_000).append(".25,").append(bankId).append('\n');
+                    }
+                    return stream(chunk.toString());
+                }
+            }
+        );
+    }
+}
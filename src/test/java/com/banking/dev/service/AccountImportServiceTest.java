@@ -0,0 +1,75 @@
+package com.banking.dev.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.banking.dev.service.dto.AccountImportReportDTO.RowError;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AccountImportServiceTest {
+
+    @Test
+    void testParseRow_Valid() {
+        Object row = AccountImportService.parseRow(2, "alice,100.50,7");
+
+        assertEquals("2,\"alice\",100.50,7\n", row);
+    }
+
+    @Test
+    void testParseRow_QuotedNameWithCommaAndQuote() {
+        Object row = AccountImportService.parseRow(3, "\"Doe, \"\"JJ\"\"\",0,1");
+
+        assertEquals("3,\"Doe, \"\"JJ\"\"\",0,1\n", row);
+    }
+
+    @Test
+    void testParseRow_InvalidBalance() {
+        assertThat(AccountImportService.parseRow(4, "bob,abc,1")).isInstanceOf(RowError.class);
+        assertThat(AccountImportService.parseRow(5, "bob,-1,1")).isInstanceOf(RowError.class);
+        assertThat(AccountImportService.parseRow(6, "bob,1.001,1")).isInstanceOf(RowError.class);
+        assertThat(AccountImportService.parseRow(7, "bob,100000000,1")).isInstanceOf(RowError.class);
+    }
+
+    @Test
+    void testParseRow_InvalidColumns() {
+        Object row = AccountImportService.parseRow(8, "bob,1");
+
+        assertThat(row).isInstanceOf(RowError.class);
+        assertEquals(8, ((RowError) row).getLineNumber());
+        assertThat(AccountImportService.parseRow(9, ",1,1")).isInstanceOf(RowError.class);
+        assertThat(AccountImportService.parseRow(10, "bob,1,0")).isInstanceOf(RowError.class);
+    }
+
+    @Test
+    void testSplitCsv_UnterminatedQuote() {
+        assertNull(AccountImportService.splitCsv("\"bob,1,1"));
+    }
+
+    @Test
+    void testValidate_KeepsValidRowsInOrderAndReportsErrors() {
+        AccountImportService.Chunk chunk = new AccountImportService.Chunk();
+        chunk.add(1, "a,1,1");
+        chunk.add(2, "b,x,1");
+        chunk.add(3, "c,3,1");
+
+        AccountImportService.ValidatedChunk validated = AccountImportService.validate(chunk);
+
+        List<RowError> errors = validated.getErrors();
+        assertEquals(1, errors.size());
+        assertEquals(2, errors.get(0).getLineNumber());
+    }
+
+    @Test
+    void testValidate_EncodesCopyData() {
+        AccountImportService.Chunk chunk = new AccountImportService.Chunk();
+        chunk.add(1, "a,1,1");
+        chunk.add(3, "c,3,1");
+
+        AccountImportService.ValidatedChunk validated = AccountImportService.validate(chunk);
+
+        assertEquals("1,\"a\",1,1\n3,\"c\",3,1\n", new String(validated.getCopyData(), StandardCharsets.UTF_8));
+    }
+}
@@ -1,7 +1,10 @@
 package com.banking.dev.service;
 
+import com.banking.dev.config.ApplicationProperties;
 import com.banking.dev.domain.Account;
 import com.banking.dev.repository.AccountRepository;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,12 +16,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 class AccountServiceTest {
 
     @Mock
     AccountRepository accountRepository;
 
+    @Mock
+    TableChangeCounter tableChangeCounter;
+
+    @Mock
+    AuditTrail auditTrail;
+
+    @Spy
+    ApplicationProperties applicationProperties = new ApplicationProperties();
+
     @InjectMocks
     private AccountService accountService;
 
@@ -109,4 +124,45 @@ class AccountServiceTest {
         // Assertion
         Mockito.verify(accountRepository).deleteById(accountId);
     }
+
+    @Test
+    void testBalanceIsNotUpdatedWhileTheLedgerIsEnabled() {
+        // Mock data
+        applicationProperties.getLedger().setEnabled(true);
+        Account existingAccount = new Account();
+        existingAccount.setAccountId(1L);
+        existingAccount.setBalance(new BigDecimal("100.00"));
+        Mockito.when(accountRepository.findById(1L)).thenReturn(Optional.of(existingAccount));
+        Account renamed = new Account();
+        renamed.setUserName("Updated User");
+        renamed.setBalance(new BigDecimal("100"));
+        Account credited = new Account();
+        credited.setBalance(new BigDecimal("1000.00"));
+        Mockito.when(accountRepository.save(Mockito.any())).thenReturn(existingAccount);
+
+        // Test
+        accountService.updateAccount(1L, renamed);
+        ResponseStatusException rejected = Assertions.assertThrows(
+            ResponseStatusException.class,
+            () -> accountService.updateAccount(1L, credited)
+        );
+
+        // Assertion
+        Assertions.assertEquals(HttpStatus.CONFLICT, rejected.getStatusCode());
+        Mockito.verify(accountRepository, Mockito.times(1)).save(Mockito.any());
+    }
+
+    @Test
+    void testDeleteIsRejectedWhileTheLedgerIsEnabled() {
+        // Mock data
+        applicationProperties.getLedger().setEnabled(true);
+        Mockito.when(accountRepository.existsById(1L)).thenReturn(true);
+
+        // Test
+        ResponseStatusException rejected = Assertions.assertThrows(ResponseStatusException.class, () -> accountService.delete(1L));
+
+        // Assertion
+        Assertions.assertEquals(HttpStatus.CONFLICT, rejected.getStatusCode());
+        Mockito.verify(accountRepository, Mockito.never()).deleteById(Mockito.any());
+    }
 }
@@ -0,0 +1,79 @@
+package com.banking.dev.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.banking.dev.domain.Authority;
+import com.banking.dev.repository.AuthorityRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class AuthorityRegistryTest {
+
+    @Mock
+    AuthorityRepository authorityRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private AuthorityRegistry authorityRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        authorityRegistry = new AuthorityRegistry(
+            authorityRepository,
+            new ConcurrentMapCacheManager(AuthorityRepository.AUTHORITIES_CACHE),
+            transactionManager
+        );
+    }
+
+    @Test
+    void testResolvesFromTheSnapshot() {
+        // Mock data
+        when(authorityRepository.findAll()).thenReturn(List.of(authority("ROLE_USER"), authority("ROLE_ADMIN")));
+
+        // Test
+        List<String> names = authorityRegistry.names();
+
+        // Assertion
+        assertThat(names).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(authorityRegistry.find("ROLE_USER")).contains(authority("ROLE_USER"));
+        assertThat(authorityRegistry.find("ROLE_UNKNOWN")).isEmpty();
+        verify(authorityRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testChangeReplacesTheSnapshotOnceCommitted() {
+        // Mock data
+        when(authorityRepository.findAll()).thenReturn(List.of(authority("ROLE_USER")));
+        authorityRegistry.names();
+        Authority auditor = authority("ROLE_AUDITOR");
+        when(authorityRepository.save(auditor)).thenReturn(auditor);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Test
+            authorityRegistry.save(auditor);
+            when(authorityRepository.findAll()).thenReturn(List.of(authority("ROLE_USER"), auditor));
+            List<String> beforeCommit = authorityRegistry.names();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assertion
+            assertThat(beforeCommit).containsExactly("ROLE_USER");
+            assertThat(authorityRegistry.names()).containsExactly("ROLE_AUDITOR", "ROLE_USER");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Authority authority(String name) {
+        return new Authority().name(name).setIsPersisted();
+    }
+}
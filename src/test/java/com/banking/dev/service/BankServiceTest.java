@@ -6,6 +6,8 @@ import com.banking.dev.domain.Transaction;
 import com.banking.dev.repository.AccountRepository;
 import com.banking.dev.repository.BankRepository;
 import com.banking.dev.repository.TransactionRepository;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -30,6 +32,12 @@ public class BankServiceTest {
     @Mock
     TransactionRepository transactionRepository;
 
+    @Mock
+    TableChangeCounter tableChangeCounter;
+
+    @Mock
+    AuditTrail auditTrail;
+
     @InjectMocks
     private BankService bankService;
 
@@ -157,5 +165,20 @@ public class BankServiceTest {
 
         // Assertion
         Mockito.verify(bankRepository).deleteById(bankId);
+        Mockito.verify(tableChangeCounter).markChanged(TableChangeCounter.BANK, TableChangeCounter.ACCOUNT);
+    }
+
+    @Test
+    void testFindVersion_DoesNotLoadBank() {
+        // Mock data
+        Mockito.when(bankRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        // Test
+        Optional<Long> result = bankService.findVersion(1L);
+
+        // Assertion
+        Assertions.assertEquals(Optional.of(5L), result);
+        Mockito.verify(bankRepository, Mockito.never()).findById(1L);
+        Mockito.verifyNoInteractions(accountRepository, transactionRepository);
     }
 }
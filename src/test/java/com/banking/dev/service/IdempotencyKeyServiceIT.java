@@ -0,0 +1,61 @@
+package com.banking.dev.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.banking.dev.IntegrationTest;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link IdempotencyKeyService}, called outside any transaction as the ledger does: the keys
+ * must be committed although the connections are not in auto-commit mode.
+ */
+@IntegrationTest
+class IdempotencyKeyServiceIT {
+
+    @Autowired
+    private IdempotencyKeyService idempotencyKeyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void assertThatKeysRecordedOutsideATransactionAreCommitted() {
+        String key = UUID.randomUUID().toString();
+
+        idempotencyKeyService.recordAll(Map.of(key, 42L));
+
+        assertThat(idempotencyKeyService.findAll(List.of(key))).containsEntry(key, 42L);
+        Throwable repeated = catchThrowable(() -> idempotencyKeyService.recordAll(Map.of(key, 43L)));
+        assertThat(repeated).isInstanceOf(MovementPendingException.class);
+        assertThat(((MovementPendingException) repeated).getTransactionId()).isEqualTo(42L);
+    }
+
+    @Test
+    void assertThatReleasedAndExpiredKeysAreDeleted() {
+        String released = UUID.randomUUID().toString();
+        String expired = UUID.randomUUID().toString();
+        idempotencyKeyService.recordAll(Map.of(released, 1L, expired, 2L));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "UPDATE idempotency_key SET created_date = created_date - interval '2 days' WHERE idempotency_key = ?",
+                expired
+            )
+        );
+
+        idempotencyKeyService.release(released, 1L);
+        idempotencyKeyService.purgeExpired();
+
+        assertThat(idempotencyKeyService.findAll(List.of(released, expired))).isEmpty();
+    }
+}
@@ -0,0 +1,105 @@
+package com.banking.dev.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.IntegrationTest;
+import com.banking.dev.config.ApplicationProperties;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for {@link TransactionPartitionService} on PostgreSQL, where the connections are not in
+ * auto-commit mode: what it creates, detaches and drops must be committed.
+ */
+@IntegrationTest
+class TransactionPartitionServiceIT {
+
+    private static final YearMonth OLD = YearMonth.of(2000, 1);
+
+    @Autowired
+    private TransactionPartitionService transactionPartitionService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int monthsAhead;
+
+    private int retentionMonths;
+
+    private boolean dropDetached;
+
+    @BeforeEach
+    void saveProperties() {
+        ApplicationProperties.TransactionPartitions properties = applicationProperties.getTransactionPartitions();
+        monthsAhead = properties.getMonthsAhead();
+        retentionMonths = properties.getRetentionMonths();
+        dropDetached = properties.isDropDetached();
+    }
+
+    @AfterEach
+    void restoreProperties() {
+        ApplicationProperties.TransactionPartitions properties = applicationProperties.getTransactionPartitions();
+        properties.setMonthsAhead(monthsAhead);
+        properties.setRetentionMonths(retentionMonths);
+        properties.setDropDetached(dropDetached);
+        for (YearMonth month = OLD; !month.isAfter(OLD.plusMonths(1)); month = month.plusMonths(1)) {
+            String name = TransactionPartitionService.partitionName(month);
+            if (transactionPartitionService.findPartitions().contains(name)) {
+                transactionPartitionService.detachPartition(name);
+            }
+            if (exists(name)) {
+                transactionPartitionService.dropDetachedPartition(name);
+            }
+        }
+    }
+
+    @Test
+    void assertThatMaintenanceCreatesThePartitionsAhead() {
+        // further ahead than the changelog creates them
+        applicationProperties.getTransactionPartitions().setMonthsAhead(6);
+        applicationProperties.getTransactionPartitions().setRetentionMonths(0);
+
+        transactionPartitionService.maintainPartitions();
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        List<String> partitions = transactionPartitionService.findPartitions();
+        for (int i = 0; i <= 6; i++) {
+            assertThat(partitions).contains(TransactionPartitionService.partitionName(current.plusMonths(i)));
+        }
+    }
+
+    @Test
+    void assertThatExpiredPartitionsAreDetachedConcurrentlyAndDropped() {
+        String detached = TransactionPartitionService.partitionName(OLD);
+        String dropped = TransactionPartitionService.partitionName(OLD.plusMonths(1));
+        transactionPartitionService.createPartitions(OLD, OLD.plusMonths(1));
+        assertThat(transactionPartitionService.findPartitions()).contains(detached, dropped);
+
+        transactionPartitionService.detachPartition(detached);
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        // keeps everything from the month after the dropped one
+        int retention = (int) ChronoUnit.MONTHS.between(OLD.plusMonths(2), current) + 1;
+        applicationProperties.getTransactionPartitions().setRetentionMonths(retention);
+        applicationProperties.getTransactionPartitions().setDropDetached(true);
+        List<String> expired = transactionPartitionService.detachExpiredPartitions(current);
+
+        assertThat(expired).containsExactly(dropped);
+        assertThat(transactionPartitionService.findPartitions()).doesNotContain(detached, dropped);
+        assertThat(exists(detached)).isTrue();
+        assertThat(exists(dropped)).isFalse();
+    }
+
+    private boolean exists(String table) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+    }
+}
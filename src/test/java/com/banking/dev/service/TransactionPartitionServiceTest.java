@@ -0,0 +1,38 @@
+package com.banking.dev.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The partition naming and retention rules; the statements are tested against PostgreSQL by
+ * {@link TransactionPartitionServiceIT}.
+ */
+class TransactionPartitionServiceTest {
+
+    @Test
+    void testPartitionNameRoundTrip() {
+        assertEquals("transaction_p2026_03", TransactionPartitionService.partitionName(YearMonth.of(2026, 3)));
+        assertEquals(YearMonth.of(2026, 3), TransactionPartitionService.partitionMonth("transaction_p2026_03"));
+        assertNull(TransactionPartitionService.partitionMonth("transaction_default"));
+        assertNull(TransactionPartitionService.partitionMonth("transaction_p2026_13"));
+    }
+
+    @Test
+    void testExpiredPartitions_KeepsRetentionWindow() {
+        List<String> partitions = List.of("transaction_p2026_10", "transaction_p2026_08", "transaction_p2026_07", "transaction_p2026_09");
+
+        List<String> expired = TransactionPartitionService.expiredPartitions(partitions, YearMonth.of(2026, 10), 3);
+
+        assertEquals(List.of("transaction_p2026_07"), expired);
+    }
+
+    @Test
+    void testExpiredPartitions_ZeroRetentionKeepsEverything() {
+        assertTrue(TransactionPartitionService.expiredPartitions(List.of("transaction_p2000_01"), YearMonth.of(2026, 10), 0).isEmpty());
+    }
+}
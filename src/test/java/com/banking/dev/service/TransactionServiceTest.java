@@ -2,6 +2,7 @@ package com.banking.dev.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -9,10 +10,17 @@ import com.banking.dev.domain.Account;
 import com.banking.dev.domain.Transaction;
 import com.banking.dev.repository.AccountRepository;
 import com.banking.dev.repository.TransactionRepository;
+import com.banking.dev.service.archive.ArchivedTransaction;
+import com.banking.dev.service.archive.LedgerArchive;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
+import com.banking.dev.service.outbox.OutboxService;
+import com.banking.dev.service.velocity.VelocityService;
 import com.banking.dev.web.rest.vm.DepositRequest;
 import com.banking.dev.web.rest.vm.TransferRequest;
 import com.banking.dev.web.rest.vm.WithdrawalRequest;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +41,24 @@ public class TransactionServiceTest {
     @Mock
     AccountRepository accountRepository;
 
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    LedgerArchive ledgerArchive;
+
+    @Mock
+    TableChangeCounter tableChangeCounter;
+
+    @Mock
+    AuditTrail auditTrail;
+
+    @Mock
+    VelocityService velocityService;
+
+    @Mock
+    IdempotencyKeyService idempotencyKeyService;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -42,6 +68,7 @@ public class TransactionServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(velocityService.tryAcquire(Mockito.any(), Mockito.anyLong(), Mockito.any())).thenReturn(true);
     }
 
     @Test
@@ -59,6 +86,84 @@ public class TransactionServiceTest {
         assertEquals(1L, result.get().getTransactionId());
     }
 
+    @Test
+    void testFindOne_FallsBackToArchive() {
+        // Mock data
+        Account account = new Account();
+        account.setAccountId(3L);
+        ArchivedTransaction archived = new ArchivedTransaction(1L, new BigDecimal("-20.00"), 3L, null, "Withdrawal", Instant.EPOCH);
+        when(transactionRepository.findById(1L)).thenReturn(Optional.empty());
+        when(ledgerArchive.findById(1L)).thenReturn(Optional.of(archived));
+        when(accountRepository.getReferenceById(3L)).thenReturn(account);
+
+        // Test
+        Optional<Transaction> result = transactionService.findOne(1L);
+
+        // Assertion
+        assertEquals(1L, result.orElseThrow().getTransactionId());
+        assertEquals(account, result.orElseThrow().getOriginatingAccount());
+        assertEquals(Instant.EPOCH, result.orElseThrow().getCreatedDate());
+    }
+
+    @Test
+    void testFindAllCreatedBetween_SplitsAtArchiveBoundary() {
+        // Mock data
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant archivedUntil = Instant.parse("2025-06-01T00:00:00Z");
+        Instant to = Instant.parse("2025-09-01T00:00:00Z");
+        ArchivedTransaction archived = new ArchivedTransaction(1L, new BigDecimal("50.00"), 3L, null, "Deposit", from);
+        Transaction recent = new Transaction();
+        when(ledgerArchive.archivedUntil()).thenReturn(archivedUntil);
+        when(ledgerArchive.findAllCreatedBetween(from, archivedUntil)).thenReturn(List.of(archived));
+        when(transactionRepository.findAllCreatedBetween(archivedUntil, to)).thenReturn(List.of(recent));
+
+        // Test
+        List<Transaction> result = transactionService.findAllCreatedBetween(from, to);
+
+        // Assertion
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getTransactionId());
+        assertEquals(recent, result.get(1));
+    }
+
+    @Test
+    void testFindAllCreatedBetween_MonthArchivedDuringTheReadIsNotDuplicated() {
+        // Mock data
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant archivedUntil = Instant.parse("2025-06-01T00:00:00Z");
+        Instant to = Instant.parse("2025-09-01T00:00:00Z");
+        Transaction recent = new Transaction();
+        recent.setTransactionId(2L);
+        ArchivedTransaction archived = new ArchivedTransaction(1L, new BigDecimal("50.00"), 3L, null, "Deposit", from);
+        ArchivedTransaction alsoInTable = new ArchivedTransaction(2L, new BigDecimal("50.00"), 3L, null, "Deposit", archivedUntil);
+        when(ledgerArchive.archivedUntil()).thenReturn(archivedUntil, to);
+        when(transactionRepository.findAllCreatedBetween(archivedUntil, to)).thenReturn(List.of(recent));
+        when(ledgerArchive.findAllCreatedBetween(from, to)).thenReturn(List.of(archived, alsoInTable));
+
+        // Test
+        List<Transaction> result = transactionService.findAllCreatedBetween(from, to);
+
+        // Assertion
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getTransactionId());
+        assertEquals(recent, result.get(1));
+    }
+
+    @Test
+    void testFindAllCreatedBetween_ArchivedRangeSkipsTable() {
+        // Mock data
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant to = Instant.parse("2025-02-01T00:00:00Z");
+        when(ledgerArchive.archivedUntil()).thenReturn(Instant.parse("2025-06-01T00:00:00Z"));
+
+        // Test
+        transactionService.findAllCreatedBetween(from, to);
+
+        // Assertion
+        verify(ledgerArchive).findAllCreatedBetween(from, to);
+        verify(transactionRepository, never()).findAllCreatedBetween(Mockito.any(), Mockito.any());
+    }
+
     @Test
     void testFindAll() {
         // Mock data
@@ -131,10 +236,74 @@ public class TransactionServiceTest {
 
         Account account = new Account();
         account.setBalance(BigDecimal.valueOf(500.00)); // Account balance less than withdrawal amount
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account));
+
+        // Test and assertion
+        Assertions.assertThrows(ResponseStatusException.class, () -> transactionService.processWithdrawal(withdrawalRequest, null));
+        verify(outboxService, never()).recordTransaction(Mockito.any());
+    }
+
+    @Test
+    void testProcessWithdrawal_FeesNotCovered() {
+        // Mock data
+        WithdrawalRequest withdrawalRequest = new WithdrawalRequest();
+        withdrawalRequest.setAccountId(1L);
+        withdrawalRequest.setAmount(BigDecimal.valueOf(95.00));
+
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setBalance(BigDecimal.valueOf(100.00)); // Covers the amount but not (95 + 10) * 1.05
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account));
+
+        // Test
+        ResponseStatusException thrown = Assertions.assertThrows(
+            ResponseStatusException.class,
+            () -> transactionService.processWithdrawal(withdrawalRequest, null)
+        );
+
+        // Assertion
+        assertEquals("Insufficient funds", thrown.getReason());
+        assertEquals(BigDecimal.valueOf(100.00), account.getBalance());
+        verify(transactionRepository, never()).save(Mockito.any());
+    }
+
+    @Test
+    void testProcessWithdrawal_RecordsOutboxEvent() {
+        // Mock data
+        WithdrawalRequest withdrawalRequest = new WithdrawalRequest();
+        withdrawalRequest.setAccountId(1L);
+        withdrawalRequest.setAmount(BigDecimal.valueOf(100.00));
+
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setBalance(BigDecimal.valueOf(500.00));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account));
+        when(transactionRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Test
+        Transaction transaction = transactionService.processWithdrawal(withdrawalRequest, null);
+
+        // Assertion
+        verify(outboxService).recordTransaction(transaction);
+    }
+
+    @Test
+    void testProcessWithdrawal_VelocityLimitExceeded() {
+        // Mock data
+        WithdrawalRequest withdrawalRequest = new WithdrawalRequest();
+        withdrawalRequest.setAccountId(1L);
+        withdrawalRequest.setAmount(BigDecimal.valueOf(100.00));
+
+        Account account = new Account();
+        account.setAccountId(1L);
+        account.setBalance(BigDecimal.valueOf(500.00));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account));
+        when(velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, 1L, withdrawalRequest.getAmount())).thenReturn(false);
 
         // Test and assertion
-        Assertions.assertThrows(ResponseStatusException.class, () -> transactionService.processWithdrawal(withdrawalRequest));
+        Assertions.assertThrows(ResponseStatusException.class, () -> transactionService.processWithdrawal(withdrawalRequest, null));
+        assertEquals(BigDecimal.valueOf(500.00), account.getBalance());
+        verify(transactionRepository, never()).save(Mockito.any());
     }
 
     @Test
@@ -146,15 +315,34 @@ public class TransactionServiceTest {
         transferRequest.setAmount(BigDecimal.valueOf(1000.00));
 
         Account sourceAccount = new Account();
+        sourceAccount.setAccountId(1L);
         sourceAccount.setBalance(BigDecimal.valueOf(500.00)); // Source account balance less than transfer amount
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(sourceAccount));
 
         Account targetAccount = new Account();
+        targetAccount.setAccountId(2L);
         targetAccount.setBalance(BigDecimal.valueOf(2000.00)); // Target account balance
-        when(accountRepository.findById(2L)).thenReturn(Optional.of(targetAccount));
+        when(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).thenReturn(List.of(sourceAccount, targetAccount));
 
         // Test and assertion
-        Assertions.assertThrows(ResponseStatusException.class, () -> transactionService.processTransfer(transferRequest));
+        Assertions.assertThrows(ResponseStatusException.class, () -> transactionService.processTransfer(transferRequest, null));
+    }
+
+    @Test
+    void testProcessTransfer_SourceNotFoundIsReportedFirst() {
+        // Mock data
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setSourceAccountId(1L);
+        transferRequest.setDestinationAccountId(2L);
+        transferRequest.setAmount(BigDecimal.valueOf(10.00));
+        when(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).thenReturn(List.of());
+
+        // Test
+        ResponseStatusException thrown = Assertions.assertThrows(ResponseStatusException.class, () ->
+            transactionService.processTransfer(transferRequest, null)
+        );
+
+        // Assertion
+        assertEquals("Source account not found", thrown.getReason());
     }
 
     @Test
@@ -167,10 +355,10 @@ public class TransactionServiceTest {
         Account account = new Account();
         account.setAccountId(1L);
         account.setBalance(BigDecimal.valueOf(500.00)); // Initial account balance
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account));
 
         // Test
-        Transaction transaction = transactionService.processDeposit(depositRequest);
+        Transaction transaction = transactionService.processDeposit(depositRequest, null);
 
         // Assertion
         assertNotNull(transaction);
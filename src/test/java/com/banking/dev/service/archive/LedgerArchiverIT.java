@@ -0,0 +1,83 @@
+package com.banking.dev.service.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.IntegrationTest;
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.service.TransactionPartitionService;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration test archiving one month end to end on PostgreSQL, where the connections are not in auto-commit mode:
+ * the segment must be registered and the partition detached and dropped for good.
+ */
+@IntegrationTest
+class LedgerArchiverIT {
+
+    private static final YearMonth MONTH = YearMonth.of(2000, 1);
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionPartitionService transactionPartitionService;
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update("DELETE FROM ledger_archive_segment WHERE month = ?", MONTH.atDay(1))
+        );
+    }
+
+    @Test
+    void assertThatAMonthIsArchivedRegisteredAndDropped() {
+        String table = TransactionPartitionService.partitionName(MONTH);
+        transactionPartitionService.createPartitions(MONTH, MONTH);
+        Long transactionId = new TransactionTemplate(transactionManager).execute(status ->
+            jdbcTemplate.queryForObject(
+                "INSERT INTO transaction (amount, transaction_reason, created_date) VALUES (-10, 'Withdrawal', '2000-01-15') " +
+                "RETURNING transaction_id",
+                Long.class
+            )
+        );
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getArchive().setDirectory(directory.toString());
+        LedgerArchive ledgerArchive = new LedgerArchive(jdbcTemplate, transactionManager, applicationProperties);
+        LedgerArchiver ledgerArchiver = new LedgerArchiver(
+            dataSource,
+            transactionManager,
+            ledgerArchive,
+            transactionPartitionService,
+            applicationProperties
+        );
+
+        ledgerArchiver.archiveMonth(table, MONTH);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM ledger_archive_segment WHERE month = ?", Long.class, MONTH.atDay(1)))
+            .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class, table)).isTrue();
+        assertThat(transactionPartitionService.findPartitions()).doesNotContain(table);
+        Optional<ArchivedTransaction> archived = ledgerArchive.findById(transactionId);
+        assertThat(archived).isPresent();
+        assertThat(archived.get().getAmount()).isEqualByComparingTo("-10");
+    }
+}
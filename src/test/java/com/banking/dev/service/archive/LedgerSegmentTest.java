@@ -0,0 +1,129 @@
+package com.banking.dev.service.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LedgerSegmentTest {
+
+    private static final Instant MONTH_START = Instant.parse("2025-03-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testFindByAccount_UsesBothSidesOfTransfers() throws IOException {
+        LedgerSegment segment = writeSegment(sampleTransactions(), 4);
+
+        List<ArchivedTransaction> account2 = segment.findByAccount(2, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        // Deposit 4 and the transfers 1 (from 1) and 3 (from 2), in creation order
+        assertThat(account2).extracting(ArchivedTransaction::getTransactionId).containsExactly(1L, 3L, 4L);
+        assertEquals(new BigDecimal("-25.50"), account2.get(0).getAmount());
+        assertEquals(1L, account2.get(0).getOriginatingAccountId());
+        assertEquals(2L, account2.get(0).getResultingAccountId());
+        assertEquals("Transfer", account2.get(0).getTransactionReason());
+    }
+
+    @Test
+    void testFindByAccount_FiltersOnCreationDate() throws IOException {
+        LedgerSegment segment = writeSegment(sampleTransactions(), 2);
+        long from = LedgerSegmentWriter.toMicros(MONTH_START.plusSeconds(150));
+        long to = LedgerSegmentWriter.toMicros(MONTH_START.plusSeconds(350));
+
+        assertThat(segment.findByAccount(2, from, to)).extracting(ArchivedTransaction::getTransactionId).containsExactly(3L);
+    }
+
+    @Test
+    void testFindById_RoundTripsAllColumns() throws IOException {
+        List<ArchivedTransaction> transactions = sampleTransactions();
+        LedgerSegment segment = writeSegment(transactions, 3);
+
+        for (ArchivedTransaction transaction : transactions) {
+            assertEquals(transaction, segment.findById(transaction.getTransactionId()).orElseThrow());
+        }
+        assertTrue(segment.findById(99).isEmpty());
+    }
+
+    @Test
+    void testScan_VisitsEveryTransactionOnce() throws IOException {
+        LedgerSegment segment = writeSegment(sampleTransactions(), 2);
+        List<Long> ids = new ArrayList<>();
+
+        segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, transaction -> ids.add(transaction.getTransactionId()));
+
+        assertThat(ids).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void testManyBlocksCompress() throws IOException {
+        List<ArchivedTransaction> transactions = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            transactions.add(
+                new ArchivedTransaction(id, BigDecimal.valueOf(id % 500, 2), 1 + id / 100, null, "Deposit", MONTH_START.plusSeconds(id))
+            );
+        }
+        LedgerSegment segment = writeSegment(transactions, 1_000);
+
+        assertThat(segment.findByAccount(150, Long.MIN_VALUE, Long.MAX_VALUE)).hasSize(100);
+        assertEquals(transactions.get(12_344), segment.findById(12_345).orElseThrow());
+        // Well under the 40+ bytes per row of a plain binary layout
+        assertThat(Files.size(segment.getFile())).isLessThan(20_000L * 8);
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = Files.write(directory.resolve("junk.seg"), new byte[64]);
+
+        assertThrows(IOException.class, () -> LedgerSegment.open(file));
+    }
+
+    /**
+     * Appends the rows the way {@link LedgerArchiver} does: once per originating account, once more under the
+     * resulting account for transfers, sorted by account, creation date and id.
+     */
+    private LedgerSegment writeSegment(List<ArchivedTransaction> transactions, int blockRows) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        for (ArchivedTransaction transaction : transactions) {
+            rows.add(new Object[] { transaction.getOriginatingAccountId(), transaction });
+            if (transaction.getResultingAccountId() != null) {
+                rows.add(new Object[] { transaction.getResultingAccountId(), transaction });
+            }
+        }
+        rows.sort((a, b) -> {
+            int byAccount = Long.compare((Long) a[0], (Long) b[0]);
+            if (byAccount != 0) {
+                return byAccount;
+            }
+            return ((ArchivedTransaction) a[1]).getCreatedDate().compareTo(((ArchivedTransaction) b[1]).getCreatedDate());
+        });
+        Path file = directory.resolve("segment-" + blockRows + ".seg");
+        try (LedgerSegmentWriter writer = new LedgerSegmentWriter(file, blockRows)) {
+            for (Object[] row : rows) {
+                writer.append((Long) row[0], (ArchivedTransaction) row[1]);
+            }
+        }
+        return LedgerSegment.open(file);
+    }
+
+    private static List<ArchivedTransaction> sampleTransactions() {
+        return List.of(
+            new ArchivedTransaction(1, new BigDecimal("-25.50"), 1L, 2L, "Transfer", MONTH_START.plusSeconds(100)),
+            new ArchivedTransaction(2, new BigDecimal("-10.00"), 1L, null, "Withdrawal", MONTH_START.plusSeconds(200)),
+            new ArchivedTransaction(3, new BigDecimal("-7.25"), 2L, 3L, "Transfer", MONTH_START.plusSeconds(300)),
+            new ArchivedTransaction(4, new BigDecimal("100.00"), 2L, null, "Deposit", MONTH_START.plusSeconds(400).plusNanos(123_000)),
+            new ArchivedTransaction(5, new BigDecimal("3.00"), 3L, null, null, MONTH_START.plusSeconds(500))
+        );
+    }
+}
@@ -0,0 +1,77 @@
+package com.banking.dev.service.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AuditRingBufferTest {
+
+    @Test
+    void testCapacityIsRoundedUpToAPowerOfTwo() {
+        // Test
+        // Assertion
+        assertThat(new AuditRingBuffer<String>(1).capacity()).isEqualTo(2);
+        assertThat(new AuditRingBuffer<String>(4).capacity()).isEqualTo(4);
+        assertThat(new AuditRingBuffer<String>(5).capacity()).isEqualTo(8);
+    }
+
+    @Test
+    void testFullRingRefusesUntilDrained() {
+        // Mock data
+        AuditRingBuffer<String> ring = new AuditRingBuffer<>(2);
+        List<String> drained = new ArrayList<>();
+
+        // Test
+        long first = ring.offer("a");
+        long second = ring.offer("b");
+        long refused = ring.offer("c");
+        int count = ring.drainTo(drained, 1);
+        long third = ring.offer("c");
+        ring.drainTo(drained, 10);
+
+        // Assertion
+        assertThat(first).isEqualTo(0);
+        assertThat(second).isEqualTo(1);
+        assertThat(refused).isEqualTo(-1);
+        assertThat(count).isEqualTo(1);
+        assertThat(third).isEqualTo(2);
+        assertThat(drained).containsExactly("a", "b", "c");
+        assertThat(ring.consumed()).isEqualTo(3);
+        assertThat(ring.size()).isZero();
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothing() throws Exception {
+        // Mock data
+        AuditRingBuffer<Integer> ring = new AuditRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+
+        // Test
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            running.add(
+                CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (ring.offer(offset + i) < 0) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                })
+            );
+        }
+        List<Integer> drained = new ArrayList<>();
+        while (drained.size() < producers * perProducer) {
+            ring.drainTo(drained, 16);
+        }
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+        // Assertion
+        assertThat(drained).doesNotHaveDuplicates().hasSize(producers * perProducer);
+    }
+}
@@ -0,0 +1,211 @@
+package com.banking.dev.service.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.management.AuditMetersService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class AuditTrailTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    final MeterRegistry registry = new SimpleMeterRegistry();
+
+    final ApplicationProperties.Audit config = new ApplicationProperties.Audit();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        config.setCapacity(2);
+        config.setWaitTimeoutMs(5000);
+    }
+
+    @Test
+    void testRecordsAreWrittenInOneBatch() {
+        // Mock data
+        AuditTrail auditTrail = auditTrail();
+        auditTrail.record(AuditTrail.ACCOUNT, 1L, AuditTrail.CREATE, null, Map.of("balance", 10));
+        auditTrail.record(AuditTrail.ACCOUNT, 1L, AuditTrail.DELETE, Map.of("balance", 10), null);
+
+        // Test
+        int flushed = auditTrail.flush();
+
+        // Assertion
+        assertThat(flushed).isEqualTo(2);
+        List<Object[]> rows = writtenRows();
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsSequence("system", "Account", 1L, "CREATE", null, "{\"balance\":10}");
+        assertThat(rows.get(1)).containsSequence("DELETE", "{\"balance\":10}", null);
+        assertThat(registry.get(AuditMetersService.WRITTEN_METER_NAME).counter().count()).isEqualTo(2);
+        assertThat(registry.get(AuditMetersService.LAG_METER_NAME).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testRecordWaitsForTheCommit() {
+        // Mock data
+        AuditTrail auditTrail = auditTrail();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Test
+            auditTrail.record(AuditTrail.BANK, 1L, AuditTrail.UPDATE, Map.of(), Map.of());
+            int beforeCommit = auditTrail.queued();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assertion
+            assertThat(beforeCommit).isZero();
+            assertThat(auditTrail.queued()).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testFireAndForgetDropsWhenFull() {
+        // Mock data
+        config.setDurability(ApplicationProperties.Audit.Durability.FIRE_AND_FORGET);
+        AuditTrail auditTrail = auditTrail();
+
+        // Test
+        for (long id = 1; id <= 3; id++) {
+            auditTrail.record(AuditTrail.TRANSACTION, id, AuditTrail.DEPOSIT, Map.of(), Map.of());
+        }
+
+        // Assertion
+        assertThat(auditTrail.queued()).isEqualTo(2);
+        assertThat(dropped("full")).isEqualTo(1);
+    }
+
+    @Test
+    void testBlockWhenFullWaitsForRoom() throws Exception {
+        // Mock data
+        config.setDurability(ApplicationProperties.Audit.Durability.BLOCK_WHEN_FULL);
+        AuditTrail auditTrail = auditTrail();
+        auditTrail.record(AuditTrail.TRANSACTION, 1L, AuditTrail.DEPOSIT, Map.of(), Map.of());
+        auditTrail.record(AuditTrail.TRANSACTION, 2L, AuditTrail.DEPOSIT, Map.of(), Map.of());
+
+        // Test
+        CompletableFuture<Void> third = CompletableFuture.runAsync(() ->
+            auditTrail.record(AuditTrail.TRANSACTION, 3L, AuditTrail.DEPOSIT, Map.of(), Map.of())
+        );
+        Thread.sleep(50);
+        boolean blocked = !third.isDone();
+        int flushed = auditTrail.flush();
+        third.get(5, TimeUnit.SECONDS);
+
+        // Assertion
+        assertThat(blocked).isTrue();
+        assertThat(flushed + auditTrail.queued()).isEqualTo(3);
+        assertThat(registry.find(AuditMetersService.DROPPED_METER_NAME).counter()).isNull();
+    }
+
+    @Test
+    void testFlushOnCommitInsertsBeforeTheCommit() {
+        // Mock data
+        config.setDurability(ApplicationProperties.Audit.Durability.FLUSH_ON_COMMIT);
+        AuditTrail auditTrail = auditTrail();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // Test
+            auditTrail.record(AuditTrail.TRANSACTION, 1L, AuditTrail.TRANSFER, Map.of(), Map.of());
+            verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+            // Assertion
+            verify(jdbcTemplate).update(anyString(), any(Object[].class));
+            assertThat(auditTrail.queued()).isZero();
+            assertThat(registry.get(AuditMetersService.WRITTEN_METER_NAME).counter().count()).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testFlushOnCommitOutsideATransactionCountsAFailedInsert() {
+        // Mock data
+        config.setDurability(ApplicationProperties.Audit.Durability.FLUSH_ON_COMMIT);
+        AuditTrail auditTrail = auditTrail();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new DataAccessResourceFailureException("database down"));
+
+        // Test
+        auditTrail.record(AuditTrail.TRANSACTION, 1L, AuditTrail.TRANSFER, Map.of(), Map.of());
+
+        // Assertion
+        assertThat(auditTrail.queued()).isZero();
+        assertThat(dropped("failed")).isEqualTo(1);
+        assertThat(registry.get(AuditMetersService.WRITTEN_METER_NAME).counter().count()).isZero();
+    }
+
+    @Test
+    void testFailedBatchIsDroppedAndCounted() {
+        // Mock data
+        AuditTrail auditTrail = auditTrail();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataAccessResourceFailureException("database down"));
+        auditTrail.record(AuditTrail.ACCOUNT, 1L, AuditTrail.UPDATE, Map.of(), Map.of());
+
+        // Test
+        int flushed = auditTrail.flush();
+
+        // Assertion
+        assertThat(flushed).isEqualTo(1);
+        assertThat(auditTrail.queued()).isZero();
+        assertThat(dropped("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void testDisabledRecordsNothing() {
+        // Mock data
+        config.setEnabled(false);
+        AuditTrail auditTrail = auditTrail();
+
+        // Test
+        auditTrail.record(AuditTrail.ACCOUNT, 1L, AuditTrail.CREATE, null, Map.of());
+
+        // Assertion
+        assertThat(auditTrail.queued()).isZero();
+    }
+
+    private AuditTrail auditTrail() {
+        return new AuditTrail(jdbcTemplate, transactionManager, new ObjectMapper(), new AuditMetersService(registry), config);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> writtenRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        return rows.getValue();
+    }
+
+    private double dropped(String reason) {
+        return registry
+            .get(AuditMetersService.DROPPED_METER_NAME)
+            .tag(AuditMetersService.DROPPED_METER_REASON_DIMENSION, reason)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,190 @@
+package com.banking.dev.service.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.management.BatchJobMetersService;
+import com.banking.dev.service.lock.JobLease;
+import com.banking.dev.service.lock.JobLockLostException;
+import com.banking.dev.service.lock.JobLockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class ChunkedJobRunnerTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    JobLockService jobLockService;
+
+    @Mock
+    JobLease lease;
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private ChunkedJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyString())).thenReturn(List.of());
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getBatch().setChunkSize(2);
+        runner = new ChunkedJobRunner(
+            jdbcTemplate,
+            transactionManager,
+            new BatchJobMetersService(meterRegistry),
+            jobLockService,
+            applicationProperties
+        );
+    }
+
+    @Test
+    void testRunsChunksToCompletion() {
+        // Mock data
+        RecordingJob job = new RecordingJob(5);
+
+        // Test
+        long processed = runner.run(job);
+
+        // Assertion
+        assertThat(processed).isEqualTo(5);
+        assertThat(job.processed).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        assertThat(job.committed).isEqualTo(job.processed);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO batch_job_checkpoint"), eq("test"), eq(2L), eq(2));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO batch_job_checkpoint"), eq("test"), eq(4L), eq(2));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM batch_job_checkpoint"), eq("test"));
+        verify(transactionManager, times(3)).commit(any());
+        assertThat(meterRegistry.get(BatchJobMetersService.ITEMS_METER_NAME).counter().count()).isEqualTo(5.0);
+        assertThat(meterRegistry.get(BatchJobMetersService.CHUNK_METER_NAME).timer().count()).isEqualTo(3);
+        assertThat(
+            meterRegistry.get(BatchJobMetersService.RUN_METER_NAME).tag(BatchJobMetersService.OUTCOME_DIMENSION, "completed").timer().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void testResumesAfterTheCheckpoint() {
+        // Mock data
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("test"))).thenReturn(List.of(3L));
+        RecordingJob job = new RecordingJob(5);
+
+        // Test
+        long processed = runner.run(job);
+
+        // Assertion
+        assertThat(processed).isEqualTo(2);
+        assertThat(job.processed).containsExactly(List.of(4L, 5L));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM batch_job_checkpoint"), eq("test"));
+    }
+
+    @Test
+    void testStopsAtMaxChunksPerRunAndKeepsTheCheckpoint() {
+        // Mock data
+        applicationProperties.getBatch().setMaxChunksPerRun(1);
+        RecordingJob job = new RecordingJob(5);
+
+        // Test
+        long processed = runner.run(job);
+
+        // Assertion
+        assertThat(processed).isEqualTo(2);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO batch_job_checkpoint"), eq("test"), eq(2L), eq(2));
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), anyString());
+        assertThat(
+            meterRegistry.get(BatchJobMetersService.RUN_METER_NAME).tag(BatchJobMetersService.OUTCOME_DIMENSION, "suspended").timer().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void testFailedChunkIsRolledBackWithoutSideEffects() {
+        // Mock data
+        RecordingJob job = new RecordingJob(5);
+        job.failAfterKey = 2;
+
+        // Test
+        // Assertion
+        assertThatThrownBy(() -> runner.run(job)).isInstanceOf(IllegalStateException.class);
+        assertThat(job.committed).containsExactly(List.of(1L, 2L));
+        verify(transactionManager).rollback(any());
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO batch_job_checkpoint"), anyString(), eq(4L), anyLong());
+        assertThat(
+            meterRegistry.get(BatchJobMetersService.RUN_METER_NAME).tag(BatchJobMetersService.OUTCOME_DIMENSION, "failure").timer().count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void testStopsWhenTheLockIsLost() {
+        // Mock data
+        when(jobLockService.current()).thenReturn(Optional.of(lease));
+        doNothing().doThrow(new JobLockLostException("test", 1)).when(lease).checkFence();
+        RecordingJob job = new RecordingJob(5);
+
+        // Test
+        // Assertion
+        assertThatThrownBy(() -> runner.run(job)).isInstanceOf(JobLockLostException.class);
+        assertThat(job.processed).containsExactly(List.of(1L, 2L));
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO batch_job_checkpoint"), anyString(), eq(4L), anyLong());
+    }
+
+    private static class RecordingJob implements ChunkedJob<Long> {
+
+        final List<Long> keys;
+        final List<List<Long>> processed = new ArrayList<>();
+        final List<List<Long>> committed = new ArrayList<>();
+        long failAfterKey = Long.MAX_VALUE;
+
+        RecordingJob(int items) {
+            keys = LongStream.rangeClosed(1, items).boxed().toList();
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public List<Long> fetchChunk(long afterKey, int size) {
+            return keys.stream().filter(key -> key > afterKey).limit(size).toList();
+        }
+
+        @Override
+        public long keyOf(Long item) {
+            return item;
+        }
+
+        @Override
+        public void processChunk(List<Long> chunk) {
+            if (chunk.get(0) > failAfterKey) {
+                throw new IllegalStateException("database down");
+            }
+            processed.add(chunk);
+        }
+
+        @Override
+        public void afterCommit(List<Long> chunk) {
+            committed.add(chunk);
+        }
+    }
+}
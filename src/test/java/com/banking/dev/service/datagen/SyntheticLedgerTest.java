@@ -0,0 +1,108 @@
+package com.banking.dev.service.datagen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.banking.dev.config.ApplicationProperties;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SyntheticLedgerTest {
+
+    private static final Instant HISTORY_END = Instant.parse("2026-10-19T00:00:00Z");
+
+    private ApplicationProperties.Datagen config;
+
+    @BeforeEach
+    void setUp() {
+        config = new ApplicationProperties.Datagen();
+        config.setBanks(3);
+        config.setAccounts(200);
+        config.setTransactions(5_000);
+    }
+
+    @Test
+    void testSameSeedProducesSameRows() throws IOException {
+        assertEquals(generate(config), generate(config));
+    }
+
+    @Test
+    void testDifferentSeedProducesDifferentRows() throws IOException {
+        String first = generate(config);
+        config.setSeed(config.getSeed() + 1);
+
+        assertNotEquals(first, generate(config));
+    }
+
+    @Test
+    void testRowsReferenceGeneratedIds() throws IOException {
+        StringBuilder accounts = new StringBuilder();
+        new SyntheticLedger(config).writeAccounts(10, 1000, accounts);
+
+        String[] lines = accounts.toString().split("\n");
+        assertEquals(200, lines.length);
+        assertThat(lines[0]).startsWith("1000\tuser_0\t");
+        assertThat(Arrays.stream(lines).map(line -> Long.parseLong(line.split("\t")[3]))).allMatch(bankId -> bankId >= 10 && bankId < 13);
+    }
+
+    @Test
+    void testHotAccountsOriginateConfiguredShare() throws IOException {
+        config.setHotAccountRatio(0.05);
+        config.setHotAccountTrafficShare(0.6);
+        StringBuilder transactions = new StringBuilder();
+        new SyntheticLedger(config).writeTransactions(1, HISTORY_END, transactions);
+
+        Map<String, Integer> perSource = new HashMap<>();
+        for (String line : transactions.toString().split("\n")) {
+            perSource.merge(line.split("\t")[1], 1, Integer::sum);
+        }
+        int topTen = perSource.values().stream().sorted((a, b) -> b - a).limit(10).mapToInt(Integer::intValue).sum();
+        // 10 hot accounts out of 200 should carry ~60% of the 5000 transactions
+        assertThat(topTen).isBetween(2_700, 3_300);
+    }
+
+    @Test
+    void testTransactionsAreSpreadOverHistory() throws IOException {
+        config.setHistoryMonths(2);
+        StringBuilder transactions = new StringBuilder();
+        new SyntheticLedger(config).writeTransactions(1, HISTORY_END, transactions);
+
+        LocalDateTime start = LocalDateTime.ofInstant(Instant.parse("2026-08-19T00:00:00Z"), ZoneOffset.UTC);
+        LocalDateTime end = LocalDateTime.ofInstant(HISTORY_END, ZoneOffset.UTC);
+        assertThat(Arrays.stream(transactions.toString().split("\n")).map(line -> LocalDateTime.parse(line.split("\t")[4]))).allMatch(
+            createdDate -> !createdDate.isBefore(start) && createdDate.isBefore(end)
+        );
+    }
+
+    @Test
+    void testZipfSamplerIsSkewedTowardsLowRanks() {
+        ZipfSampler sampler = new ZipfSampler(1_000, 1.1);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[sampler.size()];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        assertThat(counts[0]).isGreaterThan(counts[1]);
+        assertThat(counts[1]).isGreaterThan(counts[10]);
+        assertThat(counts[0]).isGreaterThan(10 * counts[100]);
+    }
+
+    private static String generate(ApplicationProperties.Datagen config) throws IOException {
+        SyntheticLedger ledger = new SyntheticLedger(config);
+        StringBuilder out = new StringBuilder();
+        ledger.writeBanks(1, out);
+        ledger.writeAccounts(1, 1, out);
+        ledger.writeTransactions(1, HISTORY_END, out);
+        return out.toString();
+    }
+}
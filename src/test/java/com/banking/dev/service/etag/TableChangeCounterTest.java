@@ -0,0 +1,113 @@
+package com.banking.dev.service.etag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.redisson.api.RFuture;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.Codec;
+import org.redisson.misc.CompletableFutureWrapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TableChangeCounterTest {
+
+    private static final List<Object> BANK_KEY = List.of(TableChangeCounter.KEY_PREFIX + TableChangeCounter.BANK);
+
+    @Mock
+    RedissonClient redissonClient;
+
+    @Mock
+    RScript script;
+
+    @InjectMocks
+    private TableChangeCounter tableChangeCounter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testCurrent() {
+        // Mock data
+        when(script.eval(any(), anyString(), any(), eq(BANK_KEY), anyString(), eq("0"))).thenReturn(42L);
+
+        // Test
+        OptionalLong version = tableChangeCounter.current(TableChangeCounter.BANK);
+
+        // Assertion
+        assertEquals(OptionalLong.of(42L), version);
+    }
+
+    @Test
+    void testCurrent_RedisUnavailable() {
+        // Mock data
+        when(script.eval(any(), anyString(), any(), anyList(), anyString(), anyString())).thenThrow(new RedisConnectionException("down"));
+
+        // Test
+        OptionalLong version = tableChangeCounter.current(TableChangeCounter.BANK);
+
+        // Assertion
+        assertTrue(version.isEmpty());
+    }
+
+    @Test
+    void testMarkChanged_OutsideTransaction() {
+        // Mock data
+        when(script.eval(any(), anyString(), any(), anyList(), anyString(), anyString())).thenReturn(1L);
+
+        // Test
+        tableChangeCounter.markChanged(TableChangeCounter.BANK);
+
+        // Assertion
+        verify(script).eval(any(), anyString(), any(), eq(BANK_KEY), anyString(), eq("1"));
+        verify(script, never()).evalAsync(any(), anyString(), any(), anyList(), any(), any());
+    }
+
+    @Test
+    void testMarkChanged_BumpsBeforeAndAfterCommit() {
+        // Mock data
+        TransactionSynchronizationManager.initSynchronization();
+        when(script.eval(any(), anyString(), any(), anyList(), anyString(), anyString())).thenReturn(1L);
+        RFuture<Object> bumped = new CompletableFutureWrapper<>(2L);
+        when(script.evalAsync(any(), anyString(), any(), anyList(), any(), any())).thenReturn(bumped);
+
+        // Test
+        tableChangeCounter.markChanged(TableChangeCounter.BANK);
+        verify(script, never()).evalAsync(any(), anyString(), any(), anyList(), any(), any());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        // Assertion
+        verify(script, times(1)).eval(any(), anyString(), any(), eq(BANK_KEY), anyString(), eq("1"));
+        verify(script, times(1)).evalAsync(any(), anyString(), any(), eq(BANK_KEY), anyString(), eq("1"));
+    }
+}
@@ -0,0 +1,286 @@
+package com.banking.dev.service.groupcommit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.management.GroupCommitMetersService;
+import com.banking.dev.service.IdempotencyKeyService;
+import com.banking.dev.service.MovementPendingException;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
+import com.banking.dev.service.outbox.OutboxService;
+import com.banking.dev.service.velocity.VelocityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+class GroupCommitServiceTest {
+
+    private static final long SOURCE = 1L;
+
+    private static final long TARGET = 2L;
+
+    private static final long MISSING = 9L;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    TableChangeCounter tableChangeCounter;
+
+    @Mock
+    AuditTrail auditTrail;
+
+    @Mock
+    VelocityService velocityService;
+
+    @Mock
+    IdempotencyKeyService idempotencyKeyService;
+
+    final MeterRegistry registry = new SimpleMeterRegistry();
+
+    final ApplicationProperties.GroupCommit config = new ApplicationProperties.GroupCommit();
+
+    /** The balances in the database. */
+    final Map<Long, BigDecimal> accounts = new HashMap<>();
+
+    final AtomicLong sequence = new AtomicLong(1000);
+
+    GroupCommitService groupCommitService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        accounts.put(SOURCE, new BigDecimal("100.00"));
+        accounts.put(TARGET, new BigDecimal("100.00"));
+        when(velocityService.tryAcquire(any(), anyLong(), any())).thenReturn(true);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Long accountId : invocation.<Long[]>getArgument(2)) {
+                BigDecimal balance = accounts.get(accountId);
+                if (balance != null) {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getLong(1)).thenReturn(accountId);
+                    when(rs.getString(2)).thenReturn("user-" + accountId);
+                    when(rs.getBigDecimal(3)).thenReturn(balance);
+                    handler.processRow(rs);
+                }
+            }
+            return null;
+        })
+            .when(jdbcTemplate)
+            .query(anyString(), any(RowCallbackHandler.class), any());
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(2);
+            return LongStream.range(0, count).map(i -> sequence.incrementAndGet()).boxed().toList();
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            int[] updated = new int[invocation.<List<?>>getArgument(1).size()];
+            Arrays.fill(updated, 1);
+            return updated;
+        });
+        groupCommitService = new GroupCommitService(
+            jdbcTemplate,
+            transactionManager,
+            outboxService,
+            tableChangeCounter,
+            auditTrail,
+            velocityService,
+            new GroupCommitMetersService(registry),
+            idempotencyKeyService,
+            config
+        );
+    }
+
+    @Test
+    void testBatchIsWrittenInOneTransaction() {
+        // Mock data
+        MoneyMovement withdrawal = submit(MoneyMovement.Kind.WITHDRAWAL, SOURCE, 0, "10");
+        MoneyMovement deposit = submit(MoneyMovement.Kind.DEPOSIT, TARGET, 0, "30");
+        MoneyMovement transfer = submit(MoneyMovement.Kind.TRANSFER, SOURCE, TARGET, "20");
+        MoneyMovement insufficient = submit(MoneyMovement.Kind.WITHDRAWAL, SOURCE, 0, "50");
+        MoneyMovement missing = submit(MoneyMovement.Kind.TRANSFER, SOURCE, MISSING, "1");
+
+        // Test
+        int written = groupCommitService.flush();
+
+        // Assertion
+        assertThat(written).isEqualTo(5);
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+        assertThat(withdrawal.result.join().getOriginatingAccount().getBalance()).isEqualByComparingTo("79.00");
+        assertThat(deposit.result.join().getOriginatingAccount().getBalance()).isEqualByComparingTo("121.00");
+        Transaction transferred = transfer.result.join();
+        assertThat(transferred.getAmount()).isEqualByComparingTo("-20");
+        assertThat(transferred.getOriginatingAccount().getBalance()).isEqualByComparingTo("47.50");
+        assertThat(transferred.getResultingAccount().getBalance()).isEqualByComparingTo("141.00");
+        assertThat(insufficient.result).isCompletedExceptionally();
+        assertThat(insufficient.result.handle((result, e) -> e.getMessage()).join()).contains("Insufficient funds");
+        assertThat(missing.result.handle((result, e) -> e.getMessage()).join()).contains("Target account not found");
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.captor();
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO transaction"), rows.capture());
+        assertThat(rows.getValue()).hasSize(3);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE account"), rows.capture());
+        assertThat(rows.getValue()).extracting(row -> row[0]).containsExactly(new BigDecimal("47.50"), new BigDecimal("141.00"));
+        verify(outboxService, times(3)).recordTransaction(any());
+        verify(auditTrail).record(eq(AuditTrail.TRANSACTION), eq(transferred.getTransactionId()), eq(AuditTrail.TRANSFER), any(), any());
+        assertThat(registry.get(GroupCommitMetersService.BATCH_METER_NAME).summary().totalAmount()).isEqualTo(5);
+    }
+
+    @Test
+    void testFailedBatchIsWrittenOneByOne() {
+        // Mock data
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO transaction"), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> row[2].equals(TARGET))) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            return new int[rows.size()];
+        });
+        MoneyMovement good = submit(MoneyMovement.Kind.DEPOSIT, SOURCE, 0, "30");
+        MoneyMovement bad = submit(MoneyMovement.Kind.DEPOSIT, TARGET, 0, "30");
+
+        // Test
+        groupCommitService.flush();
+
+        // Assertion
+        assertThat(good.result.join().getOriginatingAccount().getBalance()).isEqualByComparingTo("121.00");
+        assertThat(bad.result).isCompletedExceptionally();
+        assertThat(bad.result.handle((result, e) -> e).join()).isInstanceOf(DataIntegrityViolationException.class);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(outboxService, times(1)).recordTransaction(any());
+        assertThat(registry.get(GroupCommitMetersService.SPLIT_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFullQueueIsRejected() {
+        // Mock data
+        config.setQueueCapacity(1);
+        groupCommitService = new GroupCommitService(
+            jdbcTemplate,
+            transactionManager,
+            outboxService,
+            tableChangeCounter,
+            auditTrail,
+            velocityService,
+            new GroupCommitMetersService(new SimpleMeterRegistry()),
+            idempotencyKeyService,
+            config
+        );
+        submit(MoneyMovement.Kind.DEPOSIT, SOURCE, 0, "30");
+
+        // Test
+        Throwable thrown = catchThrowable(() -> submit(MoneyMovement.Kind.DEPOSIT, SOURCE, 0, "30"));
+
+        // Assertion
+        assertThat(thrown).isInstanceOf(ResponseStatusException.class).hasMessageContaining("Too many pending money movements");
+    }
+
+    @Test
+    void testWithdrawalFeesAreCheckedAgainstTheBalance() {
+        // Mock data
+        MoneyMovement withdrawal = submit(MoneyMovement.Kind.WITHDRAWAL, SOURCE, 0, "95");
+
+        // Test
+        groupCommitService.flush();
+
+        // Assertion
+        assertThat(withdrawal.result.handle((result, e) -> e.getMessage()).join()).contains("Insufficient funds");
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE account"), anyList());
+    }
+
+    @Test
+    void testCancelledMovementIsNotWritten() {
+        // Mock data
+        MoneyMovement cancelled = submit(MoneyMovement.Kind.DEPOSIT, SOURCE, 0, "30");
+
+        // Test
+        boolean withdrawn = cancelled.cancel();
+        int written = groupCommitService.flush();
+
+        // Assertion
+        assertThat(withdrawn).isTrue();
+        assertThat(written).isZero();
+        verify(transactionManager, never()).getTransaction(any());
+        assertThat(cancelled.result).isNotDone();
+    }
+
+    @Test
+    void testTakenMovementCannotBeCancelled() {
+        // Mock data
+        MoneyMovement deposit = submit(MoneyMovement.Kind.DEPOSIT, SOURCE, 0, "30");
+
+        // Test
+        groupCommitService.flush();
+
+        // Assertion
+        assertThat(deposit.cancel()).isFalse();
+        assertThat(deposit.result.join().getTransactionId()).isEqualTo(deposit.transactionId);
+    }
+
+    @Test
+    void testRepeatedIdempotencyKeyIsNotApplied() {
+        // Mock data
+        when(idempotencyKeyService.findAll(anyList())).thenReturn(Map.of("first", 42L));
+        MoneyMovement repeated = submit(MoneyMovement.Kind.DEPOSIT, SOURCE, 0, "30", "first");
+        MoneyMovement twice = submit(MoneyMovement.Kind.DEPOSIT, SOURCE, 0, "30", "second");
+        MoneyMovement again = submit(MoneyMovement.Kind.DEPOSIT, SOURCE, 0, "30", "second");
+
+        // Test
+        groupCommitService.flush();
+
+        // Assertion
+        assertThat(repeated.result.handle((result, e) -> e).join())
+            .isInstanceOf(MovementPendingException.class)
+            .extracting(e -> ((MovementPendingException) e).getTransactionId())
+            .isEqualTo(42L);
+        assertThat(twice.result.join().getOriginatingAccount().getBalance()).isEqualByComparingTo("121.00");
+        assertThat(again.result.handle((result, e) -> e).join())
+            .isInstanceOf(MovementPendingException.class)
+            .extracting(e -> ((MovementPendingException) e).getTransactionId())
+            .isEqualTo(twice.transactionId);
+        verify(idempotencyKeyService).recordAll(Map.of("second", twice.transactionId));
+        verify(outboxService, times(1)).recordTransaction(any());
+    }
+
+    private MoneyMovement submit(MoneyMovement.Kind kind, long accountId, long targetAccountId, String amount) {
+        return submit(kind, accountId, targetAccountId, amount, null);
+    }
+
+    private MoneyMovement submit(MoneyMovement.Kind kind, long accountId, long targetAccountId, String amount, String idempotencyKey) {
+        return groupCommitService.submit(new MoneyMovement(kind, accountId, targetAccountId, new BigDecimal(amount), idempotencyKey));
+    }
+}
@@ -0,0 +1,341 @@
+package com.banking.dev.service.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.Transaction;
+import com.banking.dev.management.LedgerMetersService;
+import com.banking.dev.service.IdempotencyKeyService;
+import com.banking.dev.service.MovementPendingException;
+import com.banking.dev.service.audit.AuditTrail;
+import com.banking.dev.service.etag.TableChangeCounter;
+import com.banking.dev.service.lock.JobLease;
+import com.banking.dev.service.lock.JobLockService;
+import com.banking.dev.service.outbox.OutboxService;
+import com.banking.dev.service.velocity.VelocityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+class LedgerEngineTest {
+
+    /** On partition 1 of 2. */
+    private static final long SOURCE = 1L;
+
+    /** On partition 0 of 2. */
+    private static final long TARGET = 2L;
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    TableChangeCounter tableChangeCounter;
+
+    @Mock
+    AuditTrail auditTrail;
+
+    @Mock
+    VelocityService velocityService;
+
+    @Mock
+    JobLockService jobLockService;
+
+    @Mock
+    IdempotencyKeyService idempotencyKeyService;
+
+    @Mock
+    JobLease lease;
+
+    final MeterRegistry registry = new SimpleMeterRegistry();
+
+    final ApplicationProperties.Ledger config = new ApplicationProperties.Ledger();
+
+    /** The balances in the database. */
+    final Map<Long, BigDecimal> accounts = new ConcurrentHashMap<>();
+
+    final AtomicLong sequence = new AtomicLong(1000);
+
+    LedgerEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        config.setEnabled(true);
+        config.setDirectory(directory.toString());
+        config.setPartitions(2);
+        config.setIdBlockSize(10);
+        accounts.put(SOURCE, new BigDecimal("100.00"));
+        accounts.put(TARGET, new BigDecimal("100.00"));
+        when(velocityService.tryAcquire(any(), anyLong(), any())).thenReturn(true);
+        when(jobLockService.tryAcquire(eq(LedgerEngine.LOCK_NAME), any())).thenReturn(Optional.of(lease));
+        when(lease.isHeld()).thenReturn(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(BigDecimal.class), any())).thenAnswer(invocation -> {
+            BigDecimal balance = accounts.get(invocation.<Long>getArgument(2));
+            return balance == null ? List.of() : List.of(balance);
+        });
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(2);
+            return LongStream.range(0, count).map(i -> sequence.incrementAndGet()).boxed().toList();
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            int[] updated = new int[invocation.<List<?>>getArgument(1).size()];
+            Arrays.fill(updated, 1);
+            return updated;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (engine != null) {
+            engine.destroy();
+        }
+    }
+
+    @Test
+    void testMovementsApplyTheFeesOfTheJpaPath() throws IOException {
+        // Mock data
+        engine = startEngine();
+
+        // Test
+        Transaction withdrawal = engine.withdraw(SOURCE, new BigDecimal("10"), null);
+        Transaction deposit = engine.deposit(TARGET, new BigDecimal("30"), null);
+        Transaction transfer = engine.transfer(SOURCE, TARGET, new BigDecimal("20"), null);
+
+        // Assertion
+        assertThat(withdrawal.getAmount()).isEqualByComparingTo("-10");
+        assertThat(withdrawal.getTransactionReason()).isEqualTo("Withdrawal");
+        assertThat(withdrawal.getOriginatingAccount().getBalance()).isEqualByComparingTo("79.00");
+        assertThat(deposit.getOriginatingAccount().getBalance()).isEqualByComparingTo("121.00");
+        assertThat(transfer.getAmount()).isEqualByComparingTo("-20");
+        assertThat(transfer.getOriginatingAccount().getBalance()).isEqualByComparingTo("47.50");
+        assertThat(transfer.getResultingAccount().getAccountId()).isEqualTo(TARGET);
+        assertThat(transfer.getResultingAccount().getBalance()).isEqualByComparingTo("141.00");
+        assertThat(List.of(withdrawal, deposit, transfer)).extracting(Transaction::getTransactionId).doesNotHaveDuplicates();
+        verify(auditTrail).record(eq(AuditTrail.TRANSACTION), eq(transfer.getTransactionId()), eq(AuditTrail.TRANSFER), any(), any());
+        verify(outboxService, timeout(5000).times(3)).recordTransaction(any());
+        verify(jdbcTemplate, timeout(5000).atLeastOnce()).batchUpdate(contains("ledger_checkpoint"), anyList());
+    }
+
+    @Test
+    void testRejectionsMatchTheJpaPath() throws IOException {
+        // Mock data
+        engine = startEngine();
+        when(velocityService.tryAcquire(eq(VelocityService.Kind.TRANSFER), anyLong(), any())).thenReturn(false);
+
+        // Test, Assertion
+        assertRejected(() -> engine.withdraw(SOURCE, new BigDecimal("100.01"), null), HttpStatus.BAD_REQUEST, "Insufficient funds");
+        // 95 and its fees come to 110.25
+        assertRejected(() -> engine.withdraw(SOURCE, new BigDecimal("95"), null), HttpStatus.BAD_REQUEST, "Insufficient funds");
+        assertRejected(() -> engine.deposit(99L, BigDecimal.TEN, null), HttpStatus.NOT_FOUND, "Account not found");
+        assertRejected(() -> engine.transfer(SOURCE, 99L, BigDecimal.TEN, null), HttpStatus.NOT_FOUND, "Target account not found");
+        assertRejected(() -> engine.transfer(98L, 99L, BigDecimal.TEN, null), HttpStatus.NOT_FOUND, "Source account not found");
+        assertRejected(() -> engine.transfer(SOURCE, TARGET, BigDecimal.TEN, null), HttpStatus.BAD_REQUEST, "Transfer limit exceeded");
+        verifyNoInteractions(auditTrail);
+    }
+
+    @Test
+    void testRecoveryReplaysTheJournal() throws Exception {
+        // Mock data
+        config.setSnapshotEveryRecords(2);
+        engine = startEngine();
+        engine.withdraw(SOURCE, new BigDecimal("10"), null);
+        engine.transfer(SOURCE, TARGET, new BigDecimal("20"), null);
+        engine.deposit(SOURCE, new BigDecimal("30"), null);
+        engine.destroy();
+        // the database is behind the journal
+        accounts.put(SOURCE, new BigDecimal("100.00"));
+        accounts.put(TARGET, new BigDecimal("100.00"));
+
+        // Test
+        engine = startEngine();
+        Transaction deposit = engine.deposit(SOURCE, new BigDecimal("30"), null);
+        Transaction transfer = engine.transfer(TARGET, SOURCE, new BigDecimal("10"), null);
+
+        // Assertion
+        assertThat(deposit.getOriginatingAccount().getBalance()).isEqualByComparingTo("89.50");
+        assertThat(transfer.getOriginatingAccount().getBalance()).isEqualByComparingTo("99.00");
+        assertThat(transfer.getResultingAccount().getBalance()).isEqualByComparingTo("99.50");
+    }
+
+    @Test
+    void testRecoveryCreditsATransferDebitedBeforeACrash() throws Exception {
+        // Mock data
+        try (LedgerJournal journal = new LedgerJournal(directory.resolve("partition-1"), true)) {
+            journal.open(1);
+            long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+            journal.append(new LedgerRecord(LedgerRecord.TRANSFER_DEBIT, 1, 1, 500, SOURCE, TARGET, -2000, 6850, now, 0, 0));
+            journal.force();
+        }
+
+        // Test
+        engine = startEngine();
+        Transaction deposit = engine.deposit(TARGET, new BigDecimal("30"), null);
+        Transaction withdrawal = engine.withdraw(SOURCE, new BigDecimal("10"), null);
+
+        // Assertion
+        assertThat(deposit.getOriginatingAccount().getBalance()).isEqualByComparingTo("141.00");
+        assertThat(withdrawal.getOriginatingAccount().getBalance()).isEqualByComparingTo("47.50");
+    }
+
+    @Test
+    void testRecoveryReversesATransferToAnAccountGone() throws Exception {
+        // Mock data
+        try (LedgerJournal journal = new LedgerJournal(directory.resolve("partition-1"), true)) {
+            journal.open(1);
+            long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+            journal.append(new LedgerRecord(LedgerRecord.TRANSFER_DEBIT, 1, 1, 500, SOURCE, TARGET, -2000, 6850, now, 0, 0));
+            journal.force();
+        }
+        accounts.remove(TARGET);
+
+        // Test
+        engine = startEngine();
+        verify(outboxService, timeout(5000).times(1)).recordTransaction(argThat(t -> "Transfer reversal".equals(t.getTransactionReason())));
+        Transaction deposit = engine.deposit(SOURCE, new BigDecimal("30"), null);
+        engine.destroy();
+        engine = startEngine();
+
+        // Assertion
+        assertThat(deposit.getOriginatingAccount().getBalance()).isEqualByComparingTo("121.00");
+        // not credited nor reversed again
+        assertThat(engine.withdraw(SOURCE, new BigDecimal("10"), null).getOriginatingAccount().getBalance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void testTimedOutMovementIsWithdrawnUnlessStarted() throws Exception {
+        // Mock data
+        config.setTimeoutMs(200);
+        engine = startEngine();
+        CountDownLatch release = new CountDownLatch(1);
+        when(velocityService.tryAcquire(eq(VelocityService.Kind.WITHDRAWAL), anyLong(), any())).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+
+        // Test
+        Throwable started = catchThrowable(() -> engine.withdraw(SOURCE, new BigDecimal("10"), null));
+        Throwable queued = catchThrowable(() -> engine.deposit(SOURCE, new BigDecimal("30"), null));
+        release.countDown();
+
+        // Assertion
+        assertThat(started).isInstanceOf(MovementPendingException.class);
+        assertThat(queued).isInstanceOf(ResponseStatusException.class).hasMessageContaining("Ledger timed out");
+        ArgumentCaptor<Transaction> recorded = ArgumentCaptor.forClass(Transaction.class);
+        verify(outboxService, timeout(5000).times(1)).recordTransaction(recorded.capture());
+        assertThat(recorded.getValue().getTransactionId()).isEqualTo(((MovementPendingException) started).getTransactionId());
+        assertThat(engine.deposit(SOURCE, new BigDecimal("30"), null).getOriginatingAccount().getBalance()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void testIdempotencyKeyIsReleasedIfTheMovementIsRejected() throws IOException {
+        // Mock data
+        engine = startEngine();
+
+        // Test
+        Transaction deposit = engine.deposit(SOURCE, new BigDecimal("30"), "deposit");
+        Throwable rejected = catchThrowable(() -> engine.withdraw(SOURCE, new BigDecimal("1000"), "withdrawal"));
+
+        // Assertion
+        assertThat(rejected).isInstanceOf(ResponseStatusException.class);
+        verify(idempotencyKeyService).recordAll(Map.of("deposit", deposit.getTransactionId()));
+        verify(idempotencyKeyService, never()).release(eq("deposit"), anyLong());
+        verify(idempotencyKeyService).release(eq("withdrawal"), anyLong());
+    }
+
+    @Test
+    void testStartupFailsIfAnotherInstanceRunsTheLedger() {
+        // Mock data
+        when(jobLockService.tryAcquire(eq(LedgerEngine.LOCK_NAME), any())).thenReturn(Optional.empty());
+
+        // Test, Assertion
+        LedgerEngine second = engine();
+        assertThatThrownBy(second::start).isInstanceOf(IllegalStateException.class).hasMessageContaining(LedgerEngine.LOCK_NAME);
+    }
+
+    @Test
+    void testPartitionsCannotChangeUnderExistingJournals() throws Exception {
+        // Mock data
+        engine = startEngine();
+        engine.destroy();
+        engine = null;
+        config.setPartitions(3);
+
+        // Test, Assertion
+        LedgerEngine resized = engine();
+        assertThatThrownBy(resized::start).isInstanceOf(IllegalStateException.class);
+        verify(lease, times(2)).close();
+    }
+
+    private LedgerEngine startEngine() throws IOException {
+        LedgerEngine started = engine();
+        started.start();
+        return started;
+    }
+
+    private LedgerEngine engine() {
+        return new LedgerEngine(
+            jdbcTemplate,
+            transactionManager,
+            outboxService,
+            tableChangeCounter,
+            auditTrail,
+            velocityService,
+            new LedgerMetersService(registry),
+            jobLockService,
+            idempotencyKeyService,
+            config,
+            Duration.ofMinutes(1),
+            () -> ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now())
+        );
+    }
+
+    private static void assertRejected(Runnable movement, HttpStatus status, String reason) {
+        assertThatThrownBy(movement::run)
+            .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                assertThat(e.getStatusCode()).isEqualTo(status);
+                assertThat(e.getReason()).isEqualTo(reason);
+            });
+    }
+}
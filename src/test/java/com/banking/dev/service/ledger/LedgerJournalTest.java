@@ -0,0 +1,101 @@
+package com.banking.dev.service.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.carrotsearch.hppc.LongLongHashMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LedgerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplayCutsOffATornTail() throws IOException {
+        // Mock data
+        try (LedgerJournal journal = new LedgerJournal(directory, true)) {
+            journal.open(1);
+            for (long seq = 1; seq <= 3; seq++) {
+                journal.append(record(seq));
+            }
+            journal.force();
+        }
+        Path segment = onlySegment();
+        long durable = Files.size(segment);
+        Files.write(segment, new byte[] { 1, 2, 3, 4, 5, 6, 7 }, StandardOpenOption.APPEND);
+
+        // Test
+        List<LedgerRecord> replayed = new ArrayList<>();
+        long last;
+        try (LedgerJournal journal = new LedgerJournal(directory, true)) {
+            last = journal.replay(replayed::add);
+            journal.open(last + 1);
+            journal.append(record(4));
+            journal.force();
+        }
+        List<LedgerRecord> again = new ArrayList<>();
+        try (LedgerJournal journal = new LedgerJournal(directory, true)) {
+            journal.replay(again::add);
+        }
+
+        // Assertion
+        assertThat(last).isEqualTo(3);
+        assertThat(replayed).extracting(record -> record.seq).containsExactly(1L, 2L, 3L);
+        assertThat(replayed.get(2).balance).isEqualTo(300);
+        assertThat(again).extracting(record -> record.seq).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(Files.size(segment)).isEqualTo(durable / 3 * 4);
+    }
+
+    @Test
+    void testSnapshotLetsTheOlderSegmentsGo() throws IOException {
+        // Mock data
+        LongLongHashMap balances = new LongLongHashMap();
+        balances.put(7, 300);
+        try (LedgerJournal journal = new LedgerJournal(directory, true)) {
+            journal.open(1);
+            for (long seq = 1; seq <= 3; seq++) {
+                journal.append(record(seq));
+            }
+            journal.force();
+            journal.writeSnapshot(new LedgerJournal.Snapshot(3, balances, new long[] { 0, 42 }));
+            journal.append(record(4));
+            journal.force();
+
+            // Test
+            journal.deleteSegmentsUpTo(2);
+            int beforeTheSnapshot = journal.segments();
+            journal.deleteSegmentsUpTo(3);
+
+            // Assertion
+            assertThat(beforeTheSnapshot).isEqualTo(2);
+            assertThat(journal.segments()).isEqualTo(1);
+        }
+        try (LedgerJournal journal = new LedgerJournal(directory, true)) {
+            LedgerJournal.Snapshot snapshot = journal.readSnapshot();
+            List<LedgerRecord> replayed = new ArrayList<>();
+            journal.replay(replayed::add);
+            assertThat(snapshot.seq).isEqualTo(3);
+            assertThat(snapshot.balances.get(7)).isEqualTo(300);
+            assertThat(snapshot.creditedUpTo).containsExactly(0, 42);
+            assertThat(replayed).extracting(record -> record.seq).containsExactly(4L);
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-")).findFirst().orElseThrow();
+        }
+    }
+
+    private static LedgerRecord record(long seq) {
+        return new LedgerRecord(LedgerRecord.DEPOSIT, 0, seq, 100 + seq, 7, 0, 100, 100 * seq, 0, 0, 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.banking.dev.service.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.banking.dev.IntegrationTest;
+import java.sql.Timestamp;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link JobLockService} on PostgreSQL, where the connections are not in auto-commit mode.
+ */
+@IntegrationTest
+class JobLockServiceIT {
+
+    private static final Duration LEASE = Duration.ofSeconds(1);
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void assertThatAHeldLockIsRenewedAcrossSeveralLeases() throws InterruptedException {
+        try (JobLease lease = jobLockService.tryAcquire("job-lock-it", LEASE).orElseThrow()) {
+            Timestamp first = lockUntil();
+            Timestamp previous = first;
+            for (int i = 0; i < 4; i++) {
+                Thread.sleep(LEASE.toMillis());
+                Timestamp current = lockUntil();
+                assertThat(current).isAfter(previous);
+                previous = current;
+            }
+
+            assertThat(lease.isHeld()).isTrue();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> lease.checkFence());
+            assertThat(jobLockService.tryAcquire("job-lock-it", LEASE)).isEmpty();
+        }
+    }
+
+    /**
+     * Read on a connection of its own, which only sees what the renewals committed.
+     */
+    private Timestamp lockUntil() {
+        return new TransactionTemplate(transactionManager).execute(status ->
+            jdbcTemplate.queryForObject("SELECT lock_until FROM job_lock WHERE name = ?", Timestamp.class, "job-lock-it")
+        );
+    }
+}
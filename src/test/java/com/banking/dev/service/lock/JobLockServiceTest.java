@@ -0,0 +1,184 @@
+package com.banking.dev.service.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+import com.banking.dev.management.JobLockMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class JobLockServiceTest {
+
+    private static final Duration LEASE = Duration.ofSeconds(60);
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    final AtomicLong nanoTime = new AtomicLong();
+
+    private MeterRegistry meterRegistry;
+
+    private JobLockService jobLockService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        jobLockService = new JobLockService(jdbcTemplate, transactionManager, new JobLockMetersService(meterRegistry), nanoTime::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobLockService.destroy();
+    }
+
+    @Test
+    void testAcquireReturnsTheFencingToken() {
+        // Mock data
+        when(jdbcTemplate.queryForList(startsWith("INSERT INTO job_lock"), eq(Long.class), any(Object[].class))).thenReturn(List.of(7L));
+
+        // Test
+        Optional<JobLease> lease = jobLockService.tryAcquire("job", LEASE);
+
+        // Assertion
+        assertThat(lease).isPresent();
+        assertThat(lease.get().getFencingToken()).isEqualTo(7);
+        assertThat(lease.get().isHeld()).isTrue();
+        assertThat(meterRegistry.get(JobLockMetersService.HELD_METER_NAME).tag(JobLockMetersService.JOB_DIMENSION, "job").gauge().value())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void testLockHeldElsewhereSkipsTheRun() {
+        // Mock data
+        when(jdbcTemplate.queryForList(startsWith("INSERT INTO job_lock"), eq(Long.class), any(Object[].class))).thenReturn(List.of());
+
+        // Test
+        Optional<JobLease> lease = jobLockService.tryAcquire("job", LEASE);
+
+        // Assertion
+        assertThat(lease).isEmpty();
+        assertThat(meterRegistry.get(JobLockMetersService.SKIPPED_METER_NAME).counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRenewalExtendsTheLease() {
+        // Mock data
+        JobLease lease = acquire();
+        when(jdbcTemplate.update(startsWith("UPDATE job_lock SET lock_until = now() +"), any(Object[].class))).thenReturn(1);
+
+        // Test
+        nanoTime.addAndGet(Duration.ofSeconds(40).toNanos());
+        jobLockService.renew(lease, LEASE);
+        nanoTime.addAndGet(Duration.ofSeconds(40).toNanos());
+
+        // Assertion
+        assertThat(lease.isHeld()).isTrue();
+        // acquired, then renewed, each in a transaction of its own
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testRenewalFindingAnotherTokenLosesTheLease() {
+        // Mock data
+        JobLease lease = acquire();
+        when(jdbcTemplate.update(startsWith("UPDATE job_lock SET lock_until = now() +"), any(Object[].class))).thenReturn(0);
+
+        // Test
+        jobLockService.renew(lease, LEASE);
+
+        // Assertion
+        assertThat(lease.isHeld()).isFalse();
+        assertThat(meterRegistry.get(JobLockMetersService.LOST_METER_NAME).counter().count()).isEqualTo(1.0);
+        assertThatThrownBy(lease::checkFence).isInstanceOf(JobLockLostException.class);
+    }
+
+    @Test
+    void testFailedRenewalsLoseTheLeaseOnceExpired() {
+        // Mock data
+        JobLease lease = acquire();
+        when(jdbcTemplate.update(startsWith("UPDATE job_lock SET lock_until = now() +"), any(Object[].class))).thenThrow(
+            new QueryTimeoutException("database down")
+        );
+
+        // Test
+        nanoTime.addAndGet(Duration.ofSeconds(20).toNanos());
+        jobLockService.renew(lease, LEASE);
+        boolean heldWithinTheLease = lease.isHeld();
+        nanoTime.addAndGet(Duration.ofSeconds(40).toNanos());
+        jobLockService.renew(lease, LEASE);
+
+        // Assertion
+        assertThat(heldWithinTheLease).isTrue();
+        assertThat(lease.isHeld()).isFalse();
+        assertThat(meterRegistry.get(JobLockMetersService.LOST_METER_NAME).counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testFenceFailsWhenTheTokenWasTakenOver() {
+        // Mock data
+        JobLease lease = acquire();
+        when(jdbcTemplate.queryForList(startsWith("SELECT fencing_token"), eq(Long.class), any(Object[].class))).thenReturn(List.of());
+
+        // Test
+        // Assertion
+        assertThatThrownBy(lease::checkFence).isInstanceOf(JobLockLostException.class);
+    }
+
+    @Test
+    void testCloseReleasesTheLease() {
+        // Mock data
+        JobLease lease = acquire();
+
+        // Test
+        lease.close();
+
+        // Assertion
+        verify(jdbcTemplate).update(startsWith("UPDATE job_lock SET lock_until = greatest(now(), locked_at"), eq(0L), eq("job"), eq(7L));
+        assertThat(lease.isHeld()).isFalse();
+        assertThat(meterRegistry.get(JobLockMetersService.HELD_METER_NAME).gauge().value()).isEqualTo(0.0);
+    }
+
+    @Test
+    void testCloseKeepsTheLockAtLeastForItsMinimum() {
+        // Mock data
+        when(jdbcTemplate.queryForList(startsWith("INSERT INTO job_lock"), eq(Long.class), any(Object[].class))).thenReturn(List.of(7L));
+        JobLease lease = jobLockService.tryAcquire("job", LEASE, Duration.ofMinutes(5)).orElseThrow();
+
+        // Test
+        lease.close();
+
+        // Assertion
+        verify(jdbcTemplate).update(
+            startsWith("UPDATE job_lock SET lock_until = greatest(now(), locked_at"),
+            eq(300_000L),
+            eq("job"),
+            eq(7L)
+        );
+        assertThat(lease.isHeld()).isFalse();
+    }
+
+    private JobLease acquire() {
+        when(jdbcTemplate.queryForList(startsWith("INSERT INTO job_lock"), eq(Long.class), any(Object[].class))).thenReturn(List.of(7L));
+        return jobLockService.tryAcquire("job", LEASE).orElseThrow();
+    }
+}
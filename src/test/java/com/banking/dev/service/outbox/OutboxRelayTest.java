@@ -0,0 +1,142 @@
+package com.banking.dev.service.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.OutboxEvent;
+import com.banking.dev.management.OutboxMetersService;
+import com.banking.dev.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class OutboxRelayTest {
+
+    @Mock
+    OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    OutboxSink firstSink;
+
+    @Mock
+    OutboxSink secondSink;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(firstSink.getName()).thenReturn("first");
+        when(secondSink.getName()).thenReturn("second");
+        meterRegistry = new SimpleMeterRegistry();
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getOutbox().setBatchSize(2);
+        outboxRelay = new OutboxRelay(
+            outboxEventRepository,
+            List.of(firstSink, secondSink),
+            new OutboxMetersService(meterRegistry),
+            applicationProperties,
+            transactionManager
+        );
+    }
+
+    @Test
+    void testPublishNextBatch_PublishesToTheSinkAndMarksDelivered() {
+        List<OutboxEvent> batch = events(1, 2);
+        when(outboxEventRepository.findUndeliveredForUpdate("first", 2)).thenReturn(batch);
+
+        int published = outboxRelay.publishNextBatch(firstSink);
+
+        assertEquals(2, published);
+        verify(firstSink).publish(batch);
+        verify(secondSink, never()).publish(anyList());
+        verify(outboxEventRepository).markDelivered("first", List.of(1L, 2L));
+        verify(outboxEventRepository, never()).deleteByIdIn(anyCollection());
+        assertThat(meterRegistry.get(OutboxMetersService.BATCH_SIZE_METER_NAME).summary().totalAmount()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testCompleteNextBatch_DeletesEventsEverySinkAccepted() {
+        when(outboxEventRepository.findDeliveredToAll(List.of("first", "second"), 2, 2)).thenReturn(List.of(1L, 2L));
+
+        int completed = outboxRelay.completeNextBatch();
+
+        assertEquals(2, completed);
+        verify(outboxEventRepository).deleteByIdIn(List.of(1L, 2L));
+    }
+
+    @Test
+    void testCompleteNextBatch_MarksWhenNotDeleting() {
+        applicationProperties.getOutbox().setDeleteAfterPublish(false);
+        when(outboxEventRepository.findDeliveredToAll(anyCollection(), anyLong(), anyInt())).thenReturn(List.of(1L));
+
+        outboxRelay.completeNextBatch();
+
+        verify(outboxEventRepository).markPublished(Mockito.eq(List.of(1L)), any());
+        verify(outboxEventRepository, never()).deleteByIdIn(anyCollection());
+    }
+
+    @Test
+    void testRelay_FailingSinkDoesNotHoldBackTheOthers() {
+        List<OutboxEvent> batch = events(1);
+        when(outboxEventRepository.findUndeliveredForUpdate(anyString(), anyInt())).thenReturn(batch);
+        Mockito.doThrow(new IllegalStateException("down")).when(firstSink).publish(batch);
+
+        outboxRelay.relay();
+
+        verify(secondSink).publish(batch);
+        verify(outboxEventRepository, never()).markDelivered(Mockito.eq("first"), anyCollection());
+        verify(outboxEventRepository).markDelivered("second", List.of(1L));
+        verify(outboxEventRepository, never()).deleteByIdIn(anyCollection());
+        assertThat(meterRegistry.get(OutboxMetersService.FAILURES_METER_NAME).tag("sink", "first").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRelay_DrainsFullBatchesOnly() {
+        when(outboxEventRepository.findUndeliveredForUpdate(Mockito.eq("first"), anyInt())).thenReturn(
+            events(1, 2),
+            events(3, 4),
+            events(5)
+        );
+
+        outboxRelay.relay();
+
+        verify(firstSink, times(3)).publish(anyList());
+        verify(outboxEventRepository).findOldestUnpublishedCreatedDate();
+    }
+
+    private static List<OutboxEvent> events(long... ids) {
+        return LongStream.of(ids)
+            .mapToObj(id -> {
+                OutboxEvent event = new OutboxEvent(OutboxService.TRANSACTION_AGGREGATE, id, "Deposit", "{}");
+                event.setId(id);
+                return event;
+            })
+            .toList();
+    }
+}
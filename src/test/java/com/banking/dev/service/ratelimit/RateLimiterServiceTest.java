@@ -0,0 +1,195 @@
+package com.banking.dev.service.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.management.RateLimitMetersService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.Codec;
+
+public class RateLimiterServiceTest {
+
+    private static final String MONEY_MOVEMENT = "money-movement";
+
+    @Mock
+    RedissonClient redissonClient;
+
+    @Mock
+    RScript script;
+
+    @Mock
+    RateLimitMetersService rateLimitMetersService;
+
+    private ApplicationProperties applicationProperties;
+
+    private RateLimiterService rateLimiterService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.RateLimit.EndpointClass endpoint = applicationProperties
+            .getRateLimit()
+            .getEndpointClasses()
+            .get(MONEY_MOVEMENT);
+        endpoint.setCapacity(2);
+        endpoint.setRefillPerSecond(0.001);
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+        rateLimiterService = new RateLimiterService(redissonClient, rateLimitMetersService, applicationProperties);
+    }
+
+    @Test
+    void testTryAcquire_AllowedByRedis() {
+        // Mock data
+        redisAnswers(1L);
+
+        // Test
+        long wait = rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of("ROLE_USER"));
+
+        // Assertion
+        assertEquals(0, wait);
+        verify(script).eval(
+            eq(RScript.Mode.READ_WRITE),
+            anyString(),
+            eq(RScript.ReturnType.INTEGER),
+            eq(List.<Object>of(RateLimiterService.KEY_PREFIX + MONEY_MOVEMENT + ":alice")),
+            eq("2"),
+            eq("0.001"),
+            eq("2")
+        );
+        verify(rateLimitMetersService, never()).trackThrottled(anyString(), anyString());
+    }
+
+    @Test
+    void testTryAcquire_EmptyLocalBucketSkipsRedis() {
+        // Mock data
+        redisAnswers(1L);
+
+        // Test
+        rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+        rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+        long wait = rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+
+        // Assertion
+        assertTrue(wait > 0);
+        verifyRedisCalls(2);
+        verify(rateLimitMetersService).trackThrottled(MONEY_MOVEMENT, "local");
+    }
+
+    @Test
+    void testTryAcquire_DeniedByRedisBlocksLocally() {
+        // Mock data
+        redisAnswers(-1500L);
+
+        // Test
+        long first = rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+        long second = rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+
+        // Assertion
+        assertEquals(1500, first);
+        assertTrue(second > 0 && second <= 1500);
+        verifyRedisCalls(1);
+        verify(rateLimitMetersService).trackThrottled(MONEY_MOVEMENT, "redis");
+        verify(rateLimitMetersService).trackThrottled(MONEY_MOVEMENT, "local");
+    }
+
+    @Test
+    void testTryAcquire_ClientsHaveSeparateBuckets() {
+        // Mock data
+        redisAnswers(1L);
+
+        // Test
+        rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+        rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+        long wait = rateLimiterService.tryAcquire(MONEY_MOVEMENT, "bob", List.of());
+
+        // Assertion
+        assertEquals(0, wait);
+        verifyRedisCalls(3);
+    }
+
+    @Test
+    void testTryAcquire_LeasedTokensSkipRedis() {
+        // Mock data
+        redisAnswers(2L);
+
+        // Test
+        long first = rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+        long second = rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+        long third = rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+
+        // Assertion
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertTrue(third > 0);
+        verifyRedisCalls(1);
+        verify(rateLimitMetersService).trackThrottled(MONEY_MOVEMENT, "local");
+    }
+
+    @Test
+    void testTryAcquire_RedisUnavailableFailsOpen() {
+        // Mock data
+        when(script.eval(any(), anyString(), any(), anyList(), any(), any(), any())).thenThrow(new RedisConnectionException("down"));
+
+        // Test
+        long wait = rateLimiterService.tryAcquire(MONEY_MOVEMENT, "alice", List.of());
+
+        // Assertion
+        assertEquals(0, wait);
+        verify(rateLimitMetersService).trackError(MONEY_MOVEMENT);
+    }
+
+    @Test
+    void testTryAcquire_UnconfiguredEndpointClass() {
+        // Test
+        long wait = rateLimiterService.tryAcquire("reporting", "alice", List.of());
+
+        // Assertion
+        assertEquals(0, wait);
+        verify(redissonClient, never()).getScript(any(Codec.class));
+    }
+
+    @Test
+    void testResolveLimit_MostGenerousAuthority() {
+        // Mock data
+        ApplicationProperties.RateLimit.EndpointClass endpoint = new ApplicationProperties.RateLimit.EndpointClass();
+        ApplicationProperties.RateLimit.Limit admin = new ApplicationProperties.RateLimit.Limit();
+        admin.setRefillPerSecond(50);
+        ApplicationProperties.RateLimit.Limit partner = new ApplicationProperties.RateLimit.Limit();
+        partner.setRefillPerSecond(30);
+        endpoint.getAuthorities().put("ROLE_ADMIN", admin);
+        endpoint.getAuthorities().put("ROLE_PARTNER", partner);
+
+        // Test & Assertion
+        assertEquals(admin, RateLimiterService.resolveLimit(endpoint, List.of("ROLE_PARTNER", "ROLE_ADMIN")));
+        assertEquals(partner, RateLimiterService.resolveLimit(endpoint, List.of("ROLE_USER", "ROLE_PARTNER")));
+        assertEquals(endpoint, RateLimiterService.resolveLimit(endpoint, List.of("ROLE_USER")));
+    }
+
+    /**
+     * @param taken the tokens taken from the shared bucket, or minus the milliseconds to wait.
+     */
+    private void redisAnswers(Long taken) {
+        when(script.eval(any(), anyString(), any(), anyList(), any(), any(), any())).thenReturn(taken);
+    }
+
+    private void verifyRedisCalls(int count) {
+        verify(script, times(count)).eval(any(), anyString(), any(), anyList(), any(), any(), any());
+    }
+}
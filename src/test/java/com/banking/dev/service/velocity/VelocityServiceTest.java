@@ -0,0 +1,185 @@
+package com.banking.dev.service.velocity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.management.VelocityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.redisson.api.RFuture;
+import org.redisson.api.RTopic;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class VelocityServiceTest {
+
+    private static final long ACCOUNT = 42L;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    RTopic topic;
+
+    @Mock
+    RFuture<Long> published;
+
+    final MeterRegistry registry = new SimpleMeterRegistry();
+
+    final ApplicationProperties.Velocity config = new ApplicationProperties.Velocity();
+
+    final AtomicLong currentTimeMillis = new AtomicLong(Instant.parse("2026-10-19T12:00:00Z").toEpochMilli());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(topic.publishAsync(any())).thenReturn(published);
+    }
+
+    @Test
+    void testCountLimitOverTheRollingWindow() {
+        // Mock data
+        config.getWithdrawal().setMaxCount(2);
+        VelocityService velocityService = velocityService();
+
+        // Test
+        boolean first = velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN);
+        currentTimeMillis.addAndGet(Duration.ofHours(12).toMillis());
+        boolean second = velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN);
+        boolean third = velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN);
+        boolean otherKind = velocityService.tryAcquire(VelocityService.Kind.TRANSFER, ACCOUNT, BigDecimal.TEN);
+        boolean otherAccount = velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT + 1, BigDecimal.TEN);
+        currentTimeMillis.addAndGet(Duration.ofHours(14).toMillis());
+        boolean afterTheFirstLeft = velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN);
+
+        // Assertion
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(otherKind).isTrue();
+        assertThat(otherAccount).isTrue();
+        assertThat(afterTheFirstLeft).isTrue();
+        assertThat(registry.get(VelocityMetersService.REJECTED_METER_NAME).tag("kind", "withdrawal").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testAmountLimit() {
+        // Mock data
+        config.getTransfer().setMaxAmount(new BigDecimal("100.00"));
+        VelocityService velocityService = velocityService();
+
+        // Test
+        boolean first = velocityService.tryAcquire(VelocityService.Kind.TRANSFER, ACCOUNT, new BigDecimal("60.00"));
+        boolean tooMuch = velocityService.tryAcquire(VelocityService.Kind.TRANSFER, ACCOUNT, new BigDecimal("40.01"));
+        boolean upToTheLimit = velocityService.tryAcquire(VelocityService.Kind.TRANSFER, ACCOUNT, new BigDecimal("40.00"));
+
+        // Assertion
+        assertThat(first).isTrue();
+        assertThat(tooMuch).isFalse();
+        assertThat(upToTheLimit).isTrue();
+    }
+
+    @Test
+    void testRolledBackMovementIsUncounted() {
+        // Mock data
+        config.getWithdrawal().setMaxCount(1);
+        VelocityService velocityService = velocityService();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Test
+            boolean first = velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN);
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+            boolean again = velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN);
+
+            // Assertion
+            assertThat(first).isTrue();
+            assertThat(again).isTrue();
+            verify(topic, times(1)).publishAsync(any());
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+    }
+
+    @Test
+    void testMovementsOfOtherInstancesAreCounted() {
+        // Mock data
+        config.getWithdrawal().setMaxCount(2);
+        VelocityService other = velocityService();
+        VelocityService velocityService = velocityService();
+        other.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN);
+        ArgumentCaptor<VelocityService.Movement> movement = ArgumentCaptor.forClass(VelocityService.Movement.class);
+        verify(topic).publishAsync(movement.capture());
+
+        // Test
+        velocityService.receive(movement.getValue());
+        boolean second = velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN);
+        boolean third = velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN);
+
+        // Assertion
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+    }
+
+    @Test
+    void testRebuildFromTheTransactionTable() throws Exception {
+        // Mock data
+        config.getWithdrawal().setMaxAmount(new BigDecimal("100.00"));
+        VelocityService velocityService = velocityService();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(ACCOUNT);
+        when(rs.getString(2)).thenReturn("Withdrawal");
+        when(rs.getBigDecimal(3)).thenReturn(new BigDecimal("-90.00"));
+        when(rs.getTimestamp(4)).thenReturn(new Timestamp(currentTimeMillis.get() - Duration.ofHours(3).toMillis()));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        })
+            .when(jdbcTemplate)
+            .query(anyString(), any(RowCallbackHandler.class), any(), any(), any());
+
+        // Test
+        velocityService.rebuild();
+
+        // Assertion
+        assertThat(velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, new BigDecimal("20.00"))).isFalse();
+        assertThat(velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, new BigDecimal("10.00"))).isTrue();
+    }
+
+    @Test
+    void testNoRuleNoTracking() {
+        // Mock data
+        VelocityService velocityService = velocityService();
+
+        // Test
+        for (int i = 0; i < 100; i++) {
+            assertThat(velocityService.tryAcquire(VelocityService.Kind.WITHDRAWAL, ACCOUNT, BigDecimal.TEN)).isTrue();
+        }
+
+        // Assertion
+        verify(topic, never()).publishAsync(any());
+    }
+
+    private VelocityService velocityService() {
+        return new VelocityService(jdbcTemplate, topic, new VelocityMetersService(registry), config, currentTimeMillis::get);
+    }
+}
@@ -0,0 +1,157 @@
+package com.banking.dev.service.warmup;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.banking.dev.config.ApplicationProperties;
+import com.banking.dev.domain.Account;
+import com.banking.dev.management.WarmUpMetersService;
+import com.banking.dev.repository.AccountRepository;
+import com.banking.dev.repository.BankRepository;
+import com.banking.dev.repository.TransactionRepository;
+import com.banking.dev.service.AuthorityRegistry;
+import com.banking.dev.service.etag.TableChangeCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class WarmUpRunnerTest {
+
+    @Mock
+    private ObjectProvider<HikariDataSource> hikariDataSources;
+
+    @Mock
+    private ObjectProvider<ConnectionPool> reactiveConnectionPools;
+
+    @Mock
+    private BankRepository bankRepository;
+
+    @Mock
+    private AuthorityRegistry authorityRegistry;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TableChangeCounter tableChangeCounter;
+
+    @Mock
+    private WarmUpMetersService warmUpMetersService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationProperties applicationProperties;
+
+    private WarmUpRunner warmUpRunner;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getWarmUp().setIterations(100);
+        when(hikariDataSources.orderedStream()).thenReturn(Stream.empty());
+        warmUpRunner = new WarmUpRunner(
+            applicationProperties,
+            hikariDataSources,
+            reactiveConnectionPools,
+            bankRepository,
+            authorityRegistry,
+            accountRepository,
+            transactionRepository,
+            tableChangeCounter,
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            warmUpMetersService,
+            transactionManager
+        );
+    }
+
+    @Test
+    void testRun_Disabled() {
+        // Mock data
+        applicationProperties.getWarmUp().setEnabled(false);
+
+        // Test
+        warmUpRunner.run(null);
+
+        // Assertion
+        verifyNoInteractions(hikariDataSources, bankRepository, accountRepository, transactionRepository, warmUpMetersService);
+    }
+
+    @Test
+    void testRun_LoadsMostActiveAccounts() {
+        // Mock data
+        Account account = new Account();
+        account.setAccountId(7L);
+        account.setBalance(new BigDecimal("100.00"));
+        when(transactionRepository.findMostActiveAccountIds(any(Instant.class), any(Pageable.class))).thenReturn(List.of(7L, 8L));
+        when(accountRepository.findById(7L)).thenReturn(Optional.of(account));
+        when(accountRepository.findById(8L)).thenReturn(Optional.empty());
+
+        // Test
+        warmUpRunner.run(null);
+
+        // Assertion
+        verify(bankRepository).findAll();
+        verify(authorityRegistry).findAll();
+        verify(accountRepository).findById(7L);
+        verify(accountRepository).findById(8L);
+        verify(tableChangeCounter).current(TableChangeCounter.BANK);
+        verify(tableChangeCounter).current(TableChangeCounter.ACCOUNT);
+        verify(warmUpMetersService).trackStep(eq(WarmUpRunner.POOLS), eq("success"), any(Duration.class));
+        verify(warmUpMetersService).trackStep(eq(WarmUpRunner.DATA), eq("success"), any(Duration.class));
+        verify(warmUpMetersService).trackStep(eq(WarmUpRunner.JIT), eq("success"), any(Duration.class));
+        verify(warmUpMetersService).trackStep(eq(WarmUpRunner.TOTAL), eq("success"), any(Duration.class));
+    }
+
+    @Test
+    void testRun_FailingStepDoesNotStopWarmUp() {
+        // Mock data
+        when(bankRepository.findAll()).thenThrow(new IllegalStateException("database down"));
+
+        // Test
+        warmUpRunner.run(null);
+
+        // Assertion
+        verify(warmUpMetersService).trackStep(eq(WarmUpRunner.DATA), eq("failure"), any(Duration.class));
+        verify(warmUpMetersService).trackStep(eq(WarmUpRunner.JIT), eq("success"), any(Duration.class));
+        verify(accountRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testRun_TimedOutStepsAreSkipped() {
+        // Mock data
+        applicationProperties.getWarmUp().setTimeoutSeconds(0);
+
+        // Test
+        warmUpRunner.run(null);
+
+        // Assertion
+        verify(warmUpMetersService).trackStep(WarmUpRunner.POOLS, "skipped", Duration.ZERO);
+        verify(warmUpMetersService).trackStep(WarmUpRunner.DATA, "skipped", Duration.ZERO);
+        verify(warmUpMetersService).trackStep(WarmUpRunner.JIT, "skipped", Duration.ZERO);
+        verifyNoInteractions(bankRepository);
+    }
+}
@@ -0,0 +1,101 @@
+package com.banking.dev.web.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.banking.dev.service.ratelimit.RateLimiterService;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+
+public class RateLimitInterceptorTest {
+
+    @Mock
+    RateLimiterService rateLimiterService;
+
+    @InjectMocks
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken("alice", "token", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testPreHandle_Allowed() throws Exception {
+        // Mock data
+        when(rateLimiterService.tryAcquire("money-movement", "alice", List.of("ROLE_USER"))).thenReturn(0L);
+
+        // Test
+        boolean proceed = rateLimitInterceptor.preHandle(request, response, handler("transfer"));
+
+        // Assertion
+        assertTrue(proceed);
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    @Test
+    void testPreHandle_Throttled() throws Exception {
+        // Mock data
+        when(rateLimiterService.tryAcquire("money-movement", "alice", List.of("ROLE_USER"))).thenReturn(1200L);
+
+        // Test
+        boolean proceed = rateLimitInterceptor.preHandle(request, response, handler("transfer"));
+
+        // Assertion
+        assertFalse(proceed);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testPreHandle_NotAnnotated() throws Exception {
+        // Test
+        boolean proceed = rateLimitInterceptor.preHandle(request, response, handler("balance"));
+
+        // Assertion
+        assertTrue(proceed);
+        verify(rateLimiterService, never()).tryAcquire(anyString(), anyString(), anyCollection());
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new SampleController(), SampleController.class.getMethod(method));
+    }
+
+    public static class SampleController {
+
+        @RateLimited("money-movement")
+        public void transfer() {}
+
+        public void balance() {}
+    }
+}
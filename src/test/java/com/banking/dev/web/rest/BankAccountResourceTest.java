@@ -5,7 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 import com.banking.dev.domain.Account;
+import com.banking.dev.service.AccountImportService;
 import com.banking.dev.service.AccountService;
+import com.banking.dev.service.dto.AccountImportReportDTO;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.List;
@@ -23,6 +27,9 @@ public class BankAccountResourceTest {
     @Mock
     private AccountService accountService;
 
+    @Mock
+    private AccountImportService accountImportService;
+
     @InjectMocks
     private BankAccountResource bankAccountResource;
 
@@ -40,7 +47,7 @@ public class BankAccountResourceTest {
         when(accountService.findOne(accountId)).thenReturn(Optional.of(account));
 
         // When
-        ResponseEntity<Account> responseEntity = bankAccountResource.getAccount(accountId);
+        ResponseEntity<Account> responseEntity = bankAccountResource.getAccount(accountId, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
@@ -54,7 +61,36 @@ public class BankAccountResourceTest {
         when(accountService.findOne(accountId)).thenReturn(Optional.empty());
 
         // When
-        ResponseEntity<Account> responseEntity = bankAccountResource.getAccount(accountId);
+        ResponseEntity<Account> responseEntity = bankAccountResource.getAccount(accountId, null, null);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testGetAccount_NotModified() {
+        // Given
+        Long accountId = 1L;
+        when(accountService.findVersion(accountId)).thenReturn(Optional.of(12L));
+
+        // When
+        ResponseEntity<Account> responseEntity = bankAccountResource.getAccount(accountId, "\"account-1-12\"", null);
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertEquals("\"account-1-12\"", responseEntity.getHeaders().getETag());
+        verify(accountService, never()).findOne(accountId);
+    }
+
+    @Test
+    void testGetAccount_DeletedSinceTagged() {
+        // Given
+        Long accountId = 1L;
+        when(accountService.findVersion(accountId)).thenReturn(Optional.empty());
+        when(accountService.findOne(accountId)).thenReturn(Optional.empty());
+
+        // When
+        ResponseEntity<Account> responseEntity = bankAccountResource.getAccount(accountId, "\"account-1-12\"", null);
 
         // Then
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
@@ -117,4 +153,20 @@ public class BankAccountResourceTest {
         assertEquals(HttpStatus.NO_CONTENT, responseEntity.getStatusCode());
         verify(accountService, times(1)).delete(accountId);
     }
+
+    @Test
+    void testImportAccounts() {
+        // Given
+        InputStream csv = new ByteArrayInputStream("user_name,balance,bank_id\nalice,10.00,1\n".getBytes());
+        AccountImportReportDTO report = new AccountImportReportDTO();
+        report.setImportedRows(1);
+        when(accountImportService.importAccounts(csv)).thenReturn(report);
+
+        // When
+        ResponseEntity<AccountImportReportDTO> responseEntity = bankAccountResource.importAccounts(csv);
+
+        // Then
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(1, responseEntity.getBody().getImportedRows());
+    }
 }
@@ -11,11 +11,13 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -39,7 +41,7 @@ public class BankResourceTest {
         when(bankService.getAllAccounts()).thenReturn(accounts);
 
         // Test
-        ResponseEntity<List<Account>> responseEntity = bankResource.getAllBankAccounts();
+        ResponseEntity<List<Account>> responseEntity = bankResource.getAllBankAccounts(null, null);
 
         // Assertion
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
@@ -82,7 +84,7 @@ public class BankResourceTest {
         when(bankService.findOne(id)).thenReturn(Optional.of(bank));
 
         // Test
-        ResponseEntity<Bank> responseEntity = bankResource.getBank(id);
+        ResponseEntity<Bank> responseEntity = bankResource.getBank(id, null, null);
 
         // Assertion
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
@@ -96,13 +98,104 @@ public class BankResourceTest {
         when(bankService.findAll()).thenReturn(banks);
 
         // Test
-        ResponseEntity<List<Bank>> responseEntity = bankResource.getAllBanks();
+        ResponseEntity<List<Bank>> responseEntity = bankResource.getAllBanks(null, null);
 
         // Assertion
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(banks, responseEntity.getBody());
     }
 
+    @Test
+    void testGetAllBanks_WithETag() {
+        // Mock data
+        List<Bank> banks = new ArrayList<>();
+        when(bankService.findAllVersion()).thenReturn(OptionalLong.of(42L));
+        when(bankService.findAll()).thenReturn(banks);
+
+        // Test
+        ResponseEntity<List<Bank>> responseEntity = bankResource.getAllBanks("\"banks-41\"", null);
+
+        // Assertion
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"banks-42\"", responseEntity.getHeaders().getETag());
+        assertEquals(banks, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetAllBanks_NotModified() {
+        // Mock data
+        when(bankService.findAllVersion()).thenReturn(OptionalLong.of(42L));
+
+        // Test
+        ResponseEntity<List<Bank>> responseEntity = bankResource.getAllBanks("\"banks-40\", \"banks-42\"", null);
+
+        // Assertion
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertEquals("\"banks-42\"", responseEntity.getHeaders().getETag());
+        verify(bankService, never()).findAll();
+    }
+
+    @Test
+    void testGetAllBanks_SmileHasItsOwnETag() {
+        // Mock data
+        List<Bank> banks = new ArrayList<>();
+        when(bankService.findAllVersion()).thenReturn(OptionalLong.of(42L));
+        when(bankService.findAll()).thenReturn(banks);
+
+        // Test
+        ResponseEntity<List<Bank>> responseEntity = bankResource.getAllBanks("\"banks-42\"", "application/x-jackson-smile");
+
+        // Assertion
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("\"banks-42-smile\"", responseEntity.getHeaders().getETag());
+        assertEquals(List.of("Accept"), responseEntity.getHeaders().getVary());
+    }
+
+    @Test
+    void testGetAllBankAccounts_NotModified() {
+        // Mock data
+        when(bankService.getAllAccountsVersion()).thenReturn(OptionalLong.of(7L));
+
+        // Test
+        ResponseEntity<List<Account>> responseEntity = bankResource.getAllBankAccounts("W/\"accounts-7\"", null);
+
+        // Assertion
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        verify(bankService, never()).getAllAccounts();
+    }
+
+    @Test
+    void testGetBank_NotModified() {
+        // Mock data
+        Long id = 1L;
+        when(bankService.findVersion(id)).thenReturn(Optional.of(3L));
+
+        // Test
+        ResponseEntity<Bank> responseEntity = bankResource.getBank(id, "\"bank-1-3\"", null);
+
+        // Assertion
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertEquals(null, responseEntity.getBody());
+        verify(bankService, never()).findOne(id);
+    }
+
+    @Test
+    void testGetBank_Modified() {
+        // Mock data
+        Long id = 1L;
+        Bank bank = new Bank();
+        when(bankService.findVersion(id)).thenReturn(Optional.of(4L));
+        when(bankService.findOne(id)).thenReturn(Optional.of(bank));
+
+        // Test
+        ResponseEntity<Bank> responseEntity = bankResource.getBank(id, "\"bank-1-3\"", null);
+
+        // Assertion
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(bank, responseEntity.getBody());
+        assertEquals("no-cache, private", responseEntity.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL));
+    }
+
     @Test
     void testCreateBank() throws URISyntaxException {
         // Mock data
@@ -1,5 +1,6 @@
 package com.banking.dev.web.rest;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -71,6 +72,26 @@ class PublicUserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").doesNotExist());
     }
 
+    @Test
+    @Transactional
+    void getAllPublicUsersWithoutCount() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        restUserMockMvc
+            .perform(get("/api/users?sort=id,desc&count=none").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string("Link", containsString("rel=\"first\"")));
+        restUserMockMvc
+            .perform(get("/api/users?sort=id,desc&count=estimate").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().string("X-Total-Count-Estimated", "true"));
+        restUserMockMvc.perform(get("/api/users?count=approximate").accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getAllUsersSortedByParameters() throws Exception {
@@ -0,0 +1,73 @@
+package com.banking.dev.web.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.banking.dev.service.dto.AccountBalanceDTO;
+import com.banking.dev.service.dto.BankDetailsDTO;
+import com.banking.dev.service.reactive.ReactiveAccountQueryService;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+class ReactiveAccountResourceTest {
+
+    @Mock
+    private ReactiveAccountQueryService reactiveAccountQueryService;
+
+    @InjectMocks
+    private ReactiveAccountResource reactiveAccountResource;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetAccountBalance() {
+        // Mock data
+        AccountBalanceDTO balance = new AccountBalanceDTO(1L, new BigDecimal("125.50"), 2L);
+        when(reactiveAccountQueryService.findAccountBalance(1L)).thenReturn(Mono.just(balance));
+
+        // Test
+        ResponseEntity<AccountBalanceDTO> responseEntity = reactiveAccountResource.getAccountBalance(1L).block();
+
+        // Assertion
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(balance, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetAccountBalance_NotFound() {
+        // Mock data
+        when(reactiveAccountQueryService.findAccountBalance(1L)).thenReturn(Mono.empty());
+
+        // Test
+        ResponseEntity<AccountBalanceDTO> responseEntity = reactiveAccountResource.getAccountBalance(1L).block();
+
+        // Assertion
+        assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+    }
+
+    @Test
+    void testGetBankDetails() {
+        // Mock data
+        BankDetailsDTO bank = new BankDetailsDTO();
+        bank.setBankId(2L);
+        bank.setAccountCount(3);
+        when(reactiveAccountQueryService.findBankDetails(2L)).thenReturn(Mono.just(bank));
+
+        // Test
+        ResponseEntity<BankDetailsDTO> responseEntity = reactiveAccountResource.getBankDetails(2L).block();
+
+        // Assertion
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(bank, responseEntity.getBody());
+    }
+}
@@ -0,0 +1,46 @@
+package com.banking.dev.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+class SlicePaginationTest {
+
+    @Test
+    void testMiddleSliceLinksBothWaysWithoutTotal() {
+        // Test
+        HttpHeaders headers = SlicePagination.headers(
+            UriComponentsBuilder.fromUriString("http://localhost/api/users?sort=id,desc&count=none"),
+            new SliceImpl<>(List.of("b"), PageRequest.of(1, 1), true),
+            null
+        );
+
+        // Assertion
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo(
+            "<http://localhost/api/users?sort=id%2Cdesc&count=none&page=2&size=1>; rel=\"next\"," +
+            "<http://localhost/api/users?sort=id%2Cdesc&count=none&page=0&size=1>; rel=\"prev\"," +
+            "<http://localhost/api/users?sort=id%2Cdesc&count=none&page=0&size=1>; rel=\"first\""
+        );
+        assertThat(headers.containsKey("X-Total-Count")).isFalse();
+    }
+
+    @Test
+    void testLastSliceWithEstimatedTotal() {
+        // Test
+        HttpHeaders headers = SlicePagination.headers(
+            UriComponentsBuilder.fromUriString("http://localhost/api/users?count=estimate"),
+            new SliceImpl<>(List.of("a"), PageRequest.of(0, 20), false),
+            1234L
+        );
+
+        // Assertion
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo("<http://localhost/api/users?count=estimate&page=0&size=20>; rel=\"first\"");
+        assertThat(headers.getFirst("X-Total-Count")).isEqualTo("1234");
+        assertThat(headers.getFirst("X-Total-Count-Estimated")).isEqualTo("true");
+    }
+}
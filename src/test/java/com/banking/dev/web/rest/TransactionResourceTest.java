@@ -2,15 +2,24 @@ package com.banking.dev.web.rest;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.banking.dev.domain.Transaction;
+import com.banking.dev.service.MovementPendingException;
 import com.banking.dev.service.TransactionService;
+import com.banking.dev.service.groupcommit.GroupCommitService;
+import com.banking.dev.service.ledger.LedgerEngine;
 import com.banking.dev.web.rest.vm.DepositRequest;
 import com.banking.dev.web.rest.vm.TransferRequest;
 import com.banking.dev.web.rest.vm.WithdrawalRequest;
+import java.math.BigDecimal;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -21,12 +30,19 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 
 public class TransactionResourceTest {
 
     @Mock
     TransactionService transactionService;
 
+    @Mock
+    LedgerEngine ledgerEngine;
+
+    @Mock
+    GroupCommitService groupCommitService;
+
     @InjectMocks
     TransactionResource transactionResource;
 
@@ -39,10 +55,10 @@ public class TransactionResourceTest {
     void createWithdrawalTransactionTest() throws URISyntaxException {
         // Mock data
         WithdrawalRequest withdrawalRequest = new WithdrawalRequest();
-        when(transactionService.processWithdrawal(withdrawalRequest)).thenReturn(new Transaction());
+        when(transactionService.processWithdrawal(withdrawalRequest, null)).thenReturn(new Transaction());
 
         // Test
-        ResponseEntity<Transaction> response = transactionResource.createWithdrawalTransaction(withdrawalRequest);
+        ResponseEntity<Transaction> response = transactionResource.createWithdrawalTransaction(withdrawalRequest, null);
 
         // Assertion
         assertNotNull(response);
@@ -53,10 +69,10 @@ public class TransactionResourceTest {
     void createDepositTransactionTest() throws URISyntaxException {
         // Mock data
         DepositRequest depositRequest = new DepositRequest();
-        when(transactionService.processDeposit(depositRequest)).thenReturn(new Transaction());
+        when(transactionService.processDeposit(depositRequest, null)).thenReturn(new Transaction());
 
         // Test
-        ResponseEntity<Transaction> response = transactionResource.createDepositTransaction(depositRequest);
+        ResponseEntity<Transaction> response = transactionResource.createDepositTransaction(depositRequest, null);
 
         // Assertion
         assertNotNull(response);
@@ -67,16 +83,68 @@ public class TransactionResourceTest {
     void createTransferTransactionTest() throws URISyntaxException {
         // Mock data
         TransferRequest transferRequest = new TransferRequest();
-        when(transactionService.processTransfer(transferRequest)).thenReturn(new Transaction());
+        when(transactionService.processTransfer(transferRequest, null)).thenReturn(new Transaction());
 
         // Test
-        ResponseEntity<Transaction> response = transactionResource.createTransferTransaction(transferRequest);
+        ResponseEntity<Transaction> response = transactionResource.createTransferTransaction(transferRequest, null);
 
         // Assertion
         assertNotNull(response);
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
     }
 
+    @Test
+    void createTransferTransactionThroughTheLedgerEngineTest() throws URISyntaxException {
+        // Mock data
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setSourceAccountId(1L);
+        transferRequest.setDestinationAccountId(2L);
+        transferRequest.setAmount(BigDecimal.TEN);
+        when(ledgerEngine.isEnabled()).thenReturn(true);
+        when(ledgerEngine.transfer(1L, 2L, BigDecimal.TEN, null)).thenReturn(new Transaction());
+
+        // Test
+        ResponseEntity<Transaction> response = transactionResource.createTransferTransaction(transferRequest, null);
+
+        // Assertion
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        verify(transactionService, never()).processTransfer(transferRequest, null);
+    }
+
+    @Test
+    void createDepositTransactionStillPendingTest() throws URISyntaxException {
+        // Mock data
+        DepositRequest depositRequest = new DepositRequest();
+        depositRequest.setAccountId(1L);
+        depositRequest.setAmount(BigDecimal.TEN);
+        when(ledgerEngine.isEnabled()).thenReturn(true);
+        when(ledgerEngine.deposit(1L, BigDecimal.TEN, null)).thenThrow(new MovementPendingException(42L));
+
+        // Test
+        ResponseEntity<Transaction> response = transactionResource.createDepositTransaction(depositRequest, null);
+
+        // Assertion
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(new URI("/api/transactions/42"), response.getHeaders().getLocation());
+    }
+
+    @Test
+    void createWithdrawalTransactionThroughGroupCommitTest() throws URISyntaxException {
+        // Mock data
+        WithdrawalRequest withdrawalRequest = new WithdrawalRequest();
+        withdrawalRequest.setAccountId(1L);
+        withdrawalRequest.setAmount(BigDecimal.TEN);
+        when(groupCommitService.isEnabled()).thenReturn(true);
+        when(groupCommitService.withdraw(1L, BigDecimal.TEN, null)).thenReturn(new Transaction());
+
+        // Test
+        ResponseEntity<Transaction> response = transactionResource.createWithdrawalTransaction(withdrawalRequest, null);
+
+        // Assertion
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        verify(transactionService, never()).processWithdrawal(withdrawalRequest, null);
+    }
+
     @Test
     void getTransactionTest() {
         // Mock data
@@ -102,7 +170,7 @@ public class TransactionResourceTest {
         when(transactionService.findAll()).thenReturn(transactions);
 
         // Test
-        ResponseEntity<List<Transaction>> response = transactionResource.getAllTransactions();
+        ResponseEntity<List<Transaction>> response = transactionResource.getAllTransactions(null, null, null);
 
         // Assertion
         assertNotNull(response);
@@ -110,6 +178,51 @@ public class TransactionResourceTest {
         assertEquals(transactions, response.getBody());
     }
 
+    @Test
+    void getAllTransactionsCreatedBetweenTest() {
+        // Mock data
+        Instant from = Instant.parse("2026-09-01T00:00:00Z");
+        Instant to = Instant.parse("2026-10-01T00:00:00Z");
+        List<Transaction> transactions = List.of(new Transaction());
+        when(transactionService.findAllCreatedBetween(from, to)).thenReturn(transactions);
+
+        // Test
+        ResponseEntity<List<Transaction>> response = transactionResource.getAllTransactions(from, to, null);
+
+        // Assertion
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(transactions, response.getBody());
+        verify(transactionService, never()).findAll();
+    }
+
+    @Test
+    void getAllTransactionsOfAccountTest() {
+        // Mock data
+        Instant from = Instant.parse("2025-09-01T00:00:00Z");
+        Instant to = Instant.parse("2026-10-01T00:00:00Z");
+        List<Transaction> transactions = List.of(new Transaction());
+        when(transactionService.findAllByAccountCreatedBetween(7L, from, to)).thenReturn(transactions);
+
+        // Test
+        ResponseEntity<List<Transaction>> response = transactionResource.getAllTransactions(from, to, 7L);
+
+        // Assertion
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(transactions, response.getBody());
+    }
+
+    @Test
+    void getAllTransactionsWithSingleBoundTest() {
+        // Test
+        ResponseStatusException exception = assertThrows(
+            ResponseStatusException.class,
+            () -> transactionResource.getAllTransactions(Instant.now(), null, null)
+        );
+
+        // Assertion
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
     @Test
     void createTransactionTest() throws URISyntaxException {
         // Mock data
@@ -249,6 +249,21 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithEstimatedCount() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        // Get all the users
+        restUserMockMvc
+            .perform(get("/api/admin/users?sort=id,desc&count=estimate").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().string("X-Total-Count-Estimated", "true"));
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {